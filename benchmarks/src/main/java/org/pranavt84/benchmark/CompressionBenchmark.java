@@ -0,0 +1,49 @@
+package org.pranavt84.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pranavt84.compress.CompressedEnvelope;
+import org.pranavt84.encode.EncodeInt32;
+import org.pranavt84.encode.EncodeString;
+import org.pranavt84.encoder.DataInputEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compressed envelope cost on encoded payloads. Generated strings cycle through the alphabet,
+ * so they compress well; the ratio is printed once at setup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"FLAT", "NESTED"})
+    public Payloads.Shape shape;
+
+    @Param({"1000", "1000000"})
+    public int stringLength;
+
+    private byte[] plain;
+    private byte[] compressed;
+
+    @Setup
+    public void setup() {
+        DataInputEncoder encoder = new DataInputEncoder(new EncodeString(), new EncodeInt32());
+        plain = encoder.encode(Payloads.dataInput(shape, Payloads.Text.ASCII, stringLength));
+        compressed = CompressedEnvelope.compress(plain, 0, plain.length, 1.0);
+        System.out.printf("%n%s/%d: %d -> %d bytes%n", shape, stringLength, plain.length, compressed.length);
+    }
+
+    @Benchmark
+    public byte[] compress() {
+        return CompressedEnvelope.compress(plain, 0, plain.length, 1.0);
+    }
+
+    @Benchmark
+    public byte[] decompress() {
+        return CompressedEnvelope.unwrap(compressed);
+    }
+}
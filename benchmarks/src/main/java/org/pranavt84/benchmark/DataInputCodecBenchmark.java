@@ -0,0 +1,53 @@
+package org.pranavt84.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.encode.EncodeInt32;
+import org.pranavt84.encode.EncodeString;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.model.DataInput;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-tree encode and decode.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataInputCodecBenchmark {
+
+    @Param({"FLAT", "NESTED"})
+    public Payloads.Shape shape;
+
+    @Param({"ASCII", "MULTIBYTE"})
+    public Payloads.Text text;
+
+    @Param({"16", "1000000"})
+    public int stringLength;
+
+    private final DataInputEncoder encoder = new DataInputEncoder(new EncodeString(), new EncodeInt32());
+    private final DataInputDecoder decoder = new DataInputDecoder();
+
+    private DataInput input;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        input = Payloads.dataInput(shape, text, stringLength);
+        encoded = encoder.encode(input);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return encoder.encode(input);
+    }
+
+    @Benchmark
+    public DataInput decode() {
+        return decoder.decode(encoded);
+    }
+}
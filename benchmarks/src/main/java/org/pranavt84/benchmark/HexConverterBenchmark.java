@@ -0,0 +1,72 @@
+package org.pranavt84.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pranavt84.encode.EncodeInt32;
+import org.pranavt84.encode.EncodeString;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.service.Base64Converter;
+import org.pranavt84.service.HexConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hex and Base64 transport conversion of encoded payloads.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HexConverterBenchmark {
+
+    @Param({"FLAT", "NESTED"})
+    public Payloads.Shape shape;
+
+    @Param({"16", "1000000"})
+    public int stringLength;
+
+    private byte[] bytes;
+    private String hex;
+    private String base64;
+    private ByteSink sink;
+
+    @Setup
+    public void setup() {
+        DataInputEncoder encoder = new DataInputEncoder(new EncodeString(), new EncodeInt32());
+        bytes = encoder.encode(Payloads.dataInput(shape, Payloads.Text.ASCII, stringLength));
+        hex = HexConverter.bytesToHex(bytes);
+        base64 = Base64Converter.encode(bytes);
+        sink = new ByteSink(bytes.length * 2);
+    }
+
+    @Benchmark
+    public String bytesToHex() {
+        return HexConverter.bytesToHex(bytes);
+    }
+
+    @Benchmark
+    public byte[] hexToBytes() {
+        return HexConverter.hexToBytes(hex);
+    }
+
+    @Benchmark
+    public ByteSink writeHexToSink() {
+        sink.reset();
+        HexConverter.writeHex(bytes, 0, bytes.length, sink);
+        return sink;
+    }
+
+    @Benchmark
+    public ByteSink base64ToSink() {
+        sink.reset();
+        Base64Converter.encode(bytes, 0, bytes.length, sink);
+        return sink;
+    }
+
+    @Benchmark
+    public byte[] base64Decode() {
+        return Base64Converter.decode(base64);
+    }
+}
@@ -0,0 +1,47 @@
+package org.pranavt84.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pranavt84.controller.JsonConverter;
+import org.pranavt84.model.DataInput;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The REST layer's JSON parsing and serialization.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBenchmark {
+
+    @Param({"FLAT", "NESTED"})
+    public Payloads.Shape shape;
+
+    @Param({"ASCII", "MULTIBYTE"})
+    public Payloads.Text text;
+
+    @Param({"16", "1000000"})
+    public int stringLength;
+
+    private DataInput input;
+    private String json;
+
+    @Setup
+    public void setup() {
+        input = Payloads.dataInput(shape, text, stringLength);
+        json = JsonConverter.dataInputToJson(input);
+    }
+
+    @Benchmark
+    public DataInput parse() {
+        return JsonConverter.parseJsonInput(json);
+    }
+
+    @Benchmark
+    public String serialize() {
+        return JsonConverter.dataInputToJson(input);
+    }
+}
@@ -0,0 +1,50 @@
+package org.pranavt84.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.type.CodecRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential against fork/join decoding of a tree of sibling subtrees sent as an indexed array;
+ * {@code parallelMinSize} of -1 is the sequential decoder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelDecodingBenchmark {
+
+    @Param({"ASCII", "MULTIBYTE"})
+    public Payloads.Text text;
+
+    @Param({"1000", "100000"})
+    public int stringLength;
+
+    @Param({"-1", "65536"})
+    public int parallelMinSize;
+
+    private DataInputDecoder decoder;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        DataInput input = Payloads.dataInput(Payloads.Shape.WIDE, text, stringLength);
+        encoded = new DataInputEncoder(CodecRegistry.getDefault(), new EncoderConfig().setIndexMinSize(65536))
+                .encode(input);
+        decoder = new DataInputDecoder(CodecRegistry.getDefault(),
+                new DecoderConfig().setParallelMinSize(parallelMinSize));
+    }
+
+    @Benchmark
+    public DataInput decode() {
+        return decoder.decode(encoded);
+    }
+}
@@ -0,0 +1,46 @@
+package org.pranavt84.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.type.CodecRegistry;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential against fork/join encoding of a tree of sibling subtrees; {@code parallelMinSize}
+ * of -1 is the sequential encoder.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelEncodingBenchmark {
+
+    @Param({"ASCII", "MULTIBYTE"})
+    public Payloads.Text text;
+
+    @Param({"1000", "100000"})
+    public int stringLength;
+
+    @Param({"-1", "65536"})
+    public int parallelMinSize;
+
+    private DataInputEncoder encoder;
+    private DataInput input;
+
+    @Setup
+    public void setup() {
+        encoder = new DataInputEncoder(CodecRegistry.getDefault(),
+                new EncoderConfig().setParallelMinSize(parallelMinSize));
+        input = Payloads.dataInput(Payloads.Shape.WIDE, text, stringLength);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return encoder.encode(input);
+    }
+}
@@ -0,0 +1,108 @@
+package org.pranavt84.benchmark;
+
+import org.pranavt84.model.DataInput;
+
+/**
+ * Deterministic payload generators shared by the benchmarks.
+ */
+public final class Payloads {
+
+    /** Layout of the generated tree. */
+    public enum Shape {
+        /** One array of 64 elements: 4 strings, 60 ints. */
+        FLAT,
+        /** 16 levels deep, 3 ints per level, 4 strings in the innermost array. */
+        NESTED,
+        /** 64 sibling rows of 4 strings and 4 ints each. */
+        WIDE
+    }
+
+    /** Characters used for string content. */
+    public enum Text {
+        ASCII,
+        /** Mix of 2, 3 and 4 byte UTF-8 sequences. */
+        MULTIBYTE
+    }
+
+    private static final String MULTIBYTE_ALPHABET = "é漢字🌟ßж";
+
+    private Payloads() {
+        throw new AssertionError("Payloads should not be instantiated.");
+    }
+
+    public static DataInput dataInput(Shape shape, Text text, int stringLength) {
+        switch (shape) {
+            case FLAT:
+                return flat(text, stringLength);
+            case NESTED:
+                return nested(text, stringLength, 16);
+            case WIDE:
+                return wide(text, stringLength);
+            default:
+                throw new IllegalArgumentException("Unknown shape: " + shape);
+        }
+    }
+
+    /** A string of exactly {@code length} chars (UTF-16 units). */
+    public static String string(Text text, int length, int seed) {
+        StringBuilder sb = new StringBuilder(length);
+        if (text == Text.ASCII) {
+            for (int i = 0; sb.length() < length; i++) {
+                sb.append((char) ('a' + (i + seed) % 26));
+            }
+        } else {
+            for (int i = 0; sb.length() < length; i++) {
+                int cp = MULTIBYTE_ALPHABET.codePointAt(
+                        MULTIBYTE_ALPHABET.offsetByCodePoints(0, (i + seed) % MULTIBYTE_ALPHABET.codePointCount(0, MULTIBYTE_ALPHABET.length())));
+                if (sb.length() + Character.charCount(cp) > length) {
+                    cp = 'a';
+                }
+                sb.appendCodePoint(cp);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static DataInput flat(Text text, int stringLength) {
+        DataInput root = new DataInput();
+        for (int i = 0; i < 64; i++) {
+            if (i % 16 == 0) {
+                root.add(string(text, stringLength, i));
+            } else {
+                root.add(i * 7919 - 250_000);
+            }
+        }
+        return root;
+    }
+
+    private static DataInput nested(Text text, int stringLength, int depth) {
+        DataInput leaf = new DataInput();
+        for (int i = 0; i < 4; i++) {
+            leaf.add(string(text, stringLength, i));
+        }
+
+        DataInput current = leaf;
+        for (int level = 1; level < depth; level++) {
+            DataInput parent = new DataInput();
+            parent.add(level);
+            parent.add(current);
+            parent.add(-level * 31);
+            parent.add(Integer.MAX_VALUE - level);
+            current = parent;
+        }
+        return current;
+    }
+
+    private static DataInput wide(Text text, int stringLength) {
+        DataInput root = new DataInput();
+        for (int row = 0; row < 64; row++) {
+            DataInput fields = new DataInput();
+            for (int i = 0; i < 4; i++) {
+                fields.add(string(text, stringLength, row + i));
+                fields.add(row * 7919 - i);
+            }
+            root.add(fields);
+        }
+        return root;
+    }
+}
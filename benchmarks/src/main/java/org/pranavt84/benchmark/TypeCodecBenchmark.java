@@ -0,0 +1,66 @@
+package org.pranavt84.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.pranavt84.decode.DecodeInt32;
+import org.pranavt84.decode.DecodeString;
+import org.pranavt84.encode.EncodeInt32;
+import org.pranavt84.encode.EncodeString;
+import org.pranavt84.model.DecodeResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-value encoders and decoders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeCodecBenchmark {
+
+    @Param({"ASCII", "MULTIBYTE"})
+    public Payloads.Text text;
+
+    @Param({"16", "1000000"})
+    public int stringLength;
+
+    private final EncodeString encodeString = new EncodeString();
+    private final EncodeInt32 encodeInt32 = new EncodeInt32();
+    private final DecodeString decodeString = new DecodeString();
+    private final DecodeInt32 decodeInt32 = new DecodeInt32();
+
+    private String string;
+    private Integer int32;
+    private byte[] encodedString;
+    private byte[] encodedInt32;
+
+    @Setup
+    public void setup() {
+        string = Payloads.string(text, stringLength, 0);
+        int32 = 123_456_789;
+        encodedString = encodeString.encode(string);
+        encodedInt32 = encodeInt32.encode(int32);
+    }
+
+    @Benchmark
+    public byte[] encodeString() {
+        return encodeString.encode(string);
+    }
+
+    @Benchmark
+    public byte[] encodeInt32() {
+        return encodeInt32.encode(int32);
+    }
+
+    @Benchmark
+    public DecodeResult decodeString() {
+        return decodeString.decode(encodedString, 0);
+    }
+
+    @Benchmark
+    public DecodeResult decodeInt32() {
+        return decodeInt32.decode(encodedInt32, 0);
+    }
+}
@@ -0,0 +1,237 @@
+package org.pranavt84;
+
+import org.pranavt84.controller.FileConverter;
+import org.pranavt84.controller.RestServer;
+import org.pranavt84.controller.ServerConfig;
+import org.pranavt84.logging.Log;
+import org.pranavt84.logging.LogLevel;
+import org.pranavt84.service.DataInputService;
+import org.pranavt84.service.ServiceFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Locale;
+
+
+public class Main {
+
+    private static final String USAGE = "Usage: java -jar clickhouse-encoder.jar [port] "
+            + "[--executor=platform|virtual|dispatcher] [--threads=N] [--queue=N] "
+            + "[--log-level=debug|info|warn|error|off] [--log-sample=encode:0.01,decode:0.1,*:1] [--log-body=CHARS] "
+            + "[--compress-min-size=BYTES] [--compress-max-ratio=0.9] [--string-dictionary=true|false] [--varints=true|false] [--packed-arrays=true|false] [--index-min-size=BYTES] "
+            + "[--cache-size=BYTES] [--cache-ttl=SECONDS] [--max-array-size=N] [--max-string-length=CHARS] [--max-depth=N] [--max-message-size=BYTES]\n"
+            + "       java -jar clickhouse-encoder.jar encode-file|decode-file INPUT OUTPUT [--threads=N] [encoder and decoder options]";
+
+    public static void main(String[] args) throws IOException {
+        if (args != null && args.length > 0 && (args[0].equals("encode-file") || args[0].equals("decode-file"))) {
+            convertFile(args);
+            return;
+        }
+        ServerConfig config;
+        try {
+            config = parseArgs(args == null ? new String[0] : args);
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid input. " + e.getMessage());
+            System.out.println(USAGE);
+            return;
+        }
+
+        Log.setLevel(config.getLogLevel());
+        Log.info("Starting server on port : " + config.getPort());
+
+        DataInputService service = ServiceFactory.createService(config.getEncoderConfig(), config.getDecoderConfig());
+        RestServer server = new RestServer(config, service);
+        server.start();
+    }
+
+    /**
+     * {@code encode-file IN OUT} turns JSON lines into length-prefixed frames, {@code decode-file IN OUT} turns
+     * frames back into JSON lines, see {@link FileConverter}. Uses one thread per core unless --threads is given,
+     * prints a throughput summary, and exits with status 1 if any record failed.
+     */
+    private static void convertFile(String[] args) throws IOException {
+        ServerConfig config;
+        try {
+            if (args.length < 3) {
+                throw new IllegalArgumentException(args[0] + " needs an input and an output file");
+            }
+            config = parseArgs(Arrays.copyOfRange(args, 3, args.length));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Invalid input. " + e.getMessage());
+            System.out.println(USAGE);
+            return;
+        }
+
+        Log.setLevel(config.getLogLevel());
+        boolean threadsGiven = Arrays.stream(args).anyMatch(arg -> arg.startsWith("--threads="));
+        int threads = threadsGiven ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+        DataInputService service = ServiceFactory.createService(config.getEncoderConfig(), config.getDecoderConfig());
+        FileConverter converter = new FileConverter(service, threads);
+        Path in = Paths.get(args[1]);
+        Path out = Paths.get(args[2]);
+        FileConverter.Result result = args[0].equals("encode-file")
+                ? converter.encodeFile(in, out) : converter.decodeFile(in, out);
+        System.out.println(result);
+        if (result.getErrors() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /** Server settings from the command line: an optional port and {@code --name=value} options, see USAGE. */
+    public static ServerConfig parseArgs(String[] args) {
+        ServerConfig config = new ServerConfig();
+        boolean portSeen = false;
+
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                if (portSeen) {
+                    throw new IllegalArgumentException("Only one port may be given, got another: " + arg);
+                }
+                config.setPort(parseInt("port", arg));
+                portSeen = true;
+                continue;
+            }
+
+            int eq = arg.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Option needs a value: " + arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+
+            switch (name) {
+                case "executor":
+                    config.setExecutionMode(parseMode(value));
+                    break;
+                case "threads":
+                    config.setThreads(parseInt(name, value));
+                    break;
+                case "queue":
+                    config.setQueueCapacity(parseInt(name, value));
+                    break;
+                case "log-level":
+                    config.setLogLevel(parseLevel(value));
+                    break;
+                case "log-sample":
+                    parseSampleRates(value, config);
+                    break;
+                case "log-body":
+                    config.setLogBodyLimit(parseInt(name, value));
+                    break;
+                case "compress-min-size":
+                    config.getEncoderConfig().setCompressMinSize(parseInt(name, value));
+                    break;
+                case "compress-max-ratio":
+                    config.getEncoderConfig().setCompressMaxRatio(parseDouble(name, value));
+                    break;
+                case "string-dictionary":
+                    config.getEncoderConfig().setStringDictionary(parseBoolean(name, value));
+                    break;
+                case "varints":
+                    config.getEncoderConfig().setVarInts(parseBoolean(name, value));
+                    break;
+                case "packed-arrays":
+                    config.getEncoderConfig().setPackedArrays(parseBoolean(name, value));
+                    break;
+                case "index-min-size":
+                    config.getEncoderConfig().setIndexMinSize(parseInt(name, value));
+                    break;
+                case "cache-size":
+                    config.setCacheSize(parseLong(name, value));
+                    break;
+                case "cache-ttl":
+                    config.setCacheTtlSeconds(parseInt(name, value));
+                    break;
+                case "max-array-size":
+                    config.getDecoderConfig().setMaxArraySize(parseInt(name, value));
+                    break;
+                case "max-string-length":
+                    config.getDecoderConfig().setMaxStringLength(parseInt(name, value));
+                    break;
+                case "max-depth":
+                    config.getDecoderConfig().setMaxDepth(parseInt(name, value));
+                    break;
+                case "max-message-size":
+                    config.getDecoderConfig().setMaxMessageSize(parseInt(name, value));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        return config;
+    }
+
+    private static ServerConfig.ExecutionMode parseMode(String value) {
+        try {
+            return ServerConfig.ExecutionMode.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown executor: " + value);
+        }
+    }
+
+    private static LogLevel parseLevel(String value) {
+        try {
+            return LogLevel.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown log level: " + value);
+        }
+    }
+
+    /** {@code endpoint:rate} pairs separated by commas; {@code *} sets the default rate. */
+    private static void parseSampleRates(String value, ServerConfig config) {
+        for (String pair : value.split(",")) {
+            int colon = pair.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Sample rate must look like endpoint:rate, got: " + pair);
+            }
+            String endpoint = pair.substring(0, colon).trim();
+            double rate;
+            try {
+                rate = Double.parseDouble(pair.substring(colon + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Sample rate must be a number, got: " + pair);
+            }
+            if (!(rate >= 0.0 && rate <= 1.0)) {
+                throw new IllegalArgumentException("Sample rate must be between 0 and 1, got: " + pair);
+            }
+            if (endpoint.equals("*")) {
+                config.setLogDefaultSampleRate(rate);
+            } else {
+                config.setLogSampleRate(endpoint, rate);
+            }
+        }
+    }
+
+    private static boolean parseBoolean(String name, String value) {
+        if (!value.equals("true") && !value.equals("false")) {
+            throw new IllegalArgumentException(name + " must be true or false, got: " + value);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    private static double parseDouble(String name, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number, got: " + value);
+        }
+    }
+
+    private static long parseLong(String name, String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number, got: " + value);
+        }
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number, got: " + value);
+        }
+    }
+}
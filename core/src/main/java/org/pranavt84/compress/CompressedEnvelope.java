@@ -0,0 +1,111 @@
+package org.pranavt84.compress;
+
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.type.InputType;
+
+import java.util.Arrays;
+
+/**
+ * Message-level wrapper around an {@link LzBlock}:
+ * {@code [0x10][uncompressedLength:4][compressedLength:4][block]}, lengths big-endian like the
+ * rest of the protocol. The wrapped message is a complete DataInput; envelopes do not nest and
+ * only ever appear at the top level.
+ */
+public final class CompressedEnvelope {
+
+    public static final int HEADER_SIZE = 9;
+
+    private CompressedEnvelope() {
+        throw new AssertionError("CompressedEnvelope should not be instantiated.");
+    }
+
+    public static boolean isCompressed(byte[] bytes, int offset, int length) {
+        return length > 0 && (bytes[offset] & 0xFF) == InputType.COMPRESSED.getValue();
+    }
+
+    /**
+     * Compresses {@code message[offset..offset+length)} into an envelope, or returns {@code null}
+     * when the envelope would be larger than {@code maxRatio} times the message.
+     */
+    public static byte[] compress(byte[] message, int offset, int length, double maxRatio) {
+        byte[] out = new byte[HEADER_SIZE + LzBlock.maxCompressedLength(length)];
+        int compressedLength = LzBlock.compress(message, offset, length, out, HEADER_SIZE);
+        int total = HEADER_SIZE + compressedLength;
+        if (total > length * maxRatio) {
+            return null;
+        }
+
+        out[0] = (byte) InputType.COMPRESSED.getValue();
+        putInt(out, 1, length);
+        putInt(out, 5, compressedLength);
+        return total == out.length ? out : Arrays.copyOf(out, total);
+    }
+
+    /** Same as {@link #decompress(byte[], int, int, int)} with the default message size limit. */
+    public static byte[] decompress(byte[] bytes, int offset, int length) {
+        return decompress(bytes, offset, length, DecoderConfig.DEFAULT_MAX_MESSAGE_SIZE);
+    }
+
+    /**
+     * The plain message inside the envelope at {@code bytes[offset]}; trailing bytes are ignored.
+     * Both the block and the message must be at most {@code maxSize} bytes, which is checked from
+     * the header before the message is allocated.
+     */
+    public static byte[] decompress(byte[] bytes, int offset, int length, int maxSize) {
+        if (length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Truncated input: compressed header needs " + HEADER_SIZE
+                    + " bytes, " + length + " available");
+        }
+        int uncompressedLength = readInt(bytes, offset + 1);
+        int compressedLength = readInt(bytes, offset + 5);
+        if (compressedLength < 0 || compressedLength > length - HEADER_SIZE) {
+            throw new IllegalArgumentException("Truncated input: compressed block of " + compressedLength
+                    + " bytes, " + (length - HEADER_SIZE) + " available");
+        }
+        checkLengths(uncompressedLength, compressedLength, maxSize);
+        if (uncompressedLength > (long) compressedLength * 255 + 16) {
+            throw new IllegalArgumentException("Invalid uncompressed length " + uncompressedLength
+                    + " for a " + compressedLength + " byte block");
+        }
+
+        byte[] message = new byte[uncompressedLength];
+        LzBlock.decompress(bytes, offset + HEADER_SIZE, compressedLength, message, 0, uncompressedLength);
+        if (isCompressed(message, 0, message.length)) {
+            throw new IllegalArgumentException("Nested compressed envelopes are not allowed");
+        }
+        return message;
+    }
+
+    /** {@code bytes} itself when it holds a plain message, otherwise the decompressed message. */
+    public static byte[] unwrap(byte[] bytes) {
+        return unwrap(bytes, DecoderConfig.DEFAULT_MAX_MESSAGE_SIZE);
+    }
+
+    /** Same as {@link #unwrap(byte[])}, holding a compressed message to {@code maxSize} as {@link #decompress} does. */
+    public static byte[] unwrap(byte[] bytes, int maxSize) {
+        return isCompressed(bytes, 0, bytes.length) ? decompress(bytes, 0, bytes.length, maxSize) : bytes;
+    }
+
+    /** Rejects the lengths of an envelope header that are negative or over {@code maxSize}. */
+    public static void checkLengths(int uncompressedLength, int compressedLength, int maxSize) {
+        if (compressedLength < 0 || compressedLength > maxSize) {
+            throw new IllegalArgumentException("Invalid compressed block length " + compressedLength
+                    + ", the limit is " + maxSize + " bytes");
+        }
+        if (uncompressedLength < 0 || uncompressedLength > maxSize) {
+            throw new IllegalArgumentException("Invalid uncompressed length " + uncompressedLength
+                    + ", the limit is " + maxSize + " bytes");
+        }
+    }
+
+    private static int readInt(byte[] bytes, int at) {
+        return (bytes[at] & 0xFF) << 24 | (bytes[at + 1] & 0xFF) << 16 | (bytes[at + 2] & 0xFF) << 8 | (bytes[at + 3] & 0xFF);
+    }
+
+    private static void putInt(byte[] bytes, int at, int value) {
+        bytes[at] = (byte) (value >>> 24);
+        bytes[at + 1] = (byte) (value >>> 16);
+        bytes[at + 2] = (byte) (value >>> 8);
+        bytes[at + 3] = (byte) value;
+    }
+}
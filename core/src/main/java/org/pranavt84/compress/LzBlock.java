@@ -0,0 +1,204 @@
+package org.pranavt84.compress;
+
+/**
+ * Byte-oriented LZ77 block compressor using the LZ4 block layout: each sequence is a token
+ * (literal run length and match length nibbles), the literals, and a 2-byte little-endian
+ * back-reference offset. Greedy matching over a 4-byte hash table, no entropy stage, so both
+ * directions run at memory speed. Blocks are self-contained; the uncompressed size is stored
+ * by the caller.
+ */
+public final class LzBlock {
+
+    private static final int MIN_MATCH = 4;
+    /** The last literals of a block are never part of a match. */
+    private static final int LAST_LITERALS = 5;
+    /** A match must start at least this many bytes before the end of the input. */
+    private static final int MF_LIMIT = 12;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int HASH_LOG = 14;
+
+    private LzBlock() {
+        throw new AssertionError("LzBlock should not be instantiated.");
+    }
+
+    /** Worst-case compressed size of {@code length} bytes, for incompressible input. */
+    public static int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    /**
+     * Compresses {@code src[srcOffset..srcOffset+length)} into {@code dst} at {@code dstOffset}, which
+     * must have room for {@link #maxCompressedLength(int)} bytes. Returns the compressed length.
+     */
+    public static int compress(byte[] src, int srcOffset, int length, byte[] dst, int dstOffset) {
+        int end = srcOffset + length;
+        int matchLimit = end - LAST_LITERALS;
+        int mfLimit = end - MF_LIMIT;
+        int anchor = srcOffset;
+        int ip = srcOffset;
+        int op = dstOffset;
+
+        if (length > MF_LIMIT) {
+            // Positions are stored relative to srcOffset plus one, so 0 means empty
+            int[] table = new int[1 << HASH_LOG];
+            while (ip < mfLimit) {
+                int sequence = readInt(src, ip);
+                int h = hash(sequence);
+                int ref = table[h] - 1 + srcOffset;
+                table[h] = ip - srcOffset + 1;
+
+                if (ref < srcOffset || ip - ref > MAX_OFFSET || readInt(src, ref) != sequence) {
+                    ip += 1 + ((ip - anchor) >>> 6); // step faster through incompressible stretches
+                    continue;
+                }
+
+                while (ip > anchor && ref > srcOffset && src[ip - 1] == src[ref - 1]) {
+                    ip--;
+                    ref--;
+                }
+                int matchLength = MIN_MATCH;
+                while (ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                    matchLength++;
+                }
+
+                op = writeSequence(src, anchor, ip - anchor, ip - ref, matchLength, dst, op);
+                ip += matchLength;
+                anchor = ip;
+                if (ip - 2 < mfLimit) {
+                    table[hash(readInt(src, ip - 2))] = ip - 2 - srcOffset + 1;
+                }
+            }
+        }
+
+        // Last literals
+        int literals = end - anchor;
+        int token = op++;
+        dst[token] = (byte) (Math.min(literals, 15) << 4);
+        op = writeLength(literals, dst, op);
+        System.arraycopy(src, anchor, dst, op, literals);
+        return op + literals - dstOffset;
+    }
+
+    /**
+     * Decompresses a block into {@code dst[dstOffset..dstOffset+uncompressedLength)}. The block must
+     * fill exactly that range; anything malformed throws IllegalArgumentException.
+     */
+    public static void decompress(byte[] src, int srcOffset, int length,
+                                  byte[] dst, int dstOffset, int uncompressedLength) {
+        int ip = srcOffset;
+        int end = srcOffset + length;
+        int op = dstOffset;
+        int outEnd = dstOffset + uncompressedLength;
+
+        while (true) {
+            if (ip >= end) {
+                throw corrupt("block ends without final literals");
+            }
+            int token = src[ip++] & 0xFF;
+
+            int literals = token >>> 4;
+            if (literals == 15) {
+                int b;
+                do {
+                    if (ip >= end) {
+                        throw corrupt("truncated literal length");
+                    }
+                    b = src[ip++] & 0xFF;
+                    literals += b;
+                } while (b == 255);
+            }
+            if (literals > end - ip || literals > outEnd - op) {
+                throw corrupt("literal run of " + literals + " bytes overruns the block");
+            }
+            System.arraycopy(src, ip, dst, op, literals);
+            ip += literals;
+            op += literals;
+
+            if (ip == end) {
+                break;
+            }
+
+            if (end - ip < 2) {
+                throw corrupt("truncated match offset");
+            }
+            int offset = (src[ip] & 0xFF) | (src[ip + 1] & 0xFF) << 8;
+            ip += 2;
+            if (offset == 0 || offset > op - dstOffset) {
+                throw corrupt("match offset " + offset + " points before the start of the output");
+            }
+
+            int matchLength = token & 0x0F;
+            if (matchLength == 15) {
+                int b;
+                do {
+                    if (ip >= end) {
+                        throw corrupt("truncated match length");
+                    }
+                    b = src[ip++] & 0xFF;
+                    matchLength += b;
+                } while (b == 255);
+            }
+            matchLength += MIN_MATCH;
+            if (matchLength > outEnd - op) {
+                throw corrupt("match of " + matchLength + " bytes overruns the output");
+            }
+
+            int from = op - offset;
+            if (offset >= matchLength) {
+                System.arraycopy(dst, from, dst, op, matchLength);
+            } else {
+                // Overlapping copy repeats the last offset bytes, one at a time
+                for (int i = 0; i < matchLength; i++) {
+                    dst[op + i] = dst[from + i];
+                }
+            }
+            op += matchLength;
+        }
+
+        if (op != outEnd) {
+            throw corrupt("decompressed to " + (op - dstOffset) + " bytes, expected " + uncompressedLength);
+        }
+    }
+
+    private static int writeSequence(byte[] src, int literalStart, int literals, int offset, int matchLength,
+                                     byte[] dst, int op) {
+        int token = op++;
+        int matchCode = matchLength - MIN_MATCH;
+        dst[token] = (byte) (Math.min(literals, 15) << 4 | Math.min(matchCode, 15));
+
+        op = writeLength(literals, dst, op);
+        System.arraycopy(src, literalStart, dst, op, literals);
+        op += literals;
+
+        dst[op++] = (byte) offset;
+        dst[op++] = (byte) (offset >>> 8);
+
+        return writeLength(matchCode, dst, op);
+    }
+
+    /** Writes the remainder of a length whose nibble in the token was saturated at 15. */
+    private static int writeLength(int length, byte[] dst, int op) {
+        if (length < 15) {
+            return op;
+        }
+        int rest = length - 15;
+        while (rest >= 255) {
+            dst[op++] = (byte) 255;
+            rest -= 255;
+        }
+        dst[op++] = (byte) rest;
+        return op;
+    }
+
+    private static int readInt(byte[] b, int i) {
+        return (b[i] & 0xFF) | (b[i + 1] & 0xFF) << 8 | (b[i + 2] & 0xFF) << 16 | b[i + 3] << 24;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * -1640531535) >>> (32 - HASH_LOG);
+    }
+
+    private static IllegalArgumentException corrupt(String detail) {
+        return new IllegalArgumentException("Corrupt compressed block: " + detail);
+    }
+}
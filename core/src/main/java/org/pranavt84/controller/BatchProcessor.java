@@ -0,0 +1,294 @@
+package org.pranavt84.controller;
+
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.json.JsonReader;
+import org.pranavt84.service.DataInputService;
+import org.pranavt84.service.TransportEncoding;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes or decodes a stream of items one at a time, writing each result as soon as it is ready.
+ * Results come out in input order; a failing item produces an error result and the batch goes on.
+ *
+ * <p>Items are either newline-delimited JSON (one item per line, blank lines ignored) or
+ * length-prefixed binary frames {@code [len:4][message]}. In binary output an item that failed
+ * is written as {@code [-1:4][len:4][UTF-8 error message]}.
+ *
+ * <p>No frame or line is read past the service's maximum message size (twice that for the text
+ * lines of {@link #decodeLines}, since hex doubles a message). An item over the limit ends the
+ * batch with a final error result, as a malformed frame header does: the rest of the stream
+ * could only be found by reading through it.
+ */
+public class BatchProcessor {
+
+    /** Length written in place of a frame length for an item that failed. */
+    public static final int ERROR_FRAME = -1;
+
+    private static final int FLUSH_THRESHOLD = 8192;
+
+    private final DataInputService service;
+
+    public BatchProcessor(DataInputService service) {
+        this.service = service;
+    }
+
+    /**
+     * Each line is a JSON array. Writes one {@code {"encoded": ..., "size": ...}} line per item,
+     * or a binary frame per item when {@code binary} is set.
+     */
+    public Result encodeLines(InputStream in, OutputStream out, boolean binary) throws IOException {
+        return encodeLines(in, out, binary, TransportEncoding.HEX);
+    }
+
+    /** Same as {@link #encodeLines(InputStream, OutputStream, boolean)} with text results in {@code encoding}. */
+    public Result encodeLines(InputStream in, OutputStream out, boolean binary, TransportEncoding encoding)
+            throws IOException {
+        LineSource lines = new LineSource(in, service.getLimits().getMaxMessageSize());
+        JsonReader reader = new JsonReader(null);
+        ByteSink line = new ByteSink();
+        ByteSink encoded = new ByteSink();
+        ByteSink response = new ByteSink(FLUSH_THRESHOLD * 2);
+        int items = 0;
+        int errors = 0;
+
+        while (true) {
+            try {
+                if (!lines.next(line)) {
+                    break;
+                }
+            } catch (IllegalArgumentException e) {
+                errors++;
+                writeError(items++, e, binary, response);
+                break;
+            }
+            if (isBlank(line)) {
+                continue;
+            }
+            encoded.reset();
+            try {
+                reader.reset(new StringReader(new String(line.array(), 0, line.size(), StandardCharsets.UTF_8)));
+                service.encodeJson(reader, encoded);
+                if (binary) {
+                    writeFrame(encoded.array(), 0, encoded.size(), response);
+                } else {
+                    response.writeAscii("{\"encoded\": \"");
+                    encoding.encode(encoded.array(), 0, encoded.size(), response);
+                    response.writeAscii("\", \"size\": " + encoded.size() + "}\n");
+                }
+            } catch (RuntimeException e) {
+                errors++;
+                writeError(items, e, binary, response);
+            }
+            items++;
+            flushIfFull(response, out);
+        }
+        response.writeTo(out);
+        return new Result(items, errors);
+    }
+
+    /** Each line is {@code {"encoded": "<hex>"}} or bare hex. Writes one {@code {"decoded": ...}} line per item. */
+    public Result decodeLines(InputStream in, OutputStream out) throws IOException {
+        return decodeLines(in, out, TransportEncoding.HEX);
+    }
+
+    /** Same as {@link #decodeLines(InputStream, OutputStream)} with items in {@code encoding}. */
+    public Result decodeLines(InputStream in, OutputStream out, TransportEncoding encoding) throws IOException {
+        int maxMessageSize = service.getLimits().getMaxMessageSize();
+        LineSource lines = new LineSource(in, (int) Math.min(Integer.MAX_VALUE - 64, 2L * maxMessageSize + 64));
+        ByteSink line = new ByteSink();
+        ByteSink response = new ByteSink(FLUSH_THRESHOLD * 2);
+        int items = 0;
+        int errors = 0;
+
+        while (true) {
+            try {
+                if (!lines.next(line)) {
+                    break;
+                }
+            } catch (IllegalArgumentException e) {
+                errors++;
+                writeError(items++, e, false, response);
+                break;
+            }
+            if (isBlank(line)) {
+                continue;
+            }
+            int mark = response.size();
+            try {
+                String json = new String(line.array(), 0, line.size(), StandardCharsets.UTF_8);
+                byte[] binaryEncoded = encoding.decode(JsonConverter.extractHexFromJson(json));
+                response.writeAscii("{\"decoded\": ");
+                service.decodeToJson(binaryEncoded, response);
+                response.writeAscii("}\n");
+            } catch (RuntimeException e) {
+                errors++;
+                response.size(mark);
+                writeError(items, e, false, response);
+            }
+            items++;
+            flushIfFull(response, out);
+        }
+        response.writeTo(out);
+        return new Result(items, errors);
+    }
+
+    /**
+     * Reads frames until end of input. Writes one {@code {"decoded": ...}} line per item, and an error line for
+     * an error frame, so the binary output of {@link #encodeLines} decodes item for item. A malformed frame
+     * header, or a frame over the maximum message size, cannot be skipped, so it ends the batch with a final
+     * error line.
+     */
+    public Result decodeFrames(InputStream in, OutputStream out) throws IOException {
+        FrameReader frames = new FrameReader(in, service.getLimits().getMaxMessageSize());
+        ByteSink frame = new ByteSink();
+        ByteSink response = new ByteSink(FLUSH_THRESHOLD * 2);
+        int items = 0;
+        int errors = 0;
+
+        while (true) {
+            try {
+                if (!frames.next(frame)) {
+                    break;
+                }
+            } catch (IllegalArgumentException | EOFException e) {
+                errors++;
+                writeError(items++, e, false, response);
+                break;
+            }
+
+            if (frames.isError()) {
+                errors++;
+                writeError(items, FrameReader.errorMessage(frame), false, response);
+            } else {
+                int mark = response.size();
+                try {
+                    response.writeAscii("{\"decoded\": ");
+                    service.decodeToJson(frame.array(), 0, frame.size(), response);
+                    response.writeAscii("}\n");
+                } catch (RuntimeException e) {
+                    errors++;
+                    response.size(mark);
+                    writeError(items, e, false, response);
+                }
+            }
+            items++;
+            flushIfFull(response, out);
+        }
+        response.writeTo(out);
+        return new Result(items, errors);
+    }
+
+    /** Appends {@code [len:4][bytes]} to {@code out}. */
+    public static void writeFrame(byte[] bytes, int offset, int length, ByteSink out) {
+        out.putInt(out.skip(4), length);
+        out.write(bytes, offset, length);
+    }
+
+    static void writeError(int item, Exception e, boolean binary, ByteSink out) {
+        writeError(item, String.valueOf(e.getMessage()), binary, out);
+    }
+
+    static void writeError(int item, String message, boolean binary, ByteSink out) {
+        if (binary) {
+            out.putInt(out.skip(4), ERROR_FRAME);
+            int lengthAt = out.skip(4);
+            int start = out.size();
+            out.writeUtf8(message);
+            out.putInt(lengthAt, out.size() - start);
+        } else {
+            out.writeAscii("{\"item\": " + item + ", \"error\": \"");
+            out.writeUtf8(JsonConverter.escapeJson(message));
+            out.writeAscii("\"}\n");
+        }
+    }
+
+    private static void flushIfFull(ByteSink response, OutputStream out) throws IOException {
+        if (response.size() >= FLUSH_THRESHOLD) {
+            response.writeTo(out);
+            response.reset();
+        }
+    }
+
+    private static boolean isBlank(ByteSink line) {
+        byte[] bytes = line.array();
+        for (int i = 0; i < line.size(); i++) {
+            byte b = bytes[i];
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Splits a byte stream on {@code '\n'} through one reused buffer. */
+    private static final class LineSource {
+
+        private final InputStream in;
+        private final int maxLength;
+        private final byte[] buffer = new byte[8192];
+        private int pos;
+        private int limit;
+
+        LineSource(InputStream in, int maxLength) {
+            this.in = in;
+            this.maxLength = maxLength;
+        }
+
+        /**
+         * Reads the next line, without its terminator, into {@code line}; false once input is exhausted.
+         * Throws {@link IllegalArgumentException} as soon as the line grows past the maximum length.
+         */
+        boolean next(ByteSink line) throws IOException {
+            line.reset();
+            boolean any = false;
+            while (true) {
+                if (pos == limit) {
+                    limit = in.read(buffer, 0, buffer.length);
+                    pos = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return any;
+                    }
+                }
+                any = true;
+                int start = pos;
+                while (pos < limit && buffer[pos] != '\n') {
+                    pos++;
+                }
+                if (line.size() + (pos - start) > maxLength) {
+                    throw new IllegalArgumentException("Line of more than " + maxLength + " bytes");
+                }
+                line.write(buffer, start, pos - start);
+                if (pos < limit) {
+                    pos++; // the '\n'
+                    return true;
+                }
+            }
+        }
+    }
+
+    /** How many items a batch held and how many of them failed. */
+    public static class Result {
+        private final int items;
+        private final int errors;
+
+        public Result(int items, int errors) {
+            this.items = items;
+            this.errors = errors;
+        }
+
+        public int getItems() {
+            return items;
+        }
+
+        public int getErrors() {
+            return errors;
+        }
+    }
+}
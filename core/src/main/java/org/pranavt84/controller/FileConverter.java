@@ -0,0 +1,487 @@
+package org.pranavt84.controller;
+
+import org.pranavt84.json.ByteBufferReader;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.json.JsonReader;
+import org.pranavt84.json.JsonToBinaryWriter;
+import org.pranavt84.service.DataInputService;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Converts whole files between the two batch formats without HTTP or a transport encoding:
+ * JSON lines (one array per line, blank lines skipped) and length-prefixed binary frames
+ * {@code [len:4][message]}. Failed records are written in place, as for the batch endpoints:
+ * an error frame {@code [-1:4][len:4][UTF-8 error]} when encoding, an
+ * {@code {"item": n, "error": "..."}} line when decoding. Decoding reads error frames back as
+ * error lines, and a malformed frame header, or a frame over the maximum message size, ends the
+ * output with a final error line.
+ *
+ * <p>The input is memory-mapped and cut into chunks at record boundaries. Records are parsed
+ * straight from the mapping. A pool of threads converts the chunks, and the main thread writes
+ * their output in input order through a direct buffer. At most two chunks per thread are in
+ * flight, which bounds memory whatever the file size. When encoding, a record at least a chunk
+ * long is only checked by its thread; if the wire config allows it (see {@link JsonToBinaryWriter}),
+ * the main thread encodes it straight into the output, so its frame is never held either.
+ */
+public class FileConverter {
+
+    /** Input bytes per chunk by default; a chunk ends at the first record boundary after this. */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    /** Most of the input mapped at once; files larger than this are mapped a window at a time. */
+    private static final long MAP_WINDOW = 1L << 30;
+    private static final int STAGING_SIZE = 1 << 20;
+
+    private final DataInputService service;
+    private final int threads;
+    private final int chunkSize;
+
+    public FileConverter(DataInputService service, int threads) {
+        this(service, threads, DEFAULT_CHUNK_SIZE);
+    }
+
+    public FileConverter(DataInputService service, int threads, int chunkSize) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1, got " + threads);
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunk size must be positive, got " + chunkSize);
+        }
+        this.service = service;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /** JSON lines in, one frame per record out. */
+    public Result encodeFile(Path in, Path out) throws IOException {
+        return convert(in, out, true);
+    }
+
+    /** Frames in, one JSON line per record out. */
+    public Result decodeFile(Path in, Path out) throws IOException {
+        return convert(in, out, false);
+    }
+
+    private Result convert(Path in, Path out, boolean encode) throws IOException {
+        if (Files.exists(out) && Files.isSameFile(in, out)) {
+            throw new IllegalArgumentException("Output must not be the input file: " + out);
+        }
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, namedThreads("file-converter-"));
+        try (FileChannel input = FileChannel.open(in, StandardOpenOption.READ);
+             FileChannel output = FileChannel.open(out, StandardOpenOption.WRITE,
+                     StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedInput source = new MappedInput(input);
+            ByteBuffer staging = ByteBuffer.allocateDirect(STAGING_SIZE);
+            Deque<Future<ChunkOutput>> inFlight = new ArrayDeque<>();
+            long pos = 0;
+            int items = 0;
+            int errors = 0;
+            String malformed = null;
+            long written = 0;
+
+            while (pos < source.size && malformed == null || !inFlight.isEmpty()) {
+                while (pos < source.size && malformed == null && inFlight.size() < 2 * threads) {
+                    long end;
+                    int frames = 0;
+                    if (encode) {
+                        end = lineChunkEnd(source, pos);
+                    } else {
+                        FrameCut cut = frameChunkEnd(source, pos);
+                        end = cut.end;
+                        frames = cut.frames;
+                        malformed = cut.error;
+                    }
+                    if (end > pos) {
+                        ByteBuffer chunk = source.slice(pos, (int) (end - pos));
+                        int first = items;
+                        inFlight.add(pool.submit(() -> encode ? encodeChunk(chunk) : decodeChunk(chunk, first)));
+                        // Error lines name their record, so decoded chunks are numbered as they are cut
+                        items += frames;
+                    }
+                    pos = end;
+                }
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+                ChunkOutput result = await(inFlight.removeFirst());
+                if (encode) {
+                    items += result.records;
+                }
+                errors += result.errors;
+                written += result.writeTo(staging, output);
+            }
+            if (malformed != null) {
+                ByteSink tail = new ByteSink();
+                BatchProcessor.writeError(items++, new IllegalArgumentException(malformed), false, tail);
+                errors++;
+                written += tail.size();
+                write(tail, 0, tail.size(), staging, output);
+            }
+            drain(staging, output);
+            return new Result(items, errors, source.size, written, System.nanoTime() - start);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private ChunkOutput encodeChunk(ByteBuffer chunk) throws IOException {
+        ChunkOutput result = new ChunkOutput(new ByteSink(chunk.remaining() / 2 + 64));
+        ByteSink out = result.bytes;
+        ByteBufferReader text = new ByteBufferReader(chunk);
+        JsonReader json = new JsonReader(null);
+        int pos = chunk.position();
+        int limit = chunk.limit();
+        while (pos < limit) {
+            int end = pos;
+            while (end < limit && chunk.get(end) != '\n') {
+                end++;
+            }
+            if (!isBlank(chunk, pos, end)) {
+                result.records++;
+                int lengthAt = out.skip(4);
+                try {
+                    ByteBuffer line = chunk.duplicate().position(pos).limit(end);
+                    if (end - pos >= chunkSize && service.canStreamJson()) {
+                        // A record as large as a whole chunk is only checked here; it is encoded
+                        // straight into the output file once its turn comes
+                        JsonToBinaryWriter message = service.prepareJson(() -> new ByteBufferReader(line.duplicate()));
+                        out.putInt(lengthAt, message.size());
+                        result.stream(message);
+                    } else {
+                        json.reset(text.reset(line));
+                        service.encodeJson(json, out);
+                        out.putInt(lengthAt, out.size() - lengthAt - 4);
+                    }
+                } catch (RuntimeException | IOException e) {
+                    // Error frames carry no record number
+                    out.size(lengthAt);
+                    BatchProcessor.writeError(-1, e, true, out);
+                    result.errors++;
+                }
+            }
+            pos = end + 1;
+        }
+        return result;
+    }
+
+    /** Decodes a chunk of frames that {@link #frameChunkEnd} has already checked to be well-formed. */
+    private ChunkOutput decodeChunk(ByteBuffer chunk, int firstItem) throws IOException {
+        ChunkOutput result = new ChunkOutput(new ByteSink(chunk.remaining() * 2 + 64));
+        ByteSink out = result.bytes;
+        FrameReader frames = new FrameReader(new BufferInput(chunk));
+        ByteSink frame = new ByteSink();
+        int item = firstItem;
+        while (frames.next(frame)) {
+            if (frames.isError()) {
+                // A record that already failed when it was encoded
+                BatchProcessor.writeError(item, FrameReader.errorMessage(frame), false, out);
+                result.errors++;
+            } else {
+                int mark = out.size();
+                try {
+                    service.decodeToJson(frame.array(), 0, frame.size(), out);
+                    out.write('\n');
+                } catch (RuntimeException e) {
+                    out.size(mark);
+                    BatchProcessor.writeError(item, e, false, out);
+                    result.errors++;
+                }
+            }
+            item++;
+        }
+        return result;
+    }
+
+    /** End of the first line that ends at or after {@code pos + chunkSize}, or of the input. */
+    private long lineChunkEnd(MappedInput source, long pos) throws IOException {
+        long end = Math.min(source.size, pos + chunkSize);
+        while (end < source.size && source.get(end - 1) != '\n') {
+            end++;
+        }
+        if (end - pos > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Line at byte " + pos + " is longer than " + Integer.MAX_VALUE + " bytes");
+        }
+        return end;
+    }
+
+    /** Steps over frames until at least {@code chunkSize} bytes are covered; stops early at a malformed header. */
+    private FrameCut frameChunkEnd(MappedInput source, long pos) throws IOException {
+        FrameReader frames = new FrameReader(source.stream(pos), service.getLimits().getMaxMessageSize());
+        long end = pos;
+        int count = 0;
+        try {
+            while (end - pos < chunkSize && frames.skip()) {
+                if (frames.position() > Integer.MAX_VALUE) {
+                    if (count == 0) {
+                        return new FrameCut(end, 0, "Frame at byte " + pos + " is larger than "
+                                + Integer.MAX_VALUE + " bytes");
+                    }
+                    break;
+                }
+                end = pos + frames.position();
+                count++;
+            }
+        } catch (IllegalArgumentException | EOFException e) {
+            return new FrameCut(end, count, e.getMessage());
+        }
+        return new FrameCut(end, count, null);
+    }
+
+    private static boolean isBlank(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b != ' ' && b != '\t' && b != '\r') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ChunkOutput await(Future<ChunkOutput> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while converting", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /** Copies {@code data[from..to)} into the direct staging buffer, writing it out whenever it fills up. */
+    private static void write(ByteSink data, int from, int to, ByteBuffer staging, FileChannel out) throws IOException {
+        int offset = from;
+        while (offset < to) {
+            int n = Math.min(staging.remaining(), to - offset);
+            staging.put(data.array(), offset, n);
+            offset += n;
+            if (!staging.hasRemaining()) {
+                drain(staging, out);
+            }
+        }
+    }
+
+    private static void drain(ByteBuffer staging, FileChannel out) throws IOException {
+        staging.flip();
+        while (staging.hasRemaining()) {
+            out.write(staging);
+        }
+        staging.clear();
+    }
+
+    /**
+     * What a chunk converts to: its bytes, with the messages of streamed records still to be
+     * written at the offsets recorded for them, and how many records it held and how many failed.
+     */
+    private static final class ChunkOutput {
+        final ByteSink bytes;
+        private final List<JsonToBinaryWriter> streamed = new ArrayList<>();
+        private final List<Integer> streamedAt = new ArrayList<>();
+        int records;
+        int errors;
+
+        ChunkOutput(ByteSink bytes) {
+            this.bytes = bytes;
+        }
+
+        /** Leaves {@code message} to be written after the bytes so far. */
+        void stream(JsonToBinaryWriter message) {
+            streamed.add(message);
+            streamedAt.add(bytes.size());
+        }
+
+        /** Writes the chunk in order through the staging buffer; returns the number of bytes written. */
+        long writeTo(ByteBuffer staging, FileChannel out) throws IOException {
+            long written = bytes.size();
+            int from = 0;
+            for (int i = 0; i < streamed.size(); i++) {
+                JsonToBinaryWriter message = streamed.get(i);
+                int at = streamedAt.get(i);
+                write(bytes, from, at, staging, out);
+                drain(staging, out);
+                message.writeTo(out, Math.max(16, Math.min(STAGING_SIZE, message.size())));
+                written += message.size();
+                from = at;
+            }
+            write(bytes, from, bytes.size(), staging, out);
+            return written;
+        }
+    }
+
+    /** Where a chunk of frames ends, how many frames it holds, and why the input cannot be read past it, if it cannot. */
+    private static final class FrameCut {
+        final long end;
+        final int frames;
+        final String error;
+
+        FrameCut(long end, int frames, String error) {
+            this.end = end;
+            this.frames = frames;
+            this.error = error;
+        }
+    }
+
+    /** Reads a buffer from its position to its limit. */
+    private static final class BufferInput extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInput(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            int k = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + k);
+            return k;
+        }
+    }
+
+    /** Read-only mapping of the input, moved along in windows of up to {@link #MAP_WINDOW} bytes. */
+    private static final class MappedInput {
+        final FileChannel channel;
+        final long size;
+        private MappedByteBuffer map;
+        private long base;
+
+        MappedInput(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+        byte get(long at) throws IOException {
+            return map(at, 1).get((int) (at - base));
+        }
+
+        /** Reads the input from {@code from} on, through the mapping. */
+        InputStream stream(long from) {
+            return new InputStream() {
+                private long at = from;
+
+                @Override
+                public int read() throws IOException {
+                    return at < size ? get(at++) & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    if (len == 0) {
+                        return 0;
+                    }
+                    if (at >= size) {
+                        return -1;
+                    }
+                    int n = (int) Math.min(len, size - at);
+                    slice(at, n).get(b, off, n);
+                    at += n;
+                    return n;
+                }
+
+                @Override
+                public long skip(long n) {
+                    long k = Math.max(0, Math.min(n, size - at));
+                    at += k;
+                    return k;
+                }
+            };
+        }
+
+        /** Independent buffer over {@code [at, at + length)}, safe to hand to another thread. */
+        ByteBuffer slice(long at, int length) throws IOException {
+            return map(at, length).slice((int) (at - base), length);
+        }
+
+        private MappedByteBuffer map(long at, int length) throws IOException {
+            if (map == null || at < base || at + length > base + map.capacity()) {
+                base = at;
+                map = channel.map(FileChannel.MapMode.READ_ONLY, at, Math.min(size - at, Math.max(MAP_WINDOW, length)));
+            }
+            return map;
+        }
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** Counts of a whole file conversion, with its size and duration for a throughput report. */
+    public static class Result extends BatchProcessor.Result {
+        private final long bytesIn;
+        private final long bytesOut;
+        private final long nanos;
+
+        public Result(int items, int errors, long bytesIn, long bytesOut, long nanos) {
+            super(items, errors);
+            this.bytesIn = bytesIn;
+            this.bytesOut = bytesOut;
+            this.nanos = nanos;
+        }
+
+        public long getBytesIn() {
+            return bytesIn;
+        }
+
+        public long getBytesOut() {
+            return bytesOut;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = Math.max(nanos, 1) / 1e9;
+            return String.format(Locale.ROOT, "%d records (%d failed), %.1f MB in, %.1f MB out in %.3f s: "
+                            + "%.1f MB/s, %.0f records/s", getItems(), getErrors(), bytesIn / 1e6, bytesOut / 1e6,
+                    seconds, bytesIn / 1e6 / seconds, getItems() / seconds);
+        }
+    }
+}
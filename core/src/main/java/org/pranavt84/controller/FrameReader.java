@@ -0,0 +1,132 @@
+package org.pranavt84.controller;
+
+import org.pranavt84.json.ByteSink;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the length-prefixed frames of the batch formats, one at a time: {@code [len:4][message]}
+ * for an item, and {@code [-1:4][len:4][UTF-8 error]} for an item that already failed when it was
+ * encoded, as {@link BatchProcessor} writes them. Every reader of frames goes through here, so
+ * they all agree on what is an item, what is an error and what is malformed.
+ *
+ * <p>A malformed header cannot be skipped: {@link #next} and {@link #skip} throw
+ * {@link IllegalArgumentException} for a negative length or one above the reader's limit, and
+ * {@link EOFException} for input that ends inside a frame, and the stream cannot be read any further.
+ */
+public class FrameReader {
+
+    /** Bytes read from the input at a time, so a bogus length cannot allocate more than what arrives. */
+    private static final int STEP = 1 << 16;
+
+    private final InputStream in;
+    private final int maxLength;
+    private final byte[] header = new byte[4];
+    private long position;
+    private boolean error;
+
+    /** Reader of frames of any length, for input that is already trusted. */
+    public FrameReader(InputStream in) {
+        this(in, Integer.MAX_VALUE);
+    }
+
+    /** Reader that rejects a frame whose payload is longer than {@code maxLength} before reading any of it. */
+    public FrameReader(InputStream in, int maxLength) {
+        this.in = in;
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Reads the next frame into {@code frame}, replacing its contents: the message of an item, or
+     * the UTF-8 error message of an error frame, see {@link #isError()}. Returns false at a clean
+     * end of input.
+     */
+    public boolean next(ByteSink frame) throws IOException {
+        frame.reset();
+        int length = readHeader();
+        if (length < 0) {
+            return false;
+        }
+        while (frame.size() < length) {
+            int step = Math.min(length - frame.size(), STEP);
+            frame.ensureCapacity(step);
+            int n = in.readNBytes(frame.array(), frame.size(), step);
+            frame.size(frame.size() + n);
+            position += n;
+            if (n < step) {
+                throw new EOFException("Truncated frame: expected " + length + " bytes, got " + frame.size());
+            }
+        }
+        return true;
+    }
+
+    /** Steps over the next frame without reading its payload into memory; false at a clean end of input. */
+    public boolean skip() throws IOException {
+        int length = readHeader();
+        if (length < 0) {
+            return false;
+        }
+        long skipped = 0;
+        while (skipped < length) {
+            long n = in.skip(length - skipped);
+            if (n <= 0) {
+                // skip() may stop short without being at the end; a read tells the two apart
+                if (in.read() < 0) {
+                    throw new EOFException("Truncated frame: expected " + length + " bytes, got " + skipped);
+                }
+                n = 1;
+            }
+            skipped += n;
+            position += n;
+        }
+        return true;
+    }
+
+    /** True if the frame last read or skipped was an error frame. */
+    public boolean isError() {
+        return error;
+    }
+
+    /** Bytes consumed from the input so far, headers included. */
+    public long position() {
+        return position;
+    }
+
+    /** The error message of the frame last read, if it was an error frame. */
+    public static String errorMessage(ByteSink frame) {
+        return new String(frame.array(), 0, frame.size(), StandardCharsets.UTF_8);
+    }
+
+    /** Length of the payload of the next frame, or -1 at a clean end of input. */
+    private int readHeader() throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return -1;
+        }
+        header[0] = (byte) first;
+        int length = readInt(1);
+        error = length == BatchProcessor.ERROR_FRAME;
+        if (error) {
+            length = readInt(0);
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid frame length: " + length);
+        }
+        if (length > maxLength) {
+            throw new IllegalArgumentException("Frame of " + length + " bytes, more than the limit of " + maxLength);
+        }
+        return length;
+    }
+
+    /** Reads a big-endian int into {@link #header}, of which the first {@code have} bytes are already there. */
+    private int readInt(int have) throws IOException {
+        if (in.readNBytes(header, have, 4 - have) != 4 - have) {
+            throw new EOFException("Truncated frame header");
+        }
+        position += 4;
+        return (header[0] & 0xFF) << 24 | (header[1] & 0xFF) << 16 | (header[2] & 0xFF) << 8 | (header[3] & 0xFF);
+    }
+}
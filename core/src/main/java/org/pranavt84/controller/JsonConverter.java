@@ -0,0 +1,164 @@
+package org.pranavt84.controller;
+
+import org.pranavt84.json.JsonReader;
+import org.pranavt84.model.DataInput;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * JSON parsing and serialization used by {@link RestServer}.
+ */
+public class JsonConverter {
+
+    public static DataInput parseJsonInput(String json) {
+        try {
+            return parseJsonInput(new JsonReader(new StringReader(json)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Parses straight from the stream in one pass, without buffering the body. */
+    public static DataInput parseJsonInput(InputStream in) throws IOException {
+        return parseJsonInput(new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+    }
+
+    private static DataInput parseJsonInput(JsonReader reader) throws IOException {
+        if (reader.peek() != '[') {
+            throw new IllegalArgumentException("Input must be a JSON array starting with [ and ending with ]");
+        }
+        DataInput result = parseArray(reader);
+        reader.expectEnd();
+        return result;
+    }
+
+    private static DataInput parseArray(JsonReader reader) throws IOException {
+        DataInput result = new DataInput();
+
+        reader.expect('[');
+        if (reader.consume(']')) {
+            return result; // Empty array
+        }
+
+        do {
+            int c = reader.peek();
+            if (c == '"') {
+                result.add(reader.readString());
+            } else if (c == '[') {
+                result.add(parseArray(reader));
+            } else if (c == 't' || c == 'f' || c == 'n') {
+                result.add(reader.readLiteral());
+            } else {
+                result.add(reader.readNumber());
+            }
+        } while (reader.consume(','));
+
+        reader.expect(']');
+        return result;
+    }
+
+    public static String dataInputToJson(DataInput input) {
+        StringBuilder sb = new StringBuilder("[");
+        List<Object> elements = input.getElements();
+        
+        for (int i = 0; i < elements.size(); i++) {
+            Object elem = elements.get(i);
+            
+            if (elem instanceof String) {
+                sb.append("\"").append(escapeJson((String) elem)).append("\"");
+            } else if (elem instanceof Integer || elem instanceof Long || elem instanceof Boolean) {
+                sb.append(elem);
+            } else if (elem instanceof Double) {
+                // NaN and the infinities have no JSON form
+                double d = (Double) elem;
+                sb.append(Double.isFinite(d) ? Double.toString(d) : "null");
+            } else if (elem instanceof DataInput) {
+                sb.append(dataInputToJson((DataInput) elem));
+            } else if (elem == null) {
+                sb.append("null");
+            } else if (elem instanceof Number) {
+                // Extension types: numbers as they print, anything else as a string
+                sb.append(Double.isFinite(((Number) elem).doubleValue()) ? elem.toString() : "null");
+            } else {
+                sb.append("\"").append(escapeJson(elem.toString())).append("\"");
+            }
+            
+            if (i < elements.size() - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("]");
+        return sb.toString();
+    }
+    
+
+    public static String escapeJson(String s) {
+        StringBuilder sb = null;
+        int len = s.length();
+
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            String escaped = escapeChar(c);
+            if (escaped == null) {
+                if (sb != null) {
+                    sb.append(c);
+                }
+                continue;
+            }
+            if (sb == null) {
+                sb = new StringBuilder(len + 16).append(s, 0, i);
+            }
+            sb.append(escaped);
+        }
+        return sb == null ? s : sb.toString();
+    }
+
+    /** JSON escape sequence for {@code c}, or null if it can be written as is. */
+    private static String escapeChar(char c) {
+        switch (c) {
+            case '\\': return "\\\\";
+            case '"': return "\\\"";
+            case '\n': return "\\n";
+            case '\r': return "\\r";
+            case '\t': return "\\t";
+            case '\b': return "\\b";
+            case '\f': return "\\f";
+            default:
+                return c < 0x20 ? String.format("\\u%04x", (int) c) : null;
+        }
+    }
+    
+
+    public static String extractHexFromJson(String json) {
+        json = json.trim();
+
+        if (!json.startsWith("{")) {
+            return json;
+        }
+
+        int start = json.indexOf("\"encoded\"");
+        if (start == -1) {
+            throw new IllegalArgumentException("Missing 'encoded' field in JSON");
+        }
+        
+        start = json.indexOf(":", start) + 1;
+        start = json.indexOf("\"", start) + 1;
+        int end = json.indexOf("\"", start);
+        
+        if (end == -1) {
+            throw new IllegalArgumentException("Invalid JSON format for 'encoded' field");
+        }
+        
+        return json.substring(start, end);
+    }
+
+    private JsonConverter() {
+        throw new AssertionError("JsonConverter should not be instantiated.");
+    }
+}
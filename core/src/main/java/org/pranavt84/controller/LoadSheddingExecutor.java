@@ -0,0 +1,103 @@
+package org.pranavt84.controller;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The two thread pools behind the HTTP server, with admission control for codec requests.
+ * The server hands every exchange to {@link #intake()}: its threads parse the request line and
+ * headers, which is all the JDK server does before a handler knows the path, and call the
+ * handler. The dispatcher thread that accepts connections never runs an exchange itself.
+ *
+ * <p>Codec handlers pass their work on with {@link #trySubmit}. At most a fixed number of
+ * requests are admitted (running plus waiting); the rest are refused, so the handler can answer
+ * 503 on the intake thread without reading the body. {@code /health} and {@code /metrics} are
+ * answered on the intake thread and never wait behind codec requests.
+ */
+class LoadSheddingExecutor {
+
+    private final ExecutorService intake;
+    private final ExecutorService workers;
+    private final Semaphore admitted;
+
+    LoadSheddingExecutor(ExecutorService intake, ExecutorService workers, int maxAdmitted) {
+        this.intake = intake;
+        this.workers = workers;
+        this.admitted = new Semaphore(maxAdmitted);
+    }
+
+    static LoadSheddingExecutor create(ServerConfig config) {
+        switch (config.getExecutionMode()) {
+            case PLATFORM:
+                ExecutorService intake = Executors.newFixedThreadPool(
+                        Math.max(2, Runtime.getRuntime().availableProcessors()), namedThreads("http-intake-"));
+                ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                        config.getThreads(), config.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(), namedThreads("codec-worker-"));
+                return new LoadSheddingExecutor(intake, pool, config.getThreads() + config.getQueueCapacity());
+            case VIRTUAL:
+                // Threads are cheap here, so intake and work get one each
+                ExecutorService virtual = newVirtualThreadExecutor();
+                return new LoadSheddingExecutor(virtual, virtual, Math.max(1, config.getQueueCapacity()));
+            default:
+                throw new IllegalArgumentException("No executor for mode " + config.getExecutionMode());
+        }
+    }
+
+    /** Executor for the HTTP server itself. */
+    Executor intake() {
+        return intake;
+    }
+
+    /** Runs {@code task} on a worker if the request is admitted; returns false, running nothing, if it is not. */
+    boolean trySubmit(Runnable task) {
+        if (!admitted.tryAcquire()) {
+            return false;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    admitted.release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            admitted.release();
+            return false;
+        }
+    }
+
+    void shutdown() {
+        intake.shutdown();
+        workers.shutdown();
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /** Looked up reflectively so the server still builds and runs on JDK 17. */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Virtual threads need JDK 21 or later, running on "
+                    + Runtime.version());
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.pranavt84.controller;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Content negotiation for {@link RestServer}: reads the media ranges of {@code Accept} headers,
+ * with their {@code q} weights, and the media type of {@code Content-Type} headers. Parameters
+ * other than {@code q} are ignored, and so are matches inside a parameter or a longer name.
+ */
+public final class MediaTypes {
+
+    /** Specificity of a range that does not match at all. */
+    private static final int NO_MATCH = -1;
+    /** Specificity of a range naming the media type itself rather than matching it by a wildcard. */
+    private static final int EXACT = 2;
+
+    private MediaTypes() {
+        throw new AssertionError("MediaTypes should not be instantiated.");
+    }
+
+    /**
+     * Whether a response should be {@code mediaType} rather than {@code defaultType}, given the
+     * values of the request's {@code Accept} headers. Only when the client names {@code mediaType}
+     * with a weight above 0 and at least that of {@code defaultType}, or accepts it but refuses
+     * {@code defaultType} with {@code q=0}. Accepting anything by a wildcard keeps the default, and
+     * so does a missing header.
+     */
+    public static boolean prefers(List<String> accept, String mediaType, String defaultType) {
+        Match wanted = match(accept, mediaType);
+        if (wanted.quality <= 0) {
+            return false;
+        }
+        Match fallback = match(accept, defaultType);
+        if (fallback.specificity != NO_MATCH && fallback.quality <= 0) {
+            return true;
+        }
+        return wanted.specificity == EXACT && wanted.quality >= fallback.quality;
+    }
+
+    /** Whether the media type of a {@code Content-Type} header value is {@code mediaType}; parameters are ignored. */
+    public static boolean isType(List<String> contentType, String mediaType) {
+        for (String value : contentType) {
+            int semicolon = value.indexOf(';');
+            String type = semicolon < 0 ? value : value.substring(0, semicolon);
+            if (type.trim().equalsIgnoreCase(mediaType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The most specific range matching {@code mediaType}, with its weight. */
+    private static Match match(List<String> accept, String mediaType) {
+        String type = mediaType.toLowerCase(Locale.ROOT);
+        String major = type.substring(0, type.indexOf('/') + 1);
+        Match best = new Match(NO_MATCH, 0);
+        for (String value : accept) {
+            for (String range : value.split(",")) {
+                String[] parts = range.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                int specificity = name.equals(type) ? EXACT
+                        : name.equals(major + "*") ? 1
+                        : name.equals("*/*") ? 0
+                        : NO_MATCH;
+                if (specificity > best.specificity) {
+                    best = new Match(specificity, weight(parts));
+                }
+            }
+        }
+        return best;
+    }
+
+    /** The {@code q} parameter among a range's parameters, 1 if there is none; one that is not a number counts as 0. */
+    private static double weight(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                try {
+                    double q = Double.parseDouble(parameter.substring(2).trim());
+                    return q >= 0 && q <= 1 ? q : 0;
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static final class Match {
+        final int specificity;
+        final double quality;
+
+        Match(int specificity, double quality) {
+            this.specificity = specificity;
+            this.quality = quality;
+        }
+    }
+}
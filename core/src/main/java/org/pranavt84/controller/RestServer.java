@@ -0,0 +1,643 @@
+package org.pranavt84.controller;
+
+import com.sun.net.httpserver.*;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.json.JsonPath;
+import org.pranavt84.json.JsonToBinaryWriter;
+import org.pranavt84.logging.CapturingInputStream;
+import org.pranavt84.logging.Log;
+import org.pranavt84.logging.LogLevel;
+import org.pranavt84.logging.RequestSampler;
+import org.pranavt84.metrics.CountingStreams;
+import org.pranavt84.metrics.ServerMetrics;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.service.DataInputService;
+import org.pranavt84.service.ResponseCache;
+import org.pranavt84.service.TransportEncoding;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+
+public class RestServer {
+
+    private static final String OCTET_STREAM = "application/octet-stream";
+    private static final String NDJSON = "application/x-ndjson";
+    private static final String JSON = "application/json";
+    
+    private final int port;
+    private final ServerConfig config;
+    private final DataInputService service;
+    private final RequestSampler sampler;
+    private final BatchProcessor batch;
+    private final ServerMetrics metrics = new ServerMetrics();
+    /** Null unless a cache size was configured. */
+    private final ResponseCache cache;
+    private HttpServer server;
+    private LoadSheddingExecutor executor;
+    
+    public RestServer(int port, DataInputService service) {
+        this(new ServerConfig().setPort(port), service);
+    }
+
+    public RestServer(ServerConfig config, DataInputService service) {
+        this.port = config.getPort();
+        this.config = config;
+        this.service = service;
+        this.sampler = new RequestSampler(config.getLogSampleRates(), config.getLogDefaultSampleRate());
+        this.batch = new BatchProcessor(service);
+        this.cache = config.getCacheSize() > 0
+                ? new ResponseCache(config.getCacheSize(), config.getCacheTtlSeconds() * 1000L) : null;
+        if (cache != null) {
+            metrics.registerGauge("codec_cache_hits", cache::hits);
+            metrics.registerGauge("codec_cache_misses", cache::misses);
+            metrics.registerGauge("codec_cache_coalesced", cache::coalesced);
+            metrics.registerGauge("codec_cache_evictions", cache::evictions);
+            metrics.registerGauge("codec_cache_entries", cache::size);
+            metrics.registerGauge("codec_cache_bytes", cache::weight);
+        }
+    }
+    
+    public void start() throws IOException {
+        if (config.getExecutionMode() != ServerConfig.ExecutionMode.DISPATCHER) {
+            executor = LoadSheddingExecutor.create(config);
+        }
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+
+        server.createContext("/encode", sheddable("encode", this::handleEncode));
+        server.createContext("/decode", sheddable("decode", this::handleDecode));
+        server.createContext("/extract", sheddable("extract", this::handleExtract));
+        server.createContext("/encode/batch", sheddable("encode_batch", this::handleEncodeBatch));
+        server.createContext("/decode/batch", sheddable("decode_batch", this::handleDecodeBatch));
+        // Answered on the intake thread, never queued behind codec requests
+        server.createContext("/health", this::handleHealth);
+        server.createContext("/metrics", this::handleMetrics);
+        
+        // Null runs everything on the dispatcher thread
+        server.setExecutor(executor != null ? executor.intake() : null);
+        server.start();
+
+        int port = getPort();
+        Log.info("Server started on port " + port + " (" + config.getExecutionMode() + " execution)");
+        Log.info("Available endpoints:");
+        Log.info("  POST http://localhost:" + port + "/encode");
+        Log.info("  POST http://localhost:" + port + "/decode");
+        Log.info("  POST http://localhost:" + port + "/extract?path=...");
+        Log.info("  POST http://localhost:" + port + "/encode/batch");
+        Log.info("  POST http://localhost:" + port + "/decode/batch");
+        Log.info("  GET  http://localhost:" + port + "/health");
+        Log.info("  GET  http://localhost:" + port + "/metrics");
+    }
+
+    /** Port the server listens on, the one picked by the system if it was configured as 0. */
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    /** Metrics shared by all handlers, e.g. to register extra gauges. */
+    public ServerMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void handleEncode(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+            return;
+        }
+        
+        boolean logged = sampler.sample("encode");
+        CapturingInputStream captured = null;
+
+        try {
+            TransportEncoding encoding = transportEncoding(exchange);
+            InputStream body = exchange.getRequestBody();
+            if (logged && Log.isEnabled(LogLevel.DEBUG)) {
+                captured = new CapturingInputStream(body, config.getLogBodyLimit());
+                body = captured;
+            }
+
+            // JSON is transcoded straight to protocol bytes while it is read
+            ByteSink encoded = new ByteSink();
+            JsonToBinaryWriter streamed = null;
+            long startTime = System.nanoTime();
+            try (InputStream is = body) {
+                if (cache == null && service.canStreamJson()) {
+                    // Array counts come before their elements, so the body is kept to be read twice:
+                    // checked here, then again while the response streams out through a fixed buffer
+                    byte[] json = is.readAllBytes();
+                    streamed = service.prepareJson(
+                            () -> new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8));
+                } else if (cache != null) {
+                    // Cached results are keyed by the whole body, so it is read up front
+                    byte[] json = is.readAllBytes();
+                    byte[] result = cache.get(ResponseCache.Operation.ENCODE, json, () -> {
+                        ByteSink sink = new ByteSink();
+                        service.encodeJson(new ByteArrayInputStream(json), sink);
+                        return sink.toByteArray();
+                    });
+                    encoded.write(result, 0, result.length);
+                } else {
+                    service.encodeJson(is, encoded);
+                }
+            }
+            long encodeNanos = System.nanoTime() - startTime;
+            long encodeTime = encodeNanos / 1000;
+            metrics.recordStage("json_to_binary", encodeNanos);
+
+            if (captured != null) {
+                Log.debug("Encode request: " + captured.describe());
+            }
+
+            if (streamed != null) {
+                streamEncoded(exchange, streamed, encoding, startTime, logged);
+                return;
+            }
+
+            if (accepts(exchange, OCTET_STREAM, JSON)) {
+                long writeStart = System.nanoTime();
+                sendResponse(exchange, 200, OCTET_STREAM, encoded);
+                metrics.recordStage("write_response", System.nanoTime() - writeStart);
+                if (logged) {
+                    Log.info("Encoded successfully (binary): " + encoded.size() + " bytes");
+                }
+                return;
+            }
+
+            // Text digits go straight into the response bytes, without an intermediate String
+            long textStart = System.nanoTime();
+            ByteSink response = new ByteSink(encoded.size() * 2 + 128);
+            response.writeAscii("{\"encoded\": \"");
+            encoding.encode(encoded.array(), 0, encoded.size(), response);
+            metrics.recordStage(encoding.label() + "_encode", System.nanoTime() - textStart);
+            response.writeAscii("\", \"size\": " + encoded.size() + ", \"sizeUnit\": \"bytes\", \"encodeTime\": " + encodeTime
+                    + ", \"encodeTimeUnit\": \"microseconds\"}");
+
+            long writeStart = System.nanoTime();
+            sendResponse(exchange, 200, JSON, response);
+            metrics.recordStage("write_response", System.nanoTime() - writeStart);
+            if (logged) {
+                Log.info("Encoded successfully: " + encoded.size() + " bytes");
+            }
+        } catch (Exception e) {
+            if (exchange.getResponseCode() != -1) {
+                // The 200 of a streamed response is already out, and only its writing can fail
+                throw e instanceof IOException ? (IOException) e : new IOException(e);
+            }
+            String error = String.format("{\"error\": \"%s\"}", JsonConverter.escapeJson(String.valueOf(e.getMessage())));
+            sendResponse(exchange, 400, error);
+            metrics.recordError("encode", e.getClass().getSimpleName());
+            if (captured != null) {
+                Log.debug("Encode request: " + captured.describe());
+            }
+            Log.warn("Encode error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends a message {@link DataInputService#prepareJson} has already checked as a chunked
+     * response, in the same two forms as a buffered encode. Neither the message nor its text form
+     * is held whole; the reported encode time includes writing it out.
+     */
+    private void streamEncoded(HttpExchange exchange, JsonToBinaryWriter message, TransportEncoding encoding,
+                               long startTime, boolean logged) throws IOException {
+        long writeStart = System.nanoTime();
+        if (accepts(exchange, OCTET_STREAM, JSON)) {
+            try (OutputStream os = startStreaming(exchange, OCTET_STREAM)) {
+                message.writeTo(os);
+            }
+            metrics.recordStage("write_response", System.nanoTime() - writeStart);
+            if (logged) {
+                Log.info("Encoded successfully (binary): " + message.size() + " bytes");
+            }
+            return;
+        }
+
+        try (OutputStream os = startStreaming(exchange, JSON)) {
+            os.write("{\"encoded\": \"".getBytes(StandardCharsets.US_ASCII));
+            TextEncodingStream text = new TextEncodingStream(encoding, os);
+            message.writeTo(text);
+            text.finish();
+            long encodeTime = (System.nanoTime() - startTime) / 1000;
+            os.write(("\", \"size\": " + message.size() + ", \"sizeUnit\": \"bytes\", \"encodeTime\": " + encodeTime
+                    + ", \"encodeTimeUnit\": \"microseconds\"}").getBytes(StandardCharsets.US_ASCII));
+        }
+        metrics.recordStage("write_response", System.nanoTime() - writeStart);
+        if (logged) {
+            Log.info("Encoded successfully: " + message.size() + " bytes");
+        }
+    }
+
+    private void handleDecode(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+            return;
+        }
+        
+        boolean logged = sampler.sample("decode");
+
+        try {
+            byte[] binaryEncoded;
+            long startTime;
+
+            if (hasContentType(exchange, OCTET_STREAM)) {
+                binaryEncoded = readRequestBytes(exchange);
+                if (logged) {
+                    Log.debug("Decode request (binary): " + binaryEncoded.length + " bytes");
+                }
+                startTime = System.nanoTime();
+            } else {
+                String requestBody = readRequestBody(exchange);
+                if (logged && Log.isEnabled(LogLevel.DEBUG)) {
+                    Log.debug("Decode request: " + Log.truncate(requestBody, config.getLogBodyLimit()));
+                }
+
+                TransportEncoding encoding = transportEncoding(exchange);
+                String textEncoded = JsonConverter.extractHexFromJson(requestBody);
+
+                startTime = System.nanoTime();
+                binaryEncoded = encoding.decode(textEncoded);
+                metrics.recordStage(encoding.label() + "_decode", System.nanoTime() - startTime);
+            }
+
+            // Protocol bytes are written straight into the response as JSON
+            long transcodeStart = System.nanoTime();
+            ByteSink response = new ByteSink(binaryEncoded.length * 2 + 64);
+            response.writeAscii("{\"decoded\": ");
+            if (cache != null) {
+                byte[] request = binaryEncoded;
+                byte[] json = cache.get(ResponseCache.Operation.DECODE, request, () -> {
+                    ByteSink sink = new ByteSink(request.length * 2);
+                    service.decodeToJson(request, sink);
+                    return sink.toByteArray();
+                });
+                response.write(json, 0, json.length);
+            } else {
+                service.decodeToJson(binaryEncoded, response);
+            }
+            long endTime = System.nanoTime();
+            metrics.recordStage("binary_to_json", endTime - transcodeStart);
+            long decodeTime = (endTime - startTime) / 1000; // μs
+
+            response.writeAscii(", \"decodeTime\": " + decodeTime + ", \"decodeTimeUnit\": \"microseconds\"}");
+            
+            long writeStart = System.nanoTime();
+            sendResponse(exchange, 200, JSON, response);
+            metrics.recordStage("write_response", System.nanoTime() - writeStart);
+            if (logged) {
+                Log.info("Decoded successfully: " + binaryEncoded.length + " bytes");
+            }
+            
+        } catch (Exception e) {
+            String error = String.format("{\"error\": \"%s\"}", JsonConverter.escapeJson(String.valueOf(e.getMessage())));
+            sendResponse(exchange, 400, error);
+            metrics.recordError("decode", e.getClass().getSimpleName());
+            Log.warn("Decode error: " + e.getMessage());
+        }
+    }
+
+    /** Like /decode, but answers with only the values that the {@code path} query parameter selects. */
+    private void handleExtract(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+            return;
+        }
+
+        boolean logged = sampler.sample("extract");
+
+        try {
+            String rawPath = queryParam(exchange, "path");
+            if (rawPath == null) {
+                throw new IllegalArgumentException("Missing 'path' query parameter");
+            }
+            // Parsed before the body is read, so a bad path is rejected without any decoding
+            JsonPath path = JsonPath.parse(URLDecoder.decode(rawPath, StandardCharsets.UTF_8));
+
+            byte[] binaryEncoded;
+            long startTime;
+
+            if (hasContentType(exchange, OCTET_STREAM)) {
+                binaryEncoded = readRequestBytes(exchange);
+                startTime = System.nanoTime();
+            } else {
+                String requestBody = readRequestBody(exchange);
+                if (logged && Log.isEnabled(LogLevel.DEBUG)) {
+                    Log.debug("Extract request: " + Log.truncate(requestBody, config.getLogBodyLimit()));
+                }
+
+                TransportEncoding encoding = transportEncoding(exchange);
+                String textEncoded = JsonConverter.extractHexFromJson(requestBody);
+
+                startTime = System.nanoTime();
+                binaryEncoded = encoding.decode(textEncoded);
+                metrics.recordStage(encoding.label() + "_decode", System.nanoTime() - startTime);
+            }
+
+            long extractStart = System.nanoTime();
+            ByteSink response = new ByteSink(256);
+            response.writeAscii("{\"extracted\": ");
+            service.extractToJson(binaryEncoded, 0, binaryEncoded.length, path, response);
+            long endTime = System.nanoTime();
+            metrics.recordStage("extract", endTime - extractStart);
+            long extractTime = (endTime - startTime) / 1000; // μs
+
+            response.writeAscii(", \"extractTime\": " + extractTime + ", \"extractTimeUnit\": \"microseconds\"}");
+
+            long writeStart = System.nanoTime();
+            sendResponse(exchange, 200, JSON, response);
+            metrics.recordStage("write_response", System.nanoTime() - writeStart);
+            if (logged) {
+                Log.info("Extracted " + path + " from " + binaryEncoded.length + " bytes");
+            }
+
+        } catch (Exception e) {
+            String error = String.format("{\"error\": \"%s\"}", JsonConverter.escapeJson(String.valueOf(e.getMessage())));
+            sendResponse(exchange, 400, error);
+            metrics.recordError("extract", e.getClass().getSimpleName());
+            Log.warn("Extract error: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Batch endpoints stream their results, so the status is always 200 once the body starts;
+     * items that fail show up as error lines (or error frames) in place.
+     */
+    private void handleEncodeBatch(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+            return;
+        }
+
+        boolean binary = accepts(exchange, OCTET_STREAM, NDJSON);
+        if (!checkTransportEncoding(exchange)) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        BatchProcessor.Result result;
+        try (InputStream is = exchange.getRequestBody();
+             OutputStream os = startStreaming(exchange, binary ? OCTET_STREAM : NDJSON)) {
+            result = batch.encodeLines(is, os, binary, transportEncoding(exchange));
+        }
+        metrics.recordStage("batch_encode", System.nanoTime() - startTime);
+        logBatch("encode_batch", "Encoded", result);
+    }
+
+    private void handleDecodeBatch(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            sendResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+            return;
+        }
+
+        boolean binary = hasContentType(exchange, OCTET_STREAM);
+        if (!checkTransportEncoding(exchange)) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        BatchProcessor.Result result;
+        try (InputStream is = exchange.getRequestBody();
+             OutputStream os = startStreaming(exchange, NDJSON)) {
+            result = binary ? batch.decodeFrames(is, os) : batch.decodeLines(is, os, transportEncoding(exchange));
+        }
+        metrics.recordStage("batch_decode", System.nanoTime() - startTime);
+        logBatch("decode_batch", "Decoded", result);
+    }
+
+    private void logBatch(String endpoint, String verb, BatchProcessor.Result result) {
+        if (result.getErrors() > 0) {
+            metrics.recordError(endpoint, "ItemFailed");
+            Log.warn(verb + " batch: " + result.getItems() + " items, " + result.getErrors() + " failed");
+        } else if (sampler.sample(endpoint)) {
+            Log.info(verb + " batch: " + result.getItems() + " items");
+        }
+    }
+
+    /**
+     * Runs {@code handler} on a worker, counted in the metrics. A request that is not admitted is
+     * answered with a bodiless 503 and {@code Connection: close} on the intake thread: the body is
+     * never read, and the connection is closed as soon as the headers are out.
+     */
+    private HttpHandler sheddable(String endpoint, HttpHandler handler) {
+        HttpHandler counted = instrumented(endpoint, handler);
+        if (executor == null) {
+            return counted;
+        }
+        HttpHandler overloaded = instrumented(endpoint, exchange -> {
+            metrics.recordError(endpoint, "Overloaded");
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            exchange.getResponseHeaders().add("Connection", "close");
+            exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*"); // CORS
+            // No content: the JDK server then skips draining the request body
+            exchange.sendResponseHeaders(503, -1);
+        });
+        return exchange -> {
+            boolean admitted = executor.trySubmit(() -> {
+                try {
+                    counted.handle(exchange);
+                } catch (IOException | RuntimeException e) {
+                    // The server only cleans up after handlers it runs itself
+                    Log.warn("Request to " + endpoint + " failed: " + e.getMessage());
+                    exchange.close();
+                }
+            });
+            if (!admitted) {
+                overloaded.handle(exchange);
+            }
+        };
+    }
+
+    /** Counts the request in the metrics: latency, status, in-flight and body sizes. */
+    private HttpHandler instrumented(String endpoint, HttpHandler handler) {
+        return exchange -> {
+            long start = System.nanoTime();
+            metrics.requestStarted();
+            CountingStreams.In in = new CountingStreams.In(exchange.getRequestBody());
+            CountingStreams.Out out = new CountingStreams.Out(exchange.getResponseBody());
+            exchange.setStreams(in, out);
+            try {
+                handler.handle(exchange);
+            } finally {
+                metrics.requestFinished(endpoint, exchange.getResponseCode(), System.nanoTime() - start,
+                        in.count(), out.count());
+            }
+        };
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        if (!"GET".equals(exchange.getRequestMethod())) {
+            sendResponse(exchange, 405, "{\"error\": \"Method not allowed\"}");
+            return;
+        }
+        ByteSink body = new ByteSink();
+        body.writeUtf8(metrics.toPrometheus());
+        sendResponse(exchange, 200, "text/plain; version=0.0.4; charset=utf-8", body);
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        sendResponse(exchange, 200, "{\"status\": \"ok\"}");
+    }
+    
+
+    private String readRequestBody(HttpExchange exchange) throws IOException {
+        return new String(readRequestBytes(exchange), StandardCharsets.UTF_8);
+    }
+
+    private byte[] readRequestBytes(HttpExchange exchange) throws IOException {
+        try (InputStream is = exchange.getRequestBody()) {
+            return is.readAllBytes();
+        }
+    }
+
+    /** The {@code encoding} query parameter: {@code hex} (default) or {@code base64}. */
+    private static TransportEncoding transportEncoding(HttpExchange exchange) {
+        String encoding = queryParam(exchange, "encoding");
+        return encoding != null ? TransportEncoding.fromName(encoding) : TransportEncoding.HEX;
+    }
+
+    /** Raw (still URL-encoded) value of the first query parameter called {@code name}, or null. */
+    private static String queryParam(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            for (String param : query.split("&")) {
+                if (param.startsWith(name + "=")) {
+                    return param.substring(name.length() + 1);
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Streaming handlers cannot answer 400 once started, so a bad encoding is rejected up front. */
+    private boolean checkTransportEncoding(HttpExchange exchange) throws IOException {
+        try {
+            transportEncoding(exchange);
+            return true;
+        } catch (IllegalArgumentException e) {
+            exchange.getRequestBody().close();
+            sendResponse(exchange, 400, String.format("{\"error\": \"%s\"}", JsonConverter.escapeJson(e.getMessage())));
+            return false;
+        }
+    }
+
+    /** Whether the client asks for {@code mediaType} over the endpoint's usual {@code defaultType}, see {@link MediaTypes#prefers}. */
+    private static boolean accepts(HttpExchange exchange, String mediaType, String defaultType) {
+        return MediaTypes.prefers(exchange.getRequestHeaders().getOrDefault("Accept", List.of()), mediaType, defaultType);
+    }
+
+    private static boolean hasContentType(HttpExchange exchange, String mediaType) {
+        return MediaTypes.isType(exchange.getRequestHeaders().getOrDefault("Content-Type", List.of()), mediaType);
+    }
+
+    private void sendResponse(HttpExchange exchange, int statusCode, String response) 
+            throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", JSON);
+        exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*"); // CORS
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        OutputStream os = exchange.getResponseBody();
+        os.write(bytes);
+        os.close();
+    }
+
+    /** Sends a 200 with a chunked body, for responses written while the request is still being read. */
+    private OutputStream startStreaming(HttpExchange exchange, String contentType) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*"); // CORS
+        exchange.sendResponseHeaders(200, 0);
+        return exchange.getResponseBody();
+    }
+
+    private void sendResponse(HttpExchange exchange, int statusCode, String contentType, ByteSink response)
+            throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.getResponseHeaders().add("Access-Control-Allow-Origin", "*"); // CORS
+        exchange.sendResponseHeaders(statusCode, response.size());
+        try (OutputStream os = exchange.getResponseBody()) {
+            response.writeTo(os);
+        }
+    }
+
+    private boolean equals(DataInput a, DataInput b) {
+        if (a.getElements().size() != b.getElements().size()) {
+            return false;
+        }
+        
+        for (int i = 0; i < a.getElements().size(); i++) {
+            Object aElem = a.getElements().get(i);
+            Object bElem = b.getElements().get(i);
+            
+            if (aElem instanceof DataInput && bElem instanceof DataInput) {
+                if (!equals((DataInput) aElem, (DataInput) bElem)) {
+                    return false;
+                }
+            } else if (!aElem.equals(bElem)) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Writes the bytes it is given to {@code out} in a transport encoding. Base64 turns every 3
+     * bytes into 4 characters, so up to 2 bytes wait for the next write, or for {@link #finish}.
+     */
+    private static final class TextEncodingStream extends OutputStream {
+        private final TransportEncoding encoding;
+        private final OutputStream out;
+        private final ByteSink text = new ByteSink();
+        private final byte[] pending = new byte[3];
+        private int pendingLength;
+
+        TextEncodingStream(TransportEncoding encoding, OutputStream out) {
+            this.encoding = encoding;
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (pendingLength > 0) {
+                int n = Math.min(3 - pendingLength, len);
+                System.arraycopy(b, off, pending, pendingLength, n);
+                pendingLength += n;
+                off += n;
+                len -= n;
+                if (pendingLength < 3) {
+                    return;
+                }
+                encoding.encode(pending, 0, 3, text);
+                pendingLength = 0;
+            }
+            int whole = len - len % 3;
+            encoding.encode(b, off, whole, text);
+            pendingLength = len - whole;
+            System.arraycopy(b, off + whole, pending, 0, pendingLength);
+            text.writeTo(out);
+            text.size(0);
+        }
+
+        /** Writes the bytes still waiting, with any padding. {@code out} is not closed. */
+        void finish() throws IOException {
+            encoding.encode(pending, 0, pendingLength, text);
+            pendingLength = 0;
+            text.writeTo(out);
+            text.size(0);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,183 @@
+package org.pranavt84.controller;
+
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.logging.LogLevel;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Startup settings for {@link RestServer}, filled in from the command line by Main.
+ */
+public class ServerConfig {
+
+    /** How requests are run once the HTTP dispatcher has accepted them. */
+    public enum ExecutionMode {
+        /** Everything runs on the single JDK dispatcher thread (the old behaviour). */
+        DISPATCHER,
+        /** Fixed pool of platform threads. */
+        PLATFORM,
+        /** One virtual thread per request; needs JDK 21 or later. */
+        VIRTUAL
+    }
+
+    private int port = 8080;
+    private ExecutionMode executionMode = ExecutionMode.PLATFORM;
+    private int threads = Runtime.getRuntime().availableProcessors() * 2;
+    private int queueCapacity = 256;
+    private LogLevel logLevel = LogLevel.INFO;
+    private final Map<String, Double> logSampleRates = new HashMap<>();
+    private double logDefaultSampleRate = 1.0;
+    private int logBodyLimit = 256;
+    private long cacheSize;
+    private int cacheTtlSeconds;
+    private final EncoderConfig encoderConfig = new EncoderConfig();
+    private final DecoderConfig decoderConfig = new DecoderConfig();
+
+    public int getPort() {
+        return port;
+    }
+
+    public ServerConfig setPort(int port) {
+        if (port < 0 || port > 0xFFFF) {
+            throw new IllegalArgumentException("Invalid port: " + port);
+        }
+        this.port = port;
+        return this;
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public ServerConfig setExecutionMode(ExecutionMode executionMode) {
+        this.executionMode = executionMode;
+        return this;
+    }
+
+    /** Worker threads in {@link ExecutionMode#PLATFORM} mode. */
+    public int getThreads() {
+        return threads;
+    }
+
+    public ServerConfig setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1, got " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Requests allowed to wait for a worker in {@link ExecutionMode#PLATFORM} mode, or to run
+     * concurrently in {@link ExecutionMode#VIRTUAL} mode. Anything beyond is answered with 503.
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public ServerConfig setQueueCapacity(int queueCapacity) {
+        if (queueCapacity < 0) {
+            throw new IllegalArgumentException("queue must not be negative, got " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public LogLevel getLogLevel() {
+        return logLevel;
+    }
+
+    public ServerConfig setLogLevel(LogLevel logLevel) {
+        this.logLevel = logLevel;
+        return this;
+    }
+
+    /** Fraction of requests per endpoint ({@code "encode"}, {@code "decode"}, ...) whose log lines are written. */
+    public Map<String, Double> getLogSampleRates() {
+        return logSampleRates;
+    }
+
+    public ServerConfig setLogSampleRate(String endpoint, double rate) {
+        logSampleRates.put(endpoint, rate);
+        return this;
+    }
+
+    /** Sample rate for endpoints without their own entry. */
+    public double getLogDefaultSampleRate() {
+        return logDefaultSampleRate;
+    }
+
+    public ServerConfig setLogDefaultSampleRate(double rate) {
+        this.logDefaultSampleRate = rate;
+        return this;
+    }
+
+    /** Characters of a request body kept when bodies are logged at DEBUG. */
+    public int getLogBodyLimit() {
+        return logBodyLimit;
+    }
+
+    public ServerConfig setLogBodyLimit(int logBodyLimit) {
+        if (logBodyLimit < 0) {
+            throw new IllegalArgumentException("log body limit must not be negative, got " + logBodyLimit);
+        }
+        this.logBodyLimit = logBodyLimit;
+        return this;
+    }
+
+    /** Bytes of encode and decode results kept in the response cache; 0 (the default) disables it. */
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    public ServerConfig setCacheSize(long cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("cache size must not be negative, got " + cacheSize);
+        }
+        this.cacheSize = cacheSize;
+        return this;
+    }
+
+    /** Seconds a cached result stays valid; 0 keeps it until it is evicted. */
+    public int getCacheTtlSeconds() {
+        return cacheTtlSeconds;
+    }
+
+    public ServerConfig setCacheTtlSeconds(int cacheTtlSeconds) {
+        if (cacheTtlSeconds < 0) {
+            throw new IllegalArgumentException("cache ttl must not be negative, got " + cacheTtlSeconds);
+        }
+        this.cacheTtlSeconds = cacheTtlSeconds;
+        return this;
+    }
+
+    /** Wire features used when encoding responses; change it in place. */
+    public EncoderConfig getEncoderConfig() {
+        return encoderConfig;
+    }
+
+    /** Limits every decoded message must stay within; change it in place. */
+    public DecoderConfig getDecoderConfig() {
+        return decoderConfig;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerConfig{" +
+                "port=" + port +
+                ", executionMode=" + executionMode +
+                ", threads=" + threads +
+                ", queueCapacity=" + queueCapacity +
+                ", logLevel=" + logLevel +
+                ", logSampleRates=" + logSampleRates +
+                ", logDefaultSampleRate=" + logDefaultSampleRate +
+                ", logBodyLimit=" + logBodyLimit +
+                ", cacheSize=" + cacheSize +
+                ", cacheTtlSeconds=" + cacheTtlSeconds +
+                ", encoderConfig=" + encoderConfig +
+                ", decoderConfig=" + decoderConfig +
+                '}';
+    }
+}
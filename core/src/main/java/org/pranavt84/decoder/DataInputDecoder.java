@@ -0,0 +1,162 @@
+package org.pranavt84.decoder;
+
+import org.pranavt84.compress.CompressedEnvelope;
+import org.pranavt84.decode.DecodeType;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.type.CodecRegistry;
+import org.pranavt84.type.InputType;
+
+public class DataInputDecoder implements Decoder<DataInput> {
+
+    private final CodecRegistry registry;
+    private final DecoderConfig config;
+
+    public DataInputDecoder() {
+        this(CodecRegistry.getDefault());
+    }
+
+    /** Decoder that also reads the extension types of {@code registry}. */
+    public DataInputDecoder(CodecRegistry registry) {
+        this(registry, new DecoderConfig());
+    }
+
+    /** Decoder that also reads the extension types of {@code registry} and enforces the limits of {@code config}. */
+    public DataInputDecoder(CodecRegistry registry, DecoderConfig config) {
+        this.registry = registry;
+        this.config = config;
+    }
+
+    /**
+     * @deprecated decoding now runs on {@link DataInputReader}, which reads the built-in
+     * types directly; the per-type decoders are no longer consulted. Use {@link #DataInputDecoder()}.
+     */
+    @Deprecated
+    public DataInputDecoder(DecodeType decodeString, DecodeType decodeInt32) {
+        this();
+    }
+
+    /**
+     * Compressed messages are unwrapped transparently. The message is checked by
+     * {@link DataInputValidator} before any of it is decoded, so large indexed arrays can then be
+     * decoded on several threads if the config sets a
+     * {@linkplain DecoderConfig#getParallelMinSize() parallel threshold}.
+     */
+    @Override
+    public DataInput decode(byte[] bytes) {
+        byte[] message = CompressedEnvelope.unwrap(bytes, config.getMaxMessageSize());
+        DataInputValidator.validate(message, 0, message.length, config, registry);
+        DataInputReader reader = new DataInputReader(message, 0, message.length, registry);
+        StringTable strings = StringTable.read(reader);
+        if (!reader.nextType().isArray()) {
+            throw new IllegalArgumentException("Expected DataInput but found " + reader.nextType());
+        }
+        if (config.isParallel()) {
+            strings.decodeAll();
+        }
+        return decodeArray(reader, strings);
+    }
+
+    public DecoderConfig getConfig() {
+        return config;
+    }
+
+    /** The registry whose extension types this decoder reads. */
+    public CodecRegistry getRegistry() {
+        return registry;
+    }
+
+    /** Any of the array forms; packed arrays are read in bulk, then boxed. */
+    private DataInput decodeArray(DataInputReader reader, StringTable strings) {
+        switch (reader.nextType()) {
+            case PACKED_INT32:
+                DataInput ints = new DataInput();
+                for (int value : reader.readIntArray()) {
+                    ints.add(value);
+                }
+                return ints;
+            case PACKED_STRING:
+                DataInput texts = new DataInput();
+                for (String value : reader.readStringArray()) {
+                    texts.add(value);
+                }
+                return texts;
+            case INDEXED_ARRAY:
+                // The size is the length of the elements, which the validator has checked
+                byte[] bytes = reader.array();
+                if (config.isParallel() && DataInputReader.readInt32(bytes, reader.position() + 3)
+                        >= config.getParallelMinSize()) {
+                    DataInput split = ParallelDecoding.decode(this, registry, bytes, reader.position(),
+                            strings, config.getParallelMinSize());
+                    reader.skip();
+                    return split;
+                }
+                return decodeDataInput(reader, strings);
+            default:
+                return decodeDataInput(reader, strings);
+        }
+    }
+
+    /** Decode ARRAY / DataInput */
+    private DataInput decodeDataInput(DataInputReader reader, StringTable strings) {
+
+        int count = reader.enterArray();
+
+        DataInput dataInput = new DataInput();
+
+        for (int i = 0; i < count; i++) {
+            dataInput.add(decodeElement(reader, strings));
+        }
+
+        reader.exitArray();
+
+        return dataInput;
+    }
+
+    /** Consumes the element at the cursor; strings must be decoded up front if other threads share the table. */
+    Object decodeElement(DataInputReader reader, StringTable strings) {
+        InputType type = reader.nextType();
+
+        switch (type) {
+
+            case INT32:
+                return reader.readInt();
+
+            case INT64:
+                return reader.readLong();
+
+            case VARINT:
+                // Same boxed type as the value had before it was encoded compactly
+                long value = reader.readVarLong();
+                return value == (int) value ? (Object) (int) value : (Object) value;
+
+            case FLOAT64:
+                return reader.readDouble();
+
+            case TRUE:
+            case FALSE:
+                return reader.readBoolean();
+
+            case NULL:
+                reader.readNull();
+                return null;
+
+            case EXTENSION:
+                return reader.readExtension();
+
+            case STRING:
+                return reader.readString();
+
+            case STRING_REF:
+                return strings.get(reader.readStringRef());
+
+            case DATA_INPUT:
+            case INDEXED_ARRAY:
+            case PACKED_INT32:
+            case PACKED_STRING:
+                return decodeArray(reader, strings);
+
+            default:
+                throw new IllegalArgumentException("Unhandled type: " + type);
+        }
+    }
+}
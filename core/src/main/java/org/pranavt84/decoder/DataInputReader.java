@@ -0,0 +1,395 @@
+package org.pranavt84.decoder;
+
+import org.pranavt84.encode.VarInt;
+import org.pranavt84.model.DecodeResult;
+import org.pranavt84.type.CodecRegistry;
+import org.pranavt84.type.InputType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Forward-only cursor over an encoded DataInput. Reads advance an internal position and
+ * return primitives, so walking a payload allocates nothing except the Strings asked for.
+ *
+ * <pre>
+ * int count = reader.enterArray();
+ * for (int i = 0; i < count; i++) {
+ *     switch (reader.nextType()) { ... }
+ * }
+ * reader.exitArray();
+ * </pre>
+ */
+public class DataInputReader {
+
+    private final byte[] bytes;
+    private final int limit;
+    private final CodecRegistry registry;
+    private int pos;
+
+    /** Elements left in each open array, indexed by depth - 1. */
+    private int[] remaining = new int[16];
+    private int depth;
+
+    public DataInputReader(byte[] bytes) {
+        this(bytes, 0, bytes.length);
+    }
+
+    public DataInputReader(byte[] bytes, int offset, int length) {
+        this(bytes, offset, length, CodecRegistry.getDefault());
+    }
+
+    /** Reader that recognizes the extension types of {@code registry}. */
+    public DataInputReader(byte[] bytes, int offset, int length, CodecRegistry registry) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array " + bytes.length);
+        }
+        this.bytes = bytes;
+        this.pos = offset;
+        this.limit = offset + length;
+        this.registry = registry;
+    }
+
+    /** True if the current array (or the top level) still has an element to read. */
+    public boolean hasNext() {
+        return depth == 0 ? pos < limit : remaining[depth - 1] > 0;
+    }
+
+    /** Type of the next element, without consuming it. */
+    public InputType nextType() {
+        require(1);
+        InputType type = InputType.lookup(bytes[pos]);
+        if (type != null) {
+            return type;
+        }
+        if (registry.isExtension(bytes[pos])) {
+            return InputType.EXTENSION;
+        }
+        throw new IllegalArgumentException("Unknown type tag: " + (bytes[pos] & 0xFF));
+    }
+
+    /** Consumes an EXTENSION element through the DecodeType registered for its tag. */
+    public Object readExtension() {
+        expect(InputType.EXTENSION, 1);
+        int tag = bytes[pos] & 0xFF;
+        DecodeResult result;
+        try {
+            result = registry.decoder(tag).decode(bytes, pos);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated input: type " + tag + " at position " + pos);
+        }
+        int next = result.getNextIndex();
+        if (next <= pos || next > limit) {
+            throw new IllegalArgumentException("Truncated input: type " + tag + " at position " + pos
+                    + " ends at " + next);
+        }
+        pos = next;
+        return result.getValue();
+    }
+
+    public int readInt() {
+        expect(InputType.INT32, 5);
+        int value = readInt32(bytes, pos + 1);
+        pos += 5;
+        return value;
+    }
+
+    public long readLong() {
+        expect(InputType.INT64, 9);
+        long value = readInt64(bytes, pos + 1);
+        pos += 9;
+        return value;
+    }
+
+    public double readDouble() {
+        expect(InputType.FLOAT64, 9);
+        double value = Double.longBitsToDouble(readInt64(bytes, pos + 1));
+        pos += 9;
+        return value;
+    }
+
+    /** Consumes a VARINT; whether it fits in an int is up to the caller. */
+    public long readVarLong() {
+        expect(InputType.VARINT, 2);
+        int end = VarInt.end(bytes, pos + 1, limit);
+        long value = VarInt.read(bytes, pos + 1);
+        pos = end;
+        return value;
+    }
+
+    /** Consumes a TRUE or FALSE element. */
+    public boolean readBoolean() {
+        boolean value = nextType() == InputType.TRUE;
+        expect(value ? InputType.TRUE : InputType.FALSE, 1);
+        pos++;
+        return value;
+    }
+
+    public void readNull() {
+        expect(InputType.NULL, 1);
+        pos++;
+    }
+
+    public String readString() {
+        int length = stringLength();
+        String value = new String(bytes, pos + 5, length, StandardCharsets.UTF_8);
+        pos += 5 + length;
+        return value;
+    }
+
+    /** Byte length of the STRING at the cursor, without consuming it. */
+    public int peekStringLength() {
+        require(5);
+        if (InputType.fromByte(bytes[pos]) != InputType.STRING) {
+            throw new IllegalArgumentException("Expected " + InputType.STRING + " at position " + pos + " but found " + nextType());
+        }
+        return readInt32(bytes, pos + 1);
+    }
+
+    /**
+     * Consumes the STRING at the cursor without decoding it and returns where its UTF-8
+     * bytes start in {@link #array()}; their length is {@link #peekStringLength()}.
+     */
+    public int readStringOffset() {
+        int length = stringLength();
+        int start = pos + 5;
+        pos = start + length;
+        return start;
+    }
+
+    /** Consumes a PACKED_INT32 array with one bulk read. */
+    public int[] readIntArray() {
+        int count = packedCount(InputType.PACKED_INT32);
+        require(3 + 4 * count);
+        int[] values = new int[count];
+        for (int i = 0, at = pos + 3; i < count; i++, at += 4) {
+            values[i] = readInt32(bytes, at);
+        }
+        pos += 3 + 4 * count;
+        return values;
+    }
+
+    /** Consumes a PACKED_STRING array, decoding every string. */
+    public String[] readStringArray() {
+        int count = packedCount(InputType.PACKED_STRING);
+        int data = pos + 3 + 4 * count;
+        int end = packedStringsEnd(count);
+        String[] values = new String[count];
+        for (int i = 0, at = pos + 3; i < count; i++, at += 4) {
+            int length = readInt32(bytes, at);
+            values[i] = new String(bytes, data, length, StandardCharsets.UTF_8);
+            data += length;
+        }
+        pos = end;
+        return values;
+    }
+
+    /** Opens the next array, plain or indexed, and returns its element count. */
+    public int enterArray() {
+        if (nextType() != InputType.INDEXED_ARRAY) {
+            return enter(InputType.DATA_INPUT);
+        }
+        // The elements are read in order, so the offset table is not needed
+        expect(InputType.INDEXED_ARRAY, 7);
+        int count = ((bytes[pos + 1] & 0xFF) << 8) | (bytes[pos + 2] & 0xFF);
+        require(7 + 4 * count);
+        pos += 7 + 4 * count;
+        push(count);
+        return count;
+    }
+
+    /**
+     * Opens the string table at the cursor and returns its entry count. Entries are read
+     * like the STRING elements of an array and the table is closed with {@link #exitArray()}.
+     */
+    public int enterStringTable() {
+        return enter(InputType.STRING_TABLE);
+    }
+
+    /** Consumes a STRING_REF and returns the string table index it points to. */
+    public int readStringRef() {
+        expect(InputType.STRING_REF, 3);
+        int index = ((bytes[pos + 1] & 0xFF) << 8) | (bytes[pos + 2] & 0xFF);
+        pos += 3;
+        return index;
+    }
+
+    private int enter(InputType type) {
+        expect(type, 3);
+        int count = ((bytes[pos + 1] & 0xFF) << 8) | (bytes[pos + 2] & 0xFF);
+        pos += 3;
+        push(count);
+        return count;
+    }
+
+    private void push(int count) {
+        if (depth == remaining.length) {
+            int[] grown = new int[depth * 2];
+            System.arraycopy(remaining, 0, grown, 0, depth);
+            remaining = grown;
+        }
+        remaining[depth++] = count;
+    }
+
+    /** Closes the current array, skipping any elements that were not read. */
+    public void exitArray() {
+        if (depth == 0) {
+            throw new IllegalStateException("Not inside an array");
+        }
+        while (remaining[depth - 1] > 0) {
+            skip();
+        }
+        depth--;
+    }
+
+    /** Skips the next element, including everything nested inside it. */
+    public void skip() {
+        switch (nextType()) {
+            case INT32:
+                expect(InputType.INT32, 5);
+                pos += 5;
+                break;
+            case INT64:
+                readLong();
+                break;
+            case FLOAT64:
+                readDouble();
+                break;
+            case VARINT:
+                readVarLong();
+                break;
+            case TRUE:
+            case FALSE:
+                readBoolean();
+                break;
+            case NULL:
+                readNull();
+                break;
+            case EXTENSION:
+                readExtension();
+                break;
+            case STRING:
+                pos += 5 + stringLength();
+                break;
+            case STRING_REF:
+                readStringRef();
+                break;
+            case DATA_INPUT:
+                enterArray();
+                exitArray();
+                break;
+            case INDEXED_ARRAY:
+                // Skipped by its length, without looking at the elements
+                pos = indexedEnd();
+                break;
+            case PACKED_INT32:
+                int count = packedCount(InputType.PACKED_INT32);
+                require(3 + 4 * count);
+                pos += 3 + 4 * count;
+                break;
+            case PACKED_STRING:
+                pos = packedStringsEnd(packedCount(InputType.PACKED_STRING));
+                break;
+            case STRING_TABLE:
+                enterStringTable();
+                exitArray();
+                break;
+            default:
+                throw new IllegalArgumentException("Unhandled type: " + nextType());
+        }
+    }
+
+    /** The array being read. */
+    public byte[] array() {
+        return bytes;
+    }
+
+    public int position() {
+        return pos;
+    }
+
+    /** Index just after the last byte the reader may read. */
+    public int limit() {
+        return limit;
+    }
+
+    /** Number of arrays currently entered. */
+    public int depth() {
+        return depth;
+    }
+
+    /** Consumes the packed array header at the cursor as one element and returns its count; pos is left on the tag. */
+    private int packedCount(InputType type) {
+        expect(type, 3);
+        return ((bytes[pos + 1] & 0xFF) << 8) | (bytes[pos + 2] & 0xFF);
+    }
+
+    /** Consumes the INDEXED_ARRAY header at the cursor as one element and returns where its elements end; pos is left on the tag. */
+    private int indexedEnd() {
+        expect(InputType.INDEXED_ARRAY, 7);
+        int count = ((bytes[pos + 1] & 0xFF) << 8) | (bytes[pos + 2] & 0xFF);
+        int size = readInt32(bytes, pos + 3);
+        long end = pos + 7 + 4L * count + size;
+        if (size < 0 || end > limit) {
+            throw new IllegalArgumentException("Truncated input: indexed array of " + size + " bytes at position " + pos);
+        }
+        return (int) end;
+    }
+
+    /** Validates the length table of the PACKED_STRING at the cursor and returns where its data ends. */
+    private int packedStringsEnd(int count) {
+        require(3 + 4 * count);
+        long end = pos + 3 + 4L * count;
+        for (int i = 0, at = pos + 3; i < count; i++, at += 4) {
+            int length = readInt32(bytes, at);
+            if (length < 0) {
+                throw new IllegalArgumentException("Invalid string length " + length + " at position " + at);
+            }
+            end += length;
+        }
+        if (end > limit) {
+            throw new IllegalArgumentException("Truncated input: packed strings end after position " + limit);
+        }
+        return (int) end;
+    }
+
+    /** Validates a STRING header at the cursor, consumes the element and returns its byte length. */
+    private int stringLength() {
+        expect(InputType.STRING, 5);
+        int length = readInt32(bytes, pos + 1);
+        if (length < 0 || length > limit - pos - 5) {
+            throw new IllegalArgumentException("Truncated input: string of " + length + " bytes at position " + pos);
+        }
+        return length;
+    }
+
+    private void expect(InputType type, int headerLength) {
+        InputType actual = nextType();
+        if (actual != type) {
+            throw new IllegalArgumentException("Expected " + type + " at position " + pos + " but found " + actual);
+        }
+        require(headerLength);
+        if (depth > 0) {
+            if (remaining[depth - 1] == 0) {
+                throw new IllegalStateException("No elements left in the current array");
+            }
+            remaining[depth - 1]--;
+        }
+    }
+
+    private void require(int n) {
+        if (n > limit - pos) {
+            throw new IllegalArgumentException("Truncated input: need " + n + " bytes at position " + pos);
+        }
+    }
+
+    static int readInt32(byte[] bytes, int index) {
+        return ((bytes[index] & 0xFF) << 24) |
+                ((bytes[index + 1] & 0xFF) << 16) |
+                ((bytes[index + 2] & 0xFF) << 8) |
+                (bytes[index + 3] & 0xFF);
+    }
+
+    static long readInt64(byte[] bytes, int index) {
+        return ((long) readInt32(bytes, index) << 32) | (readInt32(bytes, index + 4) & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,348 @@
+package org.pranavt84.decoder;
+
+import org.pranavt84.encode.VarInt;
+import org.pranavt84.model.DecodeResult;
+import org.pranavt84.type.CodecRegistry;
+import org.pranavt84.type.InputType;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Single pass over an encoded message that checks it completely before anything is decoded:
+ * tags, that every length fits in the input, string table references, strict UTF-8, and the
+ * limits of a {@link DecoderConfig}. Nothing is allocated, except by the DecodeTypes of
+ * extension elements, which have to be run to find out where they end.
+ *
+ * <p>Validates a plain message, optionally led by a string table; a compressed message is
+ * validated after {@link org.pranavt84.compress.CompressedEnvelope#unwrap unwrapping}. The
+ * message must take up exactly the given range.
+ */
+public final class DataInputValidator {
+
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final DecoderConfig DEFAULTS = new DecoderConfig();
+
+    /** No string table precedes the message. */
+    private static final int NO_TABLE = -1;
+
+    private DataInputValidator() {
+        throw new AssertionError("DataInputValidator should not be instantiated.");
+    }
+
+    /** Validates with the default limits and the extension types of the default registry. */
+    public static void validate(byte[] bytes, int offset, int length) {
+        validate(bytes, offset, length, DEFAULTS, CodecRegistry.getDefault());
+    }
+
+    /**
+     * @throws InvalidInputException with the position of the first problem found
+     */
+    public static void validate(byte[] bytes, int offset, int length, DecoderConfig config, CodecRegistry registry) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array " + bytes.length);
+        }
+        if (length > config.getMaxMessageSize()) {
+            throw new InvalidInputException("Message of " + length + " bytes, more than the limit of "
+                    + config.getMaxMessageSize(), offset);
+        }
+        int end = offset + length;
+        int pos = offset;
+        int tableSize = NO_TABLE;
+
+        require(pos, 1, end);
+        if (bytes[pos] == InputType.STRING_TABLE.getValue()) {
+            require(pos, 3, end);
+            tableSize = readCount(bytes, pos);
+            pos += 3;
+            for (int i = 0; i < tableSize; i++) {
+                require(pos, 1, end);
+                if (bytes[pos] != InputType.STRING.getValue()) {
+                    throw new InvalidInputException("Expected STRING in the string table but found tag "
+                            + (bytes[pos] & 0xFF), pos);
+                }
+                pos = string(bytes, pos, end, config);
+            }
+            require(pos, 1, end);
+        }
+
+        InputType root = InputType.lookup(bytes[pos]);
+        if (root == InputType.COMPRESSED) {
+            throw new InvalidInputException("Compressed message must be unwrapped before it is validated", pos);
+        }
+        if (root == null || !root.isArray()) {
+            throw new InvalidInputException("Expected DataInput but found tag " + (bytes[pos] & 0xFF), pos);
+        }
+        pos = element(bytes, pos, end, 0, tableSize, config, registry);
+        if (pos != end) {
+            throw new InvalidInputException((end - pos) + " trailing bytes after the message", pos);
+        }
+    }
+
+    /**
+     * Validates just the element at {@code pos} and everything nested in it, for callers that read
+     * only part of a message. It sits inside {@code depth} open arrays, ends by {@code end}, and the
+     * message has a string table of {@code tableSize} entries, or -1 for none.
+     *
+     * @return the index after the element
+     * @throws InvalidInputException with the position of the first problem found
+     */
+    public static int validateElement(byte[] bytes, int pos, int end, int depth, int tableSize,
+                                      DecoderConfig config, CodecRegistry registry) {
+        require(pos, 1, end);
+        return element(bytes, pos, end, depth, tableSize, config, registry);
+    }
+
+    /**
+     * Checks the UTF-8 of a string whose bytes, already known to be in range, are at
+     * {@code bytes[from..from+length)}, and its length against the limit. {@code header} is the
+     * position reported for a string that is too long.
+     */
+    public static void validateString(byte[] bytes, int from, int length, int header, DecoderConfig config) {
+        checkText(bytes, from, length, header, config);
+    }
+
+    /** Validates the element at {@code pos}, inside {@code depth} open arrays, and returns the index after it. */
+    private static int element(byte[] bytes, int pos, int end, int depth, int tableSize,
+                               DecoderConfig config, CodecRegistry registry) {
+        InputType type = InputType.lookup(bytes[pos]);
+        if (type == null) {
+            if (registry.isExtension(bytes[pos])) {
+                return extension(bytes, pos, end, registry);
+            }
+            throw new InvalidInputException("Unknown type tag " + (bytes[pos] & 0xFF), pos);
+        }
+        switch (type) {
+            case INT32:
+                return require(pos, 5, end);
+            case INT64:
+            case FLOAT64:
+                return require(pos, 9, end);
+            case TRUE:
+            case FALSE:
+            case NULL:
+                return pos + 1;
+            case VARINT:
+                return varint(bytes, pos, end);
+            case STRING:
+                return string(bytes, pos, end, config);
+            case STRING_REF:
+                require(pos, 3, end);
+                int index = readCount(bytes, pos);
+                if (tableSize == NO_TABLE) {
+                    throw new InvalidInputException("String reference without a string table", pos);
+                }
+                if (index >= tableSize) {
+                    throw new InvalidInputException("String reference " + index + " outside a table of "
+                            + tableSize + " entries", pos);
+                }
+                return pos + 3;
+            case DATA_INPUT:
+                int count = array(bytes, pos, end, depth, config);
+                // Every element takes at least one byte, which rejects an inflated count straight away
+                if (count > end - pos - 3) {
+                    throw new InvalidInputException("Truncated input: array of " + count + " elements in "
+                            + (end - pos - 3) + " bytes", pos);
+                }
+                int next = pos + 3;
+                for (int i = 0; i < count; i++) {
+                    require(next, 1, end);
+                    next = element(bytes, next, end, depth + 1, tableSize, config, registry);
+                }
+                return next;
+            case INDEXED_ARRAY:
+                return indexed(bytes, pos, end, depth, tableSize, config, registry);
+            case PACKED_INT32:
+                int ints = array(bytes, pos, end, depth, config);
+                return require(pos, 3 + 4 * ints, end);
+            case PACKED_STRING:
+                return packedStrings(bytes, pos, end, array(bytes, pos, end, depth, config), config);
+            case STRING_TABLE:
+                throw new InvalidInputException("String table is only allowed before the message", pos);
+            case COMPRESSED:
+                throw new InvalidInputException("Compressed envelope is only allowed around the whole message", pos);
+            default:
+                throw new InvalidInputException("Unhandled type " + type, pos);
+        }
+    }
+
+    /** Checks the header of the array at {@code pos} against the limits and returns its element count. */
+    private static int array(byte[] bytes, int pos, int end, int depth, DecoderConfig config) {
+        require(pos, 3, end);
+        if (depth + 1 > config.getMaxDepth()) {
+            throw new InvalidInputException("Arrays nested deeper than " + config.getMaxDepth(), pos);
+        }
+        int count = readCount(bytes, pos);
+        if (count > config.getMaxArraySize()) {
+            throw new InvalidInputException("Array of " + count + " elements, more than the limit of "
+                    + config.getMaxArraySize(), pos);
+        }
+        return count;
+    }
+
+    /**
+     * Checks that the elements of an indexed array take up exactly its size, and that each offset
+     * is where the element before it ended, so the offsets can be trusted without reading ahead.
+     */
+    private static int indexed(byte[] bytes, int pos, int end, int depth, int tableSize,
+                               DecoderConfig config, CodecRegistry registry) {
+        require(pos, 7, end);
+        int count = array(bytes, pos, end, depth, config);
+        int elements = require(pos + 7, 4L * count, end);
+        int size = DataInputReader.readInt32(bytes, pos + 3);
+        if (size < 0 || size > end - elements) {
+            throw new InvalidInputException("Truncated input: indexed array of " + size + " bytes", pos);
+        }
+        int stop = elements + size;
+        int next = elements;
+        for (int i = 0, at = pos + 7; i < count; i++, at += 4) {
+            int offset = DataInputReader.readInt32(bytes, at);
+            if (offset != next - elements) {
+                throw new InvalidInputException("Offset " + offset + " of element " + i + " does not match its start "
+                        + (next - elements), at);
+            }
+            require(next, 1, stop);
+            next = element(bytes, next, stop, depth + 1, tableSize, config, registry);
+        }
+        if (next != stop) {
+            throw new InvalidInputException("Indexed array of " + size + " bytes has elements of "
+                    + (next - elements) + " bytes", pos);
+        }
+        return stop;
+    }
+
+    private static int packedStrings(byte[] bytes, int pos, int end, int count, DecoderConfig config) {
+        int lengths = pos + 3;
+        int data = require(pos, 3 + 4 * count, end);
+        for (int i = 0, at = lengths; i < count; i++, at += 4) {
+            int length = DataInputReader.readInt32(bytes, at);
+            if (length < 0 || length > end - data) {
+                throw new InvalidInputException("Truncated input: string of " + length + " bytes", at);
+            }
+            checkText(bytes, data, length, at, config);
+            data += length;
+        }
+        return data;
+    }
+
+    private static int string(byte[] bytes, int pos, int end, DecoderConfig config) {
+        require(pos, 5, end);
+        int length = DataInputReader.readInt32(bytes, pos + 1);
+        if (length < 0 || length > end - pos - 5) {
+            throw new InvalidInputException("Truncated input: string of " + length + " bytes", pos);
+        }
+        checkText(bytes, pos + 5, length, pos, config);
+        return pos + 5 + length;
+    }
+
+    /** Checks the UTF-8 bytes of a string whose header is at {@code header} against the length limit. */
+    private static void checkText(byte[] bytes, int from, int length, int header, DecoderConfig config) {
+        int max = config.getMaxStringLength();
+        // No character takes more than three bytes per UTF-16 unit, so this cannot be within the limit
+        if (length > 3L * max) {
+            throw new InvalidInputException("String of " + length + " bytes, more than the limit of "
+                    + max + " characters", header);
+        }
+        int chars = utf16Length(bytes, from, from + length);
+        if (chars > max) {
+            throw new InvalidInputException("String of " + chars + " characters, more than the limit of "
+                    + max, header);
+        }
+    }
+
+    private static int varint(byte[] bytes, int pos, int end) {
+        int max = Math.min(end, pos + 1 + VarInt.MAX_LENGTH);
+        for (int i = pos + 1; i < max; i++) {
+            if (bytes[i] >= 0) {
+                return i + 1;
+            }
+        }
+        if (max == end && end - pos - 1 < VarInt.MAX_LENGTH) {
+            throw new InvalidInputException("Truncated input: varint", pos);
+        }
+        throw new InvalidInputException("Varint longer than " + VarInt.MAX_LENGTH + " bytes", pos);
+    }
+
+    private static int extension(byte[] bytes, int pos, int end, CodecRegistry registry) {
+        int tag = bytes[pos] & 0xFF;
+        int next;
+        try {
+            DecodeResult result = registry.decoder(tag).decode(bytes, pos);
+            next = result.getNextIndex();
+        } catch (IndexOutOfBoundsException e) {
+            throw new InvalidInputException("Truncated input: type " + tag, pos);
+        }
+        if (next <= pos || next > end) {
+            throw new InvalidInputException("Truncated input: type " + tag + " ends at " + next, pos);
+        }
+        return next;
+    }
+
+    /**
+     * Number of UTF-16 code units the well-formed UTF-8 in {@code bytes[from..to)} decodes to.
+     * Overlong forms, surrogates and code points past U+10FFFF are rejected at the offending byte.
+     */
+    static int utf16Length(byte[] bytes, int from, int to) {
+        int units = to - from;
+        int i = from;
+        while (i < to) {
+            // ASCII fast path, eight bytes at a time
+            while (i + 8 <= to && ((long) LONG_BE.get(bytes, i) & 0x8080808080808080L) == 0) {
+                i += 8;
+            }
+            if (i == to) {
+                break;
+            }
+            int lead = bytes[i] & 0xFF;
+            if (lead < 0x80) {
+                i++;
+            } else if (lead < 0xC2) {
+                throw new InvalidInputException("Invalid UTF-8 lead byte 0x" + Integer.toHexString(lead), i);
+            } else if (lead < 0xE0) {
+                continuation(bytes, i, 1, to, 0x80, 0xBF);
+                i += 2;
+                units -= 1;
+            } else if (lead < 0xF0) {
+                // E0 would be overlong below A0, ED would be a surrogate from A0
+                continuation(bytes, i, 1, to, lead == 0xE0 ? 0xA0 : 0x80, lead == 0xED ? 0x9F : 0xBF);
+                continuation(bytes, i, 2, to, 0x80, 0xBF);
+                i += 3;
+                units -= 2;
+            } else if (lead < 0xF5) {
+                // F0 would be overlong below 90, F4 would pass U+10FFFF from 90
+                continuation(bytes, i, 1, to, lead == 0xF0 ? 0x90 : 0x80, lead == 0xF4 ? 0x8F : 0xBF);
+                continuation(bytes, i, 2, to, 0x80, 0xBF);
+                continuation(bytes, i, 3, to, 0x80, 0xBF);
+                // Four bytes make a surrogate pair, two units
+                i += 4;
+                units -= 2;
+            } else {
+                throw new InvalidInputException("Invalid UTF-8 lead byte 0x" + Integer.toHexString(lead), i);
+            }
+        }
+        return units;
+    }
+
+    private static void continuation(byte[] bytes, int lead, int n, int to, int min, int max) {
+        if (lead + n >= to) {
+            throw new InvalidInputException("Truncated UTF-8 sequence", lead);
+        }
+        int b = bytes[lead + n] & 0xFF;
+        if (b < min || b > max) {
+            throw new InvalidInputException("Invalid UTF-8 continuation byte 0x" + Integer.toHexString(b), lead + n);
+        }
+    }
+
+    /** Checks that {@code n} bytes are available at {@code pos} and returns the index after them. */
+    private static int require(int pos, long n, int end) {
+        if (n > end - pos) {
+            throw new InvalidInputException("Truncated input: need " + n + " bytes", pos);
+        }
+        return (int) (pos + n);
+    }
+
+    private static int readCount(byte[] bytes, int pos) {
+        return ((bytes[pos + 1] & 0xFF) << 8) | (bytes[pos + 2] & 0xFF);
+    }
+}
@@ -0,0 +1,28 @@
+package org.pranavt84.decoder;
+
+/**
+ * Receives elements from {@link IncrementalDataInputDecoder} as soon as each one is complete.
+ * Arrays are reported as a start/end pair around their elements.
+ */
+public interface DecodeListener {
+
+    default void onInt(int value) {}
+
+    /** INT64 elements, and VARINTs too large for an int. */
+    default void onLong(long value) {}
+
+    default void onDouble(double value) {}
+
+    default void onBoolean(boolean value) {}
+
+    default void onNull() {}
+
+    default void onString(String value) {}
+
+    default void onArrayStart(int count) {}
+
+    default void onArrayEnd() {}
+
+    /** Called after the root array of a message has been closed. */
+    default void onMessageEnd() {}
+}
@@ -0,0 +1,112 @@
+package org.pranavt84.decoder;
+
+/**
+ * Limits every decoded message must stay within; see {@link DataInputValidator}. The defaults
+ * are the limits of the protocol specification. Also sets when {@link DataInputDecoder} may
+ * decode on several threads.
+ */
+public class DecoderConfig {
+
+    /** Deeper nesting than this could overflow the stack of the recursive decoders. */
+    public static final int MAX_DEPTH_LIMIT = 1024;
+
+    /** Default of {@link #getMaxMessageSize()}: 64 MB. */
+    public static final int DEFAULT_MAX_MESSAGE_SIZE = 64 << 20;
+
+    /** {@link #getParallelMinSize()} value that keeps decoding on the calling thread. */
+    public static final int PARALLEL_OFF = -1;
+
+    private int maxArraySize = 1000;
+    private int maxStringLength = 1_000_000;
+    private int maxDepth = 128;
+    private int maxMessageSize = DEFAULT_MAX_MESSAGE_SIZE;
+    private int parallelMinSize = PARALLEL_OFF;
+
+    /** Most elements an array, packed or not, may hold. String tables are not counted as arrays. */
+    public int getMaxArraySize() {
+        return maxArraySize;
+    }
+
+    public DecoderConfig setMaxArraySize(int maxArraySize) {
+        if (maxArraySize < 0 || maxArraySize > 0xFFFF) {
+            throw new IllegalArgumentException("max array size must be in [0, 65535], got " + maxArraySize);
+        }
+        this.maxArraySize = maxArraySize;
+        return this;
+    }
+
+    /** Most characters (UTF-16 code units, as in {@link String#length()}) a string may hold. */
+    public int getMaxStringLength() {
+        return maxStringLength;
+    }
+
+    public DecoderConfig setMaxStringLength(int maxStringLength) {
+        if (maxStringLength < 0) {
+            throw new IllegalArgumentException("max string length must not be negative, got " + maxStringLength);
+        }
+        this.maxStringLength = maxStringLength;
+        return this;
+    }
+
+    /** Most arrays that may be open at once; the root array counts as one. */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public DecoderConfig setMaxDepth(int maxDepth) {
+        if (maxDepth < 1 || maxDepth > MAX_DEPTH_LIMIT) {
+            throw new IllegalArgumentException("max depth must be in [1, " + MAX_DEPTH_LIMIT + "], got " + maxDepth);
+        }
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    /**
+     * Most bytes a message may take. A compressed message is held to it twice, before anything is
+     * allocated for it: the compressed block, and the message it expands to.
+     */
+    public int getMaxMessageSize() {
+        return maxMessageSize;
+    }
+
+    public DecoderConfig setMaxMessageSize(int maxMessageSize) {
+        if (maxMessageSize < 1) {
+            throw new IllegalArgumentException("max message size must be positive, got " + maxMessageSize);
+        }
+        this.maxMessageSize = maxMessageSize;
+        return this;
+    }
+
+    /**
+     * Indexed arrays (see {@code InputType.INDEXED_ARRAY}) of at least this many bytes have their
+     * elements decoded by fork/join tasks, each starting from the offset table; plain arrays are
+     * always decoded on the calling thread. {@link #PARALLEL_OFF} (the default) never splits.
+     * The result is the same either way.
+     */
+    public int getParallelMinSize() {
+        return parallelMinSize;
+    }
+
+    public DecoderConfig setParallelMinSize(int parallelMinSize) {
+        if (parallelMinSize != PARALLEL_OFF && parallelMinSize <= 0) {
+            throw new IllegalArgumentException("parallel min size must be positive, got " + parallelMinSize);
+        }
+        this.parallelMinSize = parallelMinSize;
+        return this;
+    }
+
+    public boolean isParallel() {
+        return parallelMinSize != PARALLEL_OFF;
+    }
+
+    @Override
+    public String toString() {
+        return "DecoderConfig{" +
+                "maxArraySize=" + maxArraySize +
+                ", maxStringLength=" + maxStringLength +
+                ", maxDepth=" + maxDepth +
+                ", maxMessageSize=" + maxMessageSize +
+                ", parallelMinSize=" + parallelMinSize +
+                '}';
+    }
+}
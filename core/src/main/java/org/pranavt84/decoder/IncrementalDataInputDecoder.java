@@ -0,0 +1,583 @@
+package org.pranavt84.decoder;
+
+import org.pranavt84.compress.CompressedEnvelope;
+import org.pranavt84.encode.VarInt;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.type.InputType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Push-based decoder for input that arrives in chunks. Bytes are handed over with
+ * {@link #feed(ByteBuffer)} as they come in; the decoder keeps its position inside the
+ * nested frames between calls and reports completed elements to a {@link DecodeListener}.
+ * Several messages may follow each other in the same stream.
+ *
+ * <p>Extension types from the CodecRegistry are rejected: only their DecodeType knows where
+ * they end, and it needs the whole element in one array.
+ *
+ * <p>Not thread-safe; feed it from one thread at a time.
+ */
+public class IncrementalDataInputDecoder {
+
+    private enum State {
+        TAG, INT_VALUE, LONG_VALUE, DOUBLE_VALUE, VARINT_VALUE, STRING_LENGTH, STRING_BODY, ARRAY_COUNT, TABLE_COUNT, REF_INDEX,
+        PACKED_COUNT, PACKED_LENGTH, INDEX_COUNT, INDEX_SIZE, INDEX_TABLE,
+        ENVELOPE_RAW_LENGTH, ENVELOPE_BLOCK_LENGTH, ENVELOPE_BODY
+    }
+
+    /** Block bytes room is made for up front; the buffer doubles from there as the block arrives. */
+    private static final int INITIAL_ENVELOPE = 1 << 16;
+
+    private final DecodeListener listener;
+    private final DecoderConfig config;
+
+    private State state = State.TAG;
+    /** Header bytes still missing for the current state, and what has been collected so far. */
+    private int needed;
+    private int header;
+    /** INT64 and FLOAT64 payloads, and the value of a VARINT, collected so far. */
+    private long wide;
+    private int wideShift;
+
+    private byte[] stringBody;
+    private int stringFilled;
+
+    /**
+     * A compressed envelope, header included, collected whole before it is decompressed. The
+     * buffer grows as bytes arrive, up to the length of the whole envelope.
+     */
+    private byte[] envelope;
+    private int envelopeFilled;
+    private int envelopeLength;
+    private int envelopeRawLength;
+
+    /** String table of the current message; entries still to come, and whether it is complete. */
+    private final List<String> table = new ArrayList<>();
+    private int tableRemaining;
+    private boolean tableReady;
+
+    /**
+     * Form of the innermost open array while it is a packed one, else null. Packed arrays hold
+     * no arrays, so only one can be open at a time.
+     */
+    private InputType packed;
+    /** Lengths of the strings of a packed string array, and how far through them decoding is. */
+    private int[] packedLengths;
+    private int packedIndex;
+
+    /** Element count of an indexed array whose header is being read, and the offset table bytes still to skip. */
+    private int indexCount;
+    private int indexSkip;
+
+    /** Elements left in each open array, indexed by depth - 1. */
+    private int[] remaining = new int[16];
+    private int depth;
+
+    public IncrementalDataInputDecoder(DecodeListener listener) {
+        this(listener, new DecoderConfig());
+    }
+
+    /**
+     * Decoder that enforces the limits of {@code config}. Lengths and counts are checked as soon
+     * as their header arrives, before anything is allocated for them.
+     */
+    public IncrementalDataInputDecoder(DecodeListener listener, DecoderConfig config) {
+        this.listener = listener;
+        this.config = config;
+    }
+
+    /** Decoder that assembles each message into a DataInput and hands it to {@code onMessage}. */
+    public static IncrementalDataInputDecoder forMessages(Consumer<DataInput> onMessage) {
+        return forMessages(onMessage, new DecoderConfig());
+    }
+
+    /** Same as {@link #forMessages(Consumer)}, enforcing the limits of {@code config}. */
+    public static IncrementalDataInputDecoder forMessages(Consumer<DataInput> onMessage, DecoderConfig config) {
+        return new IncrementalDataInputDecoder(new TreeBuilder(onMessage), config);
+    }
+
+    /** Consumes every remaining byte of {@code chunk}. */
+    public void feed(ByteBuffer chunk) {
+        while (chunk.hasRemaining()) {
+            switch (state) {
+                case TAG:
+                    readTag(chunk.get());
+                    break;
+                case STRING_BODY:
+                    int n = Math.min(chunk.remaining(), stringBody.length - stringFilled);
+                    chunk.get(stringBody, stringFilled, n);
+                    stringFilled += n;
+                    if (stringFilled == stringBody.length) {
+                        completeString();
+                    }
+                    break;
+                case LONG_VALUE:
+                case DOUBLE_VALUE:
+                    wide = (wide << 8) | (chunk.get() & 0xFF);
+                    if (--needed == 0) {
+                        completeWide();
+                    }
+                    break;
+                case VARINT_VALUE:
+                    readVarIntByte(chunk.get());
+                    break;
+                case INDEX_TABLE:
+                    // Elements arrive in order, so the offsets are not needed
+                    int skip = Math.min(chunk.remaining(), indexSkip);
+                    chunk.position(chunk.position() + skip);
+                    indexSkip -= skip;
+                    if (indexSkip == 0) {
+                        completeIndex();
+                    }
+                    break;
+                case ENVELOPE_BODY:
+                    if (envelopeFilled == envelope.length) {
+                        envelope = Arrays.copyOf(envelope, (int) Math.min(envelopeLength, 2L * envelope.length));
+                    }
+                    int m = Math.min(chunk.remaining(), envelope.length - envelopeFilled);
+                    chunk.get(envelope, envelopeFilled, m);
+                    envelopeFilled += m;
+                    if (envelopeFilled == envelopeLength) {
+                        completeEnvelope();
+                    }
+                    break;
+                default:
+                    header = (header << 8) | (chunk.get() & 0xFF);
+                    if (--needed == 0) {
+                        completeHeader();
+                    }
+                    break;
+            }
+        }
+    }
+
+    public void feed(byte[] bytes, int offset, int length) {
+        feed(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /** True when no message is partially decoded. */
+    public boolean isIdle() {
+        return state == State.TAG && depth == 0 && tableRemaining == 0 && !tableReady;
+    }
+
+    /** Signals end of input; fails if it stopped in the middle of a message. */
+    public void finish() {
+        if (!isIdle()) {
+            throw new IllegalArgumentException("Truncated input: stream ended inside a message at depth " + depth);
+        }
+    }
+
+    private void readTag(byte tag) {
+        InputType type = InputType.fromByte(tag);
+        if (tableRemaining > 0) {
+            if (type != InputType.STRING) {
+                throw new IllegalArgumentException("Expected STRING table entry but found " + type);
+            }
+        } else if (depth == 0 && !type.isArray()
+                && (tableReady || type != InputType.COMPRESSED && type != InputType.STRING_TABLE)) {
+            throw new IllegalArgumentException("Expected DataInput but found " + type);
+        }
+        header = 0;
+        switch (type) {
+            case INT32:
+                state = State.INT_VALUE;
+                needed = 4;
+                break;
+            case INT64:
+                state = State.LONG_VALUE;
+                needed = 8;
+                wide = 0;
+                break;
+            case FLOAT64:
+                state = State.DOUBLE_VALUE;
+                needed = 8;
+                wide = 0;
+                break;
+            case VARINT:
+                state = State.VARINT_VALUE;
+                wide = 0;
+                wideShift = 0;
+                break;
+            case TRUE:
+            case FALSE:
+                listener.onBoolean(type == InputType.TRUE);
+                elementDone();
+                break;
+            case NULL:
+                listener.onNull();
+                elementDone();
+                break;
+            case STRING:
+                state = State.STRING_LENGTH;
+                needed = 4;
+                break;
+            case STRING_REF:
+                state = State.REF_INDEX;
+                needed = 2;
+                break;
+            case DATA_INPUT:
+                state = State.ARRAY_COUNT;
+                needed = 2;
+                break;
+            case INDEXED_ARRAY:
+                state = State.INDEX_COUNT;
+                needed = 2;
+                break;
+            case PACKED_INT32:
+            case PACKED_STRING:
+                packed = type;
+                state = State.PACKED_COUNT;
+                needed = 2;
+                break;
+            case STRING_TABLE:
+                state = State.TABLE_COUNT;
+                needed = 2;
+                break;
+            case COMPRESSED:
+                if (depth > 0) {
+                    throw new IllegalArgumentException("Compressed envelope inside an array");
+                }
+                state = State.ENVELOPE_RAW_LENGTH;
+                needed = 4;
+                break;
+            default:
+                throw new IllegalArgumentException("Unhandled type: " + type);
+        }
+    }
+
+    private void completeHeader() {
+        switch (state) {
+            case INT_VALUE:
+                state = State.TAG;
+                listener.onInt(header);
+                elementDone();
+                if (packed != null) {
+                    expectPackedInt();
+                }
+                break;
+            case PACKED_COUNT:
+                state = State.TAG;
+                int count = header;
+                InputType form = packed;
+                openArray(count);
+                if (count == 0) {
+                    break;
+                }
+                if (form == InputType.PACKED_INT32) {
+                    expectPackedInt();
+                } else {
+                    packedLengths = new int[count];
+                    packedIndex = 0;
+                    state = State.PACKED_LENGTH;
+                    header = 0;
+                    needed = 4;
+                }
+                break;
+            case PACKED_LENGTH:
+                checkStringLength(header);
+                packedLengths[packedIndex++] = header;
+                header = 0;
+                needed = 4;
+                if (packedIndex == packedLengths.length) {
+                    packedIndex = 0;
+                    nextPackedString();
+                }
+                break;
+            case STRING_LENGTH:
+                checkStringLength(header);
+                stringBody = new byte[header];
+                stringFilled = 0;
+                state = State.STRING_BODY;
+                if (header == 0) {
+                    completeString();
+                }
+                break;
+            case ARRAY_COUNT:
+                state = State.TAG;
+                openArray(header);
+                break;
+            case INDEX_COUNT:
+                indexCount = header;
+                header = 0;
+                state = State.INDEX_SIZE;
+                needed = 4;
+                break;
+            case INDEX_SIZE:
+                if (header < 0) {
+                    throw new IllegalArgumentException("Invalid indexed array size: " + header);
+                }
+                indexSkip = 4 * indexCount;
+                state = State.INDEX_TABLE;
+                if (indexSkip == 0) {
+                    completeIndex();
+                }
+                break;
+            case TABLE_COUNT:
+                state = State.TAG;
+                tableRemaining = header;
+                tableReady = header == 0;
+                break;
+            case REF_INDEX:
+                state = State.TAG;
+                if (header >= table.size()) {
+                    throw new IllegalArgumentException("String reference " + header + " outside a table of "
+                            + table.size() + " entries");
+                }
+                listener.onString(table.get(header));
+                elementDone();
+                break;
+            case ENVELOPE_RAW_LENGTH:
+                envelopeRawLength = header;
+                header = 0;
+                state = State.ENVELOPE_BLOCK_LENGTH;
+                needed = 4;
+                break;
+            case ENVELOPE_BLOCK_LENGTH:
+                // Checked before anything is allocated, and the block is then collected as it arrives
+                CompressedEnvelope.checkLengths(envelopeRawLength, header, config.getMaxMessageSize());
+                envelopeLength = CompressedEnvelope.HEADER_SIZE + header;
+                envelope = new byte[Math.min(envelopeLength, CompressedEnvelope.HEADER_SIZE + INITIAL_ENVELOPE)];
+                envelope[0] = (byte) InputType.COMPRESSED.getValue();
+                putInt(envelope, 1, envelopeRawLength);
+                putInt(envelope, 5, header);
+                envelopeFilled = CompressedEnvelope.HEADER_SIZE;
+                state = State.ENVELOPE_BODY;
+                if (header == 0) {
+                    completeEnvelope();
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unexpected state: " + state);
+        }
+    }
+
+    private void completeIndex() {
+        state = State.TAG;
+        openArray(indexCount);
+    }
+
+    private void expectPackedInt() {
+        state = State.INT_VALUE;
+        header = 0;
+        needed = 4;
+    }
+
+    /**
+     * Moves on to the body of the next string of a packed string array. Empty strings have no
+     * body and are reported straight away; the array may close on one of them.
+     */
+    private void nextPackedString() {
+        state = State.TAG;
+        while (packed != null) {
+            int length = packedLengths[packedIndex++];
+            if (length > 0) {
+                stringBody = new byte[length];
+                stringFilled = 0;
+                state = State.STRING_BODY;
+                return;
+            }
+            listener.onString("");
+            elementDone();
+        }
+    }
+
+    private void completeWide() {
+        long value = wide;
+        boolean isDouble = state == State.DOUBLE_VALUE;
+        state = State.TAG;
+        if (isDouble) {
+            listener.onDouble(Double.longBitsToDouble(value));
+        } else {
+            listener.onLong(value);
+        }
+        elementDone();
+    }
+
+    private void readVarIntByte(byte b) {
+        if (wideShift == 7 * VarInt.MAX_LENGTH) {
+            throw new IllegalArgumentException("Varint longer than " + VarInt.MAX_LENGTH + " bytes");
+        }
+        wide |= (long) (b & 0x7F) << wideShift;
+        wideShift += 7;
+        if (b < 0) {
+            return;
+        }
+        long value = (wide >>> 1) ^ -(wide & 1);
+        state = State.TAG;
+        if (value == (int) value) {
+            listener.onInt((int) value);
+        } else {
+            listener.onLong(value);
+        }
+        elementDone();
+    }
+
+    /** Rejects a string header before its body is allocated; see {@link DataInputValidator}. */
+    private void checkStringLength(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Invalid string length: " + length);
+        }
+        if (length > 3L * config.getMaxStringLength()) {
+            throw new IllegalArgumentException("String of " + length + " bytes, more than the limit of "
+                    + config.getMaxStringLength() + " characters");
+        }
+    }
+
+    private void completeString() {
+        int chars;
+        try {
+            chars = DataInputValidator.utf16Length(stringBody, 0, stringBody.length);
+        } catch (InvalidInputException e) {
+            throw new IllegalArgumentException("Invalid UTF-8 at byte " + e.getPosition() + " of a "
+                    + stringBody.length + " byte string");
+        }
+        if (chars > config.getMaxStringLength()) {
+            throw new IllegalArgumentException("String of " + chars + " characters, more than the limit of "
+                    + config.getMaxStringLength());
+        }
+        String value = new String(stringBody, StandardCharsets.UTF_8);
+        stringBody = null;
+        state = State.TAG;
+        if (tableRemaining > 0) {
+            table.add(value);
+            tableReady = --tableRemaining == 0;
+            return;
+        }
+        listener.onString(value);
+        elementDone();
+        if (packed != null) {
+            nextPackedString();
+        }
+    }
+
+    /** Decompresses the envelope and decodes the message inside it as if it had been fed directly. */
+    private void completeEnvelope() {
+        byte[] message = CompressedEnvelope.decompress(envelope, 0, envelopeLength, config.getMaxMessageSize());
+        envelope = null;
+        state = State.TAG;
+        feed(ByteBuffer.wrap(message));
+        if (!isIdle()) {
+            throw new IllegalArgumentException("Truncated input: compressed block ends inside a message");
+        }
+    }
+
+    private static void putInt(byte[] bytes, int at, int value) {
+        bytes[at] = (byte) (value >>> 24);
+        bytes[at + 1] = (byte) (value >>> 16);
+        bytes[at + 2] = (byte) (value >>> 8);
+        bytes[at + 3] = (byte) value;
+    }
+
+    private void openArray(int count) {
+        if (depth + 1 > config.getMaxDepth()) {
+            throw new IllegalArgumentException("Arrays nested deeper than " + config.getMaxDepth());
+        }
+        if (count > config.getMaxArraySize()) {
+            throw new IllegalArgumentException("Array of " + count + " elements, more than the limit of "
+                    + config.getMaxArraySize());
+        }
+        if (depth == remaining.length) {
+            int[] grown = new int[depth * 2];
+            System.arraycopy(remaining, 0, grown, 0, depth);
+            remaining = grown;
+        }
+        remaining[depth++] = count;
+        listener.onArrayStart(count);
+        if (count == 0) {
+            closeArray();
+        }
+    }
+
+    private void closeArray() {
+        packed = null;
+        packedLengths = null;
+        depth--;
+        listener.onArrayEnd();
+        if (depth == 0) {
+            table.clear();
+            tableReady = false;
+            listener.onMessageEnd();
+        } else {
+            elementDone();
+        }
+    }
+
+    private void elementDone() {
+        if (--remaining[depth - 1] == 0) {
+            closeArray();
+        }
+    }
+
+    /** Rebuilds the DataInput tree from element events. */
+    private static class TreeBuilder implements DecodeListener {
+
+        private final Consumer<DataInput> onMessage;
+        private final Deque<DataInput> open = new ArrayDeque<>();
+        private DataInput root;
+
+        TreeBuilder(Consumer<DataInput> onMessage) {
+            this.onMessage = onMessage;
+        }
+
+        @Override
+        public void onInt(int value) {
+            open.peek().add(value);
+        }
+
+        @Override
+        public void onLong(long value) {
+            open.peek().add(value);
+        }
+
+        @Override
+        public void onDouble(double value) {
+            open.peek().add(value);
+        }
+
+        @Override
+        public void onBoolean(boolean value) {
+            open.peek().add(value);
+        }
+
+        @Override
+        public void onNull() {
+            open.peek().add(null);
+        }
+
+        @Override
+        public void onString(String value) {
+            open.peek().add(value);
+        }
+
+        @Override
+        public void onArrayStart(int count) {
+            DataInput array = new DataInput();
+            if (open.isEmpty()) {
+                root = array;
+            } else {
+                open.peek().add(array);
+            }
+            open.push(array);
+        }
+
+        @Override
+        public void onArrayEnd() {
+            open.pop();
+        }
+
+        @Override
+        public void onMessageEnd() {
+            DataInput message = root;
+            root = null;
+            onMessage.accept(message);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package org.pranavt84.decoder;
+
+/**
+ * Thrown by {@link DataInputValidator} for a message that is malformed or over a limit.
+ * Carries the index in the encoded array where the problem was found.
+ */
+public class InvalidInputException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int position;
+
+    public InvalidInputException(String message, int position) {
+        super(message + " at position " + position);
+        this.position = position;
+    }
+
+    /** Index into the encoded array, not relative to the start of the message. */
+    public int getPosition() {
+        return position;
+    }
+}
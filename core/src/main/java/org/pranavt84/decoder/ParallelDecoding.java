@@ -0,0 +1,125 @@
+package org.pranavt84.decoder;
+
+import org.pranavt84.model.DataInput;
+import org.pranavt84.type.CodecRegistry;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Decodes the elements of a large INDEXED_ARRAY on the fork/join pool. The offset table tells
+ * where every element starts, so the elements are split into ranges of about equal byte size
+ * without reading any of them, and each range is decoded from its own {@link DataInputReader}.
+ * An element that is itself a large indexed array splits again when its range decodes it.
+ *
+ * <p>The message must have passed {@link DataInputValidator}, which guarantees the offsets, and
+ * its string table must be {@linkplain StringTable#decodeAll() decoded} before the tasks share it.
+ */
+final class ParallelDecoding {
+
+    private ParallelDecoding() {
+        throw new AssertionError("ParallelDecoding should not be instantiated.");
+    }
+
+    /** Decodes the indexed array whose tag is at {@code pos}, returning its elements in order. */
+    static DataInput decode(DataInputDecoder decoder, CodecRegistry registry, byte[] bytes, int pos,
+                            StringTable strings, int minSize) {
+        int count = ((bytes[pos + 1] & 0xFF) << 8) | (bytes[pos + 2] & 0xFF);
+        Index index = new Index(bytes, pos + 7, count, DataInputReader.readInt32(bytes, pos + 3));
+        Object[] values = new Object[count];
+        RangeTask task = new RangeTask(decoder, registry, index, strings, values, minSize, 0, count);
+        if (ForkJoinTask.inForkJoinPool()) {
+            // Nested inside another range: the forks go to this worker's queue
+            task.invoke();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+        DataInput result = new DataInput();
+        for (Object value : values) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    /** The offset table of one indexed array. */
+    private static final class Index {
+        final byte[] bytes;
+        final int table;
+        final int count;
+        final int size;
+        /** Where the elements start; offsets are relative to this. */
+        final int elements;
+
+        Index(byte[] bytes, int table, int count, int size) {
+            this.bytes = bytes;
+            this.table = table;
+            this.count = count;
+            this.size = size;
+            this.elements = table + 4 * count;
+        }
+
+        /** Offset of element {@code i}; {@code count} gives the end of the last element. */
+        int start(int i) {
+            return i == count ? size : DataInputReader.readInt32(bytes, table + 4 * i);
+        }
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final DataInputDecoder decoder;
+        private final CodecRegistry registry;
+        private final Index index;
+        private final StringTable strings;
+        private final Object[] values;
+        private final int minSize;
+        private final int from;
+        private final int to;
+
+        RangeTask(DataInputDecoder decoder, CodecRegistry registry, Index index, StringTable strings,
+                  Object[] values, int minSize, int from, int to) {
+            this.decoder = decoder;
+            this.registry = registry;
+            this.index = index;
+            this.strings = strings;
+            this.values = values;
+            this.minSize = minSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int start = index.start(from);
+            int end = index.start(to);
+            if (to - from > 1 && end - start >= 2L * minSize) {
+                int mid = split(start + (end - start) / 2);
+                invokeAll(new RangeTask(decoder, registry, index, strings, values, minSize, from, mid),
+                        new RangeTask(decoder, registry, index, strings, values, minSize, mid, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                int at = index.start(i);
+                DataInputReader reader = new DataInputReader(index.bytes, index.elements + at,
+                        index.start(i + 1) - at, registry);
+                values[i] = decoder.decodeElement(reader, strings);
+            }
+        }
+
+        /** First element starting at or after {@code offset}, kept strictly inside the range; offsets ascend. */
+        private int split(int offset) {
+            int lo = from + 1;
+            int hi = to - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (index.start(mid) < offset) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.pranavt84.decoder;
+
+import org.pranavt84.type.InputType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strings listed ahead of a message so that repeated values can be sent once and referenced
+ * by index: {@code [0x0A][count:2][count STRING elements][message]}. Inside the message a
+ * {@code [0x0B][index:2]} STRING_REF stands for entry {@code index}.
+ *
+ * <p>Entries are located up front but only decoded on first use; every reference to the same
+ * entry then returns the same String instance. Not thread-safe until {@link #decodeAll()}.
+ */
+public class StringTable {
+
+    private static final StringTable EMPTY = new StringTable(new byte[0], 0);
+
+    private final byte[] bytes;
+    private final int[] offsets;
+    private final int[] lengths;
+    private final String[] decoded;
+
+    private StringTable(byte[] bytes, int count) {
+        this.bytes = bytes;
+        this.offsets = new int[count];
+        this.lengths = new int[count];
+        this.decoded = new String[count];
+    }
+
+    /**
+     * Reads the table at the reader's cursor, leaving the cursor on the message. A message
+     * without a table gets an empty one, so any reference in it is rejected.
+     */
+    public static StringTable read(DataInputReader reader) {
+        if (reader.nextType() != InputType.STRING_TABLE) {
+            return EMPTY;
+        }
+        int count = reader.enterStringTable();
+        StringTable table = new StringTable(reader.array(), count);
+        for (int i = 0; i < count; i++) {
+            table.lengths[i] = reader.peekStringLength();
+            table.offsets[i] = reader.readStringOffset();
+        }
+        reader.exitArray();
+        return table;
+    }
+
+    public int size() {
+        return offsets.length;
+    }
+
+    public String get(int index) {
+        check(index);
+        String value = decoded[index];
+        if (value == null) {
+            value = new String(bytes, offsets[index], lengths[index], StandardCharsets.UTF_8);
+            decoded[index] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Decodes every entry now rather than on first use, after which {@link #get} only reads and
+     * the table may be shared between threads.
+     */
+    public void decodeAll() {
+        for (int i = 0; i < decoded.length; i++) {
+            get(i);
+        }
+    }
+
+    /** Where the UTF-8 bytes of entry {@code index} start in the encoded array. */
+    public int offset(int index) {
+        check(index);
+        return offsets[index];
+    }
+
+    public int length(int index) {
+        check(index);
+        return lengths[index];
+    }
+
+    private void check(int index) {
+        if (index >= offsets.length) {
+            throw new IllegalArgumentException("String reference " + index + " outside a table of "
+                    + offsets.length + " entries");
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.pranavt84.encode;
+
+import org.pranavt84.type.InputType;
+
+/** A single TRUE or FALSE tag. */
+public class EncodeBoolean implements EncodeType<Boolean> {
+
+    @Override
+    public int encodedSize(Boolean value) {
+        return 1;
+    }
+
+    @Override
+    public int encodeTo(Boolean value, byte[] dest, int offset) {
+        dest[offset] = (byte) (value ? InputType.TRUE : InputType.FALSE).getValue();
+        return offset + 1;
+    }
+}
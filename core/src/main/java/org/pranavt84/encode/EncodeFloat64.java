@@ -0,0 +1,19 @@
+package org.pranavt84.encode;
+
+import org.pranavt84.type.InputType;
+
+/** IEEE 754 bits, big-endian; NaN and the infinities are kept as they are. */
+public class EncodeFloat64 implements EncodeType<Double> {
+
+    @Override
+    public int encodedSize(Double value) {
+        return 1 + 8;
+    }
+
+    @Override
+    public int encodeTo(Double value, byte[] dest, int offset) {
+        dest[offset] = (byte) InputType.FLOAT64.getValue();
+        EncodeInt64.putLong(Double.doubleToRawLongBits(value), dest, offset + 1);
+        return offset + 9;
+    }
+}
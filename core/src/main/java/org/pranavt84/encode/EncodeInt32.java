@@ -0,0 +1,23 @@
+package org.pranavt84.encode;
+
+import org.pranavt84.type.InputType;
+
+public class EncodeInt32 implements EncodeType<Integer>{
+
+    @Override
+    public int encodedSize(Integer value) {
+        return 1 + 4;
+    }
+
+    @Override
+    public int encodeTo(Integer value, byte[] dest, int offset) {
+        int v = value;
+        dest[offset] = (byte) InputType.INT32.getValue();
+        dest[offset + 1] = (byte) ((v >> 24) & 0xFF);
+        dest[offset + 2] = (byte) ((v >> 16) & 0xFF);
+        dest[offset + 3] = (byte) ((v >> 8) & 0xFF);
+        dest[offset + 4] = (byte) (v & 0xFF);
+        return offset + 5;
+    }
+
+}
@@ -0,0 +1,25 @@
+package org.pranavt84.encode;
+
+import org.pranavt84.type.InputType;
+
+public class EncodeInt64 implements EncodeType<Long> {
+
+    @Override
+    public int encodedSize(Long value) {
+        return 1 + 8;
+    }
+
+    @Override
+    public int encodeTo(Long value, byte[] dest, int offset) {
+        dest[offset] = (byte) InputType.INT64.getValue();
+        putLong(value, dest, offset + 1);
+        return offset + 9;
+    }
+
+    static void putLong(long v, byte[] dest, int offset) {
+        for (int i = 7; i >= 0; i--) {
+            dest[offset + i] = (byte) v;
+            v >>>= 8;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.pranavt84.encode;
+
+import org.pranavt84.type.InputType;
+
+public class EncodeString implements EncodeType<String> {
+
+    @Override
+    public int encodedSize(String input) {
+
+        if (input == null) return 0;
+
+        // 1 byte type + 4 bytes length + string bytes
+        return 1 + 4 + Utf8.encodedLength(input);
+    }
+
+    @Override
+    public int encodeTo(String input, byte[] dest, int offset) {
+
+        if (input == null) return offset;
+
+        dest[offset] = (byte) InputType.STRING.getValue();
+
+        // UTF-8 bytes go straight after the header, length is back-filled
+        int end = Utf8.write(input, dest, offset + 5);
+        int length = end - offset - 5;
+
+        dest[offset + 1] = (byte) ((length >> 24) & 0xFF);
+        dest[offset + 2] = (byte) ((length >> 16) & 0xFF);
+        dest[offset + 3] = (byte) ((length >> 8) & 0xFF);
+        dest[offset + 4] = (byte) (length & 0xFF);
+
+        return end;
+    }
+}
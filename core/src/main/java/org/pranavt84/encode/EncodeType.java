@@ -0,0 +1,16 @@
+package org.pranavt84.encode;
+
+public interface EncodeType <T>{
+
+    /** Exact number of bytes {@link #encodeTo} writes for {@code t}, tag included. */
+    public int encodedSize(T t);
+
+    /** Writes {@code t} into {@code dest} at {@code offset} and returns the index after the last byte written. */
+    public int encodeTo(T t, byte[] dest, int offset);
+
+    public default byte[] encode(T t) {
+        byte[] bytes = new byte[encodedSize(t)];
+        encodeTo(t, bytes, 0);
+        return bytes;
+    }
+}
@@ -0,0 +1,31 @@
+package org.pranavt84.encode;
+
+import org.pranavt84.type.InputType;
+
+/** Integers of any width as a VARINT, so small magnitudes take two or three bytes instead of five or nine. */
+public class EncodeVarInt implements EncodeType<Number> {
+
+    /**
+     * True when the VARINT form of an Integer or Long is shorter than its INT32 or INT64 form
+     * and decodes back to the same boxed type. Longs that fit in an int are left alone, since
+     * a VARINT holding them decodes as Integer.
+     */
+    public static boolean isShorter(Number value) {
+        if (value instanceof Integer) {
+            return VarInt.encodedLength(value.intValue()) < 4;
+        }
+        long v = value.longValue();
+        return v != (int) v && VarInt.encodedLength(v) < 8;
+    }
+
+    @Override
+    public int encodedSize(Number value) {
+        return 1 + VarInt.encodedLength(value.longValue());
+    }
+
+    @Override
+    public int encodeTo(Number value, byte[] dest, int offset) {
+        dest[offset] = (byte) InputType.VARINT.getValue();
+        return VarInt.write(value.longValue(), dest, offset + 1);
+    }
+}
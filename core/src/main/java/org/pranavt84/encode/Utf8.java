@@ -0,0 +1,76 @@
+package org.pranavt84.encode;
+
+/**
+ * Allocation-free UTF-8 helpers used by the string encoders.
+ * Unpaired surrogates are written as '?', same as {@code String.getBytes(UTF_8)}.
+ */
+public final class Utf8 {
+
+    private Utf8() {
+        throw new AssertionError("Utf8 should not be instantiated.");
+    }
+
+    /** Number of bytes {@code s} occupies once encoded as UTF-8. */
+    public static int encodedLength(CharSequence s) {
+        int len = s.length();
+        int bytes = len;
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                // 4 bytes for the pair, which already counted as 2
+                bytes += 2;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                // replaced by '?'
+            } else {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    /** Writes {@code s} as UTF-8 into {@code dest} at {@code offset}, returns the index after the last byte. */
+    public static int write(CharSequence s, byte[] dest, int offset) {
+        int len = s.length();
+        int pos = offset;
+        int i = 0;
+
+        // ASCII fast path
+        while (i < len) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            dest[pos++] = (byte) c;
+            i++;
+        }
+
+        for (; i < len; i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                dest[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                dest[pos++] = (byte) (0xC0 | (c >> 6));
+                dest[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                dest[pos++] = (byte) (0xF0 | (cp >> 18));
+                dest[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                dest[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                dest[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                dest[pos++] = (byte) '?';
+            } else {
+                dest[pos++] = (byte) (0xE0 | (c >> 12));
+                dest[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                dest[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+}
@@ -0,0 +1,64 @@
+package org.pranavt84.encode;
+
+/**
+ * Zigzag LEB128 helpers for VARINT elements. Zigzag maps small magnitudes of either sign to
+ * small unsigned values (0, -1, 1, -2 become 0, 1, 2, 3), which then take 7 bits per byte,
+ * low group first, with the high bit set on every byte but the last.
+ */
+public final class VarInt {
+
+    /** Longest encoding of a 64-bit value. */
+    public static final int MAX_LENGTH = 10;
+
+    private VarInt() {
+        throw new AssertionError("VarInt should not be instantiated.");
+    }
+
+    /** Number of bytes {@code value} takes once zigzag encoded, tag not included. */
+    public static int encodedLength(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        int bits = 64 - Long.numberOfLeadingZeros(zigzag | 1);
+        return (bits + 6) / 7;
+    }
+
+    /** Writes {@code value} at {@code offset}, returns the index after the last byte. */
+    public static int write(long value, byte[] dest, int offset) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            dest[offset++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        dest[offset++] = (byte) zigzag;
+        return offset;
+    }
+
+    /**
+     * Index after the varint that starts at {@code index}. Fails if it runs past {@code limit}
+     * or is longer than {@link #MAX_LENGTH} bytes.
+     */
+    public static int end(byte[] bytes, int index, int limit) {
+        int max = Math.min(limit, index + MAX_LENGTH);
+        for (int i = index; i < max; i++) {
+            if (bytes[i] >= 0) {
+                return i + 1;
+            }
+        }
+        if (max == limit && limit - index < MAX_LENGTH) {
+            throw new IllegalArgumentException("Truncated input: varint at position " + index);
+        }
+        throw new IllegalArgumentException("Varint longer than " + MAX_LENGTH + " bytes at position " + index);
+    }
+
+    /** Decodes the varint at {@code index}, which must already be known to end, see {@link #end}. */
+    public static long read(byte[] bytes, int index) {
+        long zigzag = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[index++];
+            zigzag |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
@@ -0,0 +1,110 @@
+package org.pranavt84.encoder;
+
+import org.pranavt84.decoder.DataInputReader;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.type.InputType;
+
+import java.util.Arrays;
+
+/**
+ * Rewrites the large arrays of a plain message as INDEXED_ARRAYs, which carry their byte length
+ * and an offset table, so that readers can reach any element, or skip the whole array, without
+ * reading through what comes before it. Arrays below the threshold, and everything that is not
+ * an array, are copied as they are. Works on encoded bytes, like {@link StringDictionary}, and
+ * keeps a string table in front of the message.
+ */
+public final class ArrayIndex {
+
+    private ArrayIndex() {
+        throw new AssertionError("ArrayIndex should not be instantiated.");
+    }
+
+    /**
+     * The message with every array of at least {@code minSize} plain bytes indexed, or
+     * {@code null} when not even the whole message is that large.
+     */
+    public static byte[] apply(byte[] message, int offset, int length, int minSize) {
+        DataInputReader reader = new DataInputReader(message, offset, length);
+        if (reader.nextType() == InputType.STRING_TABLE) {
+            reader.skip();
+        }
+        int root = reader.position();
+        if (reader.nextType() != InputType.DATA_INPUT || offset + length - root < minSize) {
+            // Packed arrays hold no arrays and are not indexed themselves
+            return null;
+        }
+        Sizes sizes = new Sizes();
+        measure(reader, sizes, minSize);
+
+        ByteSink out = new ByteSink(length + 4 * (sizes.count + 1) + 4096);
+        out.write(message, offset, root - offset);
+        reader = new DataInputReader(message, root, offset + length - root);
+        sizes.next = 0;
+        rewrite(reader, sizes, out, minSize);
+        return out.toByteArray();
+    }
+
+    /**
+     * Records the plain size of the array at the cursor and, if it is large enough to be
+     * indexed, of its nested arrays too, in the order {@link #rewrite} meets them.
+     */
+    private static void measure(DataInputReader reader, Sizes sizes, int minSize) {
+        int from = reader.position();
+        int slot = sizes.add();
+        int count = reader.enterArray();
+        for (int i = 0; i < count; i++) {
+            if (reader.nextType() == InputType.DATA_INPUT) {
+                measure(reader, sizes, minSize);
+            } else {
+                reader.skip();
+            }
+        }
+        reader.exitArray();
+        int size = reader.position() - from;
+        sizes.values[slot] = size;
+        if (size < minSize) {
+            // Copied whole, so its nested arrays, which are smaller still, are never looked at
+            sizes.count = slot + 1;
+        }
+    }
+
+    private static void rewrite(DataInputReader reader, Sizes sizes, ByteSink out, int minSize) {
+        int from = reader.position();
+        if (sizes.values[sizes.next++] < minSize) {
+            reader.skip();
+            out.write(reader.array(), from, reader.position() - from);
+            return;
+        }
+        int count = reader.enterArray();
+        out.write(InputType.INDEXED_ARRAY.getValue());
+        out.putShort(out.skip(2), count);
+        int header = out.skip(4 + 4 * count);
+        int elements = out.size();
+        for (int i = 0; i < count; i++) {
+            out.putInt(header + 4 + 4 * i, out.size() - elements);
+            if (reader.nextType() == InputType.DATA_INPUT) {
+                rewrite(reader, sizes, out, minSize);
+            } else {
+                int start = reader.position();
+                reader.skip();
+                out.write(reader.array(), start, reader.position() - start);
+            }
+        }
+        reader.exitArray();
+        out.putInt(header, out.size() - elements);
+    }
+
+    /** Plain array sizes in pre-order. */
+    private static final class Sizes {
+        int[] values = new int[16];
+        int count;
+        int next;
+
+        int add() {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            return count++;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package org.pranavt84.encoder;
+
+import org.pranavt84.compress.CompressedEnvelope;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.encode.EncodeType;
+import org.pranavt84.encode.EncodeVarInt;
+import org.pranavt84.encode.Utf8;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.type.CodecRegistry;
+import org.pranavt84.type.InputType;
+
+import java.util.List;
+
+public class DataInputEncoder implements Encoder<DataInput> {
+
+    final private CodecRegistry registry;
+    final private EncoderConfig config;
+    final private DecoderConfig limits;
+    final private EncodeVarInt encodeVarInt = new EncodeVarInt();
+
+    public DataInputEncoder(EncodeType encodeString, EncodeType encodeInt32) {
+        this(encodeString, encodeInt32, new EncoderConfig());
+    }
+
+    /** Uses the default registry, with Strings and Integers written by the given encoders. */
+    @SuppressWarnings("unchecked")
+    public DataInputEncoder(EncodeType encodeString, EncodeType encodeInt32, EncoderConfig config) {
+        this(CodecRegistry.getDefault().copy()
+                .registerEncoder(String.class, (EncodeType<String>) encodeString)
+                .registerEncoder(Integer.class, (EncodeType<Integer>) encodeInt32), config);
+    }
+
+    /**
+     * Element types are looked up in {@code registry}; DataInput and null are handled here. No
+     * decoder limits are applied, only the 65535 elements the 2-byte count of an array can hold.
+     */
+    public DataInputEncoder(CodecRegistry registry, EncoderConfig config) {
+        this(registry, config, null);
+    }
+
+    /**
+     * Same as {@link #DataInputEncoder(CodecRegistry, EncoderConfig)}, refusing to encode anything
+     * a decoder with {@code limits} would reject: too many elements, too long strings, too deep
+     * nesting or too large a message. {@code null} applies no limits.
+     */
+    public DataInputEncoder(CodecRegistry registry, EncoderConfig config, DecoderConfig limits) {
+        this.registry = registry;
+        this.config = config;
+        this.limits = limits;
+    }
+
+    public EncoderConfig getConfig() {
+        return config;
+    }
+
+    public CodecRegistry getRegistry() {
+        return registry;
+    }
+
+    /** The decoder limits every encoded message is held to, or {@code null} when there are none. */
+    public DecoderConfig getLimits() {
+        return limits;
+    }
+
+    /**
+     * Sizes the whole tree first, then writes it into a single exactly-sized array, on several
+     * threads if the config sets a {@linkplain EncoderConfig#getParallelMinSize() parallel threshold}.
+     * The optional wire features of the config are applied afterwards, see {@link #pack}.
+     */
+    @Override
+    public byte[] encode(DataInput input) {
+        checkLimits(input, 1);
+        byte[] bytes;
+        if (config.isParallel()) {
+            bytes = ParallelEncoding.encode(this, input, config.getParallelMinSize());
+        } else {
+            bytes = new byte[encodedSize(input)];
+            writeTo(input, bytes, 0);
+        }
+        byte[] packed = pack(bytes, 0, bytes.length);
+        return packed != null ? packed : bytes;
+    }
+
+    /**
+     * Applies the optional wire features of the config to a plain message: repeated strings move
+     * into a string table, large arrays get an offset index, then the result is compressed if it
+     * is large enough and shrinks enough. Returns {@code null} when the plain message is best
+     * sent as it is.
+     */
+    public byte[] pack(byte[] message, int offset, int length) {
+        byte[] packed = config.isStringDictionary() ? StringDictionary.apply(message, offset, length) : null;
+        if (packed != null) {
+            message = packed;
+            offset = 0;
+            length = packed.length;
+        }
+        byte[] indexed = config.isIndexed() ? ArrayIndex.apply(message, offset, length, config.getIndexMinSize()) : null;
+        if (indexed != null) {
+            packed = indexed;
+            message = indexed;
+            offset = 0;
+            length = indexed.length;
+        }
+        // A compressed message is held to the limit by the size it expands to
+        if (limits != null && length > limits.getMaxMessageSize()) {
+            throw new IllegalArgumentException("Message of " + length + " bytes, more than the limit of "
+                    + limits.getMaxMessageSize());
+        }
+        if (config.shouldCompress(length)) {
+            byte[] compressed = CompressedEnvelope.compress(message, offset, length, config.getCompressMaxRatio());
+            if (compressed != null) {
+                return compressed;
+            }
+        }
+        return packed;
+    }
+
+    /** Plain (uncompressed) size of the message; {@link #encode} may return fewer bytes. */
+    @Override
+    @SuppressWarnings("unchecked")
+    public int encodedSize(DataInput input) {
+        // 1 byte type + 2 bytes count
+        int size = 1 + 2;
+
+        InputType type = arrayType(input);
+        if (type == InputType.PACKED_INT32) {
+            return size + 4 * input.getElements().size();
+        }
+        if (type == InputType.PACKED_STRING) {
+            for (Object elem : input.getElements()) {
+                size += 4 + Utf8.encodedLength((String) elem);
+            }
+            return size;
+        }
+
+        for (Object elem : input.getElements()) {
+            size += elem instanceof DataInput ? encodedSize((DataInput) elem) : elementSize(elem);
+        }
+
+        return size;
+    }
+
+    /** Writes the plain message, held to the limits as {@link #encode} is. */
+    @Override
+    public int encodeTo(DataInput input, byte[] dest, int offset) {
+        checkLimits(input, 1);
+        return writeTo(input, dest, offset);
+    }
+
+    /** Writes the plain form of {@code input} without checking it against the limits. */
+    int writeTo(DataInput input, byte[] dest, int offset) {
+        InputType type = arrayType(input);
+        int pos = writeHeader(type, input, dest, offset);
+        int size = input.getElements().size();
+
+        if (type == InputType.PACKED_INT32) {
+            for (Object elem : input.getElements()) {
+                putInt((Integer) elem, dest, pos);
+                pos += 4;
+            }
+            return pos;
+        }
+        if (type == InputType.PACKED_STRING) {
+            // Length table first, then the UTF-8 bytes back to back
+            int lengthAt = pos;
+            pos += 4 * size;
+            for (Object elem : input.getElements()) {
+                int end = Utf8.write((String) elem, dest, pos);
+                putInt(end - pos, dest, lengthAt);
+                lengthAt += 4;
+                pos = end;
+            }
+            return pos;
+        }
+
+        for (Object elem : input.getElements()) {
+            pos = elem instanceof DataInput ? writeTo((DataInput) elem, dest, pos) : encodeElement(elem, dest, pos);
+        }
+
+        return pos;
+    }
+
+    /** Writes the tag and element count of an array, returns the index after them. */
+    int writeHeader(InputType type, DataInput input, byte[] dest, int offset) {
+        int size = checkCount(input.getElements().size());
+        dest[offset] = (byte) type.getValue();
+        dest[offset + 1] = (byte) ((size >> 8) & 0xFF);
+        dest[offset + 2] = (byte) (size & 0xFF);
+        return offset + 3;
+    }
+
+    /** Rejects what the limits would not let a decoder read back, before anything is written. */
+    private void checkLimits(DataInput input, int depth) {
+        if (limits == null) {
+            return;
+        }
+        if (depth > limits.getMaxDepth()) {
+            throw new IllegalArgumentException("Arrays nested deeper than " + limits.getMaxDepth());
+        }
+        int count = checkCount(input.getElements().size());
+        if (count > limits.getMaxArraySize()) {
+            throw new IllegalArgumentException("Array of " + count + " elements, more than the limit of "
+                    + limits.getMaxArraySize());
+        }
+        for (Object elem : input.getElements()) {
+            if (elem instanceof DataInput) {
+                checkLimits((DataInput) elem, depth + 1);
+            } else if (elem instanceof String && ((String) elem).length() > limits.getMaxStringLength()) {
+                throw new IllegalArgumentException("String of " + ((String) elem).length()
+                        + " characters, more than the limit of " + limits.getMaxStringLength());
+            }
+        }
+    }
+
+    /** The 2-byte count of an array cannot hold more than 65535 elements. */
+    static int checkCount(int count) {
+        if (count > 0xFFFF) {
+            throw new IllegalArgumentException("Array has " + count + " elements, at most 65535 can be encoded");
+        }
+        return count;
+    }
+
+    /** Encoded size of an element of a tagged array that is not itself a DataInput. */
+    int elementSize(Object elem) {
+        if (elem == null) {
+            return 1;
+        }
+        if (isVarInt(elem)) {
+            return encodeVarInt.encodedSize((Number) elem);
+        }
+        return encoderFor(elem).encodedSize(elem);
+    }
+
+    /** Writes an element of a tagged array that is not itself a DataInput, returns the index after it. */
+    int encodeElement(Object elem, byte[] dest, int pos) {
+        if (elem == null) {
+            dest[pos] = (byte) InputType.NULL.getValue();
+            return pos + 1;
+        }
+        if (isVarInt(elem)) {
+            return encodeVarInt.encodeTo((Number) elem, dest, pos);
+        }
+        return encoderFor(elem).encodeTo(elem, dest, pos);
+    }
+
+    /**
+     * The packed form for a non-empty array of only Integers or only Strings, if the config allows
+     * it. Integers are only packed when that is no larger than tagging each of them.
+     */
+    InputType arrayType(DataInput input) {
+        List<Object> elements = input.getElements();
+        if (!config.isPackedArrays() || elements.isEmpty()) {
+            return InputType.DATA_INPUT;
+        }
+        if (elements.get(0) instanceof String) {
+            for (Object elem : elements) {
+                if (!(elem instanceof String)) {
+                    return InputType.DATA_INPUT;
+                }
+            }
+            return InputType.PACKED_STRING;
+        }
+        long tagged = 0;
+        for (Object elem : elements) {
+            if (!(elem instanceof Integer)) {
+                return InputType.DATA_INPUT;
+            }
+            tagged += isVarInt(elem) ? encodeVarInt.encodedSize((Integer) elem) : 5;
+        }
+        return 4L * elements.size() <= tagged ? InputType.PACKED_INT32 : InputType.DATA_INPUT;
+    }
+
+    private static void putInt(int v, byte[] dest, int offset) {
+        dest[offset] = (byte) (v >> 24);
+        dest[offset + 1] = (byte) (v >> 16);
+        dest[offset + 2] = (byte) (v >> 8);
+        dest[offset + 3] = (byte) v;
+    }
+
+    /** Integers take the VARINT form when the config allows it and it is the shorter one. */
+    private boolean isVarInt(Object elem) {
+        return config.isVarInts() && (elem instanceof Integer || elem instanceof Long)
+                && EncodeVarInt.isShorter((Number) elem);
+    }
+
+    private EncodeType<Object> encoderFor(Object elem) {
+        EncodeType<Object> encoder = registry.encoder(elem.getClass());
+        if (encoder == null) {
+            throw new IllegalArgumentException("Unsupported element type: " + elem.getClass().getName());
+        }
+        return encoder;
+    }
+}
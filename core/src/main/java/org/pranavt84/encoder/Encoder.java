@@ -0,0 +1,41 @@
+package org.pranavt84.encoder;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
+
+/**
+ * {@link #encodedSize} and the {@code encodeTo} methods give the plain encoding. {@link #encode}
+ * may return a different, smaller form of the same message: {@link DataInputEncoder} applies the
+ * string table, offset index and compression of its config there only (see
+ * {@link DataInputEncoder#pack}). Decoders read either form.
+ */
+public interface Encoder<T> {
+    byte[] encode(T t);
+
+    /** Exact number of bytes the {@code encodeTo} methods write for {@code t}: the plain encoding. */
+    int encodedSize(T t);
+
+    /** Writes the plain encoding of {@code t} into {@code dest} at {@code offset}, returns the index after the last byte. */
+    int encodeTo(T t, byte[] dest, int offset);
+
+    /**
+     * Writes the plain encoding of {@code t} at the buffer's position and advances it. Only heap buffers
+     * are supported, since the encoding is written in place into the backing array; for a direct
+     * buffer, {@link #encode} and put the bytes.
+     */
+    default void encodeTo(T t, ByteBuffer out) {
+        if (out.isReadOnly()) {
+            throw new ReadOnlyBufferException();
+        }
+        if (!out.hasArray()) {
+            throw new IllegalArgumentException("Only heap buffers are supported, got a direct buffer");
+        }
+        int size = encodedSize(t);
+        if (out.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        encodeTo(t, out.array(), out.arrayOffset() + out.position());
+        out.position(out.position() + size);
+    }
+}
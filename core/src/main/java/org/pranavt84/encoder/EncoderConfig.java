@@ -0,0 +1,155 @@
+package org.pranavt84.encoder;
+
+/**
+ * Optional wire features the encoder may use. The defaults produce the plain protocol, byte for
+ * byte; decoders understand every feature whether or not it is switched on here.
+ */
+public class EncoderConfig {
+
+    /** {@link #getCompressMinSize()} value that turns compression off. */
+    public static final int COMPRESSION_OFF = -1;
+
+    /** {@link #getParallelMinSize()} value that keeps encoding on the calling thread. */
+    public static final int PARALLEL_OFF = -1;
+
+    /** {@link #getIndexMinSize()} value that never indexes an array. */
+    public static final int INDEX_OFF = -1;
+
+    private int compressMinSize = COMPRESSION_OFF;
+    private double compressMaxRatio = 0.9;
+    private boolean stringDictionary;
+    private boolean varInts;
+    private boolean packedArrays;
+    private int parallelMinSize = PARALLEL_OFF;
+    private int indexMinSize = INDEX_OFF;
+
+    /**
+     * Messages of at least this many bytes are tried with compression; {@link #COMPRESSION_OFF}
+     * (the default) never compresses.
+     */
+    public int getCompressMinSize() {
+        return compressMinSize;
+    }
+
+    public EncoderConfig setCompressMinSize(int compressMinSize) {
+        if (compressMinSize < COMPRESSION_OFF) {
+            throw new IllegalArgumentException("compression min size must not be negative, got " + compressMinSize);
+        }
+        this.compressMinSize = compressMinSize;
+        return this;
+    }
+
+    /** A compressed message is only kept if it is at most this fraction of the plain size. */
+    public double getCompressMaxRatio() {
+        return compressMaxRatio;
+    }
+
+    public EncoderConfig setCompressMaxRatio(double compressMaxRatio) {
+        if (!(compressMaxRatio > 0.0 && compressMaxRatio <= 1.0)) {
+            throw new IllegalArgumentException("compression ratio must be in (0, 1], got " + compressMaxRatio);
+        }
+        this.compressMaxRatio = compressMaxRatio;
+        return this;
+    }
+
+    /**
+     * Whether strings repeated within a message are sent once, in a string table, and then
+     * referenced. With {@link #isPackedArrays() packed arrays}, a packed string array that holds
+     * repeated strings is sent as a tagged array of references instead, when that is smaller.
+     */
+    public boolean isStringDictionary() {
+        return stringDictionary;
+    }
+
+    public EncoderConfig setStringDictionary(boolean stringDictionary) {
+        this.stringDictionary = stringDictionary;
+        return this;
+    }
+
+    /**
+     * Whether integers are written as zigzag varints wherever that is shorter than INT32 or INT64.
+     * Decoders return the same Integer or Long either way.
+     */
+    public boolean isVarInts() {
+        return varInts;
+    }
+
+    public EncoderConfig setVarInts(boolean varInts) {
+        this.varInts = varInts;
+        return this;
+    }
+
+    /**
+     * Whether arrays holding only ints or only strings drop the per-element tags, see
+     * {@code InputType.PACKED_INT32} and {@code InputType.PACKED_STRING}.
+     */
+    public boolean isPackedArrays() {
+        return packedArrays;
+    }
+
+    public EncoderConfig setPackedArrays(boolean packedArrays) {
+        this.packedArrays = packedArrays;
+        return this;
+    }
+
+    /**
+     * Subtrees of a DataInput of at least this many encoded bytes are written by their own
+     * fork/join task, into their own region of the output; smaller messages are encoded on the
+     * calling thread. {@link #PARALLEL_OFF} (the default) never splits. The output is the same
+     * either way. Applies to {@code DataInputEncoder.encode}, not to JSON transcoding.
+     */
+    public int getParallelMinSize() {
+        return parallelMinSize;
+    }
+
+    public EncoderConfig setParallelMinSize(int parallelMinSize) {
+        if (parallelMinSize != PARALLEL_OFF && parallelMinSize <= 0) {
+            throw new IllegalArgumentException("parallel min size must be positive, got " + parallelMinSize);
+        }
+        this.parallelMinSize = parallelMinSize;
+        return this;
+    }
+
+    public boolean isParallel() {
+        return parallelMinSize != PARALLEL_OFF;
+    }
+
+    /**
+     * Arrays of at least this many plain bytes are sent as {@code InputType.INDEXED_ARRAY}, with
+     * an offset table that lets decoders find any element, skip the whole array and decode its
+     * elements in parallel, at 4 bytes per element plus 4; {@link #INDEX_OFF} (the default)
+     * never indexes.
+     */
+    public int getIndexMinSize() {
+        return indexMinSize;
+    }
+
+    public EncoderConfig setIndexMinSize(int indexMinSize) {
+        if (indexMinSize < INDEX_OFF) {
+            throw new IllegalArgumentException("index min size must not be negative, got " + indexMinSize);
+        }
+        this.indexMinSize = indexMinSize;
+        return this;
+    }
+
+    public boolean isIndexed() {
+        return indexMinSize != INDEX_OFF;
+    }
+
+    public boolean shouldCompress(int size) {
+        return compressMinSize != COMPRESSION_OFF && size >= compressMinSize;
+    }
+
+    @Override
+    public String toString() {
+        return "EncoderConfig{" +
+                "compressMinSize=" + compressMinSize +
+                ", compressMaxRatio=" + compressMaxRatio +
+                ", stringDictionary=" + stringDictionary +
+                ", varInts=" + varInts +
+                ", packedArrays=" + packedArrays +
+                ", parallelMinSize=" + parallelMinSize +
+                ", indexMinSize=" + indexMinSize +
+                '}';
+    }
+}
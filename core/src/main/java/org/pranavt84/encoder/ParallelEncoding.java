@@ -0,0 +1,251 @@
+package org.pranavt84.encoder;
+
+import org.pranavt84.model.DataInput;
+import org.pranavt84.type.InputType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Encodes a large DataInput on the fork/join pool, byte for byte the same as
+ * {@link DataInputEncoder#encodeTo}. A first pass sizes every subtree, splitting off nested
+ * arrays while workers are idle, and keeps where each element ends in every array of at least
+ * the threshold size. A second pass writes into one exactly-sized array: every subtree of at
+ * least the threshold size is its own task, nested arrays or not, and the elements of such an
+ * array are split into ranges of about equal byte size, each written by its own task. Everything
+ * smaller, and every message below the threshold, is written by the sequential encoder.
+ */
+final class ParallelEncoding {
+
+    /** Split off a subtree while fewer than this many tasks are queued beyond what idle workers can steal. */
+    private static final int MAX_SURPLUS = 3;
+
+    private ParallelEncoding() {
+        throw new AssertionError("ParallelEncoding should not be instantiated.");
+    }
+
+    static byte[] encode(DataInputEncoder encoder, DataInput input, int minSize) {
+        EncodeTask task = new EncodeTask(encoder, input, minSize);
+        if (ForkJoinTask.inForkJoinPool()) {
+            // Already on a fork/join worker: the forks go to this worker's pool
+            return task.invoke();
+        }
+        return ForkJoinPool.commonPool().invoke(task);
+    }
+
+    /**
+     * Encoded size of a subtree and, when it is at least the threshold size and a tagged array,
+     * where each of its elements ends and the layouts of its nested arrays.
+     */
+    private static final class Layout {
+        final int size;
+        /** Indexed like the elements, null for elements that are not arrays; null if there are none. */
+        final Layout[] children;
+        /** End of each element, counted from the first one; null if the array is written in one piece. */
+        final int[] ends;
+
+        Layout(int size, Layout[] children, int[] ends) {
+            this.size = size;
+            this.children = children;
+            this.ends = ends;
+        }
+
+        /** Start of element {@code i}, counted from the first one; {@code ends.length} gives the end of the last. */
+        int start(int i) {
+            return i == 0 ? 0 : ends[i - 1];
+        }
+    }
+
+    private static final class EncodeTask extends RecursiveTask<byte[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final DataInputEncoder encoder;
+        private final DataInput input;
+        private final int minSize;
+
+        EncodeTask(DataInputEncoder encoder, DataInput input, int minSize) {
+            this.encoder = encoder;
+            this.input = input;
+            this.minSize = minSize;
+        }
+
+        @Override
+        protected byte[] compute() {
+            Layout layout = new SizeTask(encoder, input, minSize).compute();
+            byte[] bytes = new byte[layout.size];
+            new WriteTask(encoder, input, layout, bytes, 0, minSize).compute();
+            return bytes;
+        }
+    }
+
+    private static final class SizeTask extends RecursiveTask<Layout> {
+        private static final long serialVersionUID = 1L;
+
+        private final DataInputEncoder encoder;
+        private final DataInput input;
+        private final int minSize;
+
+        SizeTask(DataInputEncoder encoder, DataInput input, int minSize) {
+            this.encoder = encoder;
+            this.input = input;
+            this.minSize = minSize;
+        }
+
+        @Override
+        protected Layout compute() {
+            if (encoder.arrayType(input) != InputType.DATA_INPUT) {
+                // Packed arrays hold no arrays and are written in one piece
+                return new Layout(encoder.encodedSize(input), null, null);
+            }
+            List<Object> elements = input.getElements();
+            // Element sizes first, turned into ends once the forked sizes are in
+            int[] ends = new int[elements.size()];
+            Layout[] children = null;
+            SizeTask[] forked = null;
+            for (int i = 0; i < elements.size(); i++) {
+                Object elem = elements.get(i);
+                if (!(elem instanceof DataInput)) {
+                    ends[i] = encoder.elementSize(elem);
+                    continue;
+                }
+                if (children == null) {
+                    children = new Layout[elements.size()];
+                }
+                SizeTask task = new SizeTask(encoder, (DataInput) elem, minSize);
+                if (i < elements.size() - 1 && getSurplusQueuedTaskCount() < MAX_SURPLUS) {
+                    if (forked == null) {
+                        forked = new SizeTask[elements.size()];
+                    }
+                    forked[i] = task;
+                    task.fork();
+                } else {
+                    children[i] = task.compute();
+                    ends[i] = children[i].size;
+                }
+            }
+            if (forked != null) {
+                for (int i = forked.length - 1; i >= 0; i--) {
+                    if (forked[i] != null) {
+                        children[i] = forked[i].join();
+                        ends[i] = children[i].size;
+                    }
+                }
+            }
+            int end = 0;
+            for (int i = 0; i < ends.length; i++) {
+                end += ends[i];
+                ends[i] = end;
+            }
+            int size = 3 + end;
+            return size >= minSize ? new Layout(size, children, ends) : new Layout(size, null, null);
+        }
+    }
+
+    /** Writes one subtree at {@code offset}: in one piece below the threshold, else split into element ranges. */
+    private static final class WriteTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final DataInputEncoder encoder;
+        private final DataInput input;
+        private final Layout layout;
+        private final byte[] dest;
+        private final int offset;
+        private final int minSize;
+
+        WriteTask(DataInputEncoder encoder, DataInput input, Layout layout, byte[] dest, int offset, int minSize) {
+            this.encoder = encoder;
+            this.input = input;
+            this.layout = layout;
+            this.dest = dest;
+            this.offset = offset;
+            this.minSize = minSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (layout.ends == null) {
+                encoder.writeTo(input, dest, offset);
+                return;
+            }
+            int elements = encoder.writeHeader(InputType.DATA_INPUT, input, dest, offset);
+            new RangeTask(encoder, input.getElements(), layout, dest, elements, minSize, 0, layout.ends.length)
+                    .compute();
+        }
+    }
+
+    /** Writes elements {@code [from, to)} of a large tagged array, whose elements start at {@code base}. */
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final DataInputEncoder encoder;
+        private final List<Object> elements;
+        private final Layout layout;
+        private final byte[] dest;
+        private final int base;
+        private final int minSize;
+        private final int from;
+        private final int to;
+
+        RangeTask(DataInputEncoder encoder, List<Object> elements, Layout layout, byte[] dest, int base,
+                  int minSize, int from, int to) {
+            this.encoder = encoder;
+            this.elements = elements;
+            this.layout = layout;
+            this.dest = dest;
+            this.base = base;
+            this.minSize = minSize;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int start = layout.start(from);
+            int end = layout.start(to);
+            if (to - from > 1 && end - start >= 2L * minSize) {
+                int mid = split(start + (end - start) / 2);
+                invokeAll(new RangeTask(encoder, elements, layout, dest, base, minSize, from, mid),
+                        new RangeTask(encoder, elements, layout, dest, base, minSize, mid, to));
+                return;
+            }
+            List<WriteTask> forked = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                Object elem = elements.get(i);
+                int pos = base + layout.start(i);
+                Layout child = layout.children == null ? null : layout.children[i];
+                if (child == null) {
+                    encoder.encodeElement(elem, dest, pos);
+                } else if (child.size >= minSize) {
+                    // The child's size is known, so the elements after it can be written straight away
+                    WriteTask task = new WriteTask(encoder, (DataInput) elem, child, dest, pos, minSize);
+                    task.fork();
+                    forked.add(task);
+                } else {
+                    encoder.writeTo((DataInput) elem, dest, pos);
+                }
+            }
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                forked.get(i).join();
+            }
+        }
+
+        /** First element starting at or after {@code offset}, kept strictly inside the range; ends ascend. */
+        private int split(int offset) {
+            int lo = from + 1;
+            int hi = to - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (layout.start(mid) < offset) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package org.pranavt84.encoder;
+
+import org.pranavt84.decoder.DataInputReader;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.type.InputType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves repeated strings of a plain message into a string table (see
+ * {@link org.pranavt84.decoder.StringTable}) and replaces each occurrence with a 3-byte
+ * STRING_REF. Works on encoded bytes, so messages built from a DataInput and messages
+ * transcoded from JSON go through the same rewrite.
+ *
+ * <p>Packed string arrays store their strings inline and cannot refer to the table, so one that
+ * holds table entries is written back as a tagged array when that makes it smaller, and kept
+ * packed otherwise. Indexed arrays are not rewritten: {@link DataInputEncoder#pack} indexes the
+ * message after this, so their offsets cover the references.
+ */
+public final class StringDictionary {
+
+    /** Table indexes are two bytes. */
+    static final int MAX_ENTRIES = 0xFFFF;
+
+    private StringDictionary() {
+        throw new AssertionError("StringDictionary should not be instantiated.");
+    }
+
+    /**
+     * The message rewritten with a string table, or {@code null} when no string repeats often
+     * enough for the table to make the message smaller. Messages that are already indexed, and
+     * packed int arrays, which hold no strings, are left as they are.
+     */
+    public static byte[] apply(byte[] message, int offset, int length) {
+        Map<Key, Key> seen = new HashMap<>();
+        List<Key> order = new ArrayList<>();
+        DataInputReader reader = new DataInputReader(message, offset, length);
+        if (reader.nextType() == InputType.PACKED_INT32 || reader.nextType() == InputType.INDEXED_ARRAY) {
+            return null;
+        }
+        requireArray(reader);
+        count(reader, seen, order);
+
+        // An entry costs its STRING once; each reference then saves 5 + length - 3 bytes
+        List<Key> entries = new ArrayList<>();
+        long saved = -3;
+        for (Key key : order) {
+            long gain = (long) (key.count - 1) * (5 + key.length) - 3L * key.count;
+            if (gain > 0 && entries.size() < MAX_ENTRIES) {
+                key.index = entries.size();
+                entries.add(key);
+                saved += gain;
+            }
+        }
+        if (saved <= 0) {
+            return null;
+        }
+
+        ByteSink out = new ByteSink((int) (length - saved));
+        out.write(InputType.STRING_TABLE.getValue());
+        out.putShort(out.skip(2), entries.size());
+        for (Key key : entries) {
+            out.write(InputType.STRING.getValue());
+            out.putInt(out.skip(4), key.length);
+            out.write(key.bytes, key.offset, key.length);
+        }
+
+        reader = new DataInputReader(message, offset, length);
+        requireArray(reader);
+        rewrite(reader, seen, out);
+        // Packed arrays that stayed packed keep their strings, so the estimate can be too high
+        return out.size() < length ? out.toByteArray() : null;
+    }
+
+    private static void count(DataInputReader reader, Map<Key, Key> seen, List<Key> order) {
+        if (reader.nextType() == InputType.PACKED_STRING) {
+            countPacked(reader, seen, order);
+            return;
+        }
+        int count = reader.enterArray();
+        for (int i = 0; i < count; i++) {
+            InputType type = reader.nextType();
+            switch (type) {
+                case STRING:
+                    int length = reader.peekStringLength();
+                    count(new Key(reader.array(), reader.readStringOffset(), length), seen, order);
+                    break;
+                case DATA_INPUT:
+                case PACKED_STRING:
+                    count(reader, seen, order);
+                    break;
+                case STRING_REF:
+                case STRING_TABLE:
+                case COMPRESSED:
+                    throw new IllegalArgumentException("Unhandled type: " + type);
+                default:
+                    reader.skip();
+                    break;
+            }
+        }
+        reader.exitArray();
+    }
+
+    private static void countPacked(DataInputReader reader, Map<Key, Key> seen, List<Key> order) {
+        byte[] bytes = reader.array();
+        int start = reader.position();
+        reader.skip();
+        int count = ((bytes[start + 1] & 0xFF) << 8) | (bytes[start + 2] & 0xFF);
+        for (int i = 0, data = start + 3 + 4 * count; i < count; i++) {
+            int length = readInt(bytes, start + 3 + 4 * i);
+            count(new Key(bytes, data, length), seen, order);
+            data += length;
+        }
+    }
+
+    private static void count(Key key, Map<Key, Key> seen, List<Key> order) {
+        Key existing = seen.putIfAbsent(key, key);
+        if (existing == null) {
+            order.add(key);
+        } else {
+            existing.count++;
+        }
+    }
+
+    private static void rewrite(DataInputReader reader, Map<Key, Key> seen, ByteSink out) {
+        if (reader.nextType() == InputType.PACKED_STRING) {
+            rewritePacked(reader, seen, out);
+            return;
+        }
+        int count = reader.enterArray();
+        out.write(InputType.DATA_INPUT.getValue());
+        out.putShort(out.skip(2), count);
+        for (int i = 0; i < count; i++) {
+            InputType type = reader.nextType();
+            switch (type) {
+                case STRING:
+                    int length = reader.peekStringLength();
+                    int start = reader.readStringOffset();
+                    Key key = seen.get(new Key(reader.array(), start, length));
+                    if (key.index >= 0) {
+                        out.write(InputType.STRING_REF.getValue());
+                        out.putShort(out.skip(2), key.index);
+                    } else {
+                        out.write(InputType.STRING.getValue());
+                        out.putInt(out.skip(4), length);
+                        out.write(reader.array(), start, length);
+                    }
+                    break;
+                case DATA_INPUT:
+                case PACKED_STRING:
+                    rewrite(reader, seen, out);
+                    break;
+                default:
+                    // Scalars are copied as they are; count() has already rejected anything else
+                    int from = reader.position();
+                    reader.skip();
+                    out.write(reader.array(), from, reader.position() - from);
+                    break;
+            }
+        }
+        reader.exitArray();
+    }
+
+    /** A packed string array, as a tagged array of STRINGs and STRING_REFs if that is smaller. */
+    private static void rewritePacked(DataInputReader reader, Map<Key, Key> seen, ByteSink out) {
+        byte[] bytes = reader.array();
+        int start = reader.position();
+        reader.skip();
+        int count = ((bytes[start + 1] & 0xFF) << 8) | (bytes[start + 2] & 0xFF);
+        int dataStart = start + 3 + 4 * count;
+
+        // Packed, a string costs 4 + length; tagged, 3 as a reference and 5 + length otherwise
+        long tagged = 0;
+        for (int i = 0, data = dataStart; i < count; i++) {
+            int length = readInt(bytes, start + 3 + 4 * i);
+            tagged += seen.get(new Key(bytes, data, length)).index >= 0 ? 3 - 4 - length : 1;
+            data += length;
+        }
+        if (tagged >= 0) {
+            out.write(bytes, start, reader.position() - start);
+            return;
+        }
+
+        out.write(InputType.DATA_INPUT.getValue());
+        out.putShort(out.skip(2), count);
+        for (int i = 0, data = dataStart; i < count; i++) {
+            int length = readInt(bytes, start + 3 + 4 * i);
+            Key key = seen.get(new Key(bytes, data, length));
+            if (key.index >= 0) {
+                out.write(InputType.STRING_REF.getValue());
+                out.putShort(out.skip(2), key.index);
+            } else {
+                out.write(InputType.STRING.getValue());
+                out.putInt(out.skip(4), length);
+                out.write(bytes, data, length);
+            }
+            data += length;
+        }
+    }
+
+    private static void requireArray(DataInputReader reader) {
+        if (reader.nextType() != InputType.DATA_INPUT && reader.nextType() != InputType.PACKED_STRING) {
+            throw new IllegalArgumentException("Expected DataInput but found " + reader.nextType());
+        }
+    }
+
+    private static int readInt(byte[] bytes, int index) {
+        return ((bytes[index] & 0xFF) << 24) |
+                ((bytes[index + 1] & 0xFF) << 16) |
+                ((bytes[index + 2] & 0xFF) << 8) |
+                (bytes[index + 3] & 0xFF);
+    }
+
+    /** UTF-8 bytes of one string, compared by content; also tracks how often it occurs. */
+    private static final class Key {
+        final byte[] bytes;
+        final int offset;
+        final int length;
+        final int hash;
+        int count = 1;
+        int index = -1;
+
+        Key(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+            int h = 1;
+            for (int i = offset; i < offset + length; i++) {
+                h = 31 * h + bytes[i];
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && Arrays.equals(bytes, offset, offset + length,
+                    other.bytes, other.offset, other.offset + other.length);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package org.pranavt84.json;
+
+import org.pranavt84.compress.CompressedEnvelope;
+import org.pranavt84.decoder.DataInputReader;
+import org.pranavt84.decoder.DataInputValidator;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.decoder.StringTable;
+import org.pranavt84.type.CodecRegistry;
+import org.pranavt84.type.InputType;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes protocol bytes straight out as UTF-8 JSON without building a DataInput or
+ * decoding strings: string bytes are copied as they are, escaping only what JSON requires.
+ * Output matches JsonConverter.dataInputToJson of the decoded tree.
+ */
+public final class BinaryToJsonTranscoder {
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TRUE = "true".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FALSE = "false".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private BinaryToJsonTranscoder() {
+        throw new AssertionError("BinaryToJsonTranscoder should not be instantiated.");
+    }
+
+    public static void transcode(byte[] encoded, ByteSink out) {
+        transcode(encoded, 0, encoded.length, out);
+    }
+
+    public static void transcode(byte[] encoded, int offset, int length, ByteSink out) {
+        transcode(encoded, offset, length, out, new DecoderConfig());
+    }
+
+    /** The message is checked against {@code limits} by {@link DataInputValidator} before anything is written. */
+    public static void transcode(byte[] encoded, int offset, int length, ByteSink out, DecoderConfig limits) {
+        transcode(encoded, offset, length, out, limits, CodecRegistry.getDefault());
+    }
+
+    /** Same as {@link #transcode(byte[], int, int, ByteSink, DecoderConfig)}, also reading the extension types of {@code registry}. */
+    public static void transcode(byte[] encoded, int offset, int length, ByteSink out, DecoderConfig limits,
+                                 CodecRegistry registry) {
+        if (CompressedEnvelope.isCompressed(encoded, offset, length)) {
+            byte[] message = CompressedEnvelope.decompress(encoded, offset, length, limits.getMaxMessageSize());
+            transcode(message, 0, message.length, out, limits, registry);
+            return;
+        }
+        DataInputValidator.validate(encoded, offset, length, limits, registry);
+        DataInputReader reader = new DataInputReader(encoded, offset, length, registry);
+        StringTable strings = StringTable.read(reader);
+        if (!reader.nextType().isArray()) {
+            throw new IllegalArgumentException("Expected DataInput but found " + reader.nextType());
+        }
+        writeArray(reader, strings, out);
+    }
+
+    private static void writeArray(DataInputReader reader, StringTable strings, ByteSink out) {
+        if (reader.nextType() == InputType.DATA_INPUT || reader.nextType() == InputType.INDEXED_ARRAY) {
+            writeDataInput(reader, strings, out);
+        } else {
+            writePacked(reader, out);
+        }
+    }
+
+    /** Packed arrays are validated by the reader, then written straight from their bytes. */
+    private static void writePacked(DataInputReader reader, ByteSink out) {
+        byte[] bytes = reader.array();
+        int start = reader.position();
+        boolean ints = reader.nextType() == InputType.PACKED_INT32;
+        reader.skip();
+
+        int count = ((bytes[start + 1] & 0xFF) << 8) | (bytes[start + 2] & 0xFF);
+        int at = start + 3;
+        int data = at + 4 * count;
+        out.write('[');
+        for (int i = 0; i < count; i++, at += 4) {
+            if (i > 0) {
+                out.write(',');
+                out.write(' ');
+            }
+            int value = readInt32(bytes, at);
+            if (ints) {
+                writeLong(value, out);
+            } else {
+                writeString(bytes, data, value, out);
+                data += value;
+            }
+        }
+        out.write(']');
+    }
+
+    static int readInt32(byte[] bytes, int index) {
+        return ((bytes[index] & 0xFF) << 24) |
+                ((bytes[index + 1] & 0xFF) << 16) |
+                ((bytes[index + 2] & 0xFF) << 8) |
+                (bytes[index + 3] & 0xFF);
+    }
+
+    private static void writeDataInput(DataInputReader reader, StringTable strings, ByteSink out) {
+        int count = reader.enterArray();
+
+        out.write('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                out.write(',');
+                out.write(' ');
+            }
+            writeElement(reader, strings, out);
+        }
+        out.write(']');
+
+        reader.exitArray();
+    }
+
+    /** Consumes the element at the cursor, of any type, and writes it as JSON. */
+    static void writeElement(DataInputReader reader, StringTable strings, ByteSink out) {
+        InputType type = reader.nextType();
+        switch (type) {
+            case INT32:
+                writeLong(reader.readInt(), out);
+                break;
+            case INT64:
+                writeLong(reader.readLong(), out);
+                break;
+            case VARINT:
+                writeLong(reader.readVarLong(), out);
+                break;
+            case FLOAT64:
+                writeDouble(reader.readDouble(), out);
+                break;
+            case TRUE:
+            case FALSE:
+                byte[] literal = reader.readBoolean() ? TRUE : FALSE;
+                out.write(literal, 0, literal.length);
+                break;
+            case NULL:
+                reader.readNull();
+                out.write(NULL, 0, NULL.length);
+                break;
+            case EXTENSION:
+                writeExtension(reader.readExtension(), out);
+                break;
+            case STRING:
+                int stringLength = reader.peekStringLength();
+                writeString(reader.array(), reader.readStringOffset(), stringLength, out);
+                break;
+            case STRING_REF:
+                int index = reader.readStringRef();
+                writeString(reader.array(), strings.offset(index), strings.length(index), out);
+                break;
+            case DATA_INPUT:
+            case INDEXED_ARRAY:
+            case PACKED_INT32:
+            case PACKED_STRING:
+                writeArray(reader, strings, out);
+                break;
+            default:
+                throw new IllegalArgumentException("Unhandled type: " + type);
+        }
+    }
+
+    static void writeString(byte[] bytes, int start, int length, ByteSink out) {
+        int end = start + length;
+
+        out.write('"');
+        int runStart = start;
+        for (int i = start; i < end; i++) {
+            int b = bytes[i] & 0xFF;
+            if (b >= 0x20 && b != '"' && b != '\\') {
+                continue;
+            }
+            out.write(bytes, runStart, i - runStart);
+            writeEscape(b, out);
+            runStart = i + 1;
+        }
+        out.write(bytes, runStart, end - runStart);
+        out.write('"');
+    }
+
+    private static void writeEscape(int b, ByteSink out) {
+        out.write('\\');
+        switch (b) {
+            case '"': out.write('"'); break;
+            case '\\': out.write('\\'); break;
+            case '\n': out.write('n'); break;
+            case '\r': out.write('r'); break;
+            case '\t': out.write('t'); break;
+            case '\b': out.write('b'); break;
+            case '\f': out.write('f'); break;
+            default:
+                out.write('u');
+                out.write('0');
+                out.write('0');
+                out.write(HEX_DIGITS[b >> 4]);
+                out.write(HEX_DIGITS[b & 0x0F]);
+        }
+    }
+
+    /** Decimal digits written directly, without an intermediate String. */
+    static void writeLong(long value, ByteSink out) {
+        // Digits are taken from the negative value, which also covers Long.MIN_VALUE
+        long v = value;
+        if (v < 0) {
+            out.write('-');
+        } else {
+            v = -v;
+        }
+        out.ensureCapacity(19);
+        byte[] buf = out.array();
+        int start = out.size();
+        int end = start;
+        do {
+            buf[end++] = (byte) ('0' - (v % 10));
+            v /= 10;
+        } while (v != 0);
+        for (int i = start, j = end - 1; i < j; i++, j--) {
+            byte t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+        out.size(end);
+    }
+
+    /** Numbers and booleans as they print, anything else as a JSON string of its toString. */
+    private static void writeExtension(Object value, ByteSink out) {
+        if (value == null || value instanceof Number && !Double.isFinite(((Number) value).doubleValue())) {
+            out.write(NULL, 0, NULL.length);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.writeAscii(value.toString());
+        } else {
+            byte[] text = value.toString().getBytes(StandardCharsets.UTF_8);
+            writeString(text, 0, text.length, out);
+        }
+    }
+
+    /** Same text as {@code Double.toString}; NaN and the infinities have no JSON form and become null. */
+    static void writeDouble(double value, ByteSink out) {
+        if (!Double.isFinite(value)) {
+            out.write(NULL, 0, NULL.length);
+            return;
+        }
+        out.writeAscii(Double.toString(value));
+    }
+}
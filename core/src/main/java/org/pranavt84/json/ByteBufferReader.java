@@ -0,0 +1,56 @@
+package org.pranavt84.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reader over the UTF-8 bytes of a ByteBuffer, for instance a slice of a memory-mapped file.
+ * Characters are decoded straight into the caller's array, so a {@link JsonReader} can parse
+ * the buffer without a String or an intermediate copy. Malformed UTF-8 is an error rather than
+ * being replaced. Can be {@linkplain #reset(ByteBuffer) reset} onto another buffer and reused.
+ */
+public class ByteBufferReader extends Reader {
+
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+    private ByteBuffer in;
+
+    public ByteBufferReader(ByteBuffer in) {
+        reset(in);
+    }
+
+    /** Reads {@code in} from its position to its limit next, advancing its position. */
+    public ByteBufferReader reset(ByteBuffer in) {
+        this.in = in;
+        decoder.reset();
+        return this;
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!in.hasRemaining()) {
+            return -1;
+        }
+        CharBuffer out = CharBuffer.wrap(cbuf, off, len);
+        CoderResult result = decoder.decode(in, out, true);
+        if (result.isError()) {
+            throw new IOException("Invalid UTF-8 at byte " + in.position());
+        }
+        return out.position() - off;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release; the buffer belongs to the caller
+    }
+}
@@ -0,0 +1,111 @@
+package org.pranavt84.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer that, unlike ByteArrayOutputStream, exposes its array and
+ * allows length headers to be patched in after the payload has been written.
+ */
+public class ByteSink {
+
+    private byte[] buf;
+    private int size;
+
+    public ByteSink() {
+        this(256);
+    }
+
+    public ByteSink(int initialCapacity) {
+        this.buf = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public void write(int b) {
+        ensureCapacity(1);
+        buf[size++] = (byte) b;
+    }
+
+    public void write(byte[] bytes, int offset, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, offset, buf, size, length);
+        size += length;
+    }
+
+    /** Writes a string known to be ASCII, one byte per char. */
+    public void writeAscii(String s) {
+        int len = s.length();
+        ensureCapacity(len);
+        for (int i = 0; i < len; i++) {
+            buf[size++] = (byte) s.charAt(i);
+        }
+    }
+
+    public void writeUtf8(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        write(bytes, 0, bytes.length);
+    }
+
+    /** Reserves {@code n} bytes to be filled in later and returns their position. */
+    public int skip(int n) {
+        ensureCapacity(n);
+        int at = size;
+        size += n;
+        return at;
+    }
+
+    public void putShort(int at, int value) {
+        buf[at] = (byte) ((value >> 8) & 0xFF);
+        buf[at + 1] = (byte) (value & 0xFF);
+    }
+
+    public void putInt(int at, int value) {
+        buf[at] = (byte) ((value >> 24) & 0xFF);
+        buf[at + 1] = (byte) ((value >> 16) & 0xFF);
+        buf[at + 2] = (byte) ((value >> 8) & 0xFF);
+        buf[at + 3] = (byte) (value & 0xFF);
+    }
+
+    public void putLong(int at, long value) {
+        putInt(at, (int) (value >>> 32));
+        putInt(at + 4, (int) value);
+    }
+
+    /** Makes room for {@code extra} more bytes. */
+    public void ensureCapacity(int extra) {
+        int needed = size + extra;
+        if (needed < 0) {
+            throw new IllegalStateException("Output exceeds 2 GB");
+        }
+        if (needed > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(needed, buf.length * 2));
+        }
+    }
+
+    /** Backing array; only the first {@link #size()} bytes are valid. */
+    public byte[] array() {
+        return buf;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Sets the write position, e.g. after writing into {@link #array()} directly. */
+    public void size(int size) {
+        this.size = size;
+    }
+
+    public void reset() {
+        size = 0;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buf, size);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(buf, 0, size);
+    }
+}
@@ -0,0 +1,375 @@
+package org.pranavt84.json;
+
+import org.pranavt84.compress.CompressedEnvelope;
+import org.pranavt84.decoder.DataInputReader;
+import org.pranavt84.decoder.DataInputValidator;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.decoder.InvalidInputException;
+import org.pranavt84.decoder.StringTable;
+import org.pranavt84.type.CodecRegistry;
+import org.pranavt84.type.InputType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A path into an encoded message, in JSONPath bracket notation: {@code $} is the whole message,
+ * {@code [i]} is element {@code i} of an array (negative counts from the end), {@code [a:b]} the
+ * elements from {@code a} up to {@code b} (either may be left out or negative), and {@code [*]}
+ * every element. For example {@code $[3][0]}, {@code $[*][1]} or {@code $[-10:]}.
+ *
+ * <p>{@link #extract} writes only the selected values, as JSON, straight from the protocol bytes.
+ * Everything else is stepped over by the lengths in the encoding without being decoded: strings
+ * by their length prefix, numbers by their width, indexed arrays by their size, and the elements
+ * of indexed and packed arrays are reached directly. Validation follows the same path: what is
+ * stepped over is only bounds-checked, the arrays along the path are held to the limits, and
+ * only what is written is validated in full, UTF-8 included.
+ *
+ * <p>A path of plain indexes selects exactly one value, and it is an error if it is missing. A
+ * path with a slice or a wildcard selects any number of values, written as a JSON array; elements
+ * that are out of range or not arrays are left out. Immutable.
+ */
+public final class JsonPath {
+
+    /** Slice bound that was left out. */
+    private static final int OPEN = Integer.MIN_VALUE;
+
+    private final String expression;
+    private final Step[] steps;
+    private final boolean definite;
+
+    private JsonPath(String expression, Step[] steps) {
+        this.expression = expression;
+        this.steps = steps;
+        boolean definite = true;
+        for (Step step : steps) {
+            definite &= !step.slice;
+        }
+        this.definite = definite;
+    }
+
+    public static JsonPath parse(String expression) {
+        if (expression == null || !expression.startsWith("$")) {
+            throw new IllegalArgumentException("Path must start with $, got " + expression);
+        }
+        List<Step> steps = new ArrayList<>();
+        int i = 1;
+        while (i < expression.length()) {
+            if (expression.charAt(i) != '[') {
+                throw invalid(expression, i, "expected [");
+            }
+            int close = expression.indexOf(']', i);
+            if (close < 0) {
+                throw invalid(expression, i, "no closing ]");
+            }
+            steps.add(Step.parse(expression, i + 1, close));
+            i = close + 1;
+        }
+        return new JsonPath(expression, steps.toArray(new Step[0]));
+    }
+
+    /** True if the path can select at most one value, which is then written on its own rather than in an array. */
+    public boolean isDefinite() {
+        return definite;
+    }
+
+    /**
+     * Appends the selected values of the message at {@code encoded[offset..offset+length)} to
+     * {@code out} as JSON. Compressed messages are decompressed first. The message is held to
+     * {@code limits} along the path, see the class comment, and the string table, which any
+     * written value may refer to, in full; {@link DataInputValidator} does the checking. Nothing
+     * is left in {@code out} when the message is invalid.
+     */
+    public void extract(byte[] encoded, int offset, int length, ByteSink out, DecoderConfig limits) {
+        extract(encoded, offset, length, out, limits, CodecRegistry.getDefault());
+    }
+
+    /** Same as {@link #extract(byte[], int, int, ByteSink, DecoderConfig)}, also reading the extension types of {@code registry}. */
+    public void extract(byte[] encoded, int offset, int length, ByteSink out, DecoderConfig limits,
+                        CodecRegistry registry) {
+        if (CompressedEnvelope.isCompressed(encoded, offset, length)) {
+            byte[] message = CompressedEnvelope.decompress(encoded, offset, length, limits.getMaxMessageSize());
+            extract(message, 0, message.length, out, limits, registry);
+            return;
+        }
+        if (length > limits.getMaxMessageSize()) {
+            throw new InvalidInputException("Message of " + length + " bytes, more than the limit of "
+                    + limits.getMaxMessageSize(), offset);
+        }
+        DataInputReader reader = new DataInputReader(encoded, offset, length, registry);
+        boolean table = reader.nextType() == InputType.STRING_TABLE;
+        StringTable strings = StringTable.read(reader);
+        for (int i = 0; i < strings.size(); i++) {
+            DataInputValidator.validateString(encoded, strings.offset(i), strings.length(i), strings.offset(i) - 5,
+                    limits);
+        }
+        if (!reader.nextType().isArray()) {
+            throw new InvalidInputException("Expected DataInput but found " + reader.nextType(), reader.position());
+        }
+        int mark = out.size();
+        Walk walk = new Walk(strings, table ? strings.size() : -1, limits, registry, out, definite ? -1 : mark + 1);
+        try {
+            if (definite) {
+                walk.select(reader, 0);
+                return;
+            }
+            out.write('[');
+            walk.select(reader, 0);
+            out.write(']');
+        } catch (RuntimeException e) {
+            out.size(mark);
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    private static IllegalArgumentException invalid(String expression, int index, String problem) {
+        return new IllegalArgumentException("Invalid path " + expression + " at index " + index + ": " + problem);
+    }
+
+    /** One bracket: an index, or a slice with {@link #OPEN} for a left-out bound. */
+    private static final class Step {
+        final boolean slice;
+        final int start;
+        final int end;
+        /** Index just after the closing bracket in the expression. */
+        final int textEnd;
+
+        Step(boolean slice, int start, int end, int textEnd) {
+            this.slice = slice;
+            this.start = start;
+            this.end = end;
+            this.textEnd = textEnd;
+        }
+
+        static Step parse(String expression, int from, int to) {
+            String text = expression.substring(from, to).trim();
+            if (text.equals("*")) {
+                return new Step(true, OPEN, OPEN, to + 1);
+            }
+            int colon = text.indexOf(':');
+            if (colon < 0) {
+                return new Step(false, number(expression, from, text), 0, to + 1);
+            }
+            String start = text.substring(0, colon).trim();
+            String end = text.substring(colon + 1).trim();
+            return new Step(true, start.isEmpty() ? OPEN : number(expression, from, start),
+                    end.isEmpty() ? OPEN : number(expression, from, end), to + 1);
+        }
+
+        private static int number(String expression, int index, String text) {
+            try {
+                int value = Integer.parseInt(text);
+                if (value != OPEN) {
+                    return value;
+                }
+            } catch (NumberFormatException e) {
+                // Reported below
+            }
+            throw invalid(expression, index, "expected an index, a slice or *, got [" + text + "]");
+        }
+
+        /** First selected index of an array of {@code count} elements. */
+        int from(int count) {
+            if (!slice) {
+                return start < 0 ? start + count : start;
+            }
+            return bound(start, count, 0);
+        }
+
+        /** Index after the last selected one; not more than {@link #from} when nothing is selected. */
+        int to(int count) {
+            if (!slice) {
+                return Math.min(from(count) + 1, count);
+            }
+            return bound(end, count, count);
+        }
+
+        private static int bound(int value, int count, int open) {
+            if (value == OPEN) {
+                return open;
+            }
+            return value < 0 ? Math.max(0, value + count) : Math.min(value, count);
+        }
+    }
+
+    /** State of one extraction. */
+    private final class Walk {
+        private final StringTable strings;
+        /** Entries in the message's string table, or -1 if it has none. */
+        private final int tableSize;
+        private final DecoderConfig limits;
+        private final CodecRegistry registry;
+        private final ByteSink out;
+        /** Where the values of the result array start, or -1 for a definite path. */
+        private final int listStart;
+
+        Walk(StringTable strings, int tableSize, DecoderConfig limits, CodecRegistry registry, ByteSink out,
+             int listStart) {
+            this.strings = strings;
+            this.tableSize = tableSize;
+            this.limits = limits;
+            this.registry = registry;
+            this.out = out;
+            this.listStart = listStart;
+        }
+
+        /**
+         * Writes what {@code steps[step..]} select from the element at the cursor. Returns true once
+         * a definite path has written its value, and the caller stops right there; otherwise the
+         * cursor is left after the element.
+         */
+        boolean select(DataInputReader reader, int step) {
+            if (step == steps.length) {
+                // Written whole, so validated whole; it sits inside one array per step
+                DataInputValidator.validateElement(reader.array(), reader.position(), reader.limit(), step,
+                        tableSize, limits, registry);
+                separate();
+                BinaryToJsonTranscoder.writeElement(reader, strings, out);
+                return definite;
+            }
+            InputType type = reader.nextType();
+            switch (type) {
+                case DATA_INPUT:
+                    return selectTagged(reader, step);
+                case INDEXED_ARRAY:
+                    return selectIndexed(reader, step);
+                case PACKED_INT32:
+                case PACKED_STRING:
+                    return selectPacked(reader, step, type);
+                default:
+                    if (definite) {
+                        throw new IllegalArgumentException("Path " + expression + " selects nothing: "
+                                + prefix(step) + " is " + type + ", not an array");
+                    }
+                    reader.skip();
+                    return false;
+            }
+        }
+
+        private boolean selectTagged(DataInputReader reader, int step) {
+            int pos = reader.position();
+            int count = reader.enterArray();
+            checkArray(pos, count, step);
+            int from = range(step, count);
+            int to = steps[step].to(count);
+            for (int i = 0; i < to; i++) {
+                if (i < from) {
+                    reader.skip();
+                } else if (select(reader, step + 1)) {
+                    return true;
+                }
+            }
+            reader.exitArray();
+            return false;
+        }
+
+        /**
+         * Each selected element is read on its own from where the offset table says it starts. The
+         * array is skipped first, which checks that its offset table and elements are in range.
+         */
+        private boolean selectIndexed(DataInputReader reader, int step) {
+            byte[] bytes = reader.array();
+            int pos = reader.position();
+            reader.skip();
+            int end = reader.position();
+            int count = ((bytes[pos + 1] & 0xFF) << 8) | (bytes[pos + 2] & 0xFF);
+            checkArray(pos, count, step);
+            int elements = pos + 7 + 4 * count;
+            int from = range(step, count);
+            int to = steps[step].to(count);
+            for (int i = from; i < to; i++) {
+                int start = elements + BinaryToJsonTranscoder.readInt32(bytes, pos + 7 + 4 * i);
+                int next = i + 1 < count ? elements + BinaryToJsonTranscoder.readInt32(bytes, pos + 11 + 4 * i) : end;
+                if (start < elements || next <= start || next > end) {
+                    throw new InvalidInputException("Offset of element " + i + " is outside its indexed array",
+                            pos + 7 + 4 * i);
+                }
+                if (select(new DataInputReader(bytes, start, next - start, registry), step + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Packed elements are never arrays, so only the last step can select them. The array is
+         * skipped first, which checks that its lengths and data are in range.
+         */
+        private boolean selectPacked(DataInputReader reader, int step, InputType type) {
+            byte[] bytes = reader.array();
+            int pos = reader.position();
+            reader.skip();
+            int count = ((bytes[pos + 1] & 0xFF) << 8) | (bytes[pos + 2] & 0xFF);
+            checkArray(pos, count, step);
+            int from = range(step, count);
+            int to = steps[step].to(count);
+            if (step + 1 < steps.length && from < to) {
+                if (definite) {
+                    throw new IllegalArgumentException("Path " + expression + " selects nothing: "
+                            + prefix(step + 1) + " is " + (type == InputType.PACKED_INT32 ? InputType.INT32
+                            : InputType.STRING) + ", not an array");
+                }
+                return false;
+            }
+            int data = pos + 3 + 4 * count;
+            for (int i = 0; i < from && type == InputType.PACKED_STRING; i++) {
+                data += BinaryToJsonTranscoder.readInt32(bytes, pos + 3 + 4 * i);
+            }
+            for (int i = from; i < to; i++) {
+                int value = BinaryToJsonTranscoder.readInt32(bytes, pos + 3 + 4 * i);
+                if (type == InputType.PACKED_STRING) {
+                    DataInputValidator.validateString(bytes, data, value, pos + 3 + 4 * i, limits);
+                }
+                separate();
+                if (type == InputType.PACKED_INT32) {
+                    BinaryToJsonTranscoder.writeLong(value, out);
+                } else {
+                    BinaryToJsonTranscoder.writeString(bytes, data, value, out);
+                    data += value;
+                }
+                if (definite) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Holds an array the path goes through, at {@code pos} inside {@code step} arrays, to the limits. */
+        private void checkArray(int pos, int count, int step) {
+            if (step + 1 > limits.getMaxDepth()) {
+                throw new InvalidInputException("Arrays nested deeper than " + limits.getMaxDepth(), pos);
+            }
+            if (count > limits.getMaxArraySize()) {
+                throw new InvalidInputException("Array of " + count + " elements, more than the limit of "
+                        + limits.getMaxArraySize(), pos);
+            }
+        }
+
+        /** First index {@code steps[step]} selects; a definite path fails here if its index is out of range. */
+        private int range(int step, int count) {
+            int from = steps[step].from(count);
+            if (definite && (from < 0 || from >= count)) {
+                throw new IllegalArgumentException("Path " + expression + " selects nothing: " + prefix(step)
+                        + " has " + count + " elements, no [" + steps[step].start + "]");
+            }
+            return Math.max(from, 0);
+        }
+
+        private void separate() {
+            if (listStart >= 0 && out.size() > listStart) {
+                out.write(',');
+                out.write(' ');
+            }
+        }
+
+        /** The expression up to, not including, {@code steps[step]}. */
+        private String prefix(int step) {
+            return expression.substring(0, step == 0 ? 1 : steps[step - 1].textEnd);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package org.pranavt84.json;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Character-level JSON lexer over a Reader. Reads through its own buffer in a single
+ * pass; nothing is tokenized or copied ahead of the caller.
+ */
+public class JsonReader {
+
+    private Reader in;
+    private final char[] buffer = new char[8192];
+    private int pos;
+    private int limit;
+    /** Characters consumed before the current buffer, for error positions. */
+    private long consumed;
+
+    private final StringBuilder scratch = new StringBuilder();
+
+    public JsonReader(Reader in) {
+        this.in = in;
+    }
+
+    /** Starts over on a new input, keeping the buffers; error positions restart at 0. */
+    public void reset(Reader in) {
+        this.in = in;
+        pos = 0;
+        limit = 0;
+        consumed = 0;
+    }
+
+    /** Skips whitespace and returns the next character without consuming it, or -1 at end of input. */
+    public int peek() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            char c = buffer[pos];
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                pos++;
+            } else {
+                return c;
+            }
+        }
+    }
+
+    /** Consumes the next non-whitespace character, which must be {@code expected}. */
+    public void expect(char expected) throws IOException {
+        int c = peek();
+        if (c != expected) {
+            throw error("Expected '" + expected + "' but found " + describe(c));
+        }
+        pos++;
+    }
+
+    /** Consumes {@code c} if it is the next non-whitespace character. */
+    public boolean consume(char c) throws IOException {
+        if (peek() == c) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    /** Reads a quoted string, resolving all escapes including {@code \\uXXXX}. */
+    public String readString() throws IOException {
+        return readStringChars().toString();
+    }
+
+    /**
+     * Like {@link #readString()} but returns the reader's internal buffer instead of a new String.
+     * The content is only valid until the next call on this reader.
+     */
+    public CharSequence readStringChars() throws IOException {
+        expect('"');
+        scratch.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) {
+                throw error("Unterminated string");
+            }
+            char c = buffer[pos++];
+            if (c == '"') {
+                return scratch;
+            }
+            if (c == '\\') {
+                scratch.append(readEscape());
+            } else if (c < 0x20) {
+                throw error("Unescaped control character in string");
+            } else {
+                scratch.append(c);
+            }
+        }
+    }
+
+    /** Reads an integer literal that must fit in an int. */
+    public int readInt() throws IOException {
+        String token = readToken();
+        try {
+            return Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw invalidNumber(token);
+        }
+    }
+
+    /**
+     * Reads a number as the narrowest of Integer and Long that holds it exactly; numbers with
+     * a fraction or exponent are read as Double.
+     */
+    public Number readNumber() throws IOException {
+        String token = readToken();
+        try {
+            if (isInteger(token)) {
+                long value = Long.parseLong(token);
+                return value == (int) value ? (Number) (int) value : (Number) value;
+            }
+            if (isDecimal(token)) {
+                return Double.parseDouble(token);
+            }
+        } catch (NumberFormatException e) {
+            // outside the range of a long
+        }
+        throw invalidNumber(token);
+    }
+
+    /** Reads {@code true}, {@code false} or {@code null}; the last one is returned as null. */
+    public Boolean readLiteral() throws IOException {
+        String token = readToken();
+        switch (token) {
+            case "true": return Boolean.TRUE;
+            case "false": return Boolean.FALSE;
+            case "null": return null;
+            default: throw error("Invalid literal: " + (token.isEmpty() ? describe(peek()) : token));
+        }
+    }
+
+    /** Collects the characters of a number or literal; validation is up to the caller. */
+    private String readToken() throws IOException {
+        peek();
+        scratch.setLength(0);
+        while (true) {
+            if (pos == limit && !fill()) {
+                break;
+            }
+            char c = buffer[pos];
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E'
+                    || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                scratch.append(c);
+                pos++;
+            } else {
+                break;
+            }
+        }
+        return scratch.toString();
+    }
+
+    private IllegalArgumentException invalidNumber(String token) throws IOException {
+        return error("Invalid number: " + (token.isEmpty() ? describe(peek()) : token));
+    }
+
+    /** Optional sign and digits, as Integer.parseInt has always accepted here. */
+    private static boolean isInteger(String token) {
+        int start = token.startsWith("-") || token.startsWith("+") ? 1 : 0;
+        if (start == token.length()) {
+            return false;
+        }
+        for (int i = start; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** A JSON number with a fraction and/or exponent. */
+    private static boolean isDecimal(String token) {
+        int i = token.startsWith("-") ? 1 : 0;
+        int digits = skipDigits(token, i);
+        if (digits == i) {
+            return false;
+        }
+        i = digits;
+        if (i < token.length() && token.charAt(i) == '.') {
+            digits = skipDigits(token, ++i);
+            if (digits == i) {
+                return false;
+            }
+            i = digits;
+        }
+        if (i < token.length() && (token.charAt(i) == 'e' || token.charAt(i) == 'E')) {
+            i++;
+            if (i < token.length() && (token.charAt(i) == '+' || token.charAt(i) == '-')) {
+                i++;
+            }
+            digits = skipDigits(token, i);
+            if (digits == i) {
+                return false;
+            }
+            i = digits;
+        }
+        return i == token.length();
+    }
+
+    private static int skipDigits(String token, int i) {
+        while (i < token.length() && token.charAt(i) >= '0' && token.charAt(i) <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    /** Fails unless only whitespace is left. */
+    public void expectEnd() throws IOException {
+        int c = peek();
+        if (c != -1) {
+            throw error("Unexpected " + describe(c) + " after end of input");
+        }
+    }
+
+    public IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + (consumed + pos));
+    }
+
+    private char readEscape() throws IOException {
+        char c = nextRaw();
+        switch (c) {
+            case '"': return '"';
+            case '\\': return '\\';
+            case '/': return '/';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(nextRaw(), 16);
+                    if (digit < 0) {
+                        throw error("Invalid \\u escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            default:
+                throw error("Invalid escape '\\" + c + "'");
+        }
+    }
+
+    private char nextRaw() throws IOException {
+        if (pos == limit && !fill()) {
+            throw error("Unexpected end of input");
+        }
+        return buffer[pos++];
+    }
+
+    private boolean fill() throws IOException {
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    private static String describe(int c) {
+        return c == -1 ? "end of input" : "'" + (char) c + "'";
+    }
+}
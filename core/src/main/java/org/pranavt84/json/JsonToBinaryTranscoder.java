@@ -0,0 +1,191 @@
+package org.pranavt84.json;
+
+import org.pranavt84.decoder.DataInputReader;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.encode.EncodeVarInt;
+import org.pranavt84.encode.Utf8;
+import org.pranavt84.encode.VarInt;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.type.InputType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Converts a JSON array straight into protocol bytes while it is being read. No DataInput
+ * is built: counts and string lengths are reserved and patched in once known.
+ * Output is byte-identical to parsing with JsonConverter and encoding with DataInputEncoder.
+ * {@link JsonToBinaryWriter} writes the same bytes to a stream without holding the message.
+ */
+public final class JsonToBinaryTranscoder {
+
+    private static final EncoderConfig DEFAULT_CONFIG = new EncoderConfig();
+
+    private JsonToBinaryTranscoder() {
+        throw new AssertionError("JsonToBinaryTranscoder should not be instantiated.");
+    }
+
+    public static void transcode(InputStream json, ByteSink out) throws IOException {
+        transcode(new JsonReader(new InputStreamReader(json, StandardCharsets.UTF_8)), out);
+    }
+
+    public static void transcode(JsonReader reader, ByteSink out) throws IOException {
+        transcode(reader, out, DEFAULT_CONFIG);
+    }
+
+    /**
+     * Uses the integer and array forms {@code config} asks for, so the output still matches
+     * DataInputEncoder with the same config. Packing and compression of the whole message are
+     * left to {@link DataInputEncoder#pack}.
+     */
+    public static void transcode(JsonReader reader, ByteSink out, EncoderConfig config) throws IOException {
+        transcode(reader, out, config, null);
+    }
+
+    /**
+     * Same as {@link #transcode(JsonReader, ByteSink, EncoderConfig)}, rejecting arrays, strings and
+     * nesting a decoder with {@code limits} would reject, as {@link DataInputEncoder} does.
+     * {@code null} applies no limits.
+     */
+    public static void transcode(JsonReader reader, ByteSink out, EncoderConfig config, DecoderConfig limits)
+            throws IOException {
+        if (reader.peek() != '[') {
+            throw new IllegalArgumentException("Input must be a JSON array starting with [ and ending with ]");
+        }
+        writeArray(reader, out, config, limits, 1);
+        reader.expectEnd();
+    }
+
+    private static void writeArray(JsonReader reader, ByteSink out, EncoderConfig config, DecoderConfig limits,
+                                   int depth) throws IOException {
+        if (limits != null && depth > limits.getMaxDepth()) {
+            throw new IllegalArgumentException("Arrays nested deeper than " + limits.getMaxDepth());
+        }
+        reader.expect('[');
+
+        int start = out.size();
+        out.write(InputType.DATA_INPUT.getValue());
+        int countAt = out.skip(2);
+        int count = 0;
+        // Without limits, still no more than the 2-byte count can hold
+        int maxArraySize = limits != null ? limits.getMaxArraySize() : 0xFFFF;
+        boolean ints = true;
+        boolean strings = true;
+
+        if (!reader.consume(']')) {
+            do {
+                int at = out.size();
+                writeElement(reader, out, config, limits, depth);
+                int tag = out.array()[at];
+                ints &= tag == InputType.INT32.getValue() || tag == InputType.VARINT.getValue();
+                strings &= tag == InputType.STRING.getValue();
+                if (++count > maxArraySize) {
+                    throw limits != null
+                            ? new IllegalArgumentException("Array has more elements than the limit of " + maxArraySize)
+                            : new IllegalArgumentException("Array has more than 65535 elements, at most 65535 can be encoded");
+                }
+            } while (reader.consume(','));
+            reader.expect(']');
+        }
+
+        out.putShort(countAt, count);
+
+        if (config.isPackedArrays() && count > 0) {
+            if (ints) {
+                packInts(out, start);
+            } else if (strings) {
+                packStrings(out, start);
+            }
+        }
+    }
+
+    /**
+     * Rewrites the array of INT32s and VARINTs just written at {@code start} as a PACKED_INT32,
+     * unless one of them holds a long or packing would not make it smaller.
+     */
+    private static void packInts(ByteSink out, int start) {
+        DataInputReader reader = new DataInputReader(out.array(), start, out.size() - start);
+        int count = reader.enterArray();
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            if (reader.nextType() == InputType.INT32) {
+                values[i] = reader.readInt();
+            } else {
+                long value = reader.readVarLong();
+                if (value != (int) value) {
+                    return;
+                }
+                values[i] = (int) value;
+            }
+        }
+        if (4L * count > out.size() - start - 3) {
+            return;
+        }
+        out.size(start);
+        out.write(InputType.PACKED_INT32.getValue());
+        out.putShort(out.skip(2), count);
+        for (int value : values) {
+            out.putInt(out.skip(4), value);
+        }
+    }
+
+    /** Rewrites the array of STRINGs just written at {@code start} as a PACKED_STRING. */
+    private static void packStrings(ByteSink out, int start) {
+        // The length table lands on top of string bytes that are still to be moved, so work from a copy
+        byte[] array = Arrays.copyOfRange(out.array(), start, out.size());
+        DataInputReader reader = new DataInputReader(array);
+        int count = reader.enterArray();
+        out.size(start);
+        out.write(InputType.PACKED_STRING.getValue());
+        out.putShort(out.skip(2), count);
+        int lengthAt = out.skip(4 * count);
+        for (int i = 0; i < count; i++, lengthAt += 4) {
+            int length = reader.peekStringLength();
+            out.putInt(lengthAt, length);
+            out.write(array, reader.readStringOffset(), length);
+        }
+    }
+
+    private static void writeElement(JsonReader reader, ByteSink out, EncoderConfig config, DecoderConfig limits,
+                                     int depth) throws IOException {
+        int c = reader.peek();
+        if (c == '"') {
+            CharSequence value = reader.readStringChars();
+            if (limits != null && value.length() > limits.getMaxStringLength()) {
+                throw new IllegalArgumentException("String of " + value.length()
+                        + " characters, more than the limit of " + limits.getMaxStringLength());
+            }
+            int length = Utf8.encodedLength(value);
+
+            out.write(InputType.STRING.getValue());
+            out.putInt(out.skip(4), length);
+            out.ensureCapacity(length);
+            out.size(Utf8.write(value, out.array(), out.size()));
+        } else if (c == '[') {
+            writeArray(reader, out, config, limits, depth + 1);
+        } else if (c == 't' || c == 'f' || c == 'n') {
+            Boolean value = reader.readLiteral();
+            out.write((value == null ? InputType.NULL : value ? InputType.TRUE : InputType.FALSE).getValue());
+        } else {
+            Number value = reader.readNumber();
+            if (value instanceof Double) {
+                out.write(InputType.FLOAT64.getValue());
+                out.putLong(out.skip(8), Double.doubleToRawLongBits((Double) value));
+            } else if (config.isVarInts() && EncodeVarInt.isShorter(value)) {
+                out.ensureCapacity(1 + VarInt.MAX_LENGTH);
+                out.write(InputType.VARINT.getValue());
+                out.size(VarInt.write(value.longValue(), out.array(), out.size()));
+            } else if (value instanceof Integer) {
+                out.write(InputType.INT32.getValue());
+                out.putInt(out.skip(4), (Integer) value);
+            } else {
+                out.write(InputType.INT64.getValue());
+                out.putLong(out.skip(8), (Long) value);
+            }
+        }
+    }
+}
@@ -0,0 +1,295 @@
+package org.pranavt84.json;
+
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.encode.EncodeVarInt;
+import org.pranavt84.encode.Utf8;
+import org.pranavt84.encode.VarInt;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.type.InputType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Streaming counterpart of {@link JsonToBinaryTranscoder}: writes the protocol bytes for a JSON
+ * array to an OutputStream or channel through a fixed-size buffer, so the message itself is
+ * never held in memory. Each array's count comes before its elements, so the JSON is read
+ * twice: {@link #prepare} checks it and counts every array, then {@link #writeTo} reads it
+ * again while writing. Memory is one int per array, one string at a time and the buffer.
+ *
+ * <p>Output is byte-identical to JsonToBinaryTranscoder followed by {@link DataInputEncoder#pack}
+ * for any config {@link #supports} accepts. Packed arrays, the string dictionary, the offset
+ * index and compression all need the whole array or message, so those configs are left to the
+ * buffered transcoder.
+ */
+public final class JsonToBinaryWriter {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private final Supplier<? extends Reader> json;
+    private final EncoderConfig config;
+    /** Element count of every array, in the order their '[' appear. */
+    private int[] counts = new int[16];
+    private int arrays;
+    private int size;
+    /** Index into {@link #counts} of the next array {@link #writeTo} reaches. */
+    private int next;
+
+    private JsonToBinaryWriter(Supplier<? extends Reader> json, EncoderConfig config) {
+        this.json = json;
+        this.config = config;
+    }
+
+    /** Whether messages encoded with {@code config} can be written without holding them whole. */
+    public static boolean supports(EncoderConfig config) {
+        return !config.isPackedArrays() && !config.isStringDictionary() && !config.isIndexed()
+                && config.getCompressMinSize() == EncoderConfig.COMPRESSION_OFF;
+    }
+
+    /**
+     * Reads the JSON from {@code json} once to check it and count its arrays. It is opened again
+     * by every {@link #writeTo}, and must read the same characters each time. Everything
+     * JsonToBinaryTranscoder and DataInputEncoder would reject with the same {@code limits}
+     * is rejected here, message size included, so writing only fails if the target does.
+     * {@code null} applies no limits.
+     */
+    public static JsonToBinaryWriter prepare(Supplier<? extends Reader> json, EncoderConfig config,
+                                             DecoderConfig limits) throws IOException {
+        if (!supports(config)) {
+            throw new IllegalArgumentException("Cannot stream messages with " + config);
+        }
+        JsonToBinaryWriter writer = new JsonToBinaryWriter(json, config);
+        JsonReader reader = new JsonReader(json.get());
+        if (reader.peek() != '[') {
+            throw new IllegalArgumentException("Input must be a JSON array starting with [ and ending with ]");
+        }
+        long size = writer.measureArray(reader, limits, 1);
+        reader.expectEnd();
+        if (limits != null && size > limits.getMaxMessageSize()) {
+            throw new IllegalArgumentException("Message of " + size + " bytes, more than the limit of "
+                    + limits.getMaxMessageSize());
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Output exceeds 2 GB");
+        }
+        writer.size = (int) size;
+        return writer;
+    }
+
+    /** Size of the message in bytes, as written by {@link #writeTo}. */
+    public int size() {
+        return size;
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        writeTo(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /** Writes the message to {@code out}, {@code bufferSize} bytes at a time. {@code out} is not flushed or closed. */
+    public void writeTo(OutputStream out, int bufferSize) throws IOException {
+        write(new Sink(bufferSize) {
+            @Override
+            void drain(ByteBuffer buffer) throws IOException {
+                out.write(buffer.array(), 0, buffer.position());
+            }
+        });
+    }
+
+    public void writeTo(WritableByteChannel channel) throws IOException {
+        writeTo(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /** Writes the message to {@code channel}, {@code bufferSize} bytes at a time. {@code channel} is not closed. */
+    public void writeTo(WritableByteChannel channel, int bufferSize) throws IOException {
+        write(new Sink(bufferSize) {
+            @Override
+            void drain(ByteBuffer buffer) throws IOException {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        });
+    }
+
+    private void write(Sink sink) throws IOException {
+        next = 0;
+        writeArray(new JsonReader(json.get()), sink);
+        sink.flush();
+    }
+
+    /** Checks the array the reader is at as JsonToBinaryTranscoder does, records its count and returns its size. */
+    private long measureArray(JsonReader reader, DecoderConfig limits, int depth) throws IOException {
+        if (limits != null && depth > limits.getMaxDepth()) {
+            throw new IllegalArgumentException("Arrays nested deeper than " + limits.getMaxDepth());
+        }
+        reader.expect('[');
+
+        if (arrays == counts.length) {
+            counts = Arrays.copyOf(counts, arrays * 2);
+        }
+        int index = arrays++;
+        int count = 0;
+        long size = 1 + 2;
+        int maxArraySize = limits != null ? limits.getMaxArraySize() : 0xFFFF;
+
+        if (!reader.consume(']')) {
+            do {
+                size += measureElement(reader, limits, depth);
+                if (++count > maxArraySize) {
+                    throw limits != null
+                            ? new IllegalArgumentException("Array has more elements than the limit of " + maxArraySize)
+                            : new IllegalArgumentException("Array has more than 65535 elements, at most 65535 can be encoded");
+                }
+            } while (reader.consume(','));
+            reader.expect(']');
+        }
+
+        counts[index] = count;
+        return size;
+    }
+
+    private long measureElement(JsonReader reader, DecoderConfig limits, int depth) throws IOException {
+        int c = reader.peek();
+        if (c == '"') {
+            CharSequence value = reader.readStringChars();
+            if (limits != null && value.length() > limits.getMaxStringLength()) {
+                throw new IllegalArgumentException("String of " + value.length()
+                        + " characters, more than the limit of " + limits.getMaxStringLength());
+            }
+            return 1 + 4 + Utf8.encodedLength(value);
+        } else if (c == '[') {
+            return measureArray(reader, limits, depth + 1);
+        } else if (c == 't' || c == 'f' || c == 'n') {
+            reader.readLiteral();
+            return 1;
+        }
+        Number value = reader.readNumber();
+        if (value instanceof Double) {
+            return 1 + 8;
+        } else if (config.isVarInts() && EncodeVarInt.isShorter(value)) {
+            return 1 + VarInt.encodedLength(value.longValue());
+        }
+        return value instanceof Integer ? 1 + 4 : 1 + 8;
+    }
+
+    private void writeArray(JsonReader reader, Sink sink) throws IOException {
+        reader.expect('[');
+        int count = counts[next++];
+
+        sink.ensure(3);
+        sink.buffer.put((byte) InputType.DATA_INPUT.getValue());
+        sink.buffer.putShort((short) count);
+
+        if (!reader.consume(']')) {
+            do {
+                writeElement(reader, sink);
+            } while (reader.consume(','));
+            reader.expect(']');
+        }
+    }
+
+    private void writeElement(JsonReader reader, Sink sink) throws IOException {
+        int c = reader.peek();
+        if (c == '"') {
+            writeString(reader.readStringChars(), sink);
+        } else if (c == '[') {
+            writeArray(reader, sink);
+        } else if (c == 't' || c == 'f' || c == 'n') {
+            Boolean value = reader.readLiteral();
+            sink.ensure(1);
+            sink.buffer.put((byte) (value == null ? InputType.NULL : value ? InputType.TRUE : InputType.FALSE).getValue());
+        } else {
+            Number value = reader.readNumber();
+            sink.ensure(1 + VarInt.MAX_LENGTH);
+            ByteBuffer buffer = sink.buffer;
+            if (value instanceof Double) {
+                buffer.put((byte) InputType.FLOAT64.getValue());
+                buffer.putLong(Double.doubleToRawLongBits((Double) value));
+            } else if (config.isVarInts() && EncodeVarInt.isShorter(value)) {
+                buffer.put((byte) InputType.VARINT.getValue());
+                buffer.position(VarInt.write(value.longValue(), buffer.array(), buffer.position()));
+            } else if (value instanceof Integer) {
+                buffer.put((byte) InputType.INT32.getValue());
+                buffer.putInt((Integer) value);
+            } else {
+                buffer.put((byte) InputType.INT64.getValue());
+                buffer.putLong((Long) value);
+            }
+        }
+    }
+
+    private static void writeString(CharSequence s, Sink sink) throws IOException {
+        int length = Utf8.encodedLength(s);
+
+        sink.ensure(5);
+        sink.buffer.put((byte) InputType.STRING.getValue());
+        sink.buffer.putInt(length);
+
+        if (length <= sink.buffer.capacity()) {
+            sink.ensure(length);
+            sink.buffer.position(Utf8.write(s, sink.buffer.array(), sink.buffer.position()));
+            return;
+        }
+
+        // Larger than the whole buffer: encode char by char, draining whenever the buffer fills up
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            sink.ensure(4);
+            ByteBuffer buffer = sink.buffer;
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < len && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, s.charAt(++i));
+                buffer.put((byte) (0xF0 | (cp >> 18)));
+                buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /** Fixed-size buffer in front of the real target. */
+    private abstract static class Sink {
+
+        final ByteBuffer buffer;
+
+        Sink(int size) {
+            if (size < 16) {
+                throw new IllegalArgumentException("Buffer size must be at least 16 bytes, got " + size);
+            }
+            this.buffer = ByteBuffer.allocate(size);
+        }
+
+        abstract void drain(ByteBuffer buffer) throws IOException;
+
+        void ensure(int n) throws IOException {
+            if (buffer.remaining() < n) {
+                flush();
+            }
+        }
+
+        void flush() throws IOException {
+            if (buffer.position() > 0) {
+                drain(buffer);
+                buffer.clear();
+            }
+        }
+    }
+}
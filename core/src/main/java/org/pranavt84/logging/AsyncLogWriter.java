@@ -0,0 +1,151 @@
+package org.pranavt84.logging;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free multi-producer ring buffer drained by one background thread.
+ * Producers never block: when the ring is full the entry is dropped and counted.
+ * The drain thread parks while the ring is empty, and the producer that finds it
+ * parked wakes it, so an idle writer costs nothing.
+ */
+class AsyncLogWriter {
+
+    private static final class Entry {
+        final long timeMillis;
+        final LogLevel level;
+        final String thread;
+        final String message;
+
+        Entry(long timeMillis, LogLevel level, String thread, String message) {
+            this.timeMillis = timeMillis;
+            this.level = level;
+            this.thread = thread;
+            this.message = message;
+        }
+    }
+
+    private final Entry[] entries;
+    /** Per-slot sequence: slot i is free for ticket t when sequence == t, readable when t + 1. */
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    /** Only touched by the drain thread. */
+    private long head;
+    private final AtomicLong dropped = new AtomicLong();
+    /** Set by the drain thread before it parks; cleared by whoever wakes it. */
+    private final AtomicBoolean idle = new AtomicBoolean();
+
+    private final PrintStream out;
+    private final PrintStream err;
+    final Thread drainer;
+
+    AsyncLogWriter(int capacity, PrintStream out, PrintStream err) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+        }
+        this.entries = new Entry[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+        this.out = out;
+        this.err = err;
+
+        this.drainer = new Thread(this::drainLoop, "log-writer");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::drain, "log-writer-flush"));
+    }
+
+    /** Enqueues without blocking; returns false if the entry was dropped. */
+    boolean offer(LogLevel level, String message) {
+        long ticket = tail.get();
+        while (true) {
+            int index = (int) (ticket & mask);
+            long diff = sequences.get(index) - ticket;
+            if (diff == 0) {
+                if (tail.compareAndSet(ticket, ticket + 1)) {
+                    entries[index] = new Entry(System.currentTimeMillis(), level, Thread.currentThread().getName(), message);
+                    // A full write, so either this producer sees the drainer idle or the drainer sees the entry
+                    sequences.set(index, ticket + 1);
+                    if (idle.get() && idle.compareAndSet(true, false)) {
+                        LockSupport.unpark(drainer);
+                    }
+                    return true;
+                }
+                ticket = tail.get();
+            } else if (diff < 0) {
+                dropped.incrementAndGet();
+                return false;
+            } else {
+                ticket = tail.get();
+            }
+        }
+    }
+
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    private void drainLoop() {
+        while (true) {
+            if (drain() > 0) {
+                continue;
+            }
+            idle.set(true);
+            // An entry published before the flag was set would not wake us
+            if (hasNext()) {
+                idle.set(false);
+                continue;
+            }
+            while (idle.get()) {
+                LockSupport.park(this);
+            }
+        }
+    }
+
+    private synchronized boolean hasNext() {
+        return sequences.get((int) (head & mask)) == head + 1;
+    }
+
+    /** Writes everything published so far and returns how many entries that was. */
+    private synchronized int drain() {
+        int written = 0;
+        while (true) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            Entry entry = entries[index];
+            entries[index] = null;
+            sequences.lazySet(index, head + entries.length);
+            head++;
+
+            write(entry);
+            written++;
+        }
+        if (written > 0) {
+            out.flush();
+            err.flush();
+        }
+        return written;
+    }
+
+    private void write(Entry entry) {
+        PrintStream target = entry.level.compareTo(LogLevel.WARN) >= 0 ? err : out;
+        target.print(Instant.ofEpochMilli(entry.timeMillis));
+        target.print(' ');
+        target.print(entry.level);
+        target.print(" [");
+        target.print(entry.thread);
+        target.print("] ");
+        target.println(entry.message);
+    }
+}
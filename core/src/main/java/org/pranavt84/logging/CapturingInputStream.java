@@ -0,0 +1,52 @@
+package org.pranavt84.logging;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Passes a stream through unchanged while keeping a copy of its first bytes, so a request
+ * body can be logged in truncated form without buffering all of it.
+ */
+public class CapturingInputStream extends FilterInputStream {
+
+    private final byte[] prefix;
+    private int captured;
+    private long total;
+
+    public CapturingInputStream(InputStream in, int limit) {
+        super(in);
+        this.prefix = new byte[limit];
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            if (captured < prefix.length) {
+                prefix[captured++] = (byte) b;
+            }
+            total++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            int copy = Math.min(n, prefix.length - captured);
+            System.arraycopy(b, off, prefix, captured, copy);
+            captured += copy;
+            total += n;
+        }
+        return n;
+    }
+
+    /** The captured bytes as text, with a note when the body was longer. */
+    public String describe() {
+        String text = new String(prefix, 0, captured, StandardCharsets.UTF_8);
+        return total > captured ? text + "... (" + (total - captured) + " more bytes)" : text;
+    }
+}
@@ -0,0 +1,69 @@
+package org.pranavt84.logging;
+
+/**
+ * Process-wide logger. Messages are handed to a background writer through a ring
+ * buffer, so logging never waits on the console. Check {@link #isEnabled} before
+ * building expensive messages.
+ */
+public final class Log {
+
+    private static final int RING_CAPACITY = 8192;
+
+    private static volatile LogLevel level = LogLevel.INFO;
+
+    private Log() {
+        throw new AssertionError("Log should not be instantiated.");
+    }
+
+    /** Created on first use so that nothing is started when logging is never touched. */
+    private static final class Holder {
+        static final AsyncLogWriter WRITER = new AsyncLogWriter(RING_CAPACITY, System.out, System.err);
+    }
+
+    public static void setLevel(LogLevel newLevel) {
+        level = newLevel;
+    }
+
+    public static LogLevel getLevel() {
+        return level;
+    }
+
+    public static boolean isEnabled(LogLevel candidate) {
+        return candidate != LogLevel.OFF && candidate.compareTo(level) >= 0;
+    }
+
+    public static void debug(String message) {
+        log(LogLevel.DEBUG, message);
+    }
+
+    public static void info(String message) {
+        log(LogLevel.INFO, message);
+    }
+
+    public static void warn(String message) {
+        log(LogLevel.WARN, message);
+    }
+
+    public static void error(String message) {
+        log(LogLevel.ERROR, message);
+    }
+
+    public static void log(LogLevel messageLevel, String message) {
+        if (isEnabled(messageLevel)) {
+            Holder.WRITER.offer(messageLevel, message);
+        }
+    }
+
+    /** Entries lost because the ring buffer was full. */
+    public static long droppedCount() {
+        return Holder.WRITER.droppedCount();
+    }
+
+    /** Shortens {@code text} to at most {@code limit} chars, noting how much was cut. */
+    public static String truncate(String text, int limit) {
+        if (text.length() <= limit) {
+            return text;
+        }
+        return text.substring(0, limit) + "... (" + (text.length() - limit) + " more chars)";
+    }
+}
@@ -0,0 +1,10 @@
+package org.pranavt84.logging;
+
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    /** Disables logging entirely. */
+    OFF
+}
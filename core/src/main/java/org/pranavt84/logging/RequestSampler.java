@@ -0,0 +1,35 @@
+package org.pranavt84.logging;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides per request whether its log lines are written, with a separate rate per endpoint.
+ * Warnings and errors are not sampled; callers only consult this for per-request detail.
+ */
+public class RequestSampler {
+
+    private final Map<String, Double> rates;
+    private final double defaultRate;
+
+    /** @param rates sample rate in [0, 1] by endpoint name, e.g. {@code "encode" -> 0.01} */
+    public RequestSampler(Map<String, Double> rates, double defaultRate) {
+        for (Map.Entry<String, Double> entry : rates.entrySet()) {
+            checkRate(entry.getKey(), entry.getValue());
+        }
+        checkRate("default", defaultRate);
+        this.rates = Map.copyOf(rates);
+        this.defaultRate = defaultRate;
+    }
+
+    public boolean sample(String endpoint) {
+        double rate = rates.getOrDefault(endpoint, defaultRate);
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private static void checkRate(String endpoint, double rate) {
+        if (!(rate >= 0.0 && rate <= 1.0)) {
+            throw new IllegalArgumentException("Sample rate for " + endpoint + " must be between 0 and 1, got " + rate);
+        }
+    }
+}
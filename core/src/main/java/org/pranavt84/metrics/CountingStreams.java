@@ -0,0 +1,73 @@
+package org.pranavt84.metrics;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Stream wrappers that count the bytes passing through them.
+ */
+public final class CountingStreams {
+
+    private CountingStreams() {
+        throw new AssertionError("CountingStreams should not be instantiated.");
+    }
+
+    public static class In extends FilterInputStream {
+
+        private long count;
+
+        public In(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        public long count() {
+            return count;
+        }
+    }
+
+    public static class Out extends FilterOutputStream {
+
+        private long count;
+
+        public Out(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        public long count() {
+            return count;
+        }
+    }
+}
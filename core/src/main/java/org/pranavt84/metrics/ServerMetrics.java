@@ -0,0 +1,158 @@
+package org.pranavt84.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histograms for the REST server, rendered in the Prometheus
+ * text exposition format. All recording paths are lock-free.
+ */
+public class ServerMetrics {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final ConcurrentMap<String, LatencyHistogram> requestLatency = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> stageLatency = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> requests = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> bytesIn = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LongAdder> bytesOut = new ConcurrentHashMap<>();
+    private final LongAdder inFlight = new LongAdder();
+
+    /** Extra gauges contributed by other components, e.g. cache statistics. */
+    private final ConcurrentMap<String, GaugeSource> gauges = new ConcurrentHashMap<>();
+
+    /** Supplies a gauge value at scrape time. */
+    @FunctionalInterface
+    public interface GaugeSource {
+        double value();
+    }
+
+    public void requestStarted() {
+        inFlight.increment();
+    }
+
+    /** Records a finished request to {@code endpoint} with its status, duration and body sizes. */
+    public void requestFinished(String endpoint, int status, long nanos, long in, long out) {
+        inFlight.decrement();
+        histogram(requestLatency, endpoint).record(nanos);
+        counter(requests, endpoint + "\u0000" + status).increment();
+        counter(bytesIn, endpoint).add(in);
+        counter(bytesOut, endpoint).add(out);
+    }
+
+    /** Records the duration of one processing stage, e.g. {@code "hex_encode"}. */
+    public void recordStage(String stage, long nanos) {
+        histogram(stageLatency, stage).record(nanos);
+    }
+
+    public void recordError(String endpoint, String type) {
+        counter(errors, endpoint + "\u0000" + type).increment();
+    }
+
+    public void registerGauge(String name, GaugeSource source) {
+        gauges.put(name, source);
+    }
+
+    public LatencyHistogram requestLatency(String endpoint) {
+        return histogram(requestLatency, endpoint);
+    }
+
+    public LatencyHistogram stageLatency(String stage) {
+        return histogram(stageLatency, stage);
+    }
+
+    /** Prometheus text exposition format, version 0.0.4. */
+    public String toPrometheus() {
+        StringBuilder sb = new StringBuilder(4096);
+
+        summary(sb, "codec_request_duration_seconds", "Request latency by endpoint", "endpoint", requestLatency);
+        summary(sb, "codec_stage_duration_seconds", "Latency of individual processing stages", "stage", stageLatency);
+
+        header(sb, "codec_requests_total", "Requests by endpoint and status", "counter");
+        for (Map.Entry<String, LongAdder> entry : sorted(requests).entrySet()) {
+            String[] key = entry.getKey().split("\u0000", 2);
+            sb.append("codec_requests_total{endpoint=\"").append(escape(key[0]))
+                    .append("\",status=\"").append(key[1]).append("\"} ").append(entry.getValue().sum()).append('\n');
+        }
+
+        header(sb, "codec_errors_total", "Failed requests by endpoint and error type", "counter");
+        for (Map.Entry<String, LongAdder> entry : sorted(errors).entrySet()) {
+            String[] key = entry.getKey().split("\u0000", 2);
+            sb.append("codec_errors_total{endpoint=\"").append(escape(key[0]))
+                    .append("\",type=\"").append(escape(key[1])).append("\"} ").append(entry.getValue().sum()).append('\n');
+        }
+
+        counters(sb, "codec_request_bytes_total", "Request body bytes received", bytesIn);
+        counters(sb, "codec_response_bytes_total", "Response body bytes sent", bytesOut);
+
+        header(sb, "codec_requests_in_flight", "Requests currently being handled", "gauge");
+        sb.append("codec_requests_in_flight ").append(inFlight.sum()).append('\n');
+
+        for (Map.Entry<String, GaugeSource> entry : new TreeMap<>(gauges).entrySet()) {
+            header(sb, entry.getKey(), entry.getKey(), "gauge");
+            sb.append(entry.getKey()).append(' ').append(format(entry.getValue().value())).append('\n');
+        }
+
+        return sb.toString();
+    }
+
+    private static void summary(StringBuilder sb, String name, String help, String label,
+                                ConcurrentMap<String, LatencyHistogram> histograms) {
+        header(sb, name, help, "summary");
+        for (Map.Entry<String, LatencyHistogram> entry : new TreeMap<>(histograms).entrySet()) {
+            String labelValue = escape(entry.getKey());
+            LatencyHistogram histogram = entry.getValue();
+            for (double q : QUANTILES) {
+                sb.append(name).append('{').append(label).append("=\"").append(labelValue)
+                        .append("\",quantile=\"").append(q).append("\"} ")
+                        .append(format(histogram.quantile(q) / 1e9)).append('\n');
+            }
+            sb.append(name).append("_sum{").append(label).append("=\"").append(labelValue).append("\"} ")
+                    .append(format(histogram.sumNanos() / 1e9)).append('\n');
+            sb.append(name).append("_count{").append(label).append("=\"").append(labelValue).append("\"} ")
+                    .append(histogram.count()).append('\n');
+        }
+    }
+
+    private static void counters(StringBuilder sb, String name, String help, ConcurrentMap<String, LongAdder> counters) {
+        header(sb, name, help, "counter");
+        for (Map.Entry<String, LongAdder> entry : sorted(counters).entrySet()) {
+            sb.append(name).append("{endpoint=\"").append(escape(entry.getKey())).append("\"} ")
+                    .append(entry.getValue().sum()).append('\n');
+        }
+    }
+
+    private static void header(StringBuilder sb, String name, String help, String type) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static String escape(String labelValue) {
+        return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static TreeMap<String, LongAdder> sorted(ConcurrentMap<String, LongAdder> map) {
+        return new TreeMap<>(map);
+    }
+
+    private static LatencyHistogram histogram(ConcurrentMap<String, LatencyHistogram> map, String key) {
+        LatencyHistogram histogram = map.get(key);
+        return histogram != null ? histogram : map.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    private static LongAdder counter(ConcurrentMap<String, LongAdder> map, String key) {
+        LongAdder counter = map.get(key);
+        return counter != null ? counter : map.computeIfAbsent(key, k -> new LongAdder());
+    }
+}
@@ -0,0 +1,316 @@
+package org.pranavt84.model;
+
+import org.pranavt84.compress.CompressedEnvelope;
+import org.pranavt84.decode.DecodeType;
+import org.pranavt84.decoder.DataInputReader;
+import org.pranavt84.decoder.StringTable;
+import org.pranavt84.encode.VarInt;
+import org.pranavt84.type.CodecRegistry;
+import org.pranavt84.type.InputType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Read-only view of an encoded DataInput. Nothing is decoded up front: the element
+ * offset table is built on first indexed access and strings are only materialized
+ * when asked for. The backing array must not be modified while the view is in use.
+ * References into a message's string table read as plain strings, VARINTs read as the
+ * INT32 or INT64 they decode to, and packed arrays read as arrays of INT32 or STRING elements.
+ * Indexed arrays need no offset table to be built: their own is read in place.
+ */
+public class DataInputView {
+
+    private final byte[] bytes;
+    private final int offset;
+    private final int size;
+    private final StringTable strings;
+    private final CodecRegistry registry;
+    /** DATA_INPUT, INDEXED_ARRAY, or the packed form the elements are stored in. */
+    private final InputType type;
+
+    private int[] offsets;
+    private int end = -1;
+
+    /** View of the message at {@code offset}, after its string table if it has one. */
+    public DataInputView(byte[] bytes, int offset) {
+        this(bytes, offset, CodecRegistry.getDefault());
+    }
+
+    /** Same as {@link #DataInputView(byte[], int)}, also reading the extension types of {@code registry}. */
+    public DataInputView(byte[] bytes, int offset, CodecRegistry registry) {
+        this(bytes, offset, null, registry);
+    }
+
+    private DataInputView(byte[] bytes, int offset, StringTable strings, CodecRegistry registry) {
+        if (strings == null) {
+            DataInputReader reader = new DataInputReader(bytes, offset, bytes.length - offset, registry);
+            strings = StringTable.read(reader);
+            offset = reader.position();
+        }
+        if (offset + 3 > bytes.length || !InputType.fromByte(bytes[offset]).isArray()) {
+            throw new IllegalArgumentException("Expected DataInput at offset " + offset);
+        }
+        this.bytes = bytes;
+        this.offset = offset;
+        this.strings = strings;
+        this.registry = registry;
+        this.type = InputType.fromByte(bytes[offset]);
+        this.size = ((bytes[offset + 1] & 0xFF) << 8) | (bytes[offset + 2] & 0xFF);
+        if (type == InputType.PACKED_INT32 && offset + 3 + 4L * size > bytes.length) {
+            throw new IllegalArgumentException("Truncated input: packed ints at offset " + offset);
+        }
+        if (type == InputType.INDEXED_ARRAY && (offset + 7 + 4L * size > bytes.length
+                || offset + 7 + 4L * size + readInt(bytes, offset + 3) > bytes.length)) {
+            throw new IllegalArgumentException("Truncated input: indexed array at offset " + offset);
+        }
+    }
+
+    /** View of a whole message; a compressed message is decompressed once, up front. */
+    public DataInputView(byte[] bytes) {
+        this(bytes, CodecRegistry.getDefault());
+    }
+
+    /** Same as {@link #DataInputView(byte[])}, also reading the extension types of {@code registry}. */
+    public DataInputView(byte[] bytes, CodecRegistry registry) {
+        this(CompressedEnvelope.unwrap(bytes), 0, registry);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** True if the elements are stored without tags, see {@link #toIntArray()} and {@link #toStringArray()}. */
+    public boolean isPacked() {
+        return type == InputType.PACKED_INT32 || type == InputType.PACKED_STRING;
+    }
+
+    public InputType typeAt(int index) {
+        if (isPacked()) {
+            Objects.checkIndex(index, size);
+            return type == InputType.PACKED_INT32 ? InputType.INT32 : InputType.STRING;
+        }
+        int pos = offsetOf(index);
+        InputType type = InputType.lookup(bytes[pos]);
+        if (type == null) {
+            return InputType.EXTENSION;
+        }
+        switch (type) {
+            case STRING_REF:
+                return InputType.STRING;
+            case INDEXED_ARRAY:
+            case PACKED_INT32:
+            case PACKED_STRING:
+                return InputType.DATA_INPUT;
+            case VARINT:
+                long value = VarInt.read(bytes, pos + 1);
+                return value == (int) value ? InputType.INT32 : InputType.INT64;
+            default:
+                return type;
+        }
+    }
+
+    public int getInt(int index) {
+        if (typeAt(index) != InputType.INT32) {
+            throw new IllegalArgumentException("Element " + index + " is " + typeAt(index) + ", not " + InputType.INT32);
+        }
+        return (int) getLong(index);
+    }
+
+    /** Any integer element, whatever width it was encoded with. */
+    public long getLong(int index) {
+        if (type == InputType.PACKED_INT32) {
+            Objects.checkIndex(index, size);
+            return readInt(bytes, offset + 3 + 4 * index);
+        }
+        requireTagged(index, InputType.INT64);
+        int pos = offsetOf(index);
+        switch (InputType.fromByte(bytes[pos])) {
+            case INT32:
+                return readInt(bytes, pos + 1);
+            case INT64:
+                return ((long) readInt(bytes, pos + 1) << 32) | (readInt(bytes, pos + 5) & 0xFFFFFFFFL);
+            case VARINT:
+                return VarInt.read(bytes, pos + 1);
+            default:
+                throw new IllegalArgumentException("Element " + index + " is " + typeAt(index) + ", not an integer");
+        }
+    }
+
+    public double getDouble(int index) {
+        requireTagged(index, InputType.FLOAT64);
+        int pos = offsetOf(index, InputType.FLOAT64);
+        long bits = ((long) readInt(bytes, pos + 1) << 32) | (readInt(bytes, pos + 5) & 0xFFFFFFFFL);
+        return Double.longBitsToDouble(bits);
+    }
+
+    public boolean getBoolean(int index) {
+        InputType type = typeAt(index);
+        if (type != InputType.TRUE && type != InputType.FALSE) {
+            throw new IllegalArgumentException("Element " + index + " is " + type + ", not a boolean");
+        }
+        return type == InputType.TRUE;
+    }
+
+    public boolean isNull(int index) {
+        return typeAt(index) == InputType.NULL;
+    }
+
+    /** Every element as an int; packed ints are read in one pass without any per-element checks. */
+    public int[] toIntArray() {
+        int[] values = new int[size];
+        if (type == InputType.PACKED_INT32) {
+            for (int i = 0, at = offset + 3; i < size; i++, at += 4) {
+                values[i] = readInt(bytes, at);
+            }
+        } else {
+            for (int i = 0; i < size; i++) {
+                values[i] = getInt(i);
+            }
+        }
+        return values;
+    }
+
+    /** Every element as a String. */
+    public String[] toStringArray() {
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = getString(i);
+        }
+        return values;
+    }
+
+    public String getString(int index) {
+        if (type == InputType.PACKED_STRING) {
+            int start = offsetOf(index);
+            return new String(bytes, start, readInt(bytes, offset + 3 + 4 * index), StandardCharsets.UTF_8);
+        }
+        requireTagged(index, InputType.STRING);
+        int pos = offsetOf(index);
+        if (bytes[pos] == InputType.STRING_REF.getValue()) {
+            return strings.get(((bytes[pos + 1] & 0xFF) << 8) | (bytes[pos + 2] & 0xFF));
+        }
+        pos = offsetOf(index, InputType.STRING);
+        int length = readInt(bytes, pos + 1);
+        return new String(bytes, pos + 5, length, StandardCharsets.UTF_8);
+    }
+
+    public DataInputView getArray(int index) {
+        requireTagged(index, InputType.DATA_INPUT);
+        int pos = offsetOf(index);
+        if (!InputType.fromByte(bytes[pos]).isArray()) {
+            throw new IllegalArgumentException("Element " + index + " is " + typeAt(index) + ", not " + InputType.DATA_INPUT);
+        }
+        return new DataInputView(bytes, pos, strings, registry);
+    }
+
+    /** Boxed access, mirrors {@code DataInput.getElements().get(index)}. */
+    public Object get(int index) {
+        switch (typeAt(index)) {
+            case INT32:
+                return getInt(index);
+            case INT64:
+                return getLong(index);
+            case FLOAT64:
+                return getDouble(index);
+            case TRUE:
+            case FALSE:
+                return getBoolean(index);
+            case NULL:
+                return null;
+            case EXTENSION:
+                DecodeType decoder = registry.decoder(bytes[offsetOf(index)]);
+                if (decoder == null) {
+                    throw new IllegalArgumentException("Unknown type tag: " + (bytes[offsetOf(index)] & 0xFF));
+                }
+                return decoder.decode(bytes, offsetOf(index)).getValue();
+            case STRING:
+                return getString(index);
+            case DATA_INPUT:
+                return getArray(index);
+            default:
+                throw new IllegalArgumentException("Unhandled type: " + typeAt(index));
+        }
+    }
+
+    /** Number of encoded bytes this array spans, header included. */
+    public int encodedLength() {
+        offsets();
+        return end - offset;
+    }
+
+    /** Fully materializes this view and all nested arrays. */
+    public DataInput toDataInput() {
+        DataInput result = new DataInput();
+        for (int i = 0; i < size; i++) {
+            Object value = get(i);
+            result.add(value instanceof DataInputView ? ((DataInputView) value).toDataInput() : value);
+        }
+        return result;
+    }
+
+    /** Fails for elements of a packed array, which are never of the {@code expected} type asked for here. */
+    private void requireTagged(int index, InputType expected) {
+        if (isPacked()) {
+            throw new IllegalArgumentException("Element " + index + " is " + typeAt(index) + ", not " + expected);
+        }
+    }
+
+    private int offsetOf(int index, InputType expected) {
+        int pos = offsetOf(index);
+        InputType actual = InputType.fromByte(bytes[pos]);
+        if (actual != expected) {
+            throw new IllegalArgumentException("Element " + index + " is " + actual + ", not " + expected);
+        }
+        return pos;
+    }
+
+    private int offsetOf(int index) {
+        Objects.checkIndex(index, size);
+        if (type == InputType.INDEXED_ARRAY) {
+            return offset + 7 + 4 * size + readInt(bytes, offset + 7 + 4 * index);
+        }
+        return offsets()[index];
+    }
+
+    /**
+     * Where each element starts; for packed strings, where its UTF-8 bytes start. Packed ints
+     * and indexed arrays need no table and only get their end recorded.
+     */
+    private int[] offsets() {
+        if (offsets == null && type == InputType.INDEXED_ARRAY) {
+            end = offset + 7 + 4 * size + readInt(bytes, offset + 3);
+            offsets = new int[0];
+        }
+        if (offsets == null && isPacked()) {
+            DataInputReader reader = new DataInputReader(bytes, offset, bytes.length - offset, registry);
+            reader.skip();
+            int[] table = new int[type == InputType.PACKED_STRING ? size : 0];
+            for (int i = 0, data = offset + 3 + 4 * size; i < table.length; i++) {
+                table[i] = data;
+                data += readInt(bytes, offset + 3 + 4 * i);
+            }
+            end = reader.position();
+            offsets = table;
+        }
+        if (offsets == null) {
+            int[] table = new int[size];
+            DataInputReader reader = new DataInputReader(bytes, offset, bytes.length - offset, registry);
+            reader.enterArray();
+            for (int i = 0; i < size; i++) {
+                table[i] = reader.position();
+                reader.skip();
+            }
+            end = reader.position();
+            offsets = table;
+        }
+        return offsets;
+    }
+
+    private static int readInt(byte[] bytes, int index) {
+        return ((bytes[index] & 0xFF) << 24) |
+                ((bytes[index + 1] & 0xFF) << 16) |
+                ((bytes[index + 2] & 0xFF) << 8) |
+                (bytes[index + 3] & 0xFF);
+    }
+}
@@ -0,0 +1,19 @@
+package org.pranavt84.model;
+
+public class DecodeResult {
+    private final Object value;
+    private final int nextIndex;
+
+    public DecodeResult(Object value, int nextIndex) {
+        this.value = value;
+        this.nextIndex = nextIndex;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public int getNextIndex() {
+        return nextIndex;
+    }
+}
@@ -0,0 +1,137 @@
+package org.pranavt84.service;
+
+import org.pranavt84.json.ByteSink;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Standard (RFC 4648) Base64 transport encoding, padded on output. Denser than hex: 4 characters
+ * per 3 bytes instead of 2 per byte. Works on offsets into existing arrays and writes straight
+ * into a {@link ByteSink}, which {@link java.util.Base64} cannot do without copying.
+ */
+public final class Base64Converter {
+
+    private static final byte[] ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(StandardCharsets.US_ASCII);
+
+    /** Six-bit value of each ASCII character, or -1 if it is not in the alphabet. */
+    private static final int[] VALUES = new int[256];
+
+    static {
+        Arrays.fill(VALUES, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = i;
+        }
+    }
+
+    private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private Base64Converter() {
+        throw new AssertionError("Base64Converter should not be instantiated.");
+    }
+
+    public static int encodedLength(int length) {
+        return (length + 2) / 3 * 4;
+    }
+
+    public static String encode(byte[] bytes) {
+        byte[] ascii = new byte[encodedLength(bytes.length)];
+        encode(bytes, 0, bytes.length, ascii, 0);
+        return new String(ascii, StandardCharsets.ISO_8859_1);
+    }
+
+    /** Appends the Base64 form of {@code bytes[offset..offset+length)} to {@code out}. */
+    public static void encode(byte[] bytes, int offset, int length, ByteSink out) {
+        out.ensureCapacity(encodedLength(length));
+        out.size(encode(bytes, offset, length, out.array(), out.size()));
+    }
+
+    /** Writes the Base64 form of {@code bytes[offset..offset+length)} at {@code dst[dstOffset]}; returns the end offset. */
+    public static int encode(byte[] bytes, int offset, int length, byte[] dst, int dstOffset) {
+        int i = offset;
+        int end = offset + length;
+        int d = dstOffset;
+        for (; i + 3 <= end; i += 3, d += 4) {
+            int v = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF);
+            INT_BE.set(dst, d, ALPHABET[v >>> 18] << 24 | ALPHABET[v >>> 12 & 0x3F] << 16
+                    | ALPHABET[v >>> 6 & 0x3F] << 8 | ALPHABET[v & 0x3F]);
+        }
+        int left = end - i;
+        if (left > 0) {
+            int v = (bytes[i] & 0xFF) << 16 | (left == 2 ? (bytes[i + 1] & 0xFF) << 8 : 0);
+            dst[d++] = ALPHABET[v >>> 18];
+            dst[d++] = ALPHABET[v >>> 12 & 0x3F];
+            dst[d++] = left == 2 ? ALPHABET[v >>> 6 & 0x3F] : (byte) '=';
+            dst[d++] = '=';
+        }
+        return d;
+    }
+
+    /** Decodes padded or unpadded Base64; whitespace and the URL-safe alphabet are rejected. */
+    public static byte[] decode(String text) {
+        int length = text.length();
+        if (length > 0 && text.charAt(length - 1) == '=') {
+            length--;
+            if (length > 0 && text.charAt(length - 1) == '=') {
+                length--;
+            }
+            if (text.length() % 4 != 0) {
+                throw new IllegalArgumentException("Invalid length. Base64 is not valid.");
+            }
+        }
+        if (length % 4 == 1) {
+            throw new IllegalArgumentException("Invalid length. Base64 is not valid.");
+        }
+
+        byte[] bytes = new byte[length / 4 * 3 + Math.max(0, length % 4 - 1)];
+        int i = 0;
+        int d = 0;
+        for (; i + 4 <= length; i += 4, d += 3) {
+            int v0 = value(text.charAt(i));
+            int v1 = value(text.charAt(i + 1));
+            int v2 = value(text.charAt(i + 2));
+            int v3 = value(text.charAt(i + 3));
+            if ((v0 | v1 | v2 | v3) < 0) {
+                throw invalidCharacter(text, i, i + 4);
+            }
+            int v = v0 << 18 | v1 << 12 | v2 << 6 | v3;
+            bytes[d] = (byte) (v >>> 16);
+            bytes[d + 1] = (byte) (v >>> 8);
+            bytes[d + 2] = (byte) v;
+        }
+        if (i < length) {
+            int v = 0;
+            for (int j = i; j < length; j++) {
+                int value = value(text.charAt(j));
+                if (value < 0) {
+                    throw invalidCharacter(text, j, j + 1);
+                }
+                v = v << 6 | value;
+            }
+            if (length - i == 2) {
+                bytes[d] = (byte) (v >>> 4);
+            } else {
+                bytes[d] = (byte) (v >>> 10);
+                bytes[d + 1] = (byte) (v >>> 2);
+            }
+        }
+        return bytes;
+    }
+
+    private static int value(char c) {
+        return VALUES[c & 0xFF] | (0xFF - c) >> 31;
+    }
+
+    private static IllegalArgumentException invalidCharacter(String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (value(text.charAt(i)) < 0) {
+                return new IllegalArgumentException("Invalid base64 character: " + text.charAt(i));
+            }
+        }
+        throw new AssertionError();
+    }
+}
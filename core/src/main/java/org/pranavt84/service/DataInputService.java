@@ -0,0 +1,136 @@
+package org.pranavt84.service;
+
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.json.BinaryToJsonTranscoder;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.json.JsonPath;
+import org.pranavt84.json.JsonReader;
+import org.pranavt84.json.JsonToBinaryTranscoder;
+import org.pranavt84.json.JsonToBinaryWriter;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.model.DataInputView;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+public class DataInputService {
+    
+    private final DataInputEncoder encoder;
+    private final DataInputDecoder decoder;
+
+    public DataInputService(DataInputEncoder encoder, DataInputDecoder decoder) {
+        this.encoder = encoder;
+        this.decoder = decoder;
+    }
+
+    public String encode(DataInput input) {
+
+        byte[] binaryEncoded = encoder.encode(input);
+
+        String hexEncoded = HexConverter.bytesToHex(binaryEncoded);
+        
+        return hexEncoded;
+    }
+
+    public DataInput decode(String encoded) {
+
+        byte[] binaryEncoded = HexConverter.hexToBytes(encoded);
+
+        DataInput decoded = decoder.decode(binaryEncoded);
+        
+        return decoded;
+    }
+
+    /** Lazy alternative to {@link #decode}: elements are only decoded when read from the view. */
+    public DataInputView decodeView(String encoded) {
+
+        byte[] binaryEncoded = HexConverter.hexToBytes(encoded);
+
+        return new DataInputView(binaryEncoded, decoder.getRegistry());
+    }
+
+    /** Raw protocol bytes, without the hex transport encoding. */
+    public byte[] encodeBinary(DataInput input) {
+        return encoder.encode(input);
+    }
+
+    /** The limits decoded messages are held to; batch readers hold their items to its message size. */
+    public DecoderConfig getLimits() {
+        return decoder.getConfig();
+    }
+
+    public DataInput decodeBinary(byte[] encoded) {
+        return decoder.decode(encoded);
+    }
+
+    /**
+     * Transcodes a JSON array straight into protocol bytes appended to {@code out}, without building a DataInput.
+     * The optional wire features and the decoder's limits apply as for {@link #encodeBinary(DataInput)}.
+     */
+    public void encodeJson(InputStream json, ByteSink out) throws IOException {
+        encodeJson(new JsonReader(new InputStreamReader(json, StandardCharsets.UTF_8)), out);
+    }
+
+    /** Same as {@link #encodeJson(InputStream, ByteSink)} over a reader the caller can reuse between items. */
+    public void encodeJson(JsonReader json, ByteSink out) throws IOException {
+        int start = out.size();
+        JsonToBinaryTranscoder.transcode(json, out, encoder.getConfig(), encoder.getLimits());
+        pack(out, start);
+    }
+
+    /** Whether {@link #prepareJson} can write messages as they are encoded, see {@link JsonToBinaryWriter#supports}. */
+    public boolean canStreamJson() {
+        return JsonToBinaryWriter.supports(encoder.getConfig());
+    }
+
+    /**
+     * Checks the JSON array {@code json} reads and returns a writer for the same bytes
+     * {@link #encodeJson(InputStream, ByteSink)} would append, held to the same limits. Only
+     * for configs {@link #canStreamJson} accepts; {@code json} is opened once more per write.
+     */
+    public JsonToBinaryWriter prepareJson(Supplier<? extends Reader> json) throws IOException {
+        return JsonToBinaryWriter.prepare(json, encoder.getConfig(), encoder.getLimits());
+    }
+
+    /**
+     * Transcodes protocol bytes straight into JSON appended to {@code out}, without building a DataInput.
+     * Compressed messages are decompressed first, and the message is held to the decoder's limits.
+     */
+    public void decodeToJson(byte[] encoded, ByteSink out) {
+        decodeToJson(encoded, 0, encoded.length, out);
+    }
+
+    /** Same as {@link #decodeToJson(byte[], ByteSink)} for a message stored at {@code encoded[offset..offset+length)}. */
+    public void decodeToJson(byte[] encoded, int offset, int length, ByteSink out) {
+        BinaryToJsonTranscoder.transcode(encoded, offset, length, out, decoder.getConfig(), decoder.getRegistry());
+    }
+
+    /**
+     * Appends only the values that {@code path} selects from the message to {@code out} as JSON, see
+     * {@link JsonPath}. The rest of the message is stepped over without being decoded. Compressed
+     * messages are decompressed first, and the message is held to the decoder's limits.
+     */
+    public void extractToJson(byte[] encoded, String path, ByteSink out) {
+        extractToJson(encoded, 0, encoded.length, JsonPath.parse(path), out);
+    }
+
+    /** Same as {@link #extractToJson(byte[], String, ByteSink)} with a parsed path, for a message at {@code encoded[offset..offset+length)}. */
+    public void extractToJson(byte[] encoded, int offset, int length, JsonPath path, ByteSink out) {
+        path.extract(encoded, offset, length, out, decoder.getConfig(), decoder.getRegistry());
+    }
+
+    /** Replaces the plain message at {@code out[start..]} with its packed form, see {@link DataInputEncoder#pack}. */
+    private void pack(ByteSink out, int start) {
+        byte[] packed = encoder.pack(out.array(), start, out.size() - start);
+        if (packed != null) {
+            out.size(start);
+            out.write(packed, 0, packed.length);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package org.pranavt84.service;
+
+import org.pranavt84.json.ByteSink;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Lowercase hex transport encoding. Encoding turns four bytes into one {@code long} of eight
+ * ASCII digits at a time; decoding goes through a 256-entry table, eight digits per iteration,
+ * with a single validity check per word. Output is written as bytes, never as a {@code char[]}.
+ */
+public class HexConverter {
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    /** Digit value of each ASCII character, or -1 if it is not a hex digit. */
+    private static final int[] HEX_VALUES = new int[256];
+
+    static {
+        Arrays.fill(HEX_VALUES, -1);
+        for (int i = 0; i < 10; i++) {
+            HEX_VALUES['0' + i] = i;
+        }
+        for (int i = 0; i < 6; i++) {
+            HEX_VALUES['a' + i] = 10 + i;
+            HEX_VALUES['A' + i] = 10 + i;
+        }
+    }
+
+    private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    public static String bytesToHex(byte[] bytes) {
+        return bytesToHex(bytes, 0, bytes.length);
+    }
+
+    public static String bytesToHex(byte[] bytes, int offset, int length) {
+        byte[] ascii = new byte[length * 2];
+        writeHex(bytes, offset, length, ascii, 0);
+        return new String(ascii, StandardCharsets.ISO_8859_1);
+    }
+
+    /** Appends the hex digits of {@code bytes[offset..offset+length)} to {@code out}. */
+    public static void writeHex(byte[] bytes, int offset, int length, ByteSink out) {
+        out.ensureCapacity(length * 2);
+        out.size(writeHex(bytes, offset, length, out.array(), out.size()));
+    }
+
+    /** Writes all remaining bytes of {@code src} as hex digits into {@code dst}; both buffers advance. */
+    public static void writeHex(ByteBuffer src, ByteBuffer dst) {
+        int length = src.remaining();
+        if (dst.remaining() < length * 2) {
+            throw new BufferOverflowException();
+        }
+        byte[] in = src.hasArray() ? src.array() : new byte[length];
+        int inOffset = src.hasArray() ? src.arrayOffset() + src.position() : 0;
+        if (!src.hasArray()) {
+            src.duplicate().get(in);
+        }
+
+        if (dst.hasArray()) {
+            writeHex(in, inOffset, length, dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + length * 2);
+        } else {
+            byte[] out = new byte[length * 2];
+            writeHex(in, inOffset, length, out, 0);
+            dst.put(out);
+        }
+        src.position(src.position() + length);
+    }
+
+    /** Writes the hex digits of {@code bytes[offset..offset+length)} at {@code dst[dstOffset]}; returns the end offset. */
+    public static int writeHex(byte[] bytes, int offset, int length, byte[] dst, int dstOffset) {
+        int i = 0;
+        int d = dstOffset;
+        for (; i + 4 <= length; i += 4, d += 8) {
+            LONG_BE.set(dst, d, hexDigits((int) INT_BE.get(bytes, offset + i)));
+        }
+        for (; i < length; i++) {
+            int v = bytes[offset + i] & 0xFF;
+            dst[d++] = HEX_DIGITS[v >>> 4];
+            dst[d++] = HEX_DIGITS[v & 0x0F];
+        }
+        return d;
+    }
+
+    public static byte[] hexToBytes(String hex) {
+        int len = hex.length();
+        if (len % 2 != 0) {
+            throw new IllegalArgumentException("Invalid length. Hex is not valid.");
+        }
+
+        byte[] bytes = new byte[len / 2];
+        int i = 0;
+        int d = 0;
+        for (; i + 8 <= len; i += 8, d += 4) {
+            int v0 = value(hex.charAt(i));
+            int v1 = value(hex.charAt(i + 1));
+            int v2 = value(hex.charAt(i + 2));
+            int v3 = value(hex.charAt(i + 3));
+            int v4 = value(hex.charAt(i + 4));
+            int v5 = value(hex.charAt(i + 5));
+            int v6 = value(hex.charAt(i + 6));
+            int v7 = value(hex.charAt(i + 7));
+            if ((v0 | v1 | v2 | v3 | v4 | v5 | v6 | v7) < 0) {
+                throw invalidCharacter(hex, i, i + 8);
+            }
+            INT_BE.set(bytes, d, v0 << 28 | v1 << 24 | v2 << 20 | v3 << 16 | v4 << 12 | v5 << 8 | v6 << 4 | v7);
+        }
+        for (; i < len; i += 2, d++) {
+            int high = value(hex.charAt(i));
+            int low = value(hex.charAt(i + 1));
+            if ((high | low) < 0) {
+                throw invalidCharacter(hex, i, i + 2);
+            }
+            bytes[d] = (byte) (high << 4 | low);
+        }
+        return bytes;
+    }
+
+    /** Decodes ASCII hex digits held as bytes, e.g. straight from a request body. */
+    public static byte[] hexToBytes(byte[] ascii, int offset, int length) {
+        if (length % 2 != 0) {
+            throw new IllegalArgumentException("Invalid length. Hex is not valid.");
+        }
+        byte[] bytes = new byte[length / 2];
+        decode(ascii, offset, length, bytes, 0);
+        return bytes;
+    }
+
+    /** Decodes all remaining ASCII hex digits of {@code src} into {@code dst}; both buffers advance. */
+    public static void hexToBytes(ByteBuffer src, ByteBuffer dst) {
+        int length = src.remaining();
+        if (length % 2 != 0) {
+            throw new IllegalArgumentException("Invalid length. Hex is not valid.");
+        }
+        if (dst.remaining() < length / 2) {
+            throw new BufferOverflowException();
+        }
+        byte[] in = src.hasArray() ? src.array() : new byte[length];
+        int inOffset = src.hasArray() ? src.arrayOffset() + src.position() : 0;
+        if (!src.hasArray()) {
+            src.duplicate().get(in);
+        }
+
+        if (dst.hasArray()) {
+            decode(in, inOffset, length, dst.array(), dst.arrayOffset() + dst.position());
+            dst.position(dst.position() + length / 2);
+        } else {
+            byte[] out = new byte[length / 2];
+            decode(in, inOffset, length, out, 0);
+            dst.put(out);
+        }
+        src.position(src.position() + length);
+    }
+
+    private static void decode(byte[] ascii, int offset, int length, byte[] dst, int dstOffset) {
+        int i = 0;
+        int d = dstOffset;
+        for (; i + 8 <= length; i += 8, d += 4) {
+            int p = offset + i;
+            int v0 = HEX_VALUES[ascii[p] & 0xFF];
+            int v1 = HEX_VALUES[ascii[p + 1] & 0xFF];
+            int v2 = HEX_VALUES[ascii[p + 2] & 0xFF];
+            int v3 = HEX_VALUES[ascii[p + 3] & 0xFF];
+            int v4 = HEX_VALUES[ascii[p + 4] & 0xFF];
+            int v5 = HEX_VALUES[ascii[p + 5] & 0xFF];
+            int v6 = HEX_VALUES[ascii[p + 6] & 0xFF];
+            int v7 = HEX_VALUES[ascii[p + 7] & 0xFF];
+            if ((v0 | v1 | v2 | v3 | v4 | v5 | v6 | v7) < 0) {
+                throw invalidCharacter(ascii, p, p + 8);
+            }
+            INT_BE.set(dst, d, v0 << 28 | v1 << 24 | v2 << 20 | v3 << 16 | v4 << 12 | v5 << 8 | v6 << 4 | v7);
+        }
+        for (; i < length; i += 2, d++) {
+            int p = offset + i;
+            int high = HEX_VALUES[ascii[p] & 0xFF];
+            int low = HEX_VALUES[ascii[p + 1] & 0xFF];
+            if ((high | low) < 0) {
+                throw invalidCharacter(ascii, p, p + 2);
+            }
+            dst[d] = (byte) (high << 4 | low);
+        }
+    }
+
+    /**
+     * Spreads the four bytes of {@code v} into eight nibble lanes and maps each lane to its
+     * ASCII digit without branching: lanes above 9 get the extra distance from '9' to 'a'.
+     */
+    private static long hexDigits(int v) {
+        long x = v & 0xFFFFFFFFL;
+        x = (x | x << 16) & 0x0000FFFF0000FFFFL;
+        x = (x | x << 8) & 0x00FF00FF00FF00FFL;
+        long nibbles = (x >>> 4 & 0x000F000F000F000FL) << 8 | (x & 0x000F000F000F000FL);
+        long letters = (nibbles + 0x0606060606060606L) >>> 4 & 0x0101010101010101L;
+        return nibbles + 0x3030303030303030L + letters * ('a' - '0' - 10);
+    }
+
+    /** Digit value of {@code c}, or a negative number for anything that is not a hex digit. */
+    private static int value(char c) {
+        return HEX_VALUES[c & 0xFF] | (0xFF - c) >> 31;
+    }
+
+    private static IllegalArgumentException invalidCharacter(String hex, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (value(hex.charAt(i)) < 0) {
+                return new IllegalArgumentException("Invalid hex character: " + hex.charAt(i));
+            }
+        }
+        throw new AssertionError();
+    }
+
+    private static IllegalArgumentException invalidCharacter(byte[] ascii, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (HEX_VALUES[ascii[i] & 0xFF] < 0) {
+                return new IllegalArgumentException("Invalid hex character: " + (char) (ascii[i] & 0xFF));
+            }
+        }
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,246 @@
+package org.pranavt84.service;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of encode and decode results, keyed by the request bytes. Entries are evicted
+ * least recently used first once their total size passes the byte budget, and expire after an
+ * optional time to live. Concurrent requests for the same missing key are coalesced: one caller
+ * computes the result while the others wait for it. Failures are handed to every waiting caller
+ * but never cached.
+ */
+public class ResponseCache {
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long PRIME = 0x9E3779B97F4A7C15L;
+
+    /** Rough bookkeeping cost of one entry on top of its request and result bytes. */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    /** What produced a result; the same bytes encoded and decoded are different entries. */
+    public enum Operation {
+        ENCODE, DECODE
+    }
+
+    /** Computes the result for a key that is not cached. */
+    @FunctionalInterface
+    public interface Loader {
+        byte[] load() throws IOException;
+    }
+
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final ConcurrentMap<Key, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxBytes total size of cached requests and results
+     * @param ttlMillis how long an entry stays valid, or 0 to keep it until evicted
+     */
+    public ResponseCache(long maxBytes, long ttlMillis) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("cache size must be positive, got " + maxBytes);
+        }
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("cache ttl must not be negative, got " + ttlMillis);
+        }
+        this.maxBytes = maxBytes;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    /**
+     * The cached result for {@code request}, or the result of {@code loader}, which is then cached.
+     * The returned array is shared and must not be modified. {@code request} must not be modified
+     * after the call either, since it becomes part of the key.
+     */
+    public byte[] get(Operation operation, byte[] request, Loader loader) throws IOException {
+        Key key = new Key(operation, request);
+        byte[] cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        try {
+            // Another caller may have stored the result between the lookup and putIfAbsent
+            byte[] result = lookup(key);
+            if (result != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                result = loader.load();
+                store(key, result);
+            }
+            mine.complete(result);
+            return result;
+        } catch (IOException | RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /** Requests that waited for an identical request already being computed. */
+    public long coalesced() {
+        return coalesced.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Current size of the cached requests and results, in bytes. */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    private synchronized byte[] lookup(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (ttlNanos > 0 && System.nanoTime() - entry.created > ttlNanos) {
+            entries.remove(key);
+            weight -= entry.weight;
+            return null;
+        }
+        return entry.value;
+    }
+
+    private synchronized void store(Key key, byte[] value) {
+        long size = (long) key.bytes.length + value.length + ENTRY_OVERHEAD;
+        // One huge result would otherwise flush everything else
+        if (size > maxBytes / 8) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(value, size, System.nanoTime()));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += size;
+
+        Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+        while (weight > maxBytes && eldest.hasNext()) {
+            weight -= eldest.next().getValue().weight;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> running) throws IOException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for an identical request", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    /** 64-bit multiply-rotate hash over eight bytes at a time. */
+    private static long hash(byte[] bytes) {
+        long h = PRIME ^ bytes.length;
+        int i = 0;
+        for (; i + 8 <= bytes.length; i += 8) {
+            h = Long.rotateLeft(h ^ ((long) LONG_LE.get(bytes, i) * PRIME), 29) * PRIME;
+        }
+        long tail = 0;
+        for (int shift = 0; i < bytes.length; i++, shift += 8) {
+            tail |= (bytes[i] & 0xFFL) << shift;
+        }
+        h = Long.rotateLeft(h ^ (tail * PRIME), 29) * PRIME;
+        return h ^ (h >>> 32);
+    }
+
+    private static final class Key {
+        final Operation operation;
+        final byte[] bytes;
+        final long hash;
+
+        Key(Operation operation, byte[] bytes) {
+            this.operation = operation;
+            this.bytes = bytes;
+            this.hash = hash(bytes) * 31 + operation.ordinal();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && operation == other.operation && Arrays.equals(bytes, other.bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) hash;
+        }
+    }
+
+    private static final class Entry {
+        final byte[] value;
+        final long weight;
+        final long created;
+
+        Entry(byte[] value, long weight, long created) {
+            this.value = value;
+            this.weight = weight;
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package org.pranavt84.service;
+
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.type.CodecRegistry;
+
+public class ServiceFactory {
+
+    public static DataInputService createService() {
+        return createService(new EncoderConfig());
+    }
+
+    public static DataInputService createService(EncoderConfig encoderConfig) {
+        return createService(encoderConfig, new DecoderConfig());
+    }
+
+    public static DataInputService createService(EncoderConfig encoderConfig, DecoderConfig decoderConfig) {
+
+        // Built-in types plus any CodecProvider on the class path
+        CodecRegistry registry = CodecRegistry.getDefault();
+
+        // What the encoder writes, the decoder must read back
+        DataInputEncoder encoder = new DataInputEncoder(registry, encoderConfig, decoderConfig);
+
+        DataInputDecoder decoder = new DataInputDecoder(registry, decoderConfig);
+
+        return new DataInputService(encoder, decoder);
+    }
+
+    private ServiceFactory() {
+        throw new AssertionError("ServiceFactory should not be instantiated, with default constructor.");
+    }
+}
\ No newline at end of file
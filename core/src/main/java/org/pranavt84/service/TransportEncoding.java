@@ -0,0 +1,53 @@
+package org.pranavt84.service;
+
+import org.pranavt84.json.ByteSink;
+
+import java.util.Locale;
+
+/** Text form of protocol bytes inside JSON requests and responses. */
+public enum TransportEncoding {
+    HEX {
+        @Override
+        public void encode(byte[] bytes, int offset, int length, ByteSink out) {
+            HexConverter.writeHex(bytes, offset, length, out);
+        }
+
+        @Override
+        public byte[] decode(String text) {
+            return HexConverter.hexToBytes(text);
+        }
+    },
+    BASE64 {
+        @Override
+        public void encode(byte[] bytes, int offset, int length, ByteSink out) {
+            Base64Converter.encode(bytes, offset, length, out);
+        }
+
+        @Override
+        public byte[] decode(String text) {
+            return Base64Converter.decode(text);
+        }
+    };
+
+    public abstract void encode(byte[] bytes, int offset, int length, ByteSink out);
+
+    public abstract byte[] decode(String text);
+
+    /** Case-insensitive lookup; {@code null} means the default, {@link #HEX}. */
+    public static TransportEncoding fromName(String name) {
+        if (name == null) {
+            return HEX;
+        }
+        for (TransportEncoding encoding : values()) {
+            if (encoding.name().equalsIgnoreCase(name)) {
+                return encoding;
+            }
+        }
+        throw new IllegalArgumentException("Unknown encoding: " + name + " (expected hex or base64)");
+    }
+
+    /** Lowercase name, as used in query parameters and metric names. */
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
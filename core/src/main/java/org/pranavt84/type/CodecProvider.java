@@ -0,0 +1,12 @@
+package org.pranavt84.type;
+
+/**
+ * Adds element types to {@link CodecRegistry#load()}. Implementations are found with
+ * {@link java.util.ServiceLoader}: list them in
+ * {@code META-INF/services/org.pranavt84.type.CodecProvider} and give them a public
+ * no-argument constructor.
+ */
+public interface CodecProvider {
+
+    void register(CodecRegistry registry);
+}
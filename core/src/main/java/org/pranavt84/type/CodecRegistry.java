@@ -0,0 +1,119 @@
+package org.pranavt84.type;
+
+import org.pranavt84.decode.DecodeType;
+import org.pranavt84.encode.EncodeBoolean;
+import org.pranavt84.encode.EncodeFloat64;
+import org.pranavt84.encode.EncodeInt32;
+import org.pranavt84.encode.EncodeInt64;
+import org.pranavt84.encode.EncodeString;
+import org.pranavt84.encode.EncodeType;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * Maps element classes to the EncodeType that writes them, and extension tags to the DecodeType
+ * that reads them, through a 256-entry table. The encoders of the built-in scalars are always
+ * present; further types come from {@link CodecProvider}s or {@link #register}, on tags no
+ * built-in type uses. The table holds extension tags only: the built-in tags are read by
+ * DataInputReader directly, which allocates nothing, so the {@code org.pranavt84.decode}
+ * classes are not registered here.
+ *
+ * <p>Encoders are looked up by the exact class of the element. Lookups are not synchronized,
+ * so a registry is frozen once it is shared: {@link #getDefault()} cannot be changed, and
+ * types are added to a {@link #copy()} of it instead.
+ */
+public final class CodecRegistry {
+
+    private final DecodeType[] decoders = new DecodeType[256];
+    private final Map<Class<?>, EncodeType<?>> encoders = new HashMap<>();
+    private boolean frozen;
+
+    private CodecRegistry() {
+    }
+
+    /** Only the built-in types. */
+    public static CodecRegistry builtIn() {
+        CodecRegistry registry = new CodecRegistry();
+        registry.encoders.put(Integer.class, new EncodeInt32());
+        registry.encoders.put(String.class, new EncodeString());
+        registry.encoders.put(Long.class, new EncodeInt64());
+        registry.encoders.put(Double.class, new EncodeFloat64());
+        registry.encoders.put(Boolean.class, new EncodeBoolean());
+        return registry;
+    }
+
+    /** The built-in types plus whatever every CodecProvider on the class path registers, frozen. */
+    public static CodecRegistry load() {
+        CodecRegistry registry = builtIn();
+        for (CodecProvider provider : ServiceLoader.load(CodecProvider.class)) {
+            provider.register(registry);
+        }
+        registry.frozen = true;
+        return registry;
+    }
+
+    /** Registry from {@link #load()}, shared by every component that is not given one; frozen. */
+    public static CodecRegistry getDefault() {
+        return Holder.DEFAULT;
+    }
+
+    /** Independent registry with the same entries, not frozen, for adding to without touching this one. */
+    public CodecRegistry copy() {
+        CodecRegistry copy = new CodecRegistry();
+        System.arraycopy(decoders, 0, copy.decoders, 0, decoders.length);
+        copy.encoders.putAll(encoders);
+        return copy;
+    }
+
+    /**
+     * Adds an extension type. {@code encoder} writes {@code tag} as the first byte of every
+     * element, and {@code decoder} is handed the array with the index of that tag.
+     */
+    public <T> CodecRegistry register(int tag, Class<T> type, EncodeType<? super T> encoder, DecodeType decoder) {
+        if (tag < 0 || tag > 0xFF) {
+            throw new IllegalArgumentException("Tag must fit in a byte, got " + tag);
+        }
+        if (InputType.lookup(tag) != null) {
+            throw new IllegalArgumentException("Tag " + tag + " is taken by " + InputType.lookup(tag));
+        }
+        checkNotFrozen();
+        decoders[tag] = decoder;
+        encoders.put(type, encoder);
+        return this;
+    }
+
+    /** Replaces how elements of {@code type} are written, built-in types included. */
+    public <T> CodecRegistry registerEncoder(Class<T> type, EncodeType<? super T> encoder) {
+        checkNotFrozen();
+        encoders.put(type, encoder);
+        return this;
+    }
+
+    /** Decoder for the low byte of {@code tag}, or null if no extension type is registered for it. */
+    public DecodeType decoder(int tag) {
+        return decoders[tag & 0xFF];
+    }
+
+    /** True for tags that are not built in but have a decoder here. */
+    public boolean isExtension(int tag) {
+        return decoders[tag & 0xFF] != null;
+    }
+
+    /** Encoder for elements of exactly this class, or null if there is none. */
+    @SuppressWarnings("unchecked")
+    public EncodeType<Object> encoder(Class<?> type) {
+        return (EncodeType<Object>) encoders.get(type);
+    }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Registry is shared and cannot be changed; register on a copy() of it");
+        }
+    }
+
+    private static final class Holder {
+        static final CodecRegistry DEFAULT = load();
+    }
+}
@@ -0,0 +1,78 @@
+package org.pranavt84.type;
+
+public enum InputType {
+    INT32(0x01),
+    STRING(0x02),
+    DATA_INPUT(0x03),
+    /** Eight-byte two's complement integer. */
+    INT64(0x04),
+    /** Eight-byte IEEE 754 double. */
+    FLOAT64(0x05),
+    /** Zigzag-encoded LEB128 integer of one to ten bytes, see VarInt. */
+    VARINT(0x06),
+    /** Booleans and null carry no payload: the tag is the value. */
+    TRUE(0x07),
+    FALSE(0x08),
+    NULL(0x09),
+    /** Top-level prefix listing strings that the following message refers to, see StringTable. */
+    STRING_TABLE(0x0A),
+    /** Two-byte index into the message's string table, in place of a STRING. */
+    STRING_REF(0x0B),
+    /** Array of ints without per-element tags: {@code [count:2][count 4-byte values]}. */
+    PACKED_INT32(0x0C),
+    /** Array of strings without per-element tags: {@code [count:2][count 4-byte lengths][UTF-8 bytes]}. */
+    PACKED_STRING(0x0D),
+    /**
+     * Array with its byte length and an offset table up front, so that any element can be found,
+     * and the whole array skipped, without reading what precedes it:
+     * {@code [count:2][size:4][count 4-byte offsets][elements]}. {@code size} is the length of the
+     * elements and each offset is relative to where they start. Decodes like DATA_INPUT.
+     */
+    INDEXED_ARRAY(0x0E),
+    /** Top-level envelope around a compressed message, see CompressedEnvelope. */
+    COMPRESSED(0x10),
+    /**
+     * Any other tag that has a codec in the CodecRegistry in use. Stands for the whole range,
+     * so it has no tag of its own and {@link #getValue()} is -1.
+     */
+    EXTENSION(-1);
+
+    private static final InputType[] BY_TAG = new InputType[256];
+
+    static {
+        for (InputType type : values()) {
+            if (type.value >= 0) {
+                BY_TAG[type.value] = type;
+            }
+        }
+    }
+
+    private final int value;
+
+    InputType(int value) {
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    /** DATA_INPUT, and the indexed and packed arrays, which decode to a DataInput as well. */
+    public boolean isArray() {
+        return this == DATA_INPUT || this == INDEXED_ARRAY || this == PACKED_INT32 || this == PACKED_STRING;
+    }
+
+    /** Built-in type for the tag; anything else, extensions included, is rejected. */
+    public static InputType fromByte(byte b) {
+        InputType type = BY_TAG[b & 0xFF];
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown type tag: " + (b & 0xFF));
+        }
+        return type;
+    }
+
+    /** Built-in type for the low byte of {@code tag}, or null if it is not one. */
+    public static InputType lookup(int tag) {
+        return BY_TAG[tag & 0xFF];
+    }
+}
@@ -0,0 +1,108 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.controller.BatchProcessor;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.service.ServiceFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchProcessorTest {
+
+    private final BatchProcessor batch = new BatchProcessor(ServiceFactory.createService());
+
+    @Test
+    void testEncodeLinesKeepsOrderAndReportsErrors() throws IOException {
+        String input = "[\"foo\", [\"bar\", 42]]\n\n[1, 2\r\n[7]";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        BatchProcessor.Result result = batch.encodeLines(stream(input), out, false);
+
+        assertEquals(3, result.getItems());
+        assertEquals(1, result.getErrors());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("{\"encoded\": \"0300020200000003666f6f0300020200000003626172010000002a\", \"size\": 27}", lines[0]);
+        assertTrue(lines[1].startsWith("{\"item\": 1, \"error\": "), lines[1]);
+        assertEquals("{\"encoded\": \"0300010100000007\", \"size\": 8}", lines[2]);
+    }
+
+    @Test
+    void testBinaryFramesRoundTrip() throws IOException {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        batch.encodeLines(stream("[\"a\"]\n[1, [2]]\n"), frames, true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BatchProcessor.Result result = batch.decodeFrames(new ByteArrayInputStream(frames.toByteArray()), out);
+
+        assertEquals(2, result.getItems());
+        assertEquals(0, result.getErrors());
+        assertEquals("{\"decoded\": [\"a\"]}\n{\"decoded\": [1, [2]]}\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testErrorFramesDecodeAsErrorItems() throws IOException {
+        ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        batch.encodeLines(stream("[\"a\"]\n[1, 2\n[7]\n"), frames, true);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BatchProcessor.Result result = batch.decodeFrames(new ByteArrayInputStream(frames.toByteArray()), out);
+
+        assertEquals(3, result.getItems());
+        assertEquals(1, result.getErrors());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("{\"decoded\": [\"a\"]}", lines[0]);
+        assertTrue(lines[1].startsWith("{\"item\": 1, \"error\": "), lines[1]);
+        assertEquals("{\"decoded\": [7]}", lines[2]);
+    }
+
+    @Test
+    void testTruncatedFrameEndsBatch() throws IOException {
+        byte[] frames = {0, 0, 0, 3, 0x03, 0, 0, 0, 0, 0, 9, 0x03};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        BatchProcessor.Result result = batch.decodeFrames(new ByteArrayInputStream(frames), out);
+
+        assertEquals(2, result.getItems());
+        assertEquals(1, result.getErrors());
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("\"error\": \"Truncated frame: expected 9 bytes, got 1\"}\n"));
+    }
+
+    @Test
+    void testItemsOverTheMessageSizeEndBatch() throws IOException {
+        BatchProcessor small = new BatchProcessor(ServiceFactory.createService(new EncoderConfig(),
+                new DecoderConfig().setMaxMessageSize(16)));
+
+        // A header claiming ~2 GB is refused before any of the payload is read
+        byte[] frames = {0, 0, 0, 3, 0x03, 0, 0, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xF0, 0x03};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BatchProcessor.Result result = small.decodeFrames(new ByteArrayInputStream(frames), out);
+        assertEquals(2, result.getItems());
+        assertEquals(1, result.getErrors());
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith(
+                "{\"item\": 1, \"error\": \"Frame of 2147483632 bytes, more than the limit of 16\"}\n"));
+
+        // An unterminated line stops growing at the limit
+        out.reset();
+        result = small.encodeLines(stream("[1]\n[" + "1, ".repeat(10_000)), out, false);
+        assertEquals(2, result.getItems());
+        assertEquals(1, result.getErrors());
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith(
+                "{\"item\": 1, \"error\": \"Line of more than 16 bytes\"}\n"), out.toString(StandardCharsets.UTF_8));
+
+        out.reset();
+        result = small.decodeLines(stream("0300010100000001\n" + "0".repeat(1000)), out);
+        assertEquals(2, result.getItems());
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith(
+                "{\"item\": 1, \"error\": \"Line of more than 96 bytes\"}\n"));
+    }
+
+    private static ByteArrayInputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,137 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.controller.JsonConverter;
+import org.pranavt84.decode.DecodeInt32;
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.encode.EncodeType;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.model.DataInputView;
+import org.pranavt84.model.DecodeResult;
+import org.pranavt84.service.DataInputService;
+import org.pranavt84.service.ServiceFactory;
+import org.pranavt84.type.CodecRegistry;
+import org.pranavt84.type.InputType;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecRegistryTest {
+
+    private static final UUID ID = UUID.fromString("123e4567-e89b-12d3-a456-426614174000");
+
+    @Test
+    void testFromByteCoversEveryTag() {
+        for (InputType type : InputType.values()) {
+            if (type != InputType.EXTENSION) {
+                assertSame(type, InputType.fromByte((byte) type.getValue()));
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> InputType.fromByte((byte) 0xFF));
+        assertNull(InputType.lookup(UuidCodecProvider.TAG));
+    }
+
+    @Test
+    void testServiceLoaderProviderRoundTrip() {
+        assertTrue(CodecRegistry.getDefault().isExtension(UuidCodecProvider.TAG));
+        assertNotNull(CodecRegistry.getDefault().encoder(UUID.class));
+
+        DataInputService service = ServiceFactory.createService();
+        DataInput input = new DataInput();
+        input.add("id");
+        input.add(ID);
+        DataInput nested = new DataInput();
+        nested.add(ID);
+        input.add(nested);
+
+        byte[] encoded = service.encodeBinary(input);
+        assertEquals(3 + 7 + 17 + 3 + 17, encoded.length);
+        assertEquals(input.toString(), service.decodeBinary(encoded).toString());
+
+        DataInputView view = new DataInputView(encoded);
+        assertEquals(InputType.EXTENSION, view.typeAt(1));
+        assertEquals(ID, view.get(1));
+        assertEquals(ID, view.getArray(2).get(0));
+
+        ByteSink json = new ByteSink();
+        service.decodeToJson(encoded, json);
+        String expected = "[\"id\", \"" + ID + "\", [\"" + ID + "\"]]";
+        assertEquals(expected, new String(json.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(expected, JsonConverter.dataInputToJson(input));
+
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+        assertThrows(IllegalArgumentException.class, () -> service.decodeBinary(truncated));
+    }
+
+    @Test
+    void testExplicitRegistration() {
+        int tag = 0x21;
+        CodecRegistry registry = CodecRegistry.builtIn().register(tag, BigDecimal.class, new EncodeType<BigDecimal>() {
+            @Override
+            public int encodedSize(BigDecimal value) {
+                return 1 + 1 + value.toPlainString().length();
+            }
+
+            @Override
+            public int encodeTo(BigDecimal value, byte[] dest, int offset) {
+                byte[] text = value.toPlainString().getBytes(StandardCharsets.US_ASCII);
+                dest[offset] = (byte) tag;
+                dest[offset + 1] = (byte) text.length;
+                System.arraycopy(text, 0, dest, offset + 2, text.length);
+                return offset + 2 + text.length;
+            }
+        }, (bytes, index) -> new DecodeResult(
+                new BigDecimal(new String(bytes, index + 2, bytes[index + 1], StandardCharsets.US_ASCII)),
+                index + 2 + bytes[index + 1]));
+
+        DataInput input = new DataInput();
+        input.add(new BigDecimal("12345.6789"));
+        input.add(7);
+        byte[] encoded = new DataInputEncoder(registry, new EncoderConfig()).encode(input);
+
+        assertEquals(input.toString(), new DataInputDecoder(registry).decode(encoded).toString());
+        assertThrows(IllegalArgumentException.class, () -> new DataInputDecoder(CodecRegistry.builtIn()).decode(encoded));
+        assertThrows(IllegalArgumentException.class, () -> new DataInputEncoder(CodecRegistry.builtIn(), new EncoderConfig()).encode(input));
+
+        // Every read path of a service follows the registry of its decoder
+        DataInputService service = new DataInputService(new DataInputEncoder(registry, new EncoderConfig()),
+                new DataInputDecoder(registry));
+        ByteSink json = new ByteSink();
+        service.decodeToJson(encoded, json);
+        assertEquals("[12345.6789, 7]", new String(json.toByteArray(), StandardCharsets.UTF_8));
+        ByteSink extracted = new ByteSink();
+        service.extractToJson(encoded, "$[0]", extracted);
+        assertEquals("12345.6789", new String(extracted.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals(new BigDecimal("12345.6789"), new DataInputView(encoded, registry).get(0));
+        assertThrows(IllegalArgumentException.class, () -> ServiceFactory.createService().decodeToJson(encoded, new ByteSink()));
+        assertThrows(IllegalArgumentException.class, () -> new DataInputView(encoded).get(0));
+    }
+
+    @Test
+    void testBuiltInTagsCannotBeTaken() {
+        CodecRegistry registry = CodecRegistry.builtIn();
+        assertThrows(IllegalArgumentException.class,
+                () -> registry.register(InputType.STRING.getValue(), Object.class, null, new DecodeInt32()));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(256, Object.class, null, new DecodeInt32()));
+        assertFalse(registry.isExtension(InputType.INT32.getValue()));
+        // Built-in tags are read by DataInputReader, never through the table
+        assertNull(registry.decoder(InputType.INT32.getValue()));
+    }
+
+    @Test
+    void testDefaultRegistryIsFrozen() {
+        CodecRegistry shared = CodecRegistry.getDefault();
+        assertThrows(IllegalStateException.class, () -> shared.register(0x31, Object.class, null, new DecodeInt32()));
+        assertThrows(IllegalStateException.class, () -> shared.registerEncoder(Object.class, null));
+        assertNull(shared.encoder(Object.class));
+
+        CodecRegistry copy = shared.copy().register(0x31, Object.class, null, new DecodeInt32());
+        assertTrue(copy.isExtension(0x31));
+        assertFalse(shared.isExtension(0x31));
+    }
+}
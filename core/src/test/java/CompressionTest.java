@@ -0,0 +1,199 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.compress.CompressedEnvelope;
+import org.pranavt84.compress.LzBlock;
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.decoder.IncrementalDataInputDecoder;
+import org.pranavt84.decoder.InvalidInputException;
+import org.pranavt84.encode.EncodeInt32;
+import org.pranavt84.encode.EncodeString;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.model.DataInputView;
+import org.pranavt84.service.DataInputService;
+import org.pranavt84.type.CodecRegistry;
+import org.pranavt84.type.InputType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionTest {
+
+    private final EncoderConfig config = new EncoderConfig().setCompressMinSize(64);
+    private final DataInputEncoder compressing = new DataInputEncoder(new EncodeString(), new EncodeInt32(), config);
+    private final DataInputEncoder plain = new DataInputEncoder(new EncodeString(), new EncodeInt32());
+
+    @Test
+    void testBlockRoundTrip() {
+        Random random = new Random(1);
+        for (int length : new int[]{0, 1, 12, 13, 100, 5000, 70_000}) {
+            byte[] text = new byte[length];
+            for (int i = 0; i < length; i++) {
+                text[i] = (byte) "abcab cabbage ".charAt(random.nextInt(14));
+            }
+            byte[] noise = new byte[length];
+            random.nextBytes(noise);
+
+            for (byte[] input : List.of(text, noise)) {
+                byte[] block = new byte[LzBlock.maxCompressedLength(length)];
+                int compressed = LzBlock.compress(input, 0, length, block, 0);
+                byte[] output = new byte[length];
+                LzBlock.decompress(block, 0, compressed, output, 0, length);
+                assertArrayEquals(input, output);
+            }
+        }
+    }
+
+    @Test
+    void testEncoderCompressesAboveThreshold() {
+        DataInput input = repetitive(200);
+        byte[] raw = plain.encode(input);
+        byte[] encoded = compressing.encode(input);
+
+        assertEquals(InputType.COMPRESSED.getValue(), encoded[0]);
+        assertTrue(encoded.length < raw.length / 4, encoded.length + " vs " + raw.length);
+        assertEquals(input.toString(), new DataInputDecoder().decode(encoded).toString());
+        assertEquals("row-7", new DataInputView(encoded).getArray(7).getString(0));
+
+        DataInput small = new DataInput();
+        small.add("foo");
+        assertArrayEquals(plain.encode(small), compressing.encode(small));
+    }
+
+    @Test
+    void testIncompressibleStaysPlain() {
+        byte[] noise = new byte[4096];
+        new Random(2).nextBytes(noise);
+        DataInput input = new DataInput();
+        input.add(new String(noise, StandardCharsets.ISO_8859_1));
+
+        assertArrayEquals(plain.encode(input), compressing.encode(input));
+    }
+
+    @Test
+    void testJsonPathCompressesAndTranscodesBack() throws IOException {
+        DataInputService service = new DataInputService(compressing, new DataInputDecoder());
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            json.append(i == 0 ? "" : ", ").append("[\"row-").append(i).append("\", ").append(i).append(']');
+        }
+        json.append(']');
+
+        ByteSink encoded = new ByteSink();
+        service.encodeJson(new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)), encoded);
+        assertEquals(InputType.COMPRESSED.getValue(), encoded.array()[0]);
+
+        ByteSink decoded = new ByteSink();
+        service.decodeToJson(encoded.toByteArray(), decoded);
+        assertEquals(json.toString(), new String(decoded.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testIncrementalDecoderUnwrapsEnvelope() {
+        DataInput input = repetitive(50);
+        byte[] encoded = compressing.encode(input);
+        byte[] stream = new byte[encoded.length * 2];
+        System.arraycopy(encoded, 0, stream, 0, encoded.length);
+        System.arraycopy(encoded, 0, stream, encoded.length, encoded.length);
+
+        List<DataInput> messages = new ArrayList<>();
+        IncrementalDataInputDecoder decoder = IncrementalDataInputDecoder.forMessages(messages::add);
+        for (int i = 0; i < stream.length; i += 7) {
+            decoder.feed(stream, i, Math.min(7, stream.length - i));
+        }
+        decoder.finish();
+
+        assertEquals(2, messages.size());
+        assertEquals(input.toString(), messages.get(0).toString());
+        assertEquals(input.toString(), messages.get(1).toString());
+    }
+
+    @Test
+    void testCorruptEnvelopeRejected() {
+        byte[] encoded = compressing.encode(repetitive(50));
+
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 3);
+        assertThrows(IllegalArgumentException.class, () -> new DataInputDecoder().decode(truncated));
+
+        byte[] wrongSize = encoded.clone();
+        wrongSize[4]++;
+        assertThrows(IllegalArgumentException.class, () -> CompressedEnvelope.unwrap(wrongSize));
+    }
+
+    @Test
+    void testMessageSizeLimit() {
+        // A 9 byte header promising a 2 GB message is refused before anything is allocated for it
+        byte[] forged = {0x10, 0x7F, -1, -1, -1, 0, 0, 0, 0};
+        assertThrows(IllegalArgumentException.class, () -> new DataInputDecoder().decode(forged));
+        IncrementalDataInputDecoder incremental = IncrementalDataInputDecoder.forMessages(message -> { });
+        assertThrows(IllegalArgumentException.class, () -> incremental.feed(forged, 0, forged.length));
+        byte[] hugeBlock = {0x10, 0, 0, 1, 0, 0x7F, -1, -1, -1};
+        assertThrows(IllegalArgumentException.class,
+                () -> IncrementalDataInputDecoder.forMessages(message -> { }).feed(hugeBlock, 0, hugeBlock.length));
+
+        byte[] encoded = compressing.encode(repetitive(50));
+        int plainSize = plain.encode(repetitive(50)).length;
+        DecoderConfig tight = new DecoderConfig().setMaxMessageSize(plainSize - 1);
+        assertThrows(IllegalArgumentException.class,
+                () -> new DataInputDecoder(CodecRegistry.getDefault(), tight).decode(encoded));
+        IncrementalDataInputDecoder limited = IncrementalDataInputDecoder.forMessages(message -> { }, tight);
+        assertThrows(IllegalArgumentException.class, () -> limited.feed(encoded, 0, encoded.length));
+        DecoderConfig exact = new DecoderConfig().setMaxMessageSize(plainSize);
+        assertEquals(50, new DataInputDecoder(CodecRegistry.getDefault(), exact).decode(encoded).getElements().size());
+
+        // Plain messages are held to the limit too
+        byte[] uncompressed = plain.encode(repetitive(50));
+        assertThrows(InvalidInputException.class,
+                () -> new DataInputDecoder(CodecRegistry.getDefault(), tight).decode(uncompressed));
+        assertThrows(IllegalArgumentException.class, () -> new DecoderConfig().setMaxMessageSize(0));
+    }
+
+    @Test
+    void testIncrementalDecoderGrowsLargeEnvelopes() {
+        // Random text keeps the block well above the buffer the decoder starts with
+        Random random = new Random(5);
+        DataInput input = new DataInput();
+        for (int i = 0; i < 200; i++) {
+            StringBuilder text = new StringBuilder();
+            for (int j = 0; j < 800; j++) {
+                text.append((char) ('a' + random.nextInt(26)));
+            }
+            DataInput row = new DataInput();
+            row.add(text.toString());
+            row.add("status: active, region: eu-west-1 ".repeat(20));
+            input.add(row);
+        }
+        byte[] encoded = compressing.encode(input);
+        assertEquals(InputType.COMPRESSED.getValue(), encoded[0]);
+        assertTrue(encoded.length > 1 << 17, "block of " + encoded.length + " bytes");
+
+        List<DataInput> messages = new ArrayList<>();
+        IncrementalDataInputDecoder decoder = IncrementalDataInputDecoder.forMessages(messages::add);
+        for (int i = 0; i < encoded.length; i += 1000) {
+            decoder.feed(encoded, i, Math.min(1000, encoded.length - i));
+        }
+        decoder.finish();
+        assertEquals(List.of(input.toString()), List.of(messages.get(0).toString()));
+    }
+
+    private static DataInput repetitive(int rows) {
+        DataInput input = new DataInput();
+        for (int i = 0; i < rows; i++) {
+            DataInput row = new DataInput();
+            row.add("row-" + i);
+            row.add("status: active, region: eu-west-1");
+            row.add(i);
+            input.add(row);
+        }
+        return input;
+    }
+}
@@ -0,0 +1,328 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.pranavt84.encode.EncodeInt32;
+import org.pranavt84.encode.EncodeString;
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.decoder.DataInputReader;
+import org.pranavt84.decoder.IncrementalDataInputDecoder;
+import org.pranavt84.decode.DecodeInt32;
+import org.pranavt84.decode.DecodeString;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.type.InputType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataInputCodecTest {
+
+    private static DataInputEncoder encoder;
+    private static DataInputDecoder decoder;
+
+    @BeforeAll
+    static void setup() {
+        encoder = new DataInputEncoder(new EncodeString(), new EncodeInt32());
+        decoder = new DataInputDecoder(new DecodeString(), new DecodeInt32());
+    }
+
+    @Test
+    void testEmptyEncodingDecoding() {
+        DataInput dataInput = new DataInput();
+        byte[] encoded = encoder.encode(dataInput);
+        DataInput decoded = decoder.decode(encoded);
+        assertEquals(0, decoded.getElements().size());
+    }
+
+    @Test
+    void testIntegerEncodingDecoding() {
+        int[] testValues = {0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE};
+
+        for (int val : testValues) {
+            DataInput dataInput = new DataInput();
+            dataInput.add(val);
+
+            byte[] encoded = encoder.encode(dataInput);
+            DataInput decoded = decoder.decode(encoded);
+
+            assertEquals(1, decoded.getElements().size());
+            assertEquals(val, decoded.getElements().get(0));
+        }
+    }
+
+    @Test
+    void testStringEncodingDecoding() {
+        String[] strings = {"", "a", "Hello, World!", "é漢字🌟", "\u0000\uFFFF"};
+
+        for (String s : strings) {
+            DataInput dataInput = new DataInput();
+            dataInput.add(s);
+
+            byte[] encoded = encoder.encode(dataInput);
+            DataInput decoded = decoder.decode(encoded);
+
+            assertEquals(1, decoded.getElements().size());
+            assertEquals(s, decoded.getElements().get(0));
+        }
+    }
+
+
+    @Test
+    void testNestedDataInput() {
+        DataInput nested = new DataInput();
+        nested.add("nested");
+        nested.add(123);
+
+        DataInput root = new DataInput();
+        root.add("root");
+        root.add(nested);
+        root.add(-42);
+
+        byte[] encoded = encoder.encode(root);
+        DataInput decoded = decoder.decode(encoded);
+
+        assertEquals(3, decoded.getElements().size());
+        assertEquals("root", decoded.getElements().get(0));
+
+        DataInput decodedNested = (DataInput) decoded.getElements().get(1);
+        assertEquals("nested", decodedNested.getElements().get(0));
+        assertEquals(123, decodedNested.getElements().get(1));
+
+        assertEquals(-42, decoded.getElements().get(2));
+    }
+
+    @Test
+    void testLargeArray() {
+        DataInput root = new DataInput();
+        for (int i = 0; i < 1000; i++) {
+            root.add(i);
+        }
+
+        byte[] encoded = encoder.encode(root);
+        DataInput decoded = decoder.decode(encoded);
+
+        assertEquals(1000, decoded.getElements().size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, decoded.getElements().get(i));
+        }
+    }
+
+    @Test
+    void testLargeArrayString() {
+        DataInput root = new DataInput();
+        for (int i = 0; i < 1000; i++) {
+            root.add("clickhose");
+        }
+
+        byte[] encoded = encoder.encode(root);
+        DataInput decoded = decoder.decode(encoded);
+
+        assertEquals(1000, decoded.getElements().size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("clickhose", decoded.getElements().get(i));
+        }
+    }
+
+    @Test
+    void testLargeString() {
+        char[] chars = new char[1_000_000];
+        java.util.Arrays.fill(chars, 'b');
+        String longString = new String(chars);
+
+        DataInput root = new DataInput();
+        root.add(longString);
+
+        byte[] encoded = encoder.encode(root);
+        DataInput decoded = decoder.decode(encoded);
+
+        assertEquals(1, decoded.getElements().size());
+        assertEquals(longString, decoded.getElements().get(0));
+    }
+
+    @Test
+    void testMixedTypes() {
+        DataInput nested = new DataInput();
+        nested.add("bar");
+        nested.add(99);
+
+        DataInput root = new DataInput();
+        root.add(42);
+        root.add("foo");
+        root.add(nested);
+
+        byte[] encoded = encoder.encode(root);
+        DataInput decoded = decoder.decode(encoded);
+
+        assertEquals(3, decoded.getElements().size());
+        assertEquals(42, decoded.getElements().get(0));
+        assertEquals("foo", decoded.getElements().get(1));
+
+        DataInput decodedNested = (DataInput) decoded.getElements().get(2);
+        assertEquals("bar", decodedNested.getElements().get(0));
+        assertEquals(99, decodedNested.getElements().get(1));
+    }
+
+    @Test
+    void testEncodedSizeMatchesEncoding() {
+        DataInput nested = new DataInput();
+        nested.add("é漢字🌟");
+        nested.add(7);
+
+        DataInput root = new DataInput();
+        root.add("foo");
+        root.add(nested);
+        root.add(new DataInput());
+
+        assertEquals(encoder.encode(root).length, encoder.encodedSize(root));
+    }
+
+    @Test
+    void testEncodeToByteBuffer() {
+        DataInput nested = new DataInput();
+        nested.add("bar");
+        nested.add(42);
+
+        DataInput root = new DataInput();
+        root.add("foo");
+        root.add(nested);
+
+        byte[] expected = encoder.encode(root);
+
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length + 10);
+        buffer.position(4);
+        encoder.encodeTo(root, buffer);
+        assertEquals(4 + expected.length, buffer.position());
+
+        byte[] written = new byte[expected.length];
+        buffer.flip().position(4);
+        buffer.get(written);
+        assertArrayEquals(expected, written);
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(expected.length);
+        assertThrows(IllegalArgumentException.class, () -> encoder.encodeTo(root, direct));
+        assertEquals(0, direct.position());
+        assertThrows(java.nio.ReadOnlyBufferException.class,
+                () -> encoder.encodeTo(root, ByteBuffer.allocate(expected.length).asReadOnlyBuffer()));
+
+        assertThrows(java.nio.BufferOverflowException.class,
+                () -> encoder.encodeTo(root, ByteBuffer.allocate(expected.length - 1)));
+    }
+
+    @Test
+    void testStringBytesMatchJdkUtf8() {
+        String[] strings = {"", "ascii", "é漢字🌟", "\uD800", "a\uDC00b", "\uD83C"};
+
+        for (String s : strings) {
+            DataInput dataInput = new DataInput();
+            dataInput.add(s);
+
+            byte[] encoded = encoder.encode(dataInput);
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+
+            assertEquals(InputType.STRING.getValue(), encoded[3]);
+            assertEquals(utf8.length, encoded.length - 3 - 5);
+            assertArrayEquals(utf8, java.util.Arrays.copyOfRange(encoded, 8, encoded.length));
+        }
+    }
+
+    @Test
+    void testReaderWalk() {
+        DataInput nested = new DataInput();
+        nested.add("bar");
+        nested.add(99);
+        nested.add(new DataInput());
+
+        DataInput root = new DataInput();
+        root.add(42);
+        root.add(nested);
+        root.add("foo");
+
+        DataInputReader reader = new DataInputReader(encoder.encode(root));
+
+        assertEquals(3, reader.enterArray());
+        assertEquals(InputType.INT32, reader.nextType());
+        assertEquals(42, reader.readInt());
+
+        assertEquals(3, reader.enterArray());
+        assertEquals(2, reader.depth());
+        reader.skip();
+        assertEquals(99, reader.readInt());
+        reader.exitArray();
+
+        assertTrue(reader.hasNext());
+        assertEquals("foo", reader.readString());
+        assertFalse(reader.hasNext());
+        reader.exitArray();
+
+        assertEquals(0, reader.depth());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    void testReaderRejectsTruncatedAndMistypedInput() {
+        DataInput root = new DataInput();
+        root.add("foo");
+        byte[] encoded = encoder.encode(root);
+
+        DataInputReader truncated = new DataInputReader(encoded, 0, encoded.length - 1);
+        truncated.enterArray();
+        assertThrows(IllegalArgumentException.class, truncated::readString);
+
+        DataInputReader mistyped = new DataInputReader(encoded);
+        mistyped.enterArray();
+        assertThrows(IllegalArgumentException.class, mistyped::readInt);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> decoder.decode(java.util.Arrays.copyOf(encoded, encoded.length - 2)));
+    }
+
+    @Test
+    void testIncrementalDecodeAcrossChunks() {
+        DataInput nested = new DataInput();
+        nested.add("é漢字🌟");
+        nested.add(new DataInput());
+        nested.add(-7);
+
+        DataInput root = new DataInput();
+        root.add("foo");
+        root.add(nested);
+        root.add("");
+
+        byte[] encoded = encoder.encode(root);
+        byte[] twoMessages = new byte[encoded.length * 2];
+        System.arraycopy(encoded, 0, twoMessages, 0, encoded.length);
+        System.arraycopy(encoded, 0, twoMessages, encoded.length, encoded.length);
+
+        for (int chunkSize : new int[]{1, 3, 7, twoMessages.length}) {
+            List<DataInput> messages = new ArrayList<>();
+            IncrementalDataInputDecoder incremental = IncrementalDataInputDecoder.forMessages(messages::add);
+
+            for (int i = 0; i < twoMessages.length; i += chunkSize) {
+                incremental.feed(twoMessages, i, Math.min(chunkSize, twoMessages.length - i));
+            }
+            incremental.finish();
+
+            assertEquals(2, messages.size());
+            assertEquals(root.toString(), messages.get(0).toString());
+            assertEquals(root.toString(), messages.get(1).toString());
+        }
+    }
+
+    @Test
+    void testIncrementalDecodeTruncated() {
+        DataInput root = new DataInput();
+        root.add("foo");
+        byte[] encoded = encoder.encode(root);
+
+        List<DataInput> messages = new ArrayList<>();
+        IncrementalDataInputDecoder incremental = IncrementalDataInputDecoder.forMessages(messages::add);
+        incremental.feed(encoded, 0, encoded.length - 1);
+
+        assertTrue(messages.isEmpty());
+        assertFalse(incremental.isIdle());
+        assertThrows(IllegalArgumentException.class, incremental::finish);
+    }
+}
@@ -7,9 +7,12 @@ import org.pranavt84.encode.EncodeInt32;
 import org.pranavt84.encode.EncodeString;
 import org.pranavt84.encoder.DataInputEncoder;
 import org.pranavt84.model.DataInput;
+import org.pranavt84.model.DataInputView;
 import org.pranavt84.service.DataInputService;
+import org.pranavt84.type.InputType;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class DataInputServiceTest {
 
@@ -160,4 +163,30 @@ class DataInputServiceTest {
         assertEquals("bar", decodedNested.getElements().get(0));
         assertEquals(99, decodedNested.getElements().get(1));
     }
+
+    @Test
+    void testDecodeView() {
+        DataInput nested = new DataInput();
+        nested.add("bar");
+        nested.add(99);
+
+        DataInput root = new DataInput();
+        root.add(42);
+        root.add("é漢字🌟");
+        root.add(nested);
+
+        String encoded = dataInputService.encode(root);
+        DataInputView view = dataInputService.decodeView(encoded);
+
+        assertEquals(3, view.size());
+        assertEquals(InputType.DATA_INPUT, view.typeAt(2));
+        assertEquals(99, view.getArray(2).getInt(1));
+        assertEquals("é漢字🌟", view.getString(1));
+        assertEquals(42, view.getInt(0));
+        assertEquals(encoded.length() / 2, view.encodedLength());
+        assertEquals(root.toString(), view.toDataInput().toString());
+
+        assertThrows(IllegalArgumentException.class, () -> view.getString(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> view.getInt(3));
+    }
 }
@@ -0,0 +1,208 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.decoder.DataInputValidator;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.decoder.IncrementalDataInputDecoder;
+import org.pranavt84.decoder.InvalidInputException;
+import org.pranavt84.encode.EncodeInt32;
+import org.pranavt84.encode.EncodeString;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.service.DataInputService;
+import org.pranavt84.service.ServiceFactory;
+import org.pranavt84.type.CodecRegistry;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataInputValidatorTest {
+
+    private final DataInputEncoder plain = new DataInputEncoder(new EncodeString(), new EncodeInt32());
+
+    @Test
+    void testEveryWireFeatureValidates() {
+        DataInput input = new DataInput();
+        for (int i = 0; i < 20; i++) {
+            DataInput row = new DataInput();
+            row.add("eu-west-1");
+            row.add("héllo € 😀");
+            row.add(i);
+            row.add(1L << 40);
+            row.add(2.5);
+            row.add(true);
+            row.add(null);
+            row.add(new UUID(i, i));
+            input.add(row);
+        }
+        DataInput ints = new DataInput();
+        ints.add(1);
+        ints.add(2);
+        input.add(ints);
+
+        EncoderConfig all = new EncoderConfig().setStringDictionary(true).setVarInts(true).setPackedArrays(true);
+        for (DataInputEncoder encoder : List.of(plain, new DataInputEncoder(CodecRegistry.getDefault(), all))) {
+            byte[] encoded = encoder.encode(input);
+            DataInputValidator.validate(encoded, 0, encoded.length);
+
+            // Every truncation is caught, at a position inside the message
+            for (int length = 0; length < encoded.length; length++) {
+                int cut = length;
+                InvalidInputException e = assertThrows(InvalidInputException.class,
+                        () -> DataInputValidator.validate(encoded, 0, cut));
+                assertTrue(e.getPosition() >= 0 && e.getPosition() <= cut, e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    void testLimits() {
+        DataInput wide = new DataInput();
+        for (int i = 0; i < 1001; i++) {
+            wide.add(i);
+        }
+        byte[] tooWide = plain.encode(wide);
+        DecoderConfig wider = new DecoderConfig().setMaxArraySize(2000);
+        InvalidInputException e = assertThrows(InvalidInputException.class, () -> new DataInputDecoder().decode(tooWide));
+        assertEquals(0, e.getPosition());
+        new DataInputDecoder(CodecRegistry.getDefault(), wider).decode(tooWide);
+
+        DataInput deep = new DataInput();
+        DataInput inner = deep;
+        for (int i = 0; i < 4; i++) {
+            DataInput next = new DataInput();
+            inner.add(next);
+            inner = next;
+        }
+        byte[] fiveDeep = plain.encode(deep);
+        DecoderConfig shallow = new DecoderConfig().setMaxDepth(4);
+        e = assertThrows(InvalidInputException.class, () -> DataInputValidator.validate(fiveDeep, 0, fiveDeep.length,
+                shallow, CodecRegistry.getDefault()));
+        assertEquals(12, e.getPosition());
+
+        // Three-byte characters: the limit counts characters, not bytes
+        DataInput text = new DataInput();
+        text.add("€€€");
+        byte[] euros = plain.encode(text);
+        DecoderConfig three = new DecoderConfig().setMaxStringLength(3);
+        DataInputValidator.validate(euros, 0, euros.length, three, CodecRegistry.getDefault());
+        DecoderConfig two = new DecoderConfig().setMaxStringLength(2);
+        e = assertThrows(InvalidInputException.class,
+                () -> DataInputValidator.validate(euros, 0, euros.length, two, CodecRegistry.getDefault()));
+        assertEquals(3, e.getPosition());
+    }
+
+    @Test
+    void testEncodersRejectWhatDecodersWould() throws IOException {
+        DataInputService service = ServiceFactory.createService(new EncoderConfig(), new DecoderConfig()
+                .setMaxArraySize(3).setMaxStringLength(4).setMaxDepth(2).setMaxMessageSize(64));
+        for (String json : new String[]{"[1, 2, 3, 4]", "[\"abcde\"]", "[[[]]]", "[\"" + "x".repeat(60) + "\"]"}) {
+            assertThrows(IllegalArgumentException.class, () -> service.encodeJson(stream(json), new ByteSink()), json);
+        }
+        ByteSink ok = new ByteSink();
+        service.encodeJson(stream("[[\"abcd\"], 2, 3]"), ok);
+        service.decodeToJson(ok.array(), 0, ok.size(), new ByteSink());
+
+        DataInput wide = new DataInput();
+        for (int i = 0; i < 4; i++) {
+            wide.add(i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> service.encodeBinary(wide));
+        DataInput deep = new DataInput();
+        deep.add(new DataInput());
+        ((DataInput) deep.getElements().get(0)).add(new DataInput());
+        assertThrows(IllegalArgumentException.class, () -> service.encodeBinary(deep));
+        DataInput text = new DataInput();
+        text.add("abcde");
+        assertThrows(IllegalArgumentException.class, () -> service.encodeBinary(text));
+        DataInputEncoder limited = new DataInputEncoder(CodecRegistry.getDefault(), new EncoderConfig(),
+                new DecoderConfig().setMaxArraySize(3));
+        assertThrows(IllegalArgumentException.class, () -> limited.encodeTo(wide, new byte[64], 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> limited.encodeTo(wide, java.nio.ByteBuffer.allocate(64)));
+
+        // The 2-byte count cannot hold more, whatever the limits
+        DataInput overflow = new DataInput();
+        for (int i = 0; i <= 0xFFFF; i++) {
+            overflow.add(i);
+        }
+        assertThrows(IllegalArgumentException.class, () -> plain.encodeTo(overflow, new byte[1 << 20], 0));
+    }
+
+    @Test
+    void testMalformedUtf8() {
+        assertInvalidString(new byte[]{(byte) 0xC0, (byte) 0x80}, 0);             // overlong NUL
+        assertInvalidString(new byte[]{(byte) 0xED, (byte) 0xA0, (byte) 0x80}, 1); // surrogate
+        assertInvalidString(new byte[]{'o', 'k', (byte) 0xF4, (byte) 0x90, (byte) 0x80, (byte) 0x80}, 3); // past U+10FFFF
+        assertInvalidString(new byte[]{'a', 'b', 'c', 'd', 'e', 'f', 'g', 'h', (byte) 0xE2, (byte) 0x82}, 8); // truncated
+        assertInvalidString(new byte[]{(byte) 0x80}, 0);                           // stray continuation
+    }
+
+    @Test
+    void testStructuralErrors() {
+        // Count claims 65535 elements in a 5 byte message
+        byte[] inflated = {3, (byte) 0xFF, (byte) 0xFF, 1, 0};
+        assertThrows(InvalidInputException.class, () -> new DataInputDecoder(CodecRegistry.getDefault(),
+                new DecoderConfig().setMaxArraySize(0xFFFF)).decode(inflated));
+
+        byte[] trailing = {3, 0, 0, 9};
+        assertEquals(3, assertThrows(InvalidInputException.class,
+                () -> DataInputValidator.validate(trailing, 0, trailing.length)).getPosition());
+
+        byte[] unknownTag = {3, 0, 2, 9, 0x7F};
+        assertEquals(4, assertThrows(InvalidInputException.class,
+                () -> DataInputValidator.validate(unknownTag, 0, unknownTag.length)).getPosition());
+
+        byte[] refWithoutTable = {3, 0, 1, 0x0B, 0, 0};
+        assertEquals(3, assertThrows(InvalidInputException.class,
+                () -> DataInputValidator.validate(refWithoutTable, 0, refWithoutTable.length)).getPosition());
+
+        // The JSON path checks too, before writing anything
+        ByteSink out = new ByteSink();
+        DataInputService service = new DataInputService(plain, new DataInputDecoder());
+        assertThrows(InvalidInputException.class, () -> service.decodeToJson(trailing, out));
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void testIncrementalDecoderEnforcesLimits() {
+        DataInput wide = new DataInput();
+        for (int i = 0; i < 11; i++) {
+            wide.add("s" + i);
+        }
+        byte[] encoded = plain.encode(wide);
+        List<DataInput> messages = new ArrayList<>();
+        IncrementalDataInputDecoder decoder = IncrementalDataInputDecoder.forMessages(messages::add,
+                new DecoderConfig().setMaxArraySize(10));
+        assertThrows(IllegalArgumentException.class, () -> decoder.feed(encoded, 0, encoded.length));
+
+        // A huge string length is refused before its body is allocated
+        byte[] huge = {3, 0, 1, 2, 0x7F, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF};
+        IncrementalDataInputDecoder strict = IncrementalDataInputDecoder.forMessages(messages::add);
+        assertThrows(IllegalArgumentException.class, () -> strict.feed(huge, 0, huge.length));
+        assertTrue(messages.isEmpty());
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertInvalidString(byte[] utf8, int badIndex) {
+        byte[] message = new byte[3 + 5 + utf8.length];
+        message[0] = 3;
+        message[2] = 1;
+        message[3] = 2;
+        message[7] = (byte) utf8.length;
+        System.arraycopy(utf8, 0, message, 8, utf8.length);
+        InvalidInputException e = assertThrows(InvalidInputException.class,
+                () -> new DataInputDecoder().decode(message));
+        assertEquals(8 + badIndex, e.getPosition(), e.getMessage());
+    }
+}
@@ -0,0 +1,135 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pranavt84.controller.BatchProcessor;
+import org.pranavt84.controller.FileConverter;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.service.DataInputService;
+import org.pranavt84.service.ServiceFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileConverterTest {
+
+    private final DataInputService service = ServiceFactory.createService();
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testEncodeFileMatchesBatchFramesAcrossChunks() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            lines.append("[\"row-").append(i).append(" é😀\", ").append(i).append(", [").append(i * 7).append("]]\n");
+            if (i % 50 == 0) {
+                lines.append("  \r\n");
+            }
+        }
+        lines.append("[1, 2\n[\"last\"]");
+        Path in = write("in.jsonl", lines.toString().getBytes(StandardCharsets.UTF_8));
+        Path out = dir.resolve("out.bin");
+
+        // A small chunk size and several threads, so records are cut and written back in order
+        FileConverter.Result result = new FileConverter(service, 3, 100).encodeFile(in, out);
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        new BatchProcessor(service).encodeLines(new ByteArrayInputStream(lines.toString()
+                .getBytes(StandardCharsets.UTF_8)), expected, true);
+        assertArrayEquals(expected.toByteArray(), Files.readAllBytes(out));
+        assertEquals(202, result.getItems());
+        assertEquals(1, result.getErrors());
+        assertEquals(Files.size(in), result.getBytesIn());
+        assertEquals(Files.size(out), result.getBytesOut());
+        assertTrue(result.toString().startsWith("202 records (1 failed)"), result.toString());
+    }
+
+    @Test
+    void testEncodeFileStreamsRecordsAsLongAsAChunk() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            // Short records are encoded by their chunk's thread, long ones written straight to the file
+            lines.append("[\"").append("é".repeat(i % 4 == 0 ? 30_000 + i : i)).append("\", ").append(i).append("]\n");
+            if (i % 10 == 0) {
+                lines.append("[\"").append("y".repeat(100)).append("\", 1,]\n\n");
+            }
+        }
+        byte[] json = lines.toString().getBytes(StandardCharsets.UTF_8);
+        Path in = write("in.jsonl", json);
+
+        for (DataInputService converting : new DataInputService[] {
+                service, ServiceFactory.createService(new EncoderConfig().setVarInts(true).setPackedArrays(true))}) {
+            Path out = dir.resolve("out.bin");
+            FileConverter.Result result = new FileConverter(converting, 3, 64).encodeFile(in, out);
+
+            ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            new BatchProcessor(converting).encodeLines(new ByteArrayInputStream(json), expected, true);
+            assertArrayEquals(expected.toByteArray(), Files.readAllBytes(out));
+            assertEquals(44, result.getItems());
+            assertEquals(4, result.getErrors());
+            assertEquals(Files.size(out), result.getBytesOut());
+        }
+    }
+
+    @Test
+    void testDecodeFileRoundTrips() throws IOException {
+        ByteSink frames = new ByteSink();
+        StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            String json = "[\"" + "x".repeat(i) + "\", " + i + ", [true, null]]";
+            ByteSink message = new ByteSink();
+            service.encodeJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), message);
+            BatchProcessor.writeFrame(message.array(), 0, message.size(), frames);
+            expected.append(json).append('\n');
+        }
+        Path in = write("in.bin", frames.toByteArray());
+        Path out = dir.resolve("out.jsonl");
+
+        FileConverter.Result result = new FileConverter(service, 2, 64).decodeFile(in, out);
+
+        assertEquals(100, result.getItems());
+        assertEquals(0, result.getErrors());
+        assertEquals(expected.toString(), Files.readString(out));
+
+        // And encoding the decoded lines gives the same frames back
+        Path again = dir.resolve("again.bin");
+        new FileConverter(service, 2, 64).encodeFile(out, again);
+        assertArrayEquals(frames.toByteArray(), Files.readAllBytes(again));
+    }
+
+    @Test
+    void testDecodeFileReportsBadFrames() throws IOException {
+        byte[] frames = {
+                0, 0, 0, 1, 0x7F,
+                -1, -1, -1, -1, 0, 0, 0, 3, 'b', 'a', 'd',
+                0, 0, 0, 8, 0x03, 0, 1, 0x01, 0, 0, 0, 7,
+                0, 0, 0, 9, 0x03};
+        Path in = write("in.bin", frames);
+        Path out = dir.resolve("out.jsonl");
+
+        FileConverter.Result result = new FileConverter(service, 2, 4).decodeFile(in, out);
+
+        String[] lines = Files.readString(out).split("\n");
+        assertEquals(4, result.getItems());
+        assertEquals(3, result.getErrors());
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("{\"item\": 0, \"error\": "), lines[0]);
+        assertEquals("{\"item\": 1, \"error\": \"bad\"}", lines[1]);
+        assertEquals("[7]", lines[2]);
+        assertEquals("{\"item\": 3, \"error\": \"Truncated frame: expected 9 bytes, got 1\"}", lines[3]);
+
+        assertThrows(IllegalArgumentException.class, () -> new FileConverter(service, 1).decodeFile(in, in));
+    }
+
+    private Path write(String name, byte[] bytes) throws IOException {
+        Path path = dir.resolve(name);
+        Files.write(path, bytes);
+        return path;
+    }
+}
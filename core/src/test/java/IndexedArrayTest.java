@@ -0,0 +1,180 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.decoder.DataInputReader;
+import org.pranavt84.decoder.DataInputValidator;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.decoder.IncrementalDataInputDecoder;
+import org.pranavt84.decoder.InvalidInputException;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.json.BinaryToJsonTranscoder;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.model.DataInputView;
+import org.pranavt84.type.CodecRegistry;
+import org.pranavt84.type.InputType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedArrayTest {
+
+    private static final DecoderConfig WIDE = new DecoderConfig().setMaxArraySize(0xFFFF);
+
+    @Test
+    void testLayout() {
+        DataInput input = new DataInput();
+        input.add(1);
+        input.add("ab");
+        byte[] encoded = new DataInputEncoder(CodecRegistry.getDefault(), new EncoderConfig().setIndexMinSize(0))
+                .encode(input);
+        byte[] expected = {
+                0x0E, 0, 2, 0, 0, 0, 12, 0, 0, 0, 0, 0, 0, 0, 5,
+                0x01, 0, 0, 0, 1,
+                0x02, 0, 0, 0, 2, 'a', 'b'
+        };
+        assertArrayEquals(expected, encoded);
+        assertEquals(input.toString(), new DataInputDecoder().decode(encoded).toString());
+
+        // Below the threshold the message is left plain
+        EncoderConfig large = new EncoderConfig().setIndexMinSize(1000);
+        assertEquals(InputType.DATA_INPUT.getValue(),
+                new DataInputEncoder(CodecRegistry.getDefault(), large).encode(input)[0]);
+        assertThrows(IllegalArgumentException.class, () -> new EncoderConfig().setIndexMinSize(-2));
+    }
+
+    @Test
+    void testEveryDecoderReadsIndexedArrays() {
+        DataInput input = tree(new Random(11), 0);
+        String json = json(new DataInputEncoder(CodecRegistry.getDefault(), new EncoderConfig()).encode(input));
+
+        for (int minSize : new int[]{0, 64, 2048}) {
+            for (boolean features : new boolean[]{false, true}) {
+                EncoderConfig config = new EncoderConfig().setIndexMinSize(minSize)
+                        .setStringDictionary(features).setVarInts(features).setPackedArrays(features);
+                byte[] encoded = new DataInputEncoder(CodecRegistry.getDefault(), config).encode(input);
+                String label = "minSize " + minSize + ", features " + features;
+
+                DataInputValidator.validate(encoded, 0, encoded.length, WIDE, CodecRegistry.getDefault());
+                assertEquals(input.toString(), new DataInputDecoder(CodecRegistry.getDefault(), WIDE)
+                        .decode(encoded).toString(), label);
+                for (int parallel : new int[]{1, 256, 1 << 20}) {
+                    DecoderConfig split = new DecoderConfig().setMaxArraySize(0xFFFF).setParallelMinSize(parallel);
+                    assertEquals(input.toString(), new DataInputDecoder(CodecRegistry.getDefault(), split)
+                            .decode(encoded).toString(), label + ", parallel " + parallel);
+                }
+                assertEquals(input.toString(), new DataInputView(encoded).toDataInput().toString(), label);
+                assertEquals(json, json(encoded), label);
+
+                // One byte at a time, so every header state is resumed
+                List<DataInput> messages = new ArrayList<>();
+                IncrementalDataInputDecoder incremental = IncrementalDataInputDecoder.forMessages(messages::add, WIDE);
+                for (byte b : encoded) {
+                    incremental.feed(new byte[]{b}, 0, 1);
+                }
+                incremental.finish();
+                assertEquals(List.of(input.toString()), List.of(messages.get(0).toString()), label);
+            }
+        }
+    }
+
+    @Test
+    void testRandomAccessAndSkipping() {
+        DataInput input = new DataInput();
+        for (int i = 0; i < 100; i++) {
+            DataInput row = new DataInput();
+            row.add("row-" + i);
+            row.add(i);
+            input.add(row);
+        }
+        input.add("last");
+        byte[] encoded = new DataInputEncoder(CodecRegistry.getDefault(), new EncoderConfig().setIndexMinSize(0))
+                .encode(input);
+
+        DataInputView view = new DataInputView(encoded);
+        assertEquals("row-73", view.getArray(73).getString(0));
+        assertEquals(73, view.getArray(73).getInt(1));
+        assertEquals("last", view.getString(100));
+        assertEquals(encoded.length, view.encodedLength());
+
+        DataInputReader reader = new DataInputReader(encoded);
+        assertEquals(101, reader.enterArray());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(InputType.INDEXED_ARRAY, reader.nextType());
+            reader.skip();
+        }
+        assertEquals("last", reader.readString());
+        reader.exitArray();
+        assertEquals(encoded.length, reader.position());
+    }
+
+    @Test
+    void testValidatorChecksTheIndex() {
+        DataInput input = new DataInput();
+        input.add(1);
+        input.add("ab");
+        byte[] encoded = new DataInputEncoder(CodecRegistry.getDefault(), new EncoderConfig().setIndexMinSize(0))
+                .encode(input);
+
+        byte[] badOffset = encoded.clone();
+        badOffset[14] = 4;
+        assertEquals(11, assertThrows(InvalidInputException.class,
+                () -> DataInputValidator.validate(badOffset, 0, badOffset.length)).getPosition());
+
+        byte[] shortSize = encoded.clone();
+        shortSize[6] = 11;
+        assertThrows(InvalidInputException.class, () -> new DataInputDecoder().decode(shortSize));
+
+        byte[] longSize = encoded.clone();
+        longSize[6] = 13;
+        assertEquals(0, assertThrows(InvalidInputException.class,
+                () -> DataInputValidator.validate(longSize, 0, longSize.length)).getPosition());
+    }
+
+    private static String json(byte[] encoded) {
+        ByteSink out = new ByteSink();
+        BinaryToJsonTranscoder.transcode(encoded, 0, encoded.length, out, WIDE);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    /** Rows of mixed values, some nested, with a few large strings so the byte sizes vary a lot. */
+    private static DataInput tree(Random random, int depth) {
+        DataInput node = new DataInput();
+        int count = depth == 0 ? 60 : random.nextInt(10);
+        for (int i = 0; i < count; i++) {
+            switch (random.nextInt(depth < 3 ? 8 : 6)) {
+                case 0:
+                    node.add("é€😀 ".repeat(random.nextInt(200)));
+                    break;
+                case 1:
+                    node.add("row-" + random.nextInt(10));
+                    break;
+                case 2:
+                    node.add(random.nextLong());
+                    break;
+                case 3:
+                    node.add(random.nextBoolean() ? null : Boolean.FALSE);
+                    break;
+                case 4:
+                case 5:
+                    node.add(random.nextInt(1000));
+                    break;
+                default:
+                    node.add(tree(random, depth + 1));
+                    break;
+            }
+        }
+        if (depth == 1) {
+            DataInput ints = new DataInput();
+            for (int i = 0; i < 50; i++) {
+                ints.add(random.nextInt());
+            }
+            node.add(ints);
+        }
+        return node;
+    }
+}
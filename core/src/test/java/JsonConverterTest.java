@@ -0,0 +1,168 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.controller.JsonConverter;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.encode.EncodeInt32;
+import org.pranavt84.encode.EncodeString;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.json.BinaryToJsonTranscoder;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.json.JsonReader;
+import org.pranavt84.json.JsonToBinaryTranscoder;
+import org.pranavt84.json.JsonToBinaryWriter;
+import org.pranavt84.model.DataInput;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonConverterTest {
+
+    @Test
+    void testParseNested() {
+        DataInput parsed = JsonConverter.parseJsonInput("[\"foo\", [\"bar\", 42], [], -7]");
+
+        assertEquals(4, parsed.getElements().size());
+        assertEquals("foo", parsed.getElements().get(0));
+
+        DataInput nested = (DataInput) parsed.getElements().get(1);
+        assertEquals("bar", nested.getElements().get(0));
+        assertEquals(42, nested.getElements().get(1));
+
+        assertEquals(0, ((DataInput) parsed.getElements().get(2)).getElements().size());
+        assertEquals(-7, parsed.getElements().get(3));
+    }
+
+    @Test
+    void testParseWhitespaceAndEscapes() {
+        String json = " \n[ \"a\\\"b\\\\c\\/d\" ,\t\"\\u00e9\\u6f22\\ud83c\\udf1f\",\r\n\"\\n\\t\\b\\f\\r\" ] \n";
+        DataInput parsed = JsonConverter.parseJsonInput(json);
+
+        assertEquals("a\"b\\c/d", parsed.getElements().get(0));
+        assertEquals("é漢🌟", parsed.getElements().get(1));
+        assertEquals("\n\t\b\f\r", parsed.getElements().get(2));
+    }
+
+    @Test
+    void testParseFromStream() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 1000; i++) {
+            json.append(i == 0 ? "" : ",").append("[\"é漢字🌟\", ").append(i).append("]");
+        }
+        json.append("]");
+
+        DataInput parsed = JsonConverter.parseJsonInput(
+                new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1000, parsed.getElements().size());
+        DataInput last = (DataInput) parsed.getElements().get(999);
+        assertEquals("é漢字🌟", last.getElements().get(0));
+        assertEquals(999, last.getElements().get(1));
+    }
+
+    @Test
+    void testParseRejectsMalformedInput() {
+        String[] invalid = {"", "{}", "[1,]", "[1 2]", "[\"abc]", "[1]]", "[tru]", "[9223372036854775808]", "[1.]", "[NaN]", "[\"\\x\"]"};
+
+        for (String json : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> JsonConverter.parseJsonInput(json), json);
+        }
+    }
+
+    @Test
+    void testSerializeRoundTrip() {
+        DataInput nested = new DataInput();
+        nested.add("line\nbreak \"quoted\" \u0001");
+        nested.add(Integer.MIN_VALUE);
+
+        DataInput root = new DataInput();
+        root.add("é漢字🌟");
+        root.add(nested);
+
+        String json = JsonConverter.dataInputToJson(root);
+
+        assertEquals("[\"é漢字🌟\", [\"line\\nbreak \\\"quoted\\\" \\u0001\", -2147483648]]", json);
+        assertEquals(root.toString(), JsonConverter.parseJsonInput(json).toString());
+    }
+
+    @Test
+    void testTranscodersMatchTreePath() throws IOException {
+        DataInputEncoder encoder = new DataInputEncoder(new EncodeString(), new EncodeInt32());
+        String[] inputs = {
+                "[]",
+                "[\"foo\", [\"bar\", 42]]",
+                "[[[[]]], -2147483648, 2147483647, 0, \"\"]",
+                "[\"é漢字🌟\", \"tab\\there \\\"q\\\" \\u0001 \\\\\", [1, [2, [3]]]]"
+        };
+
+        for (String json : inputs) {
+            DataInput tree = JsonConverter.parseJsonInput(json);
+            byte[] expected = encoder.encode(tree);
+
+            ByteSink binary = new ByteSink();
+            JsonToBinaryTranscoder.transcode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), binary);
+            assertArrayEquals(expected, binary.toByteArray(), json);
+
+            ByteSink text = new ByteSink();
+            BinaryToJsonTranscoder.transcode(expected, text);
+            assertEquals(JsonConverter.dataInputToJson(tree), new String(text.toByteArray(), StandardCharsets.UTF_8), json);
+        }
+    }
+
+    @Test
+    void testTranscoderRejectsArraysTooLongForTheCount() {
+        StringBuilder json = new StringBuilder("[0");
+        for (int i = 1; i <= 0xFFFF; i++) {
+            json.append(",0");
+        }
+        json.append(']');
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> JsonToBinaryTranscoder.transcode(
+                new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)), new ByteSink()));
+        assertTrue(e.getMessage().contains("at most 65535"), e.getMessage());
+    }
+
+    @Test
+    void testStreamingWriterMatchesTranscoder() throws IOException {
+        char[] chars = new char[100_000];
+        java.util.Arrays.fill(chars, 'é');
+        String[] inputs = {
+                "[]",
+                "[\"foo\", [\"bar\", 42], [], -7]",
+                "[1, -2147483649, 9223372036854775807, 1.5, -2.5E-10, true, false, null, [\"x\", 7]]",
+                "[\"é漢字🌟\", \"a\\ud800b🌟\", [[[\"" + new String(chars) + "\"]]], 300]"
+        };
+
+        for (EncoderConfig config : new EncoderConfig[] {new EncoderConfig(), new EncoderConfig().setVarInts(true)}) {
+            for (String json : inputs) {
+                ByteSink expected = new ByteSink();
+                JsonToBinaryTranscoder.transcode(new JsonReader(new StringReader(json)), expected, config);
+
+                JsonToBinaryWriter writer = JsonToBinaryWriter.prepare(() -> new StringReader(json), config, null);
+                assertEquals(expected.size(), writer.size(), json);
+
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                writer.writeTo(out, 16);
+                assertArrayEquals(expected.toByteArray(), out.toByteArray(), json);
+
+                ByteArrayOutputStream channelOut = new ByteArrayOutputStream();
+                writer.writeTo(Channels.newChannel(channelOut));
+                assertArrayEquals(expected.toByteArray(), channelOut.toByteArray(), json);
+            }
+        }
+
+        // Rejects up front what the buffered path rejects, and leaves packing to it
+        DecoderConfig limits = new DecoderConfig().setMaxDepth(2).setMaxMessageSize(16);
+        for (String json : new String[] {"[[[]]]", "[\"too long for the message\"]", "[1, 2", "{}"}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> JsonToBinaryWriter.prepare(() -> new StringReader(json), new EncoderConfig(), limits), json);
+        }
+        assertFalse(JsonToBinaryWriter.supports(new EncoderConfig().setPackedArrays(true)));
+        assertFalse(JsonToBinaryWriter.supports(new EncoderConfig().setCompressMinSize(0)));
+    }
+}
@@ -0,0 +1,143 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.decoder.InvalidInputException;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.json.JsonPath;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.service.DataInputService;
+import org.pranavt84.service.ServiceFactory;
+import org.pranavt84.type.CodecRegistry;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonPathTest {
+
+    /** ["head", [1, 2, 3], [["a", "b"], ["c", "d"]], 7, ["x", "y", "x"], "tail \"quoted\""] */
+    private static DataInput input() {
+        DataInput input = new DataInput();
+        input.add("head");
+        DataInput ints = new DataInput();
+        ints.add(1);
+        ints.add(2);
+        ints.add(3);
+        input.add(ints);
+        DataInput pairs = new DataInput();
+        for (String[] pair : new String[][]{{"a", "b"}, {"c", "d"}}) {
+            DataInput row = new DataInput();
+            row.add(pair[0]);
+            row.add(pair[1]);
+            pairs.add(row);
+        }
+        input.add(pairs);
+        input.add(7);
+        DataInput texts = new DataInput();
+        texts.add("x");
+        texts.add("y");
+        texts.add("x");
+        input.add(texts);
+        input.add("tail \"quoted\"");
+        return input;
+    }
+
+    @Test
+    void testSelectionsAreTheSameForEveryWireForm() {
+        List<EncoderConfig> configs = List.of(
+                new EncoderConfig(),
+                new EncoderConfig().setPackedArrays(true),
+                new EncoderConfig().setStringDictionary(true).setVarInts(true),
+                new EncoderConfig().setIndexMinSize(0),
+                new EncoderConfig().setIndexMinSize(0).setPackedArrays(true).setStringDictionary(true),
+                new EncoderConfig().setCompressMinSize(0).setCompressMaxRatio(1.0));
+        for (EncoderConfig config : configs) {
+            DataInputService service = new DataInputService(
+                    new DataInputEncoder(CodecRegistry.getDefault(), config), new DataInputDecoder());
+            byte[] encoded = service.encodeBinary(input());
+            String label = config.toString();
+
+            assertEquals("\"head\"", extract(service, encoded, "$[0]"), label);
+            assertEquals("2", extract(service, encoded, "$[1][1]"), label);
+            assertEquals("3", extract(service, encoded, "$[1][-1]"), label);
+            assertEquals("\"c\"", extract(service, encoded, "$[2][1][0]"), label);
+            assertEquals("[\"c\", \"d\"]", extract(service, encoded, "$[2][1]"), label);
+            assertEquals("\"y\"", extract(service, encoded, "$[4][1]"), label);
+            assertEquals("\"tail \\\"quoted\\\"\"", extract(service, encoded, "$[-1]"), label);
+            assertEquals("[\"a\", \"c\"]", extract(service, encoded, "$[2][*][0]"), label);
+            assertEquals("[2, 3]", extract(service, encoded, "$[1][1:]"), label);
+            assertEquals("[\"x\", \"y\"]", extract(service, encoded, "$[4][:-1]"), label);
+            // Elements that are not arrays, or too short, are left out of indefinite results
+            assertEquals("[2, [\"c\", \"d\"], \"y\"]", extract(service, encoded, "$[*][1]"), label);
+            assertEquals("[3, \"x\"]", extract(service, encoded, "$[*][2]"), label);
+            assertEquals("[]", extract(service, encoded, "$[3:3]"), label);
+            assertEquals("[[1, 2, 3]]", extract(service, encoded, "$[1:2]"), label);
+            assertEquals(extract(service, encoded, "$"), "[\"head\", [1, 2, 3], [[\"a\", \"b\"], [\"c\", \"d\"]], 7, "
+                    + "[\"x\", \"y\", \"x\"], \"tail \\\"quoted\\\"\"]", label);
+        }
+    }
+
+    @Test
+    void testDefinitePathsMustMatch() {
+        DataInputService service = new DataInputService(new DataInputEncoder(CodecRegistry.getDefault(),
+                new EncoderConfig()), new DataInputDecoder());
+        byte[] encoded = service.encodeBinary(input());
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> extract(service, encoded, "$[9]"));
+        assertTrue(e.getMessage().contains("$ has 6 elements"), e.getMessage());
+        e = assertThrows(IllegalArgumentException.class, () -> extract(service, encoded, "$[0][0]"));
+        assertTrue(e.getMessage().contains("$[0] is STRING"), e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> extract(service, encoded, "$[1][0][0]"));
+
+    }
+
+    @Test
+    void testOnlyWhatIsWrittenIsValidatedInFull() {
+        DataInputService service = new DataInputService(new DataInputEncoder(CodecRegistry.getDefault(),
+                new EncoderConfig()), new DataInputDecoder());
+        // ["ok", <0xC0, not UTF-8>]
+        byte[] encoded = {3, 0, 2, 2, 0, 0, 0, 2, 'o', 'k', 2, 0, 0, 0, 1, (byte) 0xC0};
+
+        assertEquals("\"ok\"", extract(service, encoded, "$[0]"));
+        assertEquals(15, assertThrows(InvalidInputException.class,
+                () -> extract(service, encoded, "$[1]")).getPosition());
+        ByteSink out = new ByteSink();
+        assertThrows(InvalidInputException.class, () -> service.extractToJson(encoded, "$[*]", out));
+        assertEquals(0, out.size());
+
+        // Arrays along the path are held to the limits, and so is a selected one
+        byte[] nested = service.encodeBinary(input());
+        DataInputService narrow = ServiceFactory.createService(new EncoderConfig(),
+                new DecoderConfig().setMaxArraySize(6).setMaxDepth(2));
+        assertEquals("2", extract(narrow, nested, "$[1][1]"));
+        assertThrows(InvalidInputException.class, () -> extract(narrow, nested, "$[2]"));
+        assertThrows(InvalidInputException.class, () -> extract(narrow, nested, "$[2][0][0]"));
+        // $[2] nests too deep, but it is not on this path
+        assertEquals("\"head\"", extract(narrow, nested, "$[0]"));
+        DataInputService fewer = ServiceFactory.createService(new EncoderConfig(),
+                new DecoderConfig().setMaxArraySize(5));
+        assertThrows(InvalidInputException.class, () -> extract(fewer, nested, "$[0]"));
+    }
+
+    @Test
+    void testParse() {
+        assertTrue(JsonPath.parse("$[3][0]").isDefinite());
+        assertTrue(JsonPath.parse("$").isDefinite());
+        assertFalse(JsonPath.parse("$[*]").isDefinite());
+        assertFalse(JsonPath.parse("$[0][ 1 : -1 ]").isDefinite());
+        assertEquals("$[3][0]", JsonPath.parse("$[3][0]").toString());
+        for (String invalid : new String[]{"", "[0]", "$0", "$[", "$[a]", "$[1:2:3]", "$[]", "$.x", null}) {
+            assertThrows(IllegalArgumentException.class, () -> JsonPath.parse(invalid), invalid);
+        }
+    }
+
+    private static String extract(DataInputService service, byte[] encoded, String path) {
+        ByteSink out = new ByteSink();
+        service.extractToJson(encoded, path, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
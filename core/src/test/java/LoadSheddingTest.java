@@ -0,0 +1,61 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.controller.RestServer;
+import org.pranavt84.controller.ServerConfig;
+import org.pranavt84.logging.LogLevel;
+import org.pranavt84.service.ServiceFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.Socket;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadSheddingTest {
+
+    @Test
+    void testOverloadIsAnsweredWithoutReadingTheBody() throws Exception {
+        ServerConfig config = new ServerConfig().setPort(0).setThreads(1).setQueueCapacity(0)
+                .setLogLevel(LogLevel.OFF);
+        RestServer server = new RestServer(config, ServiceFactory.createService());
+        server.start();
+        try (Socket busy = new Socket("localhost", server.getPort())) {
+            // Admitted, then stuck on the only worker waiting for the rest of its body
+            send(busy, "POST /encode HTTP/1.1\r\nHost: localhost\r\nContent-Length: 100\r\n\r\n[1, ");
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (!server.getMetrics().toPrometheus().contains("codec_requests_in_flight 1")) {
+                assertTrue(System.nanoTime() < deadline, "The first request never started");
+                Thread.sleep(10);
+            }
+
+            try (Socket rejected = new Socket("localhost", server.getPort())) {
+                // Promises a body that never arrives: the 503 must not wait for it
+                rejected.setSoTimeout(5000);
+                send(rejected, "POST /decode HTTP/1.1\r\nHost: localhost\r\nContent-Length: 10000000\r\n\r\n");
+                String response = new String(rejected.getInputStream().readAllBytes(), StandardCharsets.ISO_8859_1)
+                        .toLowerCase(Locale.ROOT);
+                assertTrue(response.startsWith("http/1.1 503"), response);
+                assertTrue(response.contains("connection: close"), response);
+                assertTrue(response.contains("retry-after: 1"), response);
+            }
+
+            // Health checks do not queue behind codec requests
+            HttpURLConnection health = (HttpURLConnection) new URL("http://localhost:" + server.getPort()
+                    + "/health").openConnection();
+            health.setReadTimeout(5000);
+            assertEquals(200, health.getResponseCode());
+            assertTrue(server.getMetrics().toPrometheus().contains("Overloaded"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    private static void send(Socket socket, String request) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(request.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+}
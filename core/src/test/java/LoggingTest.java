@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.logging.CapturingInputStream;
+import org.pranavt84.logging.RequestSampler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggingTest {
+
+    @Test
+    void testSamplerRates() {
+        RequestSampler sampler = new RequestSampler(Map.of("encode", 0.0, "decode", 1.0, "extract", 0.25), 1.0);
+        int extracted = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(sampler.sample("encode"));
+            assertTrue(sampler.sample("decode"));
+            assertTrue(sampler.sample("health"));
+            if (sampler.sample("extract")) {
+                extracted++;
+            }
+        }
+        assertTrue(extracted > 2000 && extracted < 3000, "sampled " + extracted + " of 10000 at 0.25");
+
+        assertThrows(IllegalArgumentException.class, () -> new RequestSampler(Map.of("encode", 1.5), 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new RequestSampler(Map.of(), -0.1));
+        assertThrows(IllegalArgumentException.class, () -> new RequestSampler(Map.of(), Double.NaN));
+    }
+
+    @Test
+    void testCapturingInputStreamPassesThroughAndKeepsAPrefix() throws IOException {
+        byte[] body = "[\"héllo\", 1, 2, 3]".getBytes(StandardCharsets.UTF_8);
+        CapturingInputStream in = new CapturingInputStream(new ByteArrayInputStream(body), 6);
+
+        // Single bytes, then a bulk read across the end of the prefix
+        assertEquals('[', in.read());
+        assertEquals('"', in.read());
+        byte[] rest = in.readAllBytes();
+        assertEquals(body.length - 2, rest.length);
+        assertEquals(-1, in.read());
+
+        assertEquals("[\"hé" + "l... (" + (body.length - 6) + " more bytes)", in.describe());
+
+        CapturingInputStream whole = new CapturingInputStream(new ByteArrayInputStream(body), 100);
+        assertArrayEquals(body, whole.readAllBytes());
+        assertEquals("[\"héllo\", 1, 2, 3]", whole.describe());
+    }
+}
@@ -0,0 +1,50 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.Main;
+import org.pranavt84.controller.ServerConfig;
+import org.pranavt84.logging.LogLevel;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MainTest {
+
+    @Test
+    void testParseArgs() {
+        ServerConfig defaults = Main.parseArgs(new String[0]);
+        assertEquals(8080, defaults.getPort());
+        assertEquals(ServerConfig.ExecutionMode.PLATFORM, defaults.getExecutionMode());
+
+        ServerConfig config = Main.parseArgs(new String[]{"9090", "--executor=Dispatcher", "--threads=3",
+                "--queue=0", "--log-level=warn", "--log-sample=encode:0.5,*:0.1", "--packed-arrays=true",
+                "--index-min-size=512", "--max-depth=4", "--cache-size=1024"});
+        assertEquals(9090, config.getPort());
+        assertEquals(ServerConfig.ExecutionMode.DISPATCHER, config.getExecutionMode());
+        assertEquals(3, config.getThreads());
+        assertEquals(0, config.getQueueCapacity());
+        assertEquals(LogLevel.WARN, config.getLogLevel());
+        assertEquals(0.5, config.getLogSampleRates().get("encode"));
+        assertEquals(0.1, config.getLogDefaultSampleRate());
+        assertTrue(config.getEncoderConfig().isPackedArrays());
+        assertEquals(512, config.getEncoderConfig().getIndexMinSize());
+        assertEquals(4, config.getDecoderConfig().getMaxDepth());
+        assertEquals(1024, config.getCacheSize());
+    }
+
+    @Test
+    void testParseArgsRejectsBadInput() {
+        String[][] invalid = {
+                {"8080", "9090"},
+                {"--threads"},
+                {"--threads=0"},
+                {"--threads=many"},
+                {"--unknown=1"},
+                {"--executor=fibers"},
+                {"--log-sample=encode"},
+                {"--log-sample=encode:2"},
+                {"--varints=maybe"},
+                {"70000"}
+        };
+        for (String[] args : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> Main.parseArgs(args), String.join(" ", args));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.controller.MediaTypes;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaTypesTest {
+
+    private static final String BINARY = "application/octet-stream";
+    private static final String JSON = "application/json";
+
+    @Test
+    void testAcceptNegotiation() {
+        assertTrue(binary("application/octet-stream"));
+        assertTrue(binary("Application/Octet-Stream; charset=binary"));
+        assertTrue(binary("application/json;q=0.5, application/octet-stream"));
+        assertTrue(binary("application/octet-stream, application/json"));
+        assertTrue(binary("application/json;q=0, */*"));
+        assertTrue(binary("text/html", "application/octet-stream;q=0.1"));
+
+        assertFalse(binary());
+        assertFalse(binary("*/*"));
+        assertFalse(binary("application/*"));
+        assertFalse(binary("application/octet-stream;q=0"));
+        assertFalse(binary("application/octet-stream;q=0, */*"));
+        assertFalse(binary("application/json, application/octet-stream;q=0.9"));
+        assertFalse(binary("application/octet-stream;q=abc"));
+        assertFalse(binary("application/octet-streamed"));
+        assertFalse(binary("text/plain;format=application/octet-stream"));
+    }
+
+    @Test
+    void testContentType() {
+        assertTrue(MediaTypes.isType(List.of("application/octet-stream"), BINARY));
+        assertTrue(MediaTypes.isType(List.of(" APPLICATION/OCTET-STREAM ; foo=bar"), BINARY));
+        assertFalse(MediaTypes.isType(List.of("application/json; note=application/octet-stream"), BINARY));
+        assertFalse(MediaTypes.isType(List.of("application/octet-streams"), BINARY));
+        assertFalse(MediaTypes.isType(List.of(), BINARY));
+    }
+
+    private static boolean binary(String... accept) {
+        return MediaTypes.prefers(List.of(accept), BINARY, JSON);
+    }
+}
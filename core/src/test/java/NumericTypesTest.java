@@ -0,0 +1,148 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.controller.JsonConverter;
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.decoder.IncrementalDataInputDecoder;
+import org.pranavt84.encode.EncodeInt32;
+import org.pranavt84.encode.EncodeString;
+import org.pranavt84.encode.VarInt;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.model.DataInputView;
+import org.pranavt84.service.DataInputService;
+import org.pranavt84.type.InputType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumericTypesTest {
+
+    private final DataInputEncoder plain = new DataInputEncoder(new EncodeString(), new EncodeInt32());
+    private final DataInputEncoder compact = new DataInputEncoder(new EncodeString(), new EncodeInt32(),
+            new EncoderConfig().setVarInts(true));
+
+    @Test
+    void testVarIntRoundTrip() {
+        long[] values = {0, 1, -1, 63, -64, 64, 8191, -8192, Integer.MAX_VALUE, Integer.MIN_VALUE,
+                1L << 40, -(1L << 40), Long.MAX_VALUE, Long.MIN_VALUE};
+        byte[] buf = new byte[VarInt.MAX_LENGTH];
+        for (long value : values) {
+            int end = VarInt.write(value, buf, 0);
+            assertEquals(VarInt.encodedLength(value), end, Long.toString(value));
+            assertEquals(end, VarInt.end(buf, 0, buf.length));
+            assertEquals(value, VarInt.read(buf, 0));
+        }
+        assertEquals(1, VarInt.encodedLength(-64));
+        assertEquals(2, VarInt.encodedLength(64));
+
+        byte[] truncated = {(byte) 0x80, (byte) 0x80};
+        assertThrows(IllegalArgumentException.class, () -> VarInt.end(truncated, 0, truncated.length));
+    }
+
+    @Test
+    void testWideTypesKeepTheirBoxedType() {
+        DataInput input = mixed();
+        for (DataInputEncoder encoder : List.of(plain, compact)) {
+            byte[] encoded = encoder.encode(input);
+            assertEquals(encoder.encodedSize(input), encoded.length);
+
+            DataInput decoded = new DataInputDecoder().decode(encoded);
+            assertEquals(input.getElements().subList(0, 8), decoded.getElements().subList(0, 8));
+            assertEquals(input.toString(), decoded.toString());
+            assertEquals(input.toString(), new DataInputView(encoded).toDataInput().toString());
+        }
+    }
+
+    @Test
+    void testVarIntsShrinkSmallIntegers() {
+        DataInput input = new DataInput();
+        for (int i = 0; i < 1000; i++) {
+            input.add(i % 100);
+        }
+        byte[] raw = plain.encode(input);
+        byte[] encoded = compact.encode(input);
+
+        assertTrue(encoded.length < raw.length / 2, encoded.length + " vs " + raw.length);
+        assertEquals(InputType.VARINT.getValue(), encoded[3]);
+        assertEquals(input.toString(), new DataInputDecoder().decode(encoded).toString());
+
+        DataInputView view = new DataInputView(encoded);
+        assertEquals(InputType.INT32, view.typeAt(42));
+        assertEquals(42, view.getInt(42));
+        assertEquals(42L, view.getLong(42));
+    }
+
+    @Test
+    void testJsonRoundTrip() throws IOException {
+        String json = "[1, -2147483649, 9223372036854775807, 1.5, -2.5E-10, true, false, null, [\"x\", 7]]";
+        DataInput parsed = JsonConverter.parseJsonInput(json);
+        assertEquals(Long.valueOf(-2147483649L), parsed.getElements().get(1));
+        assertEquals(1.5, parsed.getElements().get(3));
+        assertEquals(Boolean.TRUE, parsed.getElements().get(5));
+        assertNull(parsed.getElements().get(7));
+        assertEquals(json, JsonConverter.dataInputToJson(parsed));
+
+        for (DataInputEncoder encoder : List.of(plain, compact)) {
+            DataInputService service = new DataInputService(encoder, new DataInputDecoder());
+            ByteSink encoded = new ByteSink();
+            service.encodeJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), encoded);
+            assertArrayEquals(encoder.encode(parsed), encoded.toByteArray());
+
+            ByteSink decoded = new ByteSink();
+            service.decodeToJson(encoded.toByteArray(), decoded);
+            assertEquals(json, new String(decoded.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testNonFiniteDoublesBecomeJsonNull() {
+        DataInput input = new DataInput();
+        input.add(Double.NaN);
+        input.add(Double.NEGATIVE_INFINITY);
+
+        ByteSink json = new ByteSink();
+        new DataInputService(plain, new DataInputDecoder()).decodeToJson(plain.encode(input), json);
+        assertEquals("[null, null]", new String(json.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals("[null, null]", JsonConverter.dataInputToJson(input));
+        assertTrue(Double.isNaN((Double) new DataInputDecoder().decode(plain.encode(input)).getElements().get(0)));
+    }
+
+    @Test
+    void testIncrementalDecoder() {
+        DataInput input = mixed();
+        byte[] encoded = compact.encode(input);
+
+        List<DataInput> messages = new ArrayList<>();
+        IncrementalDataInputDecoder decoder = IncrementalDataInputDecoder.forMessages(messages::add);
+        for (int i = 0; i < encoded.length; i++) {
+            decoder.feed(encoded, i, 1);
+        }
+        decoder.finish();
+
+        assertEquals(1, messages.size());
+        assertEquals(input.toString(), messages.get(0).toString());
+    }
+
+    private static DataInput mixed() {
+        DataInput input = new DataInput();
+        input.add(5);
+        input.add(Integer.MIN_VALUE);
+        input.add(5L);
+        input.add(1L << 40);
+        input.add(Long.MIN_VALUE);
+        input.add(-0.25);
+        input.add(true);
+        input.add(null);
+        DataInput nested = new DataInput();
+        nested.add(false);
+        nested.add("text");
+        input.add(nested);
+        return input;
+    }
+}
@@ -0,0 +1,195 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.controller.JsonConverter;
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.decoder.DataInputReader;
+import org.pranavt84.decoder.IncrementalDataInputDecoder;
+import org.pranavt84.encode.EncodeInt32;
+import org.pranavt84.encode.EncodeString;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.model.DataInputView;
+import org.pranavt84.service.DataInputService;
+import org.pranavt84.type.InputType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedArrayTest {
+
+    private final DataInputEncoder plain = new DataInputEncoder(new EncodeString(), new EncodeInt32());
+    private final DataInputEncoder packed = encoder(new EncoderConfig().setPackedArrays(true));
+
+    @Test
+    void testIntArrayIsPacked() {
+        DataInput input = new DataInput();
+        for (int i = 0; i < 1000; i++) {
+            input.add(i * 7919 - 500_000);
+        }
+        byte[] encoded = packed.encode(input);
+
+        assertEquals(InputType.PACKED_INT32.getValue(), encoded[0]);
+        assertEquals(3 + 4 * 1000, encoded.length);
+        assertEquals(plain.encode(input).length - 1000, encoded.length);
+        assertEquals(input.toString(), new DataInputDecoder().decode(encoded).toString());
+
+        int[] values = new DataInputReader(encoded).readIntArray();
+        assertEquals(1000, values.length);
+        assertEquals(7 * 7919 - 500_000, values[7]);
+
+        DataInputView view = new DataInputView(encoded);
+        assertTrue(view.isPacked());
+        assertEquals(InputType.INT32, view.typeAt(999));
+        assertEquals(999 * 7919 - 500_000, view.getInt(999));
+        assertArrayEquals(values, view.toIntArray());
+        assertEquals(encoded.length, view.encodedLength());
+        assertThrows(IllegalArgumentException.class, () -> view.getString(0));
+    }
+
+    @Test
+    void testNestedArraysAndStrings() {
+        DataInput input = new DataInput();
+        input.add("header");
+        DataInput names = new DataInput();
+        names.add("é漢字🌟");
+        names.add("");
+        names.add("quote \" and \n");
+        input.add(names);
+        DataInput ids = new DataInput();
+        ids.add(Integer.MIN_VALUE);
+        ids.add(Integer.MAX_VALUE);
+        input.add(ids);
+        input.add(new DataInput());
+        input.add(42);
+
+        byte[] encoded = packed.encode(input);
+        assertEquals(packed.encodedSize(input), encoded.length);
+        assertEquals(input.toString(), new DataInputDecoder().decode(encoded).toString());
+
+        DataInputView view = new DataInputView(encoded);
+        assertEquals(InputType.DATA_INPUT, view.typeAt(1));
+        DataInputView packedNames = view.getArray(1);
+        assertTrue(packedNames.isPacked());
+        assertEquals("quote \" and \n", packedNames.getString(2));
+        assertArrayEquals(new String[]{"é漢字🌟", "", "quote \" and \n"}, packedNames.toStringArray());
+        assertArrayEquals(new int[]{Integer.MIN_VALUE, Integer.MAX_VALUE}, view.getArray(2).toIntArray());
+        assertFalse(view.getArray(3).isPacked());
+        assertEquals(input.toString(), view.toDataInput().toString());
+
+        ByteSink json = new ByteSink();
+        new DataInputService(packed, new DataInputDecoder()).decodeToJson(encoded, json);
+        assertEquals(JsonConverter.dataInputToJson(input), new String(json.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testJsonPathMatchesEncoder() throws IOException {
+        String json = "[[1, 2, 3], [\"a\", \"\", \"c\"], [100000, 200000], [1, \"mixed\"], [1, 3000000000], []]";
+        DataInput parsed = JsonConverter.parseJsonInput(json);
+
+        for (EncoderConfig config : List.of(new EncoderConfig().setPackedArrays(true),
+                new EncoderConfig().setPackedArrays(true).setVarInts(true))) {
+            DataInputEncoder encoder = encoder(config);
+            DataInputService service = new DataInputService(encoder, new DataInputDecoder());
+
+            ByteSink encoded = new ByteSink();
+            service.encodeJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), encoded);
+            assertArrayEquals(encoder.encode(parsed), encoded.toByteArray(), config.toString());
+
+            ByteSink decoded = new ByteSink();
+            service.decodeToJson(encoded.toByteArray(), decoded);
+            assertEquals(json, new String(decoded.toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void testVarIntsWinForSmallInts() {
+        DataInputEncoder both = encoder(new EncoderConfig().setPackedArrays(true).setVarInts(true));
+        DataInput small = new DataInput();
+        DataInput large = new DataInput();
+        for (int i = 0; i < 100; i++) {
+            small.add(i % 10);
+            large.add(i << 24);
+        }
+
+        assertEquals(InputType.DATA_INPUT.getValue(), both.encode(small)[0]);
+        assertEquals(InputType.PACKED_INT32.getValue(), both.encode(large)[0]);
+    }
+
+    @Test
+    void testIncrementalDecoder() {
+        DataInput input = new DataInput();
+        DataInput strings = new DataInput();
+        strings.add("x");
+        strings.add("");
+        strings.add("");
+        input.add(strings);
+        DataInput ints = new DataInput();
+        ints.add(-1);
+        ints.add(65536);
+        input.add(ints);
+        input.add("tail");
+        byte[] message = packed.encode(input);
+        byte[] stream = new byte[message.length * 2];
+        System.arraycopy(message, 0, stream, 0, message.length);
+        System.arraycopy(message, 0, stream, message.length, message.length);
+
+        List<DataInput> messages = new ArrayList<>();
+        IncrementalDataInputDecoder decoder = IncrementalDataInputDecoder.forMessages(messages::add);
+        for (int i = 0; i < stream.length; i++) {
+            decoder.feed(stream, i, 1);
+        }
+        decoder.finish();
+
+        assertEquals(2, messages.size());
+        assertEquals(input.toString(), messages.get(0).toString());
+        assertEquals(input.toString(), messages.get(1).toString());
+    }
+
+    @Test
+    void testWorksWithStringDictionary() {
+        DataInputEncoder both = encoder(new EncoderConfig().setPackedArrays(true).setStringDictionary(true));
+        DataInput input = new DataInput();
+        for (int i = 0; i < 20; i++) {
+            DataInput row = new DataInput();
+            row.add("eu-west-1");
+            row.add(i);
+            input.add(row);
+        }
+        DataInput tags = new DataInput();
+        tags.add("a");
+        tags.add("b");
+        input.add(tags);
+
+        byte[] encoded = both.encode(input);
+        assertEquals(InputType.STRING_TABLE.getValue(), encoded[0]);
+        assertEquals(input.toString(), new DataInputDecoder().decode(encoded).toString());
+        assertArrayEquals(new String[]{"a", "b"}, new DataInputView(encoded).getArray(20).toStringArray());
+    }
+
+    @Test
+    void testTruncatedPackedArrayRejected() {
+        DataInput input = new DataInput();
+        input.add("abc");
+        input.add("def");
+        byte[] encoded = packed.encode(input);
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+
+        assertThrows(IllegalArgumentException.class, () -> new DataInputDecoder().decode(truncated));
+        assertThrows(IllegalArgumentException.class, () -> new DataInputView(truncated).getString(0));
+
+        byte[] badLength = encoded.clone();
+        badLength[3] = (byte) 0x80;
+        assertThrows(IllegalArgumentException.class, () -> new DataInputDecoder().decode(badLength));
+    }
+
+    private static DataInputEncoder encoder(EncoderConfig config) {
+        return new DataInputEncoder(new EncodeString(), new EncodeInt32(), config);
+    }
+}
@@ -0,0 +1,169 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.decoder.DecoderConfig;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.encode.EncodeType;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.model.DecodeResult;
+import org.pranavt84.type.CodecRegistry;
+
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelEncodingTest {
+
+    private static final int LATCH_TAG = 0x22;
+
+    @Test
+    void testOutputMatchesSequential() {
+        Random random = new Random(7);
+        DataInput input = tree(random, 0);
+
+        for (int minSize : new int[]{1, 64, 4096, 1 << 20, Integer.MAX_VALUE}) {
+            for (boolean features : new boolean[]{false, true}) {
+                EncoderConfig sequential = config(features);
+                EncoderConfig parallel = config(features).setParallelMinSize(minSize);
+                byte[] expected = new DataInputEncoder(CodecRegistry.getDefault(), sequential).encode(input);
+                byte[] actual = new DataInputEncoder(CodecRegistry.getDefault(), parallel).encode(input);
+                assertArrayEquals(expected, actual, "minSize " + minSize + ", features " + features);
+            }
+        }
+
+        DataInputEncoder encoder = new DataInputEncoder(CodecRegistry.getDefault(),
+                new EncoderConfig().setParallelMinSize(256));
+        DecoderConfig unlimited = new DecoderConfig().setMaxArraySize(0xFFFF);
+        assertEquals(input.toString(),
+                new DataInputDecoder(CodecRegistry.getDefault(), unlimited).decode(encoder.encode(input)).toString());
+    }
+
+    @Test
+    void testErrorsFromWorkersReachTheCaller() {
+        DataInput input = new DataInput();
+        for (int i = 0; i < 50; i++) {
+            DataInput row = new DataInput();
+            row.add("x".repeat(100));
+            row.add(i == 37 ? new Object() : i);
+            input.add(row);
+        }
+        DataInputEncoder encoder = new DataInputEncoder(CodecRegistry.getDefault(),
+                new EncoderConfig().setParallelMinSize(64));
+        assertThrows(IllegalArgumentException.class, () -> encoder.encode(input));
+        assertThrows(IllegalArgumentException.class, () -> new EncoderConfig().setParallelMinSize(0));
+    }
+
+    @Test
+    void testLargeSubtreesAreWrittenAsSeparateTasks() throws Exception {
+        // Two leaf arrays above the threshold: each holds a latch that only opens once both are being written
+        CountDownLatch siblings = new CountDownLatch(2);
+        DataInput input = new DataInput();
+        input.add(leaf("a".repeat(4096), siblings));
+        input.add(leaf("b".repeat(4096), siblings));
+        assertEncodedConcurrently(input);
+
+        // One long leaf array: its element ranges are written by separate tasks
+        CountDownLatch ranges = new CountDownLatch(2);
+        DataInput wide = new DataInput();
+        wide.add(ranges);
+        for (int i = 0; i < 64; i++) {
+            wide.add("row-" + i + "-" + "x".repeat(100));
+        }
+        wide.add(ranges);
+        DataInput root = new DataInput();
+        root.add(wide);
+        assertEncodedConcurrently(root);
+    }
+
+    /** Encodes on a pool with spare workers; a latch element fails the encoding if it waits in vain. */
+    private static void assertEncodedConcurrently(DataInput input) throws Exception {
+        CodecRegistry registry = CodecRegistry.builtIn().register(LATCH_TAG, CountDownLatch.class,
+                new EncodeType<CountDownLatch>() {
+                    @Override
+                    public int encodedSize(CountDownLatch latch) {
+                        return 1;
+                    }
+
+                    @Override
+                    public int encodeTo(CountDownLatch latch, byte[] dest, int offset) {
+                        latch.countDown();
+                        try {
+                            if (!latch.await(10, TimeUnit.SECONDS)) {
+                                throw new IllegalStateException("Latch elements were written one after another");
+                            }
+                        } catch (InterruptedException e) {
+                            throw new IllegalStateException(e);
+                        }
+                        dest[offset] = (byte) LATCH_TAG;
+                        return offset + 1;
+                    }
+                }, (bytes, index) -> new DecodeResult(null, index + 1));
+        DataInputEncoder encoder = new DataInputEncoder(registry, new EncoderConfig().setParallelMinSize(1024));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            byte[] encoded = pool.submit(() -> encoder.encode(input)).get();
+            assertEquals(encoder.encodedSize(input), encoded.length);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static DataInput leaf(String text, CountDownLatch latch) {
+        DataInput leaf = new DataInput();
+        leaf.add(text);
+        leaf.add(latch);
+        return leaf;
+    }
+
+    private static EncoderConfig config(boolean features) {
+        return new EncoderConfig().setPackedArrays(features).setVarInts(features).setStringDictionary(features);
+    }
+
+    /** Irregular tree: a few wide levels of mixed elements, some subtrees large and some tiny. */
+    private static DataInput tree(Random random, int depth) {
+        DataInput node = new DataInput();
+        int count = depth == 0 ? 40 : random.nextInt(12);
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(depth < 3 ? 10 : 8);
+            switch (kind) {
+                case 0:
+                    node.add("é€😀 ".repeat(random.nextInt(500)));
+                    break;
+                case 1:
+                    node.add("row-" + random.nextInt(10));
+                    break;
+                case 2:
+                    node.add(random.nextLong());
+                    break;
+                case 3:
+                    node.add(random.nextDouble());
+                    break;
+                case 4:
+                    node.add(random.nextBoolean() ? null : Boolean.TRUE);
+                    break;
+                case 5:
+                    node.add(new UUID(random.nextLong(), random.nextLong()));
+                    break;
+                case 6:
+                case 7:
+                    node.add(random.nextInt(1000));
+                    break;
+                default:
+                    node.add(tree(random, depth + 1));
+                    break;
+            }
+        }
+        if (depth == 1) {
+            DataInput ints = new DataInput();
+            for (int i = 0; i < 200; i++) {
+                ints.add(random.nextInt());
+            }
+            node.add(ints);
+        }
+        return node;
+    }
+}
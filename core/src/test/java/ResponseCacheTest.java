@@ -0,0 +1,127 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.service.ResponseCache;
+import org.pranavt84.service.ResponseCache.Operation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheTest {
+
+    @Test
+    void testHitsAndMisses() throws IOException {
+        ResponseCache cache = new ResponseCache(1 << 20, 0);
+        AtomicInteger loads = new AtomicInteger();
+        byte[] request = "[1, 2, 3]".getBytes();
+
+        byte[] first = cache.get(Operation.ENCODE, request, () -> new byte[]{(byte) loads.incrementAndGet()});
+        byte[] second = cache.get(Operation.ENCODE, request.clone(), () -> new byte[]{(byte) loads.incrementAndGet()});
+        byte[] decoded = cache.get(Operation.DECODE, request, () -> new byte[]{(byte) loads.incrementAndGet()});
+
+        assertSame(first, second);
+        assertEquals(2, decoded[0]);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.hits());
+        assertEquals(2, cache.misses());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsedBySize() throws IOException {
+        ResponseCache cache = new ResponseCache(8 * 1024, 0);
+        for (int i = 0; i < 100; i++) {
+            cache.get(Operation.DECODE, new byte[]{(byte) i}, () -> new byte[500]);
+            // Keep the first entry in use so it survives
+            cache.get(Operation.DECODE, new byte[]{0}, () -> fail("entry 0 was evicted"));
+        }
+
+        assertTrue(cache.weight() <= 8 * 1024, "weight " + cache.weight());
+        assertTrue(cache.evictions() > 0);
+        assertTrue(cache.size() < 100);
+
+        // Results too large for the cache are computed but not kept
+        cache.get(Operation.DECODE, new byte[]{1, 2}, () -> new byte[4096]);
+        assertFalse(isCached(cache, new byte[]{1, 2}));
+    }
+
+    @Test
+    void testConcurrentIdenticalRequestsAreCoalesced() throws Exception {
+        ResponseCache cache = new ResponseCache(1 << 20, 0);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        byte[] request = "[\"same\"]".getBytes();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<byte[]>> results = new ArrayList<>();
+            results.add(pool.submit(() -> cache.get(Operation.ENCODE, request, () -> {
+                loads.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return new byte[]{42};
+            })));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(pool.submit(() -> cache.get(Operation.ENCODE, request, () -> {
+                    loads.incrementAndGet();
+                    return new byte[]{0};
+                })));
+            }
+            while (cache.coalesced() < 7) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            for (Future<byte[]> result : results) {
+                assertEquals(42, result.get(5, TimeUnit.SECONDS)[0]);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(7, cache.coalesced());
+    }
+
+    @Test
+    void testFailuresAreNotCached() throws IOException {
+        ResponseCache cache = new ResponseCache(1 << 20, 0);
+        byte[] request = "[oops".getBytes();
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(Operation.ENCODE, request, () -> {
+            throw new IllegalArgumentException("bad json");
+        }));
+        assertEquals(7, cache.get(Operation.ENCODE, request, () -> new byte[]{7})[0]);
+        assertEquals(0, cache.hits());
+    }
+
+    @Test
+    void testEntriesExpire() throws Exception {
+        ResponseCache cache = new ResponseCache(1 << 20, 20);
+        byte[] request = {1, 2, 3};
+        cache.get(Operation.DECODE, request, () -> new byte[]{1});
+        Thread.sleep(50);
+
+        assertEquals(2, cache.get(Operation.DECODE, request, () -> new byte[]{2})[0]);
+        assertEquals(2, cache.misses());
+        assertThrows(IllegalArgumentException.class, () -> new ResponseCache(0, 0));
+    }
+
+    private static boolean isCached(ResponseCache cache, byte[] request) throws IOException {
+        long misses = cache.misses();
+        cache.get(Operation.DECODE, request, () -> new byte[0]);
+        return cache.misses() == misses;
+    }
+}
@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.controller.RestServer;
+import org.pranavt84.controller.ServerConfig;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.logging.LogLevel;
+import org.pranavt84.service.DataInputService;
+import org.pranavt84.service.HexConverter;
+import org.pranavt84.service.ServiceFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestServerTest {
+
+    @Test
+    void testEncodeStreamsEveryResponseForm() throws IOException {
+        DataInputService service = ServiceFactory.createService();
+        RestServer server = new RestServer(new ServerConfig().setPort(0).setLogLevel(LogLevel.OFF), service);
+        server.start();
+        try {
+            // Sizes that leave 0, 1 and 2 bytes over a whole Base64 group
+            for (int repeat : new int[] {70_000, 70_001, 70_002}) {
+                String json = "[\"" + "é漢".repeat(repeat) + "\", [1, -2, [\"x\"]], 3.5, null]";
+                ByteSink expected = new ByteSink();
+                service.encodeJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), expected);
+
+                HttpURLConnection binary = post(server, "/encode", "application/octet-stream", json);
+                assertEquals(200, binary.getResponseCode());
+                assertEquals("chunked", binary.getHeaderField("Transfer-Encoding"));
+                try (InputStream in = binary.getInputStream()) {
+                    assertArrayEquals(expected.toByteArray(), in.readAllBytes());
+                }
+
+                String hex = encoded(post(server, "/encode", null, json), expected.size());
+                assertArrayEquals(expected.toByteArray(), HexConverter.hexToBytes(hex));
+
+                String base64 = encoded(post(server, "/encode?encoding=base64", null, json), expected.size());
+                assertArrayEquals(expected.toByteArray(), Base64.getDecoder().decode(base64));
+            }
+
+            HttpURLConnection invalid = post(server, "/encode", null, "[1, 2");
+            assertEquals(400, invalid.getResponseCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    /** Sends {@code json} and returns the connection, ready for its response to be read. */
+    private static HttpURLConnection post(RestServer server, String path, String accept, String json)
+            throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path)
+                .openConnection();
+        connection.setRequestMethod("POST");
+        if (accept != null) {
+            connection.setRequestProperty("Accept", accept);
+        }
+        connection.setDoOutput(true);
+        connection.setReadTimeout(10_000);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        return connection;
+    }
+
+    /** The "encoded" text of a JSON encode response, after checking its reported size. */
+    private static String encoded(HttpURLConnection connection, int size) throws IOException {
+        assertEquals(200, connection.getResponseCode());
+        String body;
+        try (InputStream in = connection.getInputStream()) {
+            body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        String prefix = "{\"encoded\": \"";
+        assertTrue(body.startsWith(prefix));
+        int end = body.indexOf('"', prefix.length());
+        assertTrue(body.startsWith("\", \"size\": " + size + ",", end), body.substring(end));
+        return body.substring(prefix.length(), end);
+    }
+}
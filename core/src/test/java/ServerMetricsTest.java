@@ -0,0 +1,44 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.metrics.LatencyHistogram;
+import org.pranavt84.metrics.ServerMetrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerMetricsTest {
+
+    @Test
+    void testHistogramQuantileBounds() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertEquals(1000, histogram.count());
+        long p50 = histogram.quantile(0.5);
+        long p99 = histogram.quantile(0.99);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.125, "p50 = " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 990_000 * 1.125, "p99 = " + p99);
+        assertEquals(0, new LatencyHistogram().quantile(0.5));
+    }
+
+    @Test
+    void testPrometheusOutput() {
+        ServerMetrics metrics = new ServerMetrics();
+        metrics.requestStarted();
+        metrics.requestFinished("encode", 200, 2_000_000, 20, 90);
+        metrics.requestStarted();
+        metrics.requestFinished("encode", 400, 1_000_000, 5, 40);
+        metrics.recordError("encode", "IllegalArgumentException");
+        metrics.recordStage("json_to_binary", 500_000);
+
+        String text = metrics.toPrometheus();
+        assertTrue(text.contains("codec_requests_total{endpoint=\"encode\",status=\"200\"} 1"));
+        assertTrue(text.contains("codec_requests_total{endpoint=\"encode\",status=\"400\"} 1"));
+        assertTrue(text.contains("codec_errors_total{endpoint=\"encode\",type=\"IllegalArgumentException\"} 1"));
+        assertTrue(text.contains("codec_request_bytes_total{endpoint=\"encode\"} 25"));
+        assertTrue(text.contains("codec_response_bytes_total{endpoint=\"encode\"} 130"));
+        assertTrue(text.contains("codec_request_duration_seconds_count{endpoint=\"encode\"} 2"));
+        assertTrue(text.contains("codec_stage_duration_seconds_count{stage=\"json_to_binary\"} 1"));
+        assertTrue(text.contains("codec_requests_in_flight 0"));
+    }
+}
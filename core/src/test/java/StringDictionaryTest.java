@@ -0,0 +1,177 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.decoder.DataInputDecoder;
+import org.pranavt84.decoder.IncrementalDataInputDecoder;
+import org.pranavt84.encode.EncodeInt32;
+import org.pranavt84.encode.EncodeString;
+import org.pranavt84.encoder.DataInputEncoder;
+import org.pranavt84.encoder.EncoderConfig;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.model.DataInput;
+import org.pranavt84.model.DataInputView;
+import org.pranavt84.service.DataInputService;
+import org.pranavt84.type.InputType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringDictionaryTest {
+
+    private final DataInputEncoder dictionary = new DataInputEncoder(new EncodeString(), new EncodeInt32(),
+            new EncoderConfig().setStringDictionary(true));
+    private final DataInputEncoder plain = new DataInputEncoder(new EncodeString(), new EncodeInt32());
+
+    @Test
+    void testRepeatedStringsAreReferenced() {
+        DataInput input = rows(100);
+        byte[] raw = plain.encode(input);
+        byte[] encoded = dictionary.encode(input);
+
+        assertEquals(InputType.STRING_TABLE.getValue(), encoded[0]);
+        assertTrue(encoded.length < raw.length / 2, encoded.length + " vs " + raw.length);
+
+        DataInput decoded = new DataInputDecoder().decode(encoded);
+        assertEquals(input.toString(), decoded.toString());
+        DataInput first = (DataInput) decoded.getElements().get(0);
+        DataInput second = (DataInput) decoded.getElements().get(1);
+        assertSame(first.getElements().get(1), second.getElements().get(1));
+
+        DataInputView view = new DataInputView(encoded);
+        assertEquals("eu-west-1", view.getArray(42).getString(1));
+        assertEquals("row-42", view.getArray(42).getString(0));
+        assertEquals(InputType.STRING, view.getArray(42).typeAt(1));
+    }
+
+    @Test
+    void testNoRepeatsStaysPlain() {
+        DataInput input = new DataInput();
+        input.add("a");
+        input.add("a");
+        input.add("unique");
+        input.add(7);
+
+        assertArrayEquals(plain.encode(input), dictionary.encode(input));
+    }
+
+    @Test
+    void testJsonPathAndIncrementalDecode() throws IOException {
+        DataInputService service = new DataInputService(dictionary, new DataInputDecoder());
+        String json = "[[\"eu-west-1\", 1], [\"eu-west-1\", 2], [\"eu-west-1\", 3], \"us-east-2\"]";
+
+        ByteSink encoded = new ByteSink();
+        service.encodeJson(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), encoded);
+        assertEquals(InputType.STRING_TABLE.getValue(), encoded.array()[0]);
+
+        ByteSink decoded = new ByteSink();
+        service.decodeToJson(encoded.toByteArray(), decoded);
+        assertEquals(json, new String(decoded.toByteArray(), StandardCharsets.UTF_8));
+
+        byte[] message = encoded.toByteArray();
+        byte[] stream = new byte[message.length * 2];
+        System.arraycopy(message, 0, stream, 0, message.length);
+        System.arraycopy(message, 0, stream, message.length, message.length);
+        List<DataInput> messages = new ArrayList<>();
+        IncrementalDataInputDecoder decoder = IncrementalDataInputDecoder.forMessages(messages::add);
+        for (int i = 0; i < stream.length; i += 3) {
+            decoder.feed(stream, i, Math.min(3, stream.length - i));
+        }
+        decoder.finish();
+
+        DataInput expected = new DataInputDecoder().decode(message);
+        assertEquals(2, messages.size());
+        assertEquals(expected.toString(), messages.get(0).toString());
+        assertEquals(expected.toString(), messages.get(1).toString());
+    }
+
+    @Test
+    void testWorksWithCompression() {
+        DataInputEncoder both = new DataInputEncoder(new EncodeString(), new EncodeInt32(),
+                new EncoderConfig().setStringDictionary(true).setCompressMinSize(64));
+        DataInput input = rows(200);
+        byte[] encoded = both.encode(input);
+
+        assertEquals(InputType.COMPRESSED.getValue(), encoded[0]);
+        assertEquals(input.toString(), new DataInputDecoder().decode(encoded).toString());
+        assertEquals("row-150", new DataInputView(encoded).getArray(150).getString(0));
+    }
+
+    @Test
+    void testWorksWithPackedArrays() throws IOException {
+        DataInputEncoder packed = new DataInputEncoder(new EncodeString(), new EncodeInt32(),
+                new EncoderConfig().setPackedArrays(true));
+        DataInputEncoder both = new DataInputEncoder(new EncodeString(), new EncodeInt32(),
+                new EncoderConfig().setPackedArrays(true).setStringDictionary(true));
+
+        // A packed root of repeated strings becomes a tagged array of references
+        DataInput regions = new DataInput();
+        for (int i = 0; i < 50; i++) {
+            regions.add(i % 2 == 0 ? "eu-west-1" : "us-east-2");
+        }
+        byte[] encoded = both.encode(regions);
+        assertEquals(InputType.STRING_TABLE.getValue(), encoded[0]);
+        assertTrue(encoded.length < packed.encode(regions).length / 3);
+        assertEquals(regions.toString(), new DataInputDecoder().decode(encoded).toString());
+        assertEquals("us-east-2", new DataInputView(encoded).getString(49));
+
+        // Nested packed arrays take part too; one without repeats stays packed
+        DataInput nested = new DataInput();
+        for (int i = 0; i < 20; i++) {
+            DataInput pair = new DataInput();
+            pair.add("eu-west-1");
+            pair.add("status: active");
+            nested.add(pair);
+        }
+        DataInput tags = new DataInput();
+        tags.add("alpha");
+        tags.add("beta");
+        nested.add(tags);
+        encoded = both.encode(nested);
+        assertTrue(encoded.length < packed.encode(nested).length / 2);
+        assertFalse(new DataInputView(encoded).getArray(0).isPacked());
+        assertEquals(nested.toString(), new DataInputDecoder().decode(encoded).toString());
+        assertTrue(new DataInputView(encoded).getArray(20).isPacked());
+
+        // The JSON path gives the same bytes
+        DataInputService service = new DataInputService(both, new DataInputDecoder());
+        ByteSink json = new ByteSink();
+        service.encodeJson(new ByteArrayInputStream(org.pranavt84.controller.JsonConverter.dataInputToJson(regions)
+                .getBytes(StandardCharsets.UTF_8)), json);
+        assertArrayEquals(both.encode(regions), json.toByteArray());
+
+        // Nothing repeats: the packed message is sent as it is
+        assertArrayEquals(packed.encode(tags), both.encode(tags));
+    }
+
+    @Test
+    void testBadReferenceRejected() {
+        byte[] encoded = dictionary.encode(rows(10));
+        byte[] dangling = encoded.clone();
+        for (int i = 0; i < dangling.length; i++) {
+            if (dangling[i] == InputType.STRING_REF.getValue()) {
+                dangling[i + 1] = 0x7F;
+                break;
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> new DataInputDecoder().decode(dangling));
+
+        byte[] noTable = {(byte) InputType.DATA_INPUT.getValue(), 0, 1, (byte) InputType.STRING_REF.getValue(), 0, 0};
+        assertThrows(IllegalArgumentException.class, () -> new DataInputDecoder().decode(noTable));
+    }
+
+    private static DataInput rows(int count) {
+        DataInput input = new DataInput();
+        for (int i = 0; i < count; i++) {
+            DataInput row = new DataInput();
+            row.add("row-" + i);
+            row.add("eu-west-1");
+            row.add("status: active");
+            row.add(i);
+            input.add(row);
+        }
+        return input;
+    }
+}
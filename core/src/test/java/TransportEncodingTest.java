@@ -0,0 +1,86 @@
+import org.junit.jupiter.api.Test;
+import org.pranavt84.json.ByteSink;
+import org.pranavt84.service.Base64Converter;
+import org.pranavt84.service.HexConverter;
+import org.pranavt84.service.TransportEncoding;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransportEncodingTest {
+
+    @Test
+    void testHexMatchesJdk() {
+        Random random = new Random(42);
+        for (int length = 0; length < 40; length++) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            String expected = HexFormat.of().formatHex(bytes);
+
+            assertEquals(expected, HexConverter.bytesToHex(bytes));
+            assertArrayEquals(bytes, HexConverter.hexToBytes(expected));
+            assertArrayEquals(bytes, HexConverter.hexToBytes(expected.toUpperCase()));
+        }
+    }
+
+    @Test
+    void testHexByteBuffers() {
+        byte[] bytes = {0x03, 0x00, 0x01, 0x02, 0x00, 0x00, 0x00, 0x03, 'f', 'o', 'o'};
+        ByteBuffer hex = ByteBuffer.allocateDirect(bytes.length * 2);
+        HexConverter.writeHex(ByteBuffer.wrap(bytes), hex);
+        hex.flip();
+
+        ByteBuffer decoded = ByteBuffer.allocate(bytes.length);
+        HexConverter.hexToBytes(hex, decoded);
+        assertArrayEquals(bytes, decoded.array());
+        assertEquals(bytes.length * 2, hex.position());
+    }
+
+    @Test
+    void testHexRejectsInvalidCharacters() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> HexConverter.hexToBytes("0300010g00000001"));
+        assertEquals("Invalid hex character: g", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> HexConverter.hexToBytes("0İ"));
+        assertThrows(IllegalArgumentException.class, () -> HexConverter.hexToBytes("030"));
+
+        byte[] ascii = "03zz".getBytes(StandardCharsets.US_ASCII);
+        assertThrows(IllegalArgumentException.class, () -> HexConverter.hexToBytes(ascii, 0, ascii.length));
+    }
+
+    @Test
+    void testBase64MatchesJdk() {
+        Random random = new Random(7);
+        for (int length = 0; length < 40; length++) {
+            byte[] bytes = new byte[length];
+            random.nextBytes(bytes);
+            String expected = Base64.getEncoder().encodeToString(bytes);
+
+            assertEquals(expected, Base64Converter.encode(bytes));
+            assertArrayEquals(bytes, Base64Converter.decode(expected));
+            assertArrayEquals(bytes, Base64Converter.decode(expected.replace("=", "")));
+        }
+        assertThrows(IllegalArgumentException.class, () -> Base64Converter.decode("AAA-"));
+        assertThrows(IllegalArgumentException.class, () -> Base64Converter.decode("AAAAA"));
+        assertThrows(IllegalArgumentException.class, () -> Base64Converter.decode("AA="));
+    }
+
+    @Test
+    void testTransportEncodingIntoSink() {
+        byte[] bytes = {0x03, 0x00, 0x01, 0x01, 0x00, 0x00, 0x00, 0x2a};
+        for (TransportEncoding encoding : TransportEncoding.values()) {
+            ByteSink sink = new ByteSink(4);
+            sink.writeAscii("x");
+            encoding.encode(bytes, 0, bytes.length, sink);
+            String text = new String(sink.array(), 1, sink.size() - 1, StandardCharsets.US_ASCII);
+            assertArrayEquals(bytes, encoding.decode(text));
+        }
+        assertEquals(TransportEncoding.BASE64, TransportEncoding.fromName("Base64"));
+        assertThrows(IllegalArgumentException.class, () -> TransportEncoding.fromName("base32"));
+    }
+}
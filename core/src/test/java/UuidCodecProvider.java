@@ -0,0 +1,38 @@
+import org.pranavt84.decode.DecodeType;
+import org.pranavt84.encode.EncodeType;
+import org.pranavt84.model.DecodeResult;
+import org.pranavt84.type.CodecProvider;
+import org.pranavt84.type.CodecRegistry;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/** Extension type picked up through ServiceLoader by CodecRegistryTest: {@code [0x20][16 bytes]}. */
+public class UuidCodecProvider implements CodecProvider {
+
+    static final int TAG = 0x20;
+
+    @Override
+    public void register(CodecRegistry registry) {
+        registry.register(TAG, UUID.class, new EncodeType<UUID>() {
+            @Override
+            public int encodedSize(UUID uuid) {
+                return 17;
+            }
+
+            @Override
+            public int encodeTo(UUID uuid, byte[] dest, int offset) {
+                ByteBuffer.wrap(dest, offset, 17).put((byte) TAG)
+                        .putLong(uuid.getMostSignificantBits())
+                        .putLong(uuid.getLeastSignificantBits());
+                return offset + 17;
+            }
+        }, new DecodeType() {
+            @Override
+            public DecodeResult decode(byte[] bytes, int index) {
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, index + 1, 16);
+                return new DecodeResult(new UUID(buffer.getLong(), buffer.getLong()), index + 17);
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package org.pranavt84.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncLogWriterTest {
+
+    @Test
+    void testEveryEntryFromEveryProducerIsWritten() throws InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        AsyncLogWriter writer = new AsyncLogWriter(1 << 16, new PrintStream(out, true), new PrintStream(err, true));
+
+        List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int producer = t;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    assertTrue(writer.offer(i % 10 == 0 ? LogLevel.WARN : LogLevel.INFO, producer + "-" + i));
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        List<String> lines = awaitLines(out, err, 4000);
+        Set<String> messages = new HashSet<>();
+        for (String line : lines) {
+            messages.add(line.substring(line.lastIndexOf(' ') + 1));
+        }
+        assertEquals(4000, messages.size());
+        assertEquals(400, err.toString(StandardCharsets.UTF_8).split("\n").length);
+        assertEquals(0, writer.droppedCount());
+    }
+
+    @Test
+    void testFullRingDropsAndCounts() throws InterruptedException {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        // Holds the drain thread inside its first write, so nothing leaves the ring meanwhile
+        PrintStream blocking = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                writing.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                out.write(b);
+            }
+        }, true);
+        AsyncLogWriter writer = new AsyncLogWriter(2, blocking, blocking);
+
+        assertTrue(writer.offer(LogLevel.INFO, "first"));
+        assertTrue(writing.await(10, TimeUnit.SECONDS));
+        assertTrue(writer.offer(LogLevel.INFO, "second"));
+        assertTrue(writer.offer(LogLevel.INFO, "third"));
+        assertFalse(writer.offer(LogLevel.INFO, "dropped"));
+        assertEquals(1, writer.droppedCount());
+
+        release.countDown();
+        List<String> lines = awaitLines(out, new ByteArrayOutputStream(), 3);
+        assertTrue(lines.get(2).endsWith("third"), lines.get(2));
+        assertThrows(IllegalArgumentException.class, () -> new AsyncLogWriter(3, blocking, blocking));
+    }
+
+    @Test
+    void testIdleWriterParksUntilAnEntryArrives() throws InterruptedException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AsyncLogWriter writer = new AsyncLogWriter(16, new PrintStream(out, true), new PrintStream(out, true));
+
+        // Parked without a timeout, not polling
+        awaitState(writer.drainer, Thread.State.WAITING);
+        assertTrue(writer.offer(LogLevel.INFO, "wake up"));
+        assertTrue(awaitLines(out, new ByteArrayOutputStream(), 1).get(0).endsWith("wake up"));
+        awaitState(writer.drainer, Thread.State.WAITING);
+        assertTrue(writer.offer(LogLevel.INFO, "again"));
+        assertTrue(awaitLines(out, new ByteArrayOutputStream(), 2).get(1).endsWith("again"));
+    }
+
+    private static List<String> awaitLines(ByteArrayOutputStream out, ByteArrayOutputStream err, int count)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (true) {
+            String text;
+            synchronized (out) {
+                text = out.toString(StandardCharsets.UTF_8) + err.toString(StandardCharsets.UTF_8);
+            }
+            // A line is printed before its newline, so only lines that already ended count
+            int end = text.lastIndexOf('\n') + 1;
+            List<String> lines = end == 0 ? List.of() : List.of(text.substring(0, end).split("\n"));
+            if (lines.size() >= count) {
+                return lines;
+            }
+            assertTrue(System.nanoTime() < deadline, "only " + lines.size() + " of " + count + " lines written");
+            Thread.sleep(10);
+        }
+    }
+
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != state) {
+            assertTrue(System.nanoTime() < deadline, thread.getName() + " is " + thread.getState());
+            Thread.sleep(10);
+        }
+    }
+}
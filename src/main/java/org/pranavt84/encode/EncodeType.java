@@ -1,5 +0,0 @@
-package org.pranavt84.encode;
-
-public interface EncodeType <T>{
-    public byte[] encode(T t);
-}
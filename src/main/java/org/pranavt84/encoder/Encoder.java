@@ -1,5 +0,0 @@
-package org.pranavt84.encoder;
-
-public interface Encoder<T> {
-    byte[] encode(T t);
-}